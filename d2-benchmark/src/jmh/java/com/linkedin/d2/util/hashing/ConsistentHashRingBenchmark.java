@@ -18,6 +18,7 @@ package com.linkedin.d2.util.hashing;
 
 import com.linkedin.d2.balancer.strategies.DelegatingRingFactory;
 import com.linkedin.d2.balancer.strategies.MPConsistentHashRingFactory;
+import com.linkedin.d2.balancer.strategies.PointBasedConsistentHashRingFactory;
 import com.linkedin.d2.balancer.strategies.RingFactory;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyConfig;
 import com.linkedin.d2.balancer.util.hashing.BoundedLoadConsistentHashRing;
@@ -28,8 +29,10 @@ import com.linkedin.util.degrader.CallTracker;
 import com.linkedin.util.degrader.CallTrackerImpl;
 import com.linkedin.util.degrader.DegraderImpl;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
@@ -284,6 +287,68 @@ public class ConsistentHashRingBenchmark {
   }
 
 
+  @State(Scope.Thread)
+  public static class RingBuild_2000Hosts_100PointsPerHost_State {
+    Map<URI, Integer> pointsMap = buildPointsMap(2000, 100);
+    List<URI> hosts = new ArrayList<>(pointsMap.keySet());
+    PointBasedConsistentHashRingFactory<URI> factory =
+        new PointBasedConsistentHashRingFactory<>(DegraderLoadBalancerStrategyConfig.DEFAULT_HASHRING_POINT_CLEANUP_RATE);
+    Random _random = new Random();
+
+    {
+      factory.createRing(pointsMap);
+    }
+
+    // Degrades or recovers 1% of the hosts, as a degrader update does
+    Map<URI, Integer> changePoints() {
+      for (int i = 0; i < 20; i++) {
+        pointsMap.put(hosts.get(_random.nextInt(hosts.size())), _random.nextInt(101));
+      }
+      return pointsMap;
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Ring<URI> measureRingUpdate_PointBased_2000Hosts_100PointsPerHost(RingBuild_2000Hosts_100PointsPerHost_State state) {
+    return state.factory.createRing(state.changePoints());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Ring<URI> measureRingFullBuild_ConsistentHashRing_2000Hosts_100PointsPerHost(RingBuild_2000Hosts_100PointsPerHost_State state) {
+    Map<URI, Integer> pointsMap = state.changePoints();
+    List<ConsistentHashRing.Point<URI>> points = new ArrayList<>();
+    for (Map.Entry<URI, Integer> entry : pointsMap.entrySet()) {
+      points.addAll(state.factory.getPointsMap().get(entry.getKey())
+          .subList(0, entry.getValue()));
+    }
+    return new ConsistentHashRing<>(points);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Ring<URI> measureRingFullBuild_MPCHash_2000Hosts_100PointsPerHost(RingBuild_2000Hosts_100PointsPerHost_State state) {
+    return new MPConsistentHashRing<>(state.changePoints(), 21, 1);
+  }
+
+  @State(Scope.Benchmark)
+  public static class IncrementalConsistentHashRing_2000Hosts_100PointsPerHost_State {
+    Ring<URI> _ring = new PointBasedConsistentHashRingFactory<URI>(DegraderLoadBalancerStrategyConfig.DEFAULT_HASHRING_POINT_CLEANUP_RATE)
+        .createRing(buildPointsMap(2000, 100));
+    Random _random = new Random();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public URI measureIncrementalConsistentHashRing_2000Hosts_100PointsPerHost(IncrementalConsistentHashRing_2000Hosts_100PointsPerHost_State state) {
+    return state._ring.get(state._random.nextInt());
+  }
+
 
   private static Map<URI, Integer> buildPointsMap(int numHosts, int numPointsPerHost) {
     return IntStream.range(0, numHosts).boxed().collect(
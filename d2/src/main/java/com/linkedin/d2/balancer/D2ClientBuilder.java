@@ -34,6 +34,8 @@ import com.linkedin.d2.balancer.simple.SslSessionValidatorFactory;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyFactoryV3;
+import com.linkedin.d2.balancer.strategies.leastloaded.LeastLoadedLoadBalancerStrategy;
+import com.linkedin.d2.balancer.strategies.leastloaded.LeastLoadedLoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.random.RandomLoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategyFactory;
@@ -45,14 +47,19 @@ import com.linkedin.d2.balancer.util.healthcheck.HealthCheckOperations;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessorRegistry;
 import com.linkedin.d2.balancer.zkfs.ZKFSTogglingLoadBalancerFactoryImpl;
 import com.linkedin.d2.balancer.zkfs.ZKFSUtil;
+import com.linkedin.d2.discovery.PropertySerializationFormat;
 import com.linkedin.d2.discovery.event.ServiceDiscoveryEventEmitter;
 import com.linkedin.d2.discovery.stores.zk.ZKPersistentConnection;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeper;
+import com.linkedin.d2.jmx.D2ClientJmxManager;
 import com.linkedin.d2.jmx.JmxManager;
 import com.linkedin.d2.jmx.NoOpJmxManager;
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.filter.transport.ClientRetryFilter;
 import com.linkedin.r2.transport.common.TransportClientFactory;
 import com.linkedin.r2.transport.http.client.HttpClientFactory;
 import com.linkedin.r2.util.NamedThreadFactory;
+import com.linkedin.r2.util.RetryBudgets;
 import com.linkedin.util.ArgumentUtil;
 import com.linkedin.util.clock.SystemClock;
 import io.grpc.netty.shaded.io.netty.handler.ssl.SslContext;
@@ -128,6 +135,11 @@ public class D2ClientBuilder
       _config.jmxManager = new NoOpJmxManager();
     }
 
+    if (_config.retryBudgets != null)
+    {
+      new D2ClientJmxManager(_config.d2JmxManagerPrefix, _config.jmxManager).setRetryBudgets(_config.retryBudgets);
+    }
+
     if(_config.d2ServicePath == null
         // checking empty for backward compatibility with ZKFS behavior
         || _config.d2ServicePath.isEmpty())
@@ -169,6 +181,7 @@ public class D2ClientBuilder
                   _config.retryLimit,
                   _config.retryUpdateIntervalMs,
                   _config.retryAggregatedIntervalNum,
+                  _config.retryBudgets,
                   _config.warmUp,
                   _config.warmUpTimeoutSeconds,
                   _config.warmUpConcurrentRequests,
@@ -192,6 +205,11 @@ public class D2ClientBuilder
                   _config.jmxManager,
                   _config.d2JmxManagerPrefix,
                   _config.zookeeperReadWindowMs,
+                  _config.uriUpdateCoalescingWindowMs,
+                  _config.uriUpdateCoalescingMaxDelayMs,
+                  _config.propertySerializationFormat,
+                  _config.fsSnapshotIntervalMs,
+                  _config.sharedDiscoveryBackendProvider,
                   _config.enableRelativeLoadBalancer,
                   _config.deterministicSubsettingMetadataProvider,
                   _config.canaryDistributionProvider,
@@ -229,20 +247,21 @@ public class D2ClientBuilder
       }
       d2Client = new BackupRequestsClient(d2Client, loadBalancer, executor,
           _config.backupRequestsStrategyStatsConsumer, _config.backupRequestsLatencyNotificationInterval,
-          _config.backupRequestsLatencyNotificationIntervalUnit, _config.enableBackupRequestsClientAsync);
+          _config.backupRequestsLatencyNotificationIntervalUnit, _config.enableBackupRequestsClientAsync,
+          _config.retryBudgets);
     }
 
     if (_config.retry)
     {
       d2Client = new RetryClient(d2Client, loadBalancer, _config.retryLimit,
           _config.retryUpdateIntervalMs, _config.retryAggregatedIntervalNum, SystemClock.instance(),
-          true, true);
+          true, true, _config.retryBudgets);
     }
     else if (_config.restRetryEnabled || _config.streamRetryEnabled)
     {
       d2Client = new RetryClient(d2Client, loadBalancer, _config.retryLimit,
           _config.retryUpdateIntervalMs, _config.retryAggregatedIntervalNum, SystemClock.instance(),
-          _config.restRetryEnabled, _config.streamRetryEnabled);
+          _config.restRetryEnabled, _config.streamRetryEnabled, _config.retryBudgets);
     }
 
     if (_config.enableClusterFailout)
@@ -475,6 +494,19 @@ public class D2ClientBuilder
     return this;
   }
 
+  /**
+   * Enforces the given per service budgets on the retries of the {@link com.linkedin.d2.balancer.clients.RetryClient},
+   * on the backup requests of the {@link com.linkedin.d2.balancer.clients.BackupRequestsClient}, and on the retries
+   * requested by the servers through a {@link ClientRetryFilter} added to the default transport clients. Transport
+   * client factories given with {@link #setClientFactories} should add a {@link ClientRetryFilter} created with the
+   * same budgets to their filter chain. The budgets are registered to the JMX manager.
+   */
+  public D2ClientBuilder setRetryBudgets(RetryBudgets retryBudgets)
+  {
+    _config.retryBudgets = retryBudgets;
+    return this;
+  }
+
   public D2ClientBuilder setEventEmitter(EventEmitter eventEmitter)
   {
     _config.eventEmitter = eventEmitter;
@@ -525,6 +557,49 @@ public class D2ClientBuilder
     return this;
   }
 
+  /**
+   * Coalesces the uri properties updates of each cluster before rebuilding the tracker clients, so that a burst
+   * of host announcements during a deployment results in a few rebuilds instead of one per host.
+   *
+   * @param windowMs time without updates of a cluster after which its latest uri properties are applied,
+   *                 0 (the default) to apply every update right away
+   * @param maxDelayMs max time the uri properties of a cluster can be delayed while updates keep coming
+   */
+  public D2ClientBuilder setUriUpdateCoalescing(long windowMs, long maxDelayMs){
+    _config.uriUpdateCoalescingWindowMs = windowMs;
+    _config.uriUpdateCoalescingMaxDelayMs = maxDelayMs;
+    return this;
+  }
+
+  /**
+   * Format in which the D2 properties are written to the file store backups. Properties are read in any format, so
+   * {@link PropertySerializationFormat#BINARY} backups are only readable by clients supporting it.
+   */
+  public D2ClientBuilder setPropertySerializationFormat(PropertySerializationFormat propertySerializationFormat){
+    _config.propertySerializationFormat = propertySerializationFormat;
+    return this;
+  }
+
+  /**
+   * Interval between the writes of the snapshot of each file store backup, which is loaded at the next startup
+   * instead of reading the backup files one by one. Only used with a {@link LastSeenBalancerWithFacilitiesFactory},
+   * 0 (the default) disables the snapshots.
+   */
+  public D2ClientBuilder setFsSnapshotIntervalMs(long fsSnapshotIntervalMs){
+    _config.fsSnapshotIntervalMs = fsSnapshotIntervalMs;
+    return this;
+  }
+
+  /**
+   * Shares the discovery backend (ZooKeeper watches, last seen stores and property caches) of the client with the
+   * other clients built with the same provider and reading the same D2 data, see
+   * {@link SharedDiscoveryBackendProvider}. Only used with a {@link LastSeenBalancerWithFacilitiesFactory}.
+   */
+  public D2ClientBuilder setSharedDiscoveryBackendProvider(SharedDiscoveryBackendProvider sharedDiscoveryBackendProvider){
+    _config.sharedDiscoveryBackendProvider = sharedDiscoveryBackendProvider;
+    return this;
+  }
+
   public D2ClientBuilder setWarmUpConcurrentRequests(int warmUpConcurrentRequests){
     _config.warmUpConcurrentRequests = warmUpConcurrentRequests;
     return this;
@@ -644,7 +719,15 @@ public class D2ClientBuilder
   private Map<String, TransportClientFactory> createDefaultTransportClientFactories()
   {
     final Map<String, TransportClientFactory> clientFactories = new HashMap<>();
-    TransportClientFactory transportClientFactory = new HttpClientFactory.Builder().build();
+    HttpClientFactory.Builder builder = new HttpClientFactory.Builder();
+    if (_config.retryBudgets != null)
+    {
+      // the retries requested by the servers count against the budgets of the services, like the other retries
+      ClientRetryFilter clientRetryFilter = new ClientRetryFilter(_config.retryBudgets);
+      builder.setFilterChain(FilterChains.create(Collections.singletonList(clientRetryFilter),
+          Collections.singletonList(clientRetryFilter)));
+    }
+    TransportClientFactory transportClientFactory = builder.build();
     clientFactories.put("http", transportClientFactory);
     clientFactories.put("https", transportClientFactory);
     return clientFactories;
@@ -663,6 +746,8 @@ public class D2ClientBuilder
 
     final RandomLoadBalancerStrategyFactory randomStrategyFactory = new RandomLoadBalancerStrategyFactory();
     loadBalancerStrategyFactories.putIfAbsent("random", randomStrategyFactory);
+    loadBalancerStrategyFactories.putIfAbsent(LeastLoadedLoadBalancerStrategy.LEAST_LOADED_STRATEGY_NAME,
+        new LeastLoadedLoadBalancerStrategyFactory());
 
     final DegraderLoadBalancerStrategyFactoryV3 degraderStrategyFactoryV3 = new DegraderLoadBalancerStrategyFactoryV3(
         _config.healthCheckOperations, _config._executorService, _config.eventEmitter, Collections.emptyList());
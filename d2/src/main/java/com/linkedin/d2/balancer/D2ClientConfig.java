@@ -21,6 +21,7 @@ import com.linkedin.d2.balancer.clients.RetryClient;
 import com.linkedin.d2.balancer.clusterfailout.FailoutConfigProviderFactory;
 import com.linkedin.d2.balancer.dualread.DualReadStateManager;
 import com.linkedin.d2.balancer.event.EventEmitter;
+import com.linkedin.d2.balancer.simple.SimpleLoadBalancerState;
 import com.linkedin.d2.balancer.simple.SslSessionValidatorFactory;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategyFactory;
@@ -32,6 +33,7 @@ import com.linkedin.d2.balancer.util.healthcheck.HealthCheckOperations;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessorRegistry;
 import com.linkedin.d2.balancer.zkfs.ZKFSTogglingLoadBalancerFactoryImpl;
 import com.linkedin.d2.balancer.zkfs.ZKFSTogglingLoadBalancerFactoryImpl.ComponentFactory;
+import com.linkedin.d2.discovery.PropertySerializationFormat;
 import com.linkedin.d2.discovery.event.LogOnlyServiceDiscoveryEventEmitter;
 import com.linkedin.d2.discovery.event.ServiceDiscoveryEventEmitter;
 import com.linkedin.d2.discovery.stores.zk.ZKPersistentConnection;
@@ -40,6 +42,7 @@ import com.linkedin.d2.discovery.stores.zk.ZooKeeperStore;
 import com.linkedin.d2.jmx.JmxManager;
 import com.linkedin.d2.jmx.NoOpJmxManager;
 import com.linkedin.r2.transport.common.TransportClientFactory;
+import com.linkedin.r2.util.RetryBudgets;
 import io.grpc.netty.shaded.io.netty.handler.ssl.SslContext;
 import java.util.Collections;
 import java.util.Map;
@@ -93,9 +96,18 @@ public class D2ClientConfig
   int retryLimit = DEFAULT_RETRY_LIMIT;
   long retryUpdateIntervalMs = RetryClient.DEFAULT_UPDATE_INTERVAL_MS;
   int retryAggregatedIntervalNum = RetryClient.DEFAULT_AGGREGATED_INTERVAL_NUM;
+  /**
+   * Budgets of the retries and backup requests, by service name. No budget is enforced when null.
+   */
+  RetryBudgets retryBudgets = null;
   public boolean warmUp = true;
   public int warmUpTimeoutSeconds = WarmUpLoadBalancer.DEFAULT_SEND_REQUESTS_TIMEOUT_SECONDS;
   int zookeeperReadWindowMs = ZooKeeperStore.DEFAULT_READ_WINDOW_MS;
+  long uriUpdateCoalescingWindowMs = SimpleLoadBalancerState.DEFAULT_URI_UPDATE_COALESCING_WINDOW_MS;
+  long uriUpdateCoalescingMaxDelayMs = SimpleLoadBalancerState.DEFAULT_URI_UPDATE_COALESCING_MAX_DELAY_MS;
+  PropertySerializationFormat propertySerializationFormat = PropertySerializationFormat.JSON;
+  long fsSnapshotIntervalMs = 0;
+  SharedDiscoveryBackendProvider sharedDiscoveryBackendProvider = null;
   public int warmUpConcurrentRequests = WarmUpLoadBalancer.DEFAULT_CONCURRENT_REQUESTS;
   public DownstreamServicesFetcher downstreamServicesFetcher = null;
   public DownstreamServicesFetcher indisDownstreamServicesFetcher = null;
@@ -160,6 +172,7 @@ public class D2ClientConfig
                  int retryLimit,
                  long retryUpdateIntervalMs,
                  int retryAggregatedIntervalNum,
+                 RetryBudgets retryBudgets,
                  boolean warmUp,
                  int warmUpTimeoutSeconds,
                  int warmUpConcurrentRequests,
@@ -183,6 +196,11 @@ public class D2ClientConfig
                  JmxManager jmxManager,
                  String d2JmxManagerPrefix,
                  int zookeeperReadWindowMs,
+                 long uriUpdateCoalescingWindowMs,
+                 long uriUpdateCoalescingMaxDelayMs,
+                 PropertySerializationFormat propertySerializationFormat,
+                 long fsSnapshotIntervalMs,
+                 SharedDiscoveryBackendProvider sharedDiscoveryBackendProvider,
                  boolean enableRelativeLoadBalancer,
                  DeterministicSubsettingMetadataProvider deterministicSubsettingMetadataProvider,
                  CanaryDistributionProvider canaryDistributionProvider,
@@ -223,6 +241,7 @@ public class D2ClientConfig
     this.retryLimit = retryLimit;
     this.retryUpdateIntervalMs = retryUpdateIntervalMs;
     this.retryAggregatedIntervalNum = retryAggregatedIntervalNum;
+    this.retryBudgets = retryBudgets;
     this.warmUp = warmUp;
     this.warmUpTimeoutSeconds = warmUpTimeoutSeconds;
     this.warmUpConcurrentRequests = warmUpConcurrentRequests;
@@ -246,6 +265,11 @@ public class D2ClientConfig
     this.jmxManager = jmxManager;
     this.d2JmxManagerPrefix = d2JmxManagerPrefix;
     this.zookeeperReadWindowMs = zookeeperReadWindowMs;
+    this.uriUpdateCoalescingWindowMs = uriUpdateCoalescingWindowMs;
+    this.uriUpdateCoalescingMaxDelayMs = uriUpdateCoalescingMaxDelayMs;
+    this.propertySerializationFormat = propertySerializationFormat;
+    this.fsSnapshotIntervalMs = fsSnapshotIntervalMs;
+    this.sharedDiscoveryBackendProvider = sharedDiscoveryBackendProvider;
     this.enableRelativeLoadBalancer = enableRelativeLoadBalancer;
     this.deterministicSubsettingMetadataProvider = deterministicSubsettingMetadataProvider;
     this.canaryDistributionProvider = canaryDistributionProvider;
@@ -17,20 +17,20 @@
 package com.linkedin.d2.balancer;
 
 import com.linkedin.d2.balancer.properties.ClusterProperties;
-import com.linkedin.d2.balancer.properties.ClusterPropertiesJsonSerializer;
+import com.linkedin.d2.balancer.properties.ClusterPropertiesBinarySerializer;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
-import com.linkedin.d2.balancer.properties.ServicePropertiesJsonSerializer;
+import com.linkedin.d2.balancer.properties.ServicePropertiesBinarySerializer;
 import com.linkedin.d2.balancer.properties.UriProperties;
-import com.linkedin.d2.balancer.properties.UriPropertiesJsonSerializer;
+import com.linkedin.d2.balancer.properties.UriPropertiesBinarySerializer;
 import com.linkedin.d2.balancer.properties.UriPropertiesMerger;
 import com.linkedin.d2.balancer.simple.SimpleLoadBalancer;
 import com.linkedin.d2.balancer.simple.SimpleLoadBalancerState;
 import com.linkedin.d2.balancer.util.FileSystemDirectory;
 import com.linkedin.d2.balancer.util.WarmUpLoadBalancer;
+import com.linkedin.d2.balancer.zkfs.LastSeenDiscoveryBackend;
 import com.linkedin.d2.balancer.zkfs.LastSeenLoadBalancerWithFacilities;
 import com.linkedin.d2.balancer.zkfs.ZKFSUtil;
 import com.linkedin.d2.discovery.event.PropertyEventBus;
-import com.linkedin.d2.discovery.event.PropertyEventBusImpl;
 import com.linkedin.d2.discovery.stores.file.FileStore;
 import com.linkedin.d2.discovery.stores.zk.LastSeenZKStore;
 import com.linkedin.d2.discovery.stores.zk.ZKConnectionBuilder;
@@ -61,45 +61,34 @@ public class LastSeenBalancerWithFacilitiesFactory implements LoadBalancerWithFa
 
     D2ClientJmxManager d2ClientJmxManager = new D2ClientJmxManager(config.d2JmxManagerPrefix, config.jmxManager);
 
-    // init connection
-    ZKConnectionBuilder zkConnectionBuilder = new ZKConnectionBuilder(config.zkHosts);
-    zkConnectionBuilder.setShutdownAsynchronously(config.shutdownAsynchronously)
-      .setIsSymlinkAware(config.isSymlinkAware).setTimeout((int) config.zkSessionTimeoutInMs);
-
-    ZKPersistentConnection zkPersistentConnection;
-    if (config.zkConnectionToUseForLB != null)
+    LastSeenDiscoveryBackend backend;
+    PropertyEventBus<UriProperties> uriBus;
+    PropertyEventBus<ClusterProperties> clusterBus;
+    PropertyEventBus<ServiceProperties> serviceBus;
+    if (config.sharedDiscoveryBackendProvider != null)
     {
-      LOG.info("LastSeenLoadBalancer using shared connection to zookeeper");
-      zkPersistentConnection = config.zkConnectionToUseForLB;
-    } else {
-      LOG.info("LastSeenLoadBalancer using its own connection to zookeeper");
-      zkPersistentConnection = new ZKPersistentConnection(zkConnectionBuilder);
+      backend = config.sharedDiscoveryBackendProvider.getBackend(config,
+        executorService -> createDiscoveryBackend(config, d2ClientJmxManager, executorService));
+      // the shared buses run on the executor of the provider, while the state expects its updates on its own one
+      uriBus = backend.getUriBus(config._executorService);
+      clusterBus = backend.getClusterBus(config._executorService);
+      serviceBus = backend.getServiceBus(config._executorService);
+    }
+    else
+    {
+      backend = createDiscoveryBackend(config, d2ClientJmxManager, config._executorService);
+      backend.acquire();
+      uriBus = backend.getUriBus();
+      clusterBus = backend.getClusterBus();
+      serviceBus = backend.getServiceBus();
     }
-
-    // init all the stores
-    LastSeenZKStore<ClusterProperties> lsClusterStore =
-      getClusterPropertiesLastSeenZKStore(config, zkPersistentConnection, d2ClientJmxManager,
-                                          config._executorService, config.zookeeperReadWindowMs);
-    PropertyEventBus<ClusterProperties> clusterBus = new PropertyEventBusImpl<>(config._executorService);
-    clusterBus.setPublisher(lsClusterStore);
-
-    LastSeenZKStore<ServiceProperties> lsServiceStore =
-      getServicePropertiesLastSeenZKStore(config, zkPersistentConnection, d2ClientJmxManager,
-                                          config._executorService, config.zookeeperReadWindowMs);
-    PropertyEventBus<ServiceProperties> serviceBus = new PropertyEventBusImpl<>(config._executorService);
-    serviceBus.setPublisher(lsServiceStore);
-
-    LastSeenZKStore<UriProperties> lsUrisStore =
-      getUriPropertiesLastSeenZKStore(config, zkPersistentConnection, d2ClientJmxManager,
-                                      config._executorService, config.zookeeperReadWindowMs);
-    PropertyEventBus<UriProperties> uriBus = new PropertyEventBusImpl<>(config._executorService);
-    uriBus.setPublisher(lsUrisStore);
 
     // create the simple load balancer
     SimpleLoadBalancerState state = new SimpleLoadBalancerState(
       config._executorService, uriBus, clusterBus, serviceBus, config.clientFactories, config.loadBalancerStrategyFactories,
       config.sslContext, config.sslParameters, config.isSSLEnabled, config.partitionAccessorRegistry,
       config.sslSessionValidatorFactory, config.deterministicSubsettingMetadataProvider, config.canaryDistributionProvider);
+    state.setUriUpdateCoalescing(config.uriUpdateCoalescingWindowMs, config.uriUpdateCoalescingMaxDelayMs);
     d2ClientJmxManager.setSimpleLoadBalancerState(state);
 
     SimpleLoadBalancer simpleLoadBalancer = new SimpleLoadBalancer(state, config.lbWaitTimeout, config.lbWaitUnit, config._executorService,
@@ -107,8 +96,8 @@ public class LastSeenBalancerWithFacilitiesFactory implements LoadBalancerWithFa
     d2ClientJmxManager.setSimpleLoadBalancer(simpleLoadBalancer);
 
     // add facilities
-    LastSeenLoadBalancerWithFacilities lastSeenLoadBalancer = new LastSeenLoadBalancerWithFacilities(simpleLoadBalancer, config.basePath, config.d2ServicePath,
-                                                                                 zkPersistentConnection, lsClusterStore, lsServiceStore, lsUrisStore);
+    LastSeenLoadBalancerWithFacilities lastSeenLoadBalancer = new LastSeenLoadBalancerWithFacilities(simpleLoadBalancer, state, config.basePath,
+                                                                                 config.d2ServicePath, backend);
 
     LoadBalancerWithFacilities balancer = lastSeenLoadBalancer;
 
@@ -122,12 +111,47 @@ public class LastSeenBalancerWithFacilitiesFactory implements LoadBalancerWithFa
     return balancer;
   }
 
+  private LastSeenDiscoveryBackend createDiscoveryBackend(D2ClientConfig config, D2ClientJmxManager d2ClientJmxManager,
+    ScheduledExecutorService executorService)
+  {
+    // init connection
+    ZKConnectionBuilder zkConnectionBuilder = new ZKConnectionBuilder(config.zkHosts);
+    zkConnectionBuilder.setShutdownAsynchronously(config.shutdownAsynchronously)
+      .setIsSymlinkAware(config.isSymlinkAware).setTimeout((int) config.zkSessionTimeoutInMs);
+
+    ZKPersistentConnection zkPersistentConnection;
+    if (config.zkConnectionToUseForLB != null)
+    {
+      LOG.info("LastSeenLoadBalancer using shared connection to zookeeper");
+      zkPersistentConnection = config.zkConnectionToUseForLB;
+    } else {
+      LOG.info("LastSeenLoadBalancer using its own connection to zookeeper");
+      zkPersistentConnection = new ZKPersistentConnection(zkConnectionBuilder);
+    }
+
+    // init all the stores
+    LastSeenZKStore<ClusterProperties> lsClusterStore =
+      getClusterPropertiesLastSeenZKStore(config, zkPersistentConnection, d2ClientJmxManager,
+                                          executorService, config.zookeeperReadWindowMs);
+
+    LastSeenZKStore<ServiceProperties> lsServiceStore =
+      getServicePropertiesLastSeenZKStore(config, zkPersistentConnection, d2ClientJmxManager,
+                                          executorService, config.zookeeperReadWindowMs);
+
+    LastSeenZKStore<UriProperties> lsUrisStore =
+      getUriPropertiesLastSeenZKStore(config, zkPersistentConnection, d2ClientJmxManager,
+                                      executorService, config.zookeeperReadWindowMs);
+
+    return new LastSeenDiscoveryBackend(zkPersistentConnection, lsClusterStore, lsServiceStore, lsUrisStore,
+                                        executorService);
+  }
+
   private LastSeenZKStore<UriProperties> getUriPropertiesLastSeenZKStore(
     D2ClientConfig config, ZKPersistentConnection zkPersistentConnection, D2ClientJmxManager d2ClientJmxManager,
     ScheduledExecutorService executorService, int zookeeperReadWindowMs)
   {
     ZooKeeperEphemeralStoreBuilder<UriProperties> zkUrisStoreBuilder = new ZooKeeperEphemeralStoreBuilder<UriProperties>()
-      .setSerializer(new UriPropertiesJsonSerializer()).setPath(ZKFSUtil.uriPath(config.basePath)).setMerger(new UriPropertiesMerger())
+      .setSerializer(new UriPropertiesBinarySerializer(config.propertySerializationFormat)).setPath(ZKFSUtil.uriPath(config.basePath)).setMerger(new UriPropertiesMerger())
       .setUseNewWatcher(config.useNewEphemeralStoreWatcher)
       .setExecutorService(executorService)
       .setZookeeperReadWindowMs(zookeeperReadWindowMs)
@@ -136,7 +160,7 @@ public class LastSeenBalancerWithFacilitiesFactory implements LoadBalancerWithFa
       // register jmx every time the object is created
       .addOnBuildListener(d2ClientJmxManager::setZkUriRegistry);
 
-    FileStore<UriProperties> fileStore = new FileStore<>(config.fsBasePath + File.separator + ZKFSUtil.URI_PATH, new UriPropertiesJsonSerializer());
+    FileStore<UriProperties> fileStore = new FileStore<>(config.fsBasePath + File.separator + ZKFSUtil.URI_PATH, new UriPropertiesBinarySerializer(config.propertySerializationFormat));
     d2ClientJmxManager.setFsUriStore(fileStore);
 
     if (config.enableSaveUriDataOnDisk)
@@ -147,9 +171,10 @@ public class LastSeenBalancerWithFacilitiesFactory implements LoadBalancerWithFa
     return new LastSeenZKStore<>(fileStore,
       zkUrisStoreBuilder,
       zkPersistentConnection,
-      config._executorService,
+      executorService,
       config.warmUpTimeoutSeconds,
-      config.warmUpConcurrentRequests
+      config.warmUpConcurrentRequests,
+      config.fsSnapshotIntervalMs
     );
   }
 
@@ -158,22 +183,23 @@ public class LastSeenBalancerWithFacilitiesFactory implements LoadBalancerWithFa
     ScheduledExecutorService executorService, int zookeeperReadWindowMs)
   {
     ZooKeeperPermanentStoreBuilder<ServiceProperties> zkServiceStoreBuilder = new ZooKeeperPermanentStoreBuilder<ServiceProperties>()
-      .setSerializer(new ServicePropertiesJsonSerializer(config.clientServicesConfig))
+      .setSerializer(new ServicePropertiesBinarySerializer(config.clientServicesConfig, config.propertySerializationFormat))
       .setPath(ZKFSUtil.servicePath(config.basePath, config.d2ServicePath))
       .setExecutorService(executorService)
       .setZookeeperReadWindowMs(zookeeperReadWindowMs)
       // register jmx every time the object is created
       .addOnBuildListener(d2ClientJmxManager::setZkServiceRegistry);
 
-    FileStore<ServiceProperties> fileStore = new FileStore<>(FileSystemDirectory.getServiceDirectory(config.fsBasePath, config.d2ServicePath), new ServicePropertiesJsonSerializer());
+    FileStore<ServiceProperties> fileStore = new FileStore<>(FileSystemDirectory.getServiceDirectory(config.fsBasePath, config.d2ServicePath), new ServicePropertiesBinarySerializer(config.propertySerializationFormat));
     d2ClientJmxManager.setFsServiceStore(fileStore);
 
     return new LastSeenZKStore<>(fileStore,
       zkServiceStoreBuilder,
       zkPersistentConnection,
-      config._executorService,
+      executorService,
       config.warmUpTimeoutSeconds,
-      config.warmUpConcurrentRequests
+      config.warmUpConcurrentRequests,
+      config.fsSnapshotIntervalMs
     );
   }
 
@@ -182,22 +208,23 @@ public class LastSeenBalancerWithFacilitiesFactory implements LoadBalancerWithFa
     ScheduledExecutorService executorService, int zookeeperReadWindowMs)
   {
     ZooKeeperPermanentStoreBuilder<ClusterProperties> zkClusterStoreBuilder = new ZooKeeperPermanentStoreBuilder<ClusterProperties>()
-      .setSerializer(new ClusterPropertiesJsonSerializer()).setPath(ZKFSUtil.clusterPath(config.basePath))
+      .setSerializer(new ClusterPropertiesBinarySerializer(config.propertySerializationFormat)).setPath(ZKFSUtil.clusterPath(config.basePath))
       .setExecutorService(executorService)
       .setZookeeperReadWindowMs(zookeeperReadWindowMs)
       .setDualReadStateManager(config.dualReadStateManager)
       // register jmx every time the object is created
       .addOnBuildListener(d2ClientJmxManager::setZkClusterRegistry);
 
-    FileStore<ClusterProperties> fileStore = new FileStore<>( FileSystemDirectory.getClusterDirectory(config.fsBasePath), new ClusterPropertiesJsonSerializer());
+    FileStore<ClusterProperties> fileStore = new FileStore<>( FileSystemDirectory.getClusterDirectory(config.fsBasePath), new ClusterPropertiesBinarySerializer(config.propertySerializationFormat));
     d2ClientJmxManager.setFsClusterStore(fileStore);
 
     return new LastSeenZKStore<>(fileStore,
       zkClusterStoreBuilder,
       zkPersistentConnection,
-      config._executorService,
+      executorService,
       config.warmUpTimeoutSeconds,
-      config.warmUpConcurrentRequests
+      config.warmUpConcurrentRequests,
+      config.fsSnapshotIntervalMs
     );
   }
 }
@@ -0,0 +1,96 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer;
+
+import com.linkedin.d2.balancer.zkfs.LastSeenDiscoveryBackend;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Shares the {@link LastSeenDiscoveryBackend}s among the D2 clients of a process built with a
+ * {@link LastSeenBalancerWithFacilitiesFactory}, so that the clients reading the same D2 data watch ZooKeeper and
+ * keep the properties in memory only once, while each of them keeps its own load balancer state and strategies.
+ *
+ * The clients share a backend when they have the same ZooKeeper hosts, base path, service path, file store path and
+ * client services config. The backend is built from the config of the first of these clients, so their other
+ * discovery settings (ZooKeeper connection, serialization format, warm up, ...) must be the same too. The buses and
+ * stores of the backends run on the executor of the provider, which must outlive all the clients since a client
+ * shutting down its own executor would stop the backend for the others. Each client is still called back on its own
+ * executor.
+ *
+ * A client is added as a user of its backend when it gets it, so that the backend stays up from the build of the
+ * client until its shutdown even if the other clients shut down in between, as when a client replaces another one.
+ * A backend is shut down by the last client using it, after which the next client gets a new one.
+ */
+public class SharedDiscoveryBackendProvider
+{
+  private static final Logger LOG = LoggerFactory.getLogger(SharedDiscoveryBackendProvider.class);
+
+  private final ScheduledExecutorService _executorService;
+  private final Map<List<Object>, LastSeenDiscoveryBackend> _backends = new HashMap<>();
+
+  public SharedDiscoveryBackendProvider(ScheduledExecutorService executorService)
+  {
+    _executorService = executorService;
+  }
+
+  /**
+   * @param backendFactory creates the backend of the config when none can be shared, on the given executor
+   * @return the backend of the config, to which the caller is added as a user until it shuts it down
+   */
+  LastSeenDiscoveryBackend getBackend(D2ClientConfig config,
+      Function<ScheduledExecutorService, LastSeenDiscoveryBackend> backendFactory)
+  {
+    List<Object> key =
+        Arrays.asList(config.zkHosts, config.basePath, config.d2ServicePath, config.fsBasePath, config.clientServicesConfig);
+    synchronized (_backends)
+    {
+      LastSeenDiscoveryBackend backend = _backends.get(key);
+      // acquiring under the lock of the provider keeps the last user from shutting the backend down in between
+      if (backend == null || !backend.acquire())
+      {
+        LOG.info("Creating shared discovery backend for " + config.zkHosts + config.basePath);
+        backend = backendFactory.apply(_executorService);
+        backend.acquire();
+        _backends.put(key, backend);
+      }
+      else
+      {
+        LOG.info("Sharing discovery backend for " + config.zkHosts + config.basePath);
+      }
+      return backend;
+    }
+  }
+
+  /**
+   * @return the number of backends which are not shut down
+   */
+  public int getBackendCount()
+  {
+    synchronized (_backends)
+    {
+      return (int) _backends.values().stream().filter(backend -> !backend.isShutdown()).count();
+    }
+  }
+}
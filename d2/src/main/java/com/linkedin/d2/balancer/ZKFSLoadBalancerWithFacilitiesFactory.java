@@ -97,7 +97,10 @@ public class ZKFSLoadBalancerWithFacilitiesFactory implements LoadBalancerWithFa
                                                    config.failoutConfigProviderFactory,
                                                    config.canaryDistributionProvider,
                                                    config.serviceDiscoveryEventEmitter,
-                                                   config.dualReadStateManager
+                                                   config.dualReadStateManager,
+                                                   config.uriUpdateCoalescingWindowMs,
+                                                   config.uriUpdateCoalescingMaxDelayMs,
+                                                   config.propertySerializationFormat
     );
   }
 }
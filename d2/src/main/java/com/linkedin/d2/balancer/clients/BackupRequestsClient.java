@@ -44,6 +44,8 @@ import com.linkedin.r2.message.stream.entitystream.ByteStringWriter;
 import com.linkedin.r2.message.stream.entitystream.EntityStreams;
 import com.linkedin.r2.message.stream.entitystream.FullEntityObserver;
 import com.linkedin.r2.util.NamedThreadFactory;
+import com.linkedin.r2.util.RetryBudget;
+import com.linkedin.r2.util.RetryBudgets;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
@@ -67,6 +69,9 @@ import org.slf4j.LoggerFactory;
  *
  * Only instantiated when backupRequestsEnabled in {@link D2ClientConfig} is set to true.
  *
+ * When given {@link RetryBudgets}, each backup request withdraws a token from the {@link RetryBudget} of the
+ * service, and is not sent if the budget is exhausted.
+ *
  * @author Jaroslaw Odzga (jodzga@linkedin.com)
  */
 public class BackupRequestsClient extends D2ClientDelegator
@@ -80,6 +85,7 @@ public class BackupRequestsClient extends D2ClientDelegator
   private final ScheduledThreadPoolExecutor _latenciesNotifierExecutor;
   private final ScheduledFuture<?> _latenciesNotifier;
   private final boolean _isD2Async;
+  private final RetryBudgets _retryBudgets;
 
   // serviceName -> operation -> BackupRequestsStrategyFromConfig
   private final Map<String, Map<String, BackupRequestsStrategyFromConfig>> _strategies = new ConcurrentHashMap<>();
@@ -103,6 +109,17 @@ public class BackupRequestsClient extends D2ClientDelegator
   public BackupRequestsClient(D2Client d2Client, LoadBalancer loadBalancer, ScheduledExecutorService executorService,
       BackupRequestsStrategyStatsConsumer statsConsumer, long notifyLatencyInterval, TimeUnit notifyLatencyIntervalUnit,
       boolean isD2Async)
+  {
+    this(d2Client, loadBalancer, executorService, statsConsumer, notifyLatencyInterval, notifyLatencyIntervalUnit,
+        isD2Async, null);
+  }
+
+  /**
+   * @param retryBudgets budgets of the backup requests by service name, or null for no budget
+   */
+  public BackupRequestsClient(D2Client d2Client, LoadBalancer loadBalancer, ScheduledExecutorService executorService,
+      BackupRequestsStrategyStatsConsumer statsConsumer, long notifyLatencyInterval, TimeUnit notifyLatencyIntervalUnit,
+      boolean isD2Async, RetryBudgets retryBudgets)
   {
     super(d2Client);
     _loadBalancer = loadBalancer;
@@ -116,6 +133,7 @@ public class BackupRequestsClient extends D2ClientDelegator
     _latenciesNotifier = _latenciesNotifierExecutor.scheduleAtFixedRate(this::notifyLatencies, notifyLatencyInterval,
         notifyLatencyInterval, notifyLatencyIntervalUnit);
     _isD2Async = isD2Async;
+    _retryBudgets = retryBudgets;
   }
 
   private void notifyLatencies()
@@ -531,6 +549,7 @@ public class BackupRequestsClient extends D2ClientDelegator
     private final long _startNano;
     private final String _serviceName;
     private final String _operation;
+    private final RetryBudget _retryBudget;
 
     public DecoratedCallback(R request, RequestContext requestContext, DecoratorClient<R, T> client,
         Callback<T> callback, TrackingBackupRequestsStrategy strategy, long delayNano,
@@ -548,6 +567,7 @@ public class BackupRequestsClient extends D2ClientDelegator
       _strategy = strategy;
       _serviceName = serviceName;
       _operation = operation;
+      _retryBudget = _retryBudgets == null ? null : _retryBudgets.getBudget(serviceName);
       executorService.schedule(this::maybeSendBackupRequest, delayNano, TimeUnit.NANOSECONDS);
     }
 
@@ -563,7 +583,7 @@ public class BackupRequestsClient extends D2ClientDelegator
         if (_request instanceof StreamRequest && !isBuffered(_requestContext)) {
           return;
         }
-        if (!_done.get() && _strategy.isBackupRequestAllowed())
+        if (!_done.get() && _strategy.isBackupRequestAllowed() && withdrawRetryBudget())
         {
           R request = _request;
           if (_request instanceof StreamRequest) {
@@ -586,6 +606,7 @@ public class BackupRequestsClient extends D2ClientDelegator
               if (_done.compareAndSet(false, true))
               {
                 completeBackup();
+                recordBackupSuccess();
                 _callback.onSuccess(result);
               }
             }
@@ -613,10 +634,47 @@ public class BackupRequestsClient extends D2ClientDelegator
       }
     }
 
+    private boolean withdrawRetryBudget()
+    {
+      if (_retryBudget == null || _retryBudget.tryWithdraw())
+      {
+        return true;
+      }
+      LOG.debug("Retry budget exhausted, backup request not sent: {}", _retryBudget);
+      return false;
+    }
+
+    private void recordSuccess()
+    {
+      if (_retryBudget != null)
+      {
+        _retryBudget.recordSuccess(_requestContext);
+      }
+    }
+
+    private void recordBackupSuccess()
+    {
+      if (_retryBudget != null)
+      {
+        // The transport records the outcome in the context of the backup request, while the callers wrapping
+        // this client look at the context of the original request
+        boolean unrecorded = RetryBudget.markRecorded(_backupRequestContext);
+        RetryBudget.markRecorded(_requestContext);
+        if (unrecorded)
+        {
+          _retryBudget.deposit();
+        }
+      }
+    }
+
     @Override
     public void onSuccess(T result)
     {
-      trackingCompletion(() -> _callback.onSuccess(result));
+      trackingCompletion(() ->
+      {
+        recordSuccess();
+        _callback.onSuccess(result);
+      });
     }
 
     /*
@@ -767,8 +825,7 @@ public class BackupRequestsClient extends D2ClientDelegator
 
   private static boolean isFullRequest(RequestContext requestContext)
   {
-    Object isFullRequest = requestContext.getLocalAttr(R2Constants.IS_FULL_REQUEST);
-    return isFullRequest != null && (Boolean)isFullRequest;
+    return Boolean.TRUE.equals(requestContext.getLocalAttr(R2Constants.IS_FULL_REQUEST_KEY));
   }
 
   private static boolean isBuffered(RequestContext requestContext)
@@ -63,7 +63,9 @@ public class DegraderTrackerClientImpl extends TrackerClientImpl implements Degr
                                boolean doNotSlowStart)
   {
     super(uri, partitionDataMap, wrappedClient, clock, interval,
-        (status) -> errorStatusPattern.matcher(Integer.toString(status)).matches(), true, doNotSlowStart, false);
+        (status) -> errorStatusPattern.matcher(Integer.toString(status)).matches(),
+        (config == null ? DegraderImpl.DEFAULT_PERCENTILE_TRACKING : config.getPercentileTracking())::newLongTracker,
+        doNotSlowStart, false);
 
     if (config == null)
     {
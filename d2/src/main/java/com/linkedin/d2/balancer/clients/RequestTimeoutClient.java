@@ -157,11 +157,11 @@ public class RequestTimeoutClient extends D2ClientDelegator
         HttpClientFactory.DEFAULT_REQUEST_TIMEOUT, Integer.class);
 
     // Start handling per request timeout
-    Number perRequestTimeout = ((Number) requestContext.getLocalAttr(R2Constants.REQUEST_TIMEOUT));
+    Number perRequestTimeout = requestContext.getLocalAttr(R2Constants.REQUEST_TIMEOUT_KEY);
 
     if (perRequestTimeout == null)
     {
-      requestContext.putLocalAttr(R2Constants.CLIENT_REQUEST_TIMEOUT_VIEW, defaultRequestTimeout);
+      requestContext.putLocalAttr(R2Constants.CLIENT_REQUEST_TIMEOUT_VIEW_KEY, defaultRequestTimeout);
       return callback;
     }
 
@@ -172,18 +172,18 @@ public class RequestTimeoutClient extends D2ClientDelegator
       if (requestTimeoutIgnoreIfHigher != null && requestTimeoutIgnoreIfHigher)
       {
         // client has no intention to adjust default timeout in R2 layer
-        requestContext.putLocalAttr(R2Constants.CLIENT_REQUEST_TIMEOUT_VIEW, defaultRequestTimeout);
-        requestContext.removeLocalAttr(R2Constants.REQUEST_TIMEOUT);
+        requestContext.putLocalAttr(R2Constants.CLIENT_REQUEST_TIMEOUT_VIEW_KEY, defaultRequestTimeout);
+        requestContext.removeLocalAttr(R2Constants.REQUEST_TIMEOUT_KEY);
       }
       // if REQUEST_TIMEOUT_IGNORE_IF_HIGHER_THAN_DEFAULT is not true, just return. The R2 client further down will pick up the longer timeout.
       return callback;
     }
 
     // if the request timeout is lower than the one set in d2, we will remove the timeout value to prevent R2 client from picking it up
-    requestContext.removeLocalAttr(R2Constants.REQUEST_TIMEOUT);
+    requestContext.removeLocalAttr(R2Constants.REQUEST_TIMEOUT_KEY);
 
     // we put the client experienced timeout in requestContext so client further down will always be aware of the client expectation
-    requestContext.putLocalAttr(R2Constants.CLIENT_REQUEST_TIMEOUT_VIEW, perRequestTimeout);
+    requestContext.putLocalAttr(R2Constants.CLIENT_REQUEST_TIMEOUT_VIEW_KEY, perRequestTimeout);
 
     // we will create a timeout callback which will simulate a shorter timeout behavior
     TimeoutCallback<RES> timeoutCallback =
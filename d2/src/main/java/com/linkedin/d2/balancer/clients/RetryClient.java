@@ -44,6 +44,8 @@ import com.linkedin.r2.message.stream.entitystream.EntityStreams;
 import com.linkedin.r2.message.stream.entitystream.FullEntityObserver;
 import com.linkedin.r2.transport.http.client.HttpClientFactory;
 import com.linkedin.r2.transport.http.common.HttpConstants;
+import com.linkedin.r2.util.RetryBudget;
+import com.linkedin.r2.util.RetryBudgets;
 import com.linkedin.util.clock.Clock;
 import com.linkedin.util.clock.SystemClock;
 import java.net.URI;
@@ -69,6 +71,9 @@ import org.slf4j.LoggerFactory;
  * Only instantiated when retry in {@link D2ClientConfig} is enabled. Need to be used together with
  * {@link com.linkedin.r2.filter.transport.ClientRetryFilter}
  *
+ * When given {@link RetryBudgets}, each retry also withdraws a token from the {@link RetryBudget} of the service,
+ * and is not sent if the budget is exhausted.
+ *
  * Note: RetryClient records the {@link EntityStream} for {@link StreamRequest} so the entity will
  * be buffered in memory even if #streamRequest is invoked.
  *
@@ -89,6 +94,7 @@ public class RetryClient extends D2ClientDelegator
   private final int _aggregatedIntervalNum;
   private final boolean _restRetryEnabled;
   private final boolean _streamRetryEnabled;
+  private final RetryBudgets _retryBudgets;
 
   ConcurrentMap<String, ClientRetryTracker> _retryTrackerMap;
 
@@ -108,6 +114,17 @@ public class RetryClient extends D2ClientDelegator
   public RetryClient(D2Client d2Client, LoadBalancer balancer, int limit,
       long updateIntervalMs, int aggregatedIntervalNum, Clock clock,
       boolean restRetryEnabled, boolean streamRetryEnabled)
+  {
+    this(d2Client, balancer, limit, updateIntervalMs, aggregatedIntervalNum, clock, restRetryEnabled,
+        streamRetryEnabled, null);
+  }
+
+  /**
+   * @param retryBudgets budgets of the retries by service name, or null for no budget
+   */
+  public RetryClient(D2Client d2Client, LoadBalancer balancer, int limit,
+      long updateIntervalMs, int aggregatedIntervalNum, Clock clock,
+      boolean restRetryEnabled, boolean streamRetryEnabled, RetryBudgets retryBudgets)
   {
     super(d2Client);
     _balancer = balancer;
@@ -118,6 +135,7 @@ public class RetryClient extends D2ClientDelegator
     _retryTrackerMap = new ConcurrentHashMap<>();
     _restRetryEnabled = restRetryEnabled;
     _streamRetryEnabled = streamRetryEnabled;
+    _retryBudgets = retryBudgets;
 
     LOG.debug("Retry client created with limit={}", _limit);
   }
@@ -153,7 +171,8 @@ public class RetryClient extends D2ClientDelegator
           .setHeader(HttpConstants.HEADER_NUMBER_OF_RETRY_ATTEMPTS, "0")
           .build();
       ClientRetryTracker retryTracker = updateRetryTracker(newRequest.getURI(), false);
-      final Callback<RestResponse> transportCallback = new RestRetryRequestCallback(newRequest, requestContext, callback, retryTracker);
+      final Callback<RestResponse> transportCallback = new RestRetryRequestCallback(newRequest, requestContext, callback,
+          retryTracker, getRetryBudget(newRequest.getURI()));
       _d2Client.restRequest(newRequest, requestContext, transportCallback);
     }
     else
@@ -177,7 +196,8 @@ public class RetryClient extends D2ClientDelegator
           .setHeader(HttpConstants.HEADER_NUMBER_OF_RETRY_ATTEMPTS, "0")
           .build(request.getEntityStream());
       ClientRetryTracker retryTracker = updateRetryTracker(newRequest.getURI(), false);
-      final Callback<StreamResponse> transportCallback = new StreamRetryRequestCallback(newRequest, requestContext, callback, retryTracker);
+      final Callback<StreamResponse> transportCallback = new StreamRetryRequestCallback(newRequest, requestContext, callback,
+          retryTracker, getRetryBudget(newRequest.getURI()));
       _d2Client.streamRequest(newRequest, requestContext, transportCallback);
     }
     else
@@ -195,6 +215,11 @@ public class RetryClient extends D2ClientDelegator
     return retryTracker;
   }
 
+  private RetryBudget getRetryBudget(URI uri)
+  {
+    return _retryBudgets == null ? null : _retryBudgets.getBudget(LoadBalancerUtil.getServiceNameFromUri(uri));
+  }
+
   /**
    * Callback implementation for Retry {@link StreamRequest} and {@link StreamResponse}
    */
@@ -204,9 +229,10 @@ public class RetryClient extends D2ClientDelegator
     private volatile boolean _recorded = false;
     private ByteString _content = null;
 
-    public StreamRetryRequestCallback(StreamRequest request, RequestContext context, Callback<StreamResponse> callback, ClientRetryTracker retryTracker)
+    public StreamRetryRequestCallback(StreamRequest request, RequestContext context, Callback<StreamResponse> callback,
+        ClientRetryTracker retryTracker, RetryBudget retryBudget)
     {
-      super(request, context, callback, retryTracker);
+      super(request, context, callback, retryTracker, retryBudget);
 
       final FullEntityObserver observer = new FullEntityObserver(new Callback<ByteString>()
       {
@@ -245,7 +271,9 @@ public class RetryClient extends D2ClientDelegator
             .setHeader(HttpConstants.HEADER_NUMBER_OF_RETRY_ATTEMPTS, Integer.toString(numberOfRetryAttempts))
             .build(EntityStreams.newEntityStream(new ByteStringWriter(_content)));
         updateRetryTracker(request.getURI(), true);
-        _d2Client.streamRequest(newRequest, new RequestContext(context), this);
+        RequestContext attemptContext = new RequestContext(context);
+        _attemptContext = attemptContext;
+        _d2Client.streamRequest(newRequest, attemptContext, this);
         return true;
       }
 
@@ -259,9 +287,10 @@ public class RetryClient extends D2ClientDelegator
    */
   private class RestRetryRequestCallback extends RetryRequestCallback<RestRequest, RestResponse>
   {
-    public RestRetryRequestCallback(RestRequest request, RequestContext context, Callback<RestResponse> callback, ClientRetryTracker retryTracker)
+    public RestRetryRequestCallback(RestRequest request, RequestContext context, Callback<RestResponse> callback,
+        ClientRetryTracker retryTracker, RetryBudget retryBudget)
     {
-      super(request, context, callback, retryTracker);
+      super(request, context, callback, retryTracker, retryBudget);
     }
 
     @Override
@@ -288,18 +317,28 @@ public class RetryClient extends D2ClientDelegator
     private final RequestContext _context;
     private final Callback<RESP> _callback;
     private final ClientRetryTracker _retryTracker;
+    private final RetryBudget _retryBudget;
+    // Context of the last attempt, in which the outcome of the attempt is recorded in the retry budget
+    protected volatile RequestContext _attemptContext;
 
-    public RetryRequestCallback(REQ request, RequestContext context, Callback<RESP> callback, ClientRetryTracker retryTracker)
+    public RetryRequestCallback(REQ request, RequestContext context, Callback<RESP> callback,
+        ClientRetryTracker retryTracker, RetryBudget retryBudget)
     {
       _request = request;
       _context = context;
       _callback = callback;
       _retryTracker = retryTracker;
+      _retryBudget = retryBudget;
+      _attemptContext = context;
     }
 
     @Override
     public void onSuccess(RESP result)
     {
+      if (_retryBudget != null)
+      {
+        _retryBudget.recordSuccess(_attemptContext);
+      }
       ExcludedHostHints.clearRequestContextExcludedHosts(_context);
       _callback.onSuccess(result);
     }
@@ -330,7 +369,7 @@ public class RetryClient extends D2ClientDelegator
               _retryTracker.isBelowRetryRatio(isBelowRetryRatio ->
               {
                 boolean doRetry;
-                if (isBelowRetryRatio)
+                if (isBelowRetryRatio && withdrawRetryBudget())
                 {
                   LOG.warn("A retriable exception occurred. Going to retry. This is attempt {}. Current exclusion set: {}",
                       attempts, exclusionSet);
@@ -338,7 +377,8 @@ public class RetryClient extends D2ClientDelegator
                 }
                 else
                 {
-                  LOG.warn("Client retry ratio exceeded. This request will fail.");
+                  LOG.warn(isBelowRetryRatio ? "Client retry budget exhausted. This request will fail."
+                      : "Client retry ratio exceeded. This request will fail.");
                   disableRetryException(e);
                   doRetry = false;
                 }
@@ -364,6 +404,14 @@ public class RetryClient extends D2ClientDelegator
       }
     }
 
+    private boolean withdrawRetryBudget()
+    {
+      // The token has already been withdrawn if ClientRetryFilter recorded the outcome of the attempt,
+      // and the mark is cleared since the context is reused by the next attempt
+      boolean recorded = RetryBudget.clearRecorded(_attemptContext);
+      return _retryBudget == null || recorded || _retryBudget.tryWithdraw();
+    }
+
     private boolean isRetryException(Throwable e)
     {
       Throwable[] throwables = ExceptionUtils.getThrowables(e);
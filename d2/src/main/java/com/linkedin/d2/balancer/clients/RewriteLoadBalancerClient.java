@@ -29,6 +29,7 @@ import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
+import com.linkedin.r2.util.RetryBudgets;
 
 import java.net.URI;
 import java.util.Map;
@@ -61,6 +62,8 @@ public class RewriteLoadBalancerClient implements LoadBalancerClient
                    TransportCallback<RestResponse> callback)
   {
     assert _serviceName.equals(LoadBalancerUtil.getServiceNameFromUri(request.getURI()));
+    // the filters of the transport client only see the uri of the host
+    requestContext.putLocalAttr(RetryBudgets.SERVICE_NAME_KEY, _serviceName);
     _client.restRequest(request, requestContext, wireAttrs, callback);
   }
 
@@ -71,6 +74,7 @@ public class RewriteLoadBalancerClient implements LoadBalancerClient
                           TransportCallback<StreamResponse> callback)
   {
     assert _serviceName.equals(LoadBalancerUtil.getServiceNameFromUri(request.getURI()));
+    requestContext.putLocalAttr(RetryBudgets.SERVICE_NAME_KEY, _serviceName);
     _client.streamRequest(request, requestContext, wireAttrs, callback);
   }
 
@@ -19,6 +19,7 @@ package com.linkedin.d2.balancer.clients;
 import com.linkedin.d2.D2RelativeStrategyProperties;
 import com.linkedin.d2.HttpStatusCodeRange;
 import com.linkedin.d2.balancer.config.RelativeStrategyPropertiesConverter;
+import com.linkedin.d2.balancer.strategies.leastloaded.LeastLoadedLoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategyFactory;
 import java.net.URI;
@@ -107,6 +108,7 @@ public class TrackerClientFactory
         trackerClient = createDegraderTrackerClient(uri, uriProperties, serviceProperties,  loadBalancerStrategyName, transportClient, clock, doNotSlowStart);
         break;
       case (RelativeLoadBalancerStrategy.RELATIVE_LOAD_BALANCER_STRATEGY_NAME):
+      case (LeastLoadedLoadBalancerStrategy.LEAST_LOADED_STRATEGY_NAME):
         trackerClient = createTrackerClientImpl(uri, uriProperties, serviceProperties, loadBalancerStrategyName,
             transportClient, clock, false, doNotSlowStart, doNotLoadBalance);
         break;
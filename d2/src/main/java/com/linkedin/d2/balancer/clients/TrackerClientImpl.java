@@ -18,6 +18,7 @@ package com.linkedin.d2.balancer.clients;
 
 
 import com.linkedin.common.callback.Callback;
+import com.linkedin.common.stats.LongTracker;
 import com.linkedin.common.util.None;
 import com.linkedin.d2.balancer.properties.PartitionData;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyConfig;
@@ -52,6 +53,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,10 +92,25 @@ public class TrackerClientImpl implements TrackerClient
 
   public TrackerClientImpl(URI uri, Map<Integer, PartitionData> partitionDataMap, TransportClient transportClient,
       Clock clock, long interval, Predicate<Integer> isErrorStatus, boolean percentileTrackingEnabled, boolean doNotSlowStart, boolean doNotLoadBalance)
+  {
+    this(uri, partitionDataMap, transportClient, new CallTrackerImpl(interval, clock, percentileTrackingEnabled),
+        isErrorStatus, doNotSlowStart, doNotLoadBalance);
+  }
+
+  public TrackerClientImpl(URI uri, Map<Integer, PartitionData> partitionDataMap, TransportClient transportClient,
+      Clock clock, long interval, Predicate<Integer> isErrorStatus, Supplier<LongTracker> callTimeTrackingFactory,
+      boolean doNotSlowStart, boolean doNotLoadBalance)
+  {
+    this(uri, partitionDataMap, transportClient, new CallTrackerImpl(interval, clock, callTimeTrackingFactory),
+        isErrorStatus, doNotSlowStart, doNotLoadBalance);
+  }
+
+  private TrackerClientImpl(URI uri, Map<Integer, PartitionData> partitionDataMap, TransportClient transportClient,
+      CallTracker callTracker, Predicate<Integer> isErrorStatus, boolean doNotSlowStart, boolean doNotLoadBalance)
   {
     _uri = uri;
     _transportClient = transportClient;
-    _callTracker = new CallTrackerImpl(interval, clock, percentileTrackingEnabled);
+    _callTracker = callTracker;
     _isErrorStatus = isErrorStatus;
     _partitionData = Collections.unmodifiableMap(partitionDataMap);
     _latestCallStats = _callTracker.getCallStats();
@@ -19,6 +19,7 @@ package com.linkedin.d2.balancer.config;
 import com.linkedin.d2.D2DegraderProperties;
 import com.linkedin.d2.balancer.properties.PropertyKeys;
 import com.linkedin.d2.latencyType;
+import com.linkedin.d2.percentileTrackingType;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -97,6 +98,10 @@ public class DegraderPropertiesConverter
     {
       map.put(PropertyKeys.DEGRADER_LATENCY_TO_USE, config.getLatencyToUse().name());
     }
+    if (config.hasPercentileTracking())
+    {
+      map.put(PropertyKeys.DEGRADER_PERCENTILE_TRACKING, config.getPercentileTracking().name());
+    }
     if (config.hasInitialDropRate())
     {
       map.put(PropertyKeys.DEGRADER_INITIAL_DROP_RATE, config.getInitialDropRate().toString());
@@ -177,6 +182,10 @@ public class DegraderPropertiesConverter
     {
       config.setLatencyToUse(latencyType.valueOf(properties.get(PropertyKeys.DEGRADER_LATENCY_TO_USE)));
     }
+    if (properties.containsKey(PropertyKeys.DEGRADER_PERCENTILE_TRACKING))
+    {
+      config.setPercentileTracking(percentileTrackingType.valueOf(properties.get(PropertyKeys.DEGRADER_PERCENTILE_TRACKING)));
+    }
     if (properties.containsKey(PropertyKeys.DEGRADER_INITIAL_DROP_RATE))
     {
       config.setInitialDropRate(coerce(properties.get(PropertyKeys.DEGRADER_INITIAL_DROP_RATE), Double.class));
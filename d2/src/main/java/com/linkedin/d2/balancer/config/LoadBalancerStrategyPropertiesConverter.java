@@ -178,6 +178,10 @@ public class LoadBalancerStrategyPropertiesConverter
     {
       map.put(PropertyKeys.HTTP_LB_HIGH_EVENT_EMITTING_INTERVAL, config.getHighEmittingInterval().toString());
     }
+    if (config.hasChoiceCount())
+    {
+      map.put(PropertyKeys.HTTP_LB_CHOICE_COUNT, config.getChoiceCount().toString());
+    }
     return map;
   }
 
@@ -324,6 +328,10 @@ public class LoadBalancerStrategyPropertiesConverter
     {
       config.setHighEmittingInterval(coerce(properties.get(PropertyKeys.HTTP_LB_HIGH_EVENT_EMITTING_INTERVAL), Integer.class));
     }
+    if (properties.containsKey(PropertyKeys.HTTP_LB_CHOICE_COUNT))
+    {
+      config.setChoiceCount(coerce(properties.get(PropertyKeys.HTTP_LB_CHOICE_COUNT), Integer.class));
+    }
 
     return config;
   }
@@ -0,0 +1,273 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.properties;
+
+import com.linkedin.d2.discovery.PropertySerializationException;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Binary encoding shared by the binary property serializers.
+ *
+ * The bytes start with {@link #MAGIC}, which can not start a JSON document, followed by the format version, so
+ * that readers can tell the binary bytes from the JSON ones and reject the versions they do not know. Values with
+ * the types Jackson reads untyped JSON into (maps with string keys, lists, strings, numbers, booleans and null)
+ * are written with a one byte tag; integral numbers are read back as an Integer when they fit, like Jackson does,
+ * so the maps read can be given to the same {@link com.linkedin.d2.discovery.PropertyBuilder} as the JSON ones.
+ */
+final class PropertiesBinaryCodec
+{
+  static final byte MAGIC = (byte) 0xD2;
+  static final byte FORMAT_VERSION = 1;
+
+  private static final byte NULL = 0;
+  private static final byte FALSE = 1;
+  private static final byte TRUE = 2;
+  private static final byte INT = 3;
+  private static final byte LONG = 4;
+  private static final byte DOUBLE = 5;
+  private static final byte STRING = 6;
+  private static final byte LIST = 7;
+  private static final byte MAP = 8;
+
+  private PropertiesBinaryCodec()
+  {
+  }
+
+  static boolean isBinary(byte[] bytes)
+  {
+    return bytes != null && bytes.length > 0 && bytes[0] == MAGIC;
+  }
+
+  /**
+   * Output of the binary serializers, starting with the header.
+   */
+  static class Writer
+  {
+    private final ByteArrayOutputStream _bytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream _out = new DataOutputStream(_bytes);
+
+    Writer() throws IOException
+    {
+      _out.writeByte(MAGIC);
+      _out.writeByte(FORMAT_VERSION);
+    }
+
+    void writeInt(int value) throws IOException
+    {
+      _out.writeInt(value);
+    }
+
+    void writeDouble(double value) throws IOException
+    {
+      _out.writeDouble(value);
+    }
+
+    void writeString(String value) throws IOException
+    {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      _out.writeInt(bytes.length);
+      _out.write(bytes);
+    }
+
+    void writeMap(Map<?, ?> map) throws IOException
+    {
+      _out.writeInt(map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet())
+      {
+        writeString(String.valueOf(entry.getKey()));
+        writeValue(entry.getValue());
+      }
+    }
+
+    void writeValue(Object value) throws IOException
+    {
+      if (value == null)
+      {
+        _out.writeByte(NULL);
+      }
+      else if (value instanceof Boolean)
+      {
+        _out.writeByte((Boolean) value ? TRUE : FALSE);
+      }
+      else if (value instanceof Integer || value instanceof Short || value instanceof Byte
+          || value instanceof Long && (Long) value == ((Long) value).intValue())
+      {
+        _out.writeByte(INT);
+        _out.writeInt(((Number) value).intValue());
+      }
+      else if (value instanceof Long)
+      {
+        _out.writeByte(LONG);
+        _out.writeLong((Long) value);
+      }
+      else if (value instanceof Double || value instanceof Float)
+      {
+        _out.writeByte(DOUBLE);
+        _out.writeDouble(((Number) value).doubleValue());
+      }
+      else if (value instanceof String || value instanceof Enum)
+      {
+        _out.writeByte(STRING);
+        writeString(value.toString());
+      }
+      else if (value instanceof Collection)
+      {
+        Collection<?> collection = (Collection<?>) value;
+        _out.writeByte(LIST);
+        _out.writeInt(collection.size());
+        for (Object element : collection)
+        {
+          writeValue(element);
+        }
+      }
+      else if (value instanceof Map)
+      {
+        _out.writeByte(MAP);
+        writeMap((Map<?, ?>) value);
+      }
+      else
+      {
+        throw new IllegalArgumentException("Unsupported property value type: " + value.getClass().getName());
+      }
+    }
+
+    byte[] toByteArray() throws IOException
+    {
+      _out.flush();
+      return _bytes.toByteArray();
+    }
+  }
+
+  /**
+   * Input of the binary serializers, positioned after the header.
+   */
+  static class Reader
+  {
+    private final byte[] _bytes;
+    private final ByteBuffer _buffer;
+
+    Reader(byte[] bytes) throws PropertySerializationException
+    {
+      if (bytes.length < 2 || bytes[0] != MAGIC)
+      {
+        throw new PropertySerializationException("Not a binary property");
+      }
+      if (bytes[1] != FORMAT_VERSION)
+      {
+        throw new PropertySerializationException("Unsupported binary property format version: " + bytes[1]);
+      }
+      _bytes = bytes;
+      _buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+    }
+
+    int readInt()
+    {
+      return _buffer.getInt();
+    }
+
+    double readDouble()
+    {
+      return _buffer.getDouble();
+    }
+
+    String readString() throws PropertySerializationException
+    {
+      int length = readLength();
+      int position = _buffer.position();
+      _buffer.position(position + length);
+      return new String(_bytes, position, length, StandardCharsets.UTF_8);
+    }
+
+    Map<String, Object> readMap() throws PropertySerializationException
+    {
+      int size = readLength();
+      Map<String, Object> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+      for (int i = 0; i < size; i++)
+      {
+        String key = readString();
+        map.put(key, readValue());
+      }
+      return map;
+    }
+
+    Object readValue() throws PropertySerializationException
+    {
+      byte tag = _buffer.get();
+      switch (tag)
+      {
+        case NULL:
+          return null;
+        case FALSE:
+          return Boolean.FALSE;
+        case TRUE:
+          return Boolean.TRUE;
+        case INT:
+          return _buffer.getInt();
+        case LONG:
+          return _buffer.getLong();
+        case DOUBLE:
+          return _buffer.getDouble();
+        case STRING:
+          return readString();
+        case LIST:
+          int size = readLength();
+          List<Object> list = new ArrayList<>(size);
+          for (int i = 0; i < size; i++)
+          {
+            list.add(readValue());
+          }
+          return list;
+        case MAP:
+          return readMap();
+        default:
+          throw new PropertySerializationException("Unknown binary property value tag: " + tag);
+      }
+    }
+
+    void checkFullyRead() throws PropertySerializationException
+    {
+      if (_buffer.hasRemaining())
+      {
+        throw new PropertySerializationException(_buffer.remaining() + " unexpected bytes after the binary property");
+      }
+    }
+
+    /**
+     * Reads a length or a number of elements. Sizes are checked against the remaining bytes, so that corrupted
+     * bytes do not allocate huge collections.
+     */
+    int readLength() throws PropertySerializationException
+    {
+      int length = _buffer.getInt();
+      if (length < 0 || length > _buffer.remaining())
+      {
+        throw new PropertySerializationException("Invalid length in binary property: " + length);
+      }
+      return length;
+    }
+  }
+}
@@ -41,6 +41,7 @@ public class PropertyKeys
   public static final String DEGRADER_NAME = "degrader.name";
   public static final String DEGRADER_LOG_ENABLED = "degrader.logEnabled";
   public static final String DEGRADER_LATENCY_TO_USE = "degrader.latencyToUse";
+  public static final String DEGRADER_PERCENTILE_TRACKING = "degrader.percentileTracking";
   public static final String DEGRADER_OVERRIDE_DROP_DATE = "degrader.overrideDropDate";
   public static final String DEGRADER_INITIAL_DROP_RATE = "degrader.initialDropRate";
   public static final String DEGRADER_MAX_DROP_RATE = "degrader.maxDropRate";
@@ -106,6 +107,7 @@ public class PropertyKeys
   public static final String HTTP_LB_ERROR_STATUS_REGEX = "http.loadBalancer.errorStatusRegex";
   public static final String HTTP_LB_LOW_EVENT_EMITTING_INTERVAL = "http.loadBalancer.lowEmittingInterval";
   public static final String HTTP_LB_HIGH_EVENT_EMITTING_INTERVAL = "http.loadBalancer.highEmittingInterval";
+  public static final String HTTP_LB_CHOICE_COUNT = "http.loadBalancer.choiceCount";
 
   // Relative load balancer specific properties
   public static final String UP_STEP = getFieldName(D2RelativeStrategyProperties.fields().upStep());
@@ -179,6 +181,7 @@ public class PropertyKeys
   public static final String HTTP_QUERY_POST_THRESHOLD = HttpClientFactory.HTTP_QUERY_POST_THRESHOLD;
   public static final String HTTP_POOL_STRATEGY = HttpClientFactory.HTTP_POOL_STRATEGY;
   public static final String HTTP_POOL_MIN_SIZE = HttpClientFactory.HTTP_POOL_MIN_SIZE;
+  public static final String HTTP_POOL_ADAPTIVE_SIZING = HttpClientFactory.HTTP_POOL_ADAPTIVE_SIZING;
   public static final String HTTP_POOL_STATS_NAME_PREFIX = HttpClientFactory.HTTP_POOL_STATS_NAME_PREFIX;
   public static final String HTTP_MAX_HEADER_SIZE = HttpClientFactory.HTTP_MAX_HEADER_SIZE;
   public static final String HTTP_MAX_CHUNK_SIZE = HttpClientFactory.HTTP_MAX_CHUNK_SIZE;
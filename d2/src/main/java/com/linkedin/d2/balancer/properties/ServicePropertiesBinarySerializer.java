@@ -0,0 +1,122 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.properties;
+
+import com.linkedin.d2.balancer.util.JacksonUtil;
+import com.linkedin.d2.discovery.PropertySerializationException;
+import com.linkedin.d2.discovery.PropertySerializationFormat;
+import com.linkedin.d2.discovery.PropertySerializer;
+import java.util.Collections;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * ServicePropertiesBinarySerializer writes {@link ServiceProperties} in the given
+ * {@link PropertySerializationFormat}, and reads both the binary bytes and the JSON ones written by
+ * {@link ServicePropertiesJsonSerializer}.
+ *
+ * The binary format holds the same map as the JSON one, which is read back by
+ * {@link ServicePropertiesJsonSerializer#fromMap(Map)}.
+ */
+public class ServicePropertiesBinarySerializer implements PropertySerializer<ServiceProperties>
+{
+  private static final Logger _log = LoggerFactory.getLogger(ServicePropertiesBinarySerializer.class);
+
+  private final ServicePropertiesJsonSerializer _jsonSerializer;
+  private final PropertySerializationFormat _format;
+
+  public ServicePropertiesBinarySerializer()
+  {
+    this(PropertySerializationFormat.BINARY);
+  }
+
+  /**
+   * @param format format of the bytes written, the bytes read can be in any format
+   */
+  public ServicePropertiesBinarySerializer(PropertySerializationFormat format)
+  {
+    this(Collections.emptyMap(), format);
+  }
+
+  /**
+   * @param clientServicesConfig client overrides of the service properties, see {@link ServicePropertiesJsonSerializer}
+   * @param format format of the bytes written, the bytes read can be in any format
+   */
+  public ServicePropertiesBinarySerializer(Map<String, Map<String, Object>> clientServicesConfig,
+      PropertySerializationFormat format)
+  {
+    _jsonSerializer = new ServicePropertiesJsonSerializer(clientServicesConfig);
+    _format = format;
+  }
+
+  @Override
+  public byte[] toBytes(ServiceProperties property)
+  {
+    if (_format == PropertySerializationFormat.JSON)
+    {
+      return _jsonSerializer.toBytes(property);
+    }
+
+    try
+    {
+      PropertiesBinaryCodec.Writer writer = new PropertiesBinaryCodec.Writer();
+      writer.writeMap(JacksonUtil.getObjectMapper().convertValue(property, Map.class));
+      return writer.toByteArray();
+    }
+    catch (Exception e)
+    {
+      _log.error("Failed to write property to bytes: ", e);
+    }
+
+    return null;
+  }
+
+  @Override
+  public ServiceProperties fromBytes(byte[] bytes) throws PropertySerializationException
+  {
+    if (!PropertiesBinaryCodec.isBinary(bytes))
+    {
+      return _jsonSerializer.fromBytes(bytes);
+    }
+
+    try
+    {
+      PropertiesBinaryCodec.Reader reader = new PropertiesBinaryCodec.Reader(bytes);
+      Map<String, Object> untyped = reader.readMap();
+      reader.checkFullyRead();
+      return _jsonSerializer.fromMap(untyped);
+    }
+    catch (PropertySerializationException e)
+    {
+      throw e;
+    }
+    catch (Exception e)
+    {
+      throw new PropertySerializationException(e);
+    }
+  }
+
+  @Override
+  public ServiceProperties fromBytes(byte[] bytes, long version) throws PropertySerializationException
+  {
+    ServiceProperties serviceProperties = fromBytes(bytes);
+    serviceProperties.setVersion(version);
+    return serviceProperties;
+  }
+}
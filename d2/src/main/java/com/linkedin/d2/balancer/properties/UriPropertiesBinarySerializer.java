@@ -0,0 +1,164 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.properties;
+
+import com.linkedin.d2.discovery.PropertySerializationException;
+import com.linkedin.d2.discovery.PropertySerializationFormat;
+import com.linkedin.d2.discovery.PropertySerializer;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * UriPropertiesBinarySerializer writes {@link UriProperties} in the given {@link PropertySerializationFormat}, and
+ * reads both the binary bytes and the JSON ones written by {@link UriPropertiesJsonSerializer}.
+ *
+ * The binary format holds the cluster name, the partitions and weights of each uri, and the uri specific
+ * properties, without the legacy "weights" map written to JSON for the old clients.
+ */
+public class UriPropertiesBinarySerializer implements PropertySerializer<UriProperties>
+{
+  private static final Logger _log = LoggerFactory.getLogger(UriPropertiesBinarySerializer.class);
+
+  private final UriPropertiesJsonSerializer _jsonSerializer = new UriPropertiesJsonSerializer();
+  private final PropertySerializationFormat _format;
+
+  public UriPropertiesBinarySerializer()
+  {
+    this(PropertySerializationFormat.BINARY);
+  }
+
+  /**
+   * @param format format of the bytes written, the bytes read can be in any format
+   */
+  public UriPropertiesBinarySerializer(PropertySerializationFormat format)
+  {
+    _format = format;
+  }
+
+  @Override
+  public byte[] toBytes(UriProperties property)
+  {
+    if (_format == PropertySerializationFormat.JSON)
+    {
+      return _jsonSerializer.toBytes(property);
+    }
+
+    try
+    {
+      PropertiesBinaryCodec.Writer writer = new PropertiesBinaryCodec.Writer();
+      writer.writeString(property.getClusterName());
+
+      Map<URI, Map<Integer, PartitionData>> partitionDesc = property.getPartitionDesc();
+      writer.writeInt(partitionDesc.size());
+      for (Map.Entry<URI, Map<Integer, PartitionData>> entry : partitionDesc.entrySet())
+      {
+        writer.writeString(entry.getKey().toString());
+        writer.writeInt(entry.getValue().size());
+        for (Map.Entry<Integer, PartitionData> partitionEntry : entry.getValue().entrySet())
+        {
+          writer.writeInt(partitionEntry.getKey());
+          writer.writeDouble(partitionEntry.getValue().getWeight());
+        }
+      }
+
+      Map<URI, Map<String, Object>> uriSpecificProperties = property.getUriSpecificProperties();
+      writer.writeInt(uriSpecificProperties.size());
+      for (Map.Entry<URI, Map<String, Object>> entry : uriSpecificProperties.entrySet())
+      {
+        writer.writeString(entry.getKey().toString());
+        writer.writeMap(entry.getValue());
+      }
+      return writer.toByteArray();
+    }
+    catch (Exception e)
+    {
+      _log.error("Failed to write property to bytes: ", e);
+    }
+
+    return null;
+  }
+
+  @Override
+  public UriProperties fromBytes(byte[] bytes) throws PropertySerializationException
+  {
+    if (!PropertiesBinaryCodec.isBinary(bytes))
+    {
+      return _jsonSerializer.fromBytes(bytes);
+    }
+
+    try
+    {
+      PropertiesBinaryCodec.Reader reader = new PropertiesBinaryCodec.Reader(bytes);
+      String clusterName = reader.readString();
+
+      int uriCount = reader.readLength();
+      Map<URI, Map<Integer, PartitionData>> partitionDesc = new HashMap<>(uriCount * 2);
+      for (int i = 0; i < uriCount; i++)
+      {
+        URI uri = URI.create(reader.readString());
+        int partitionCount = reader.readLength();
+        Map<Integer, PartitionData> partitionDataMap = new HashMap<>(partitionCount * 2);
+        for (int j = 0; j < partitionCount; j++)
+        {
+          int partitionId = reader.readInt();
+          partitionDataMap.put(partitionId, new PartitionData(reader.readDouble()));
+        }
+        partitionDesc.put(uri, partitionDataMap);
+      }
+
+      int uriSpecificPropertiesCount = reader.readLength();
+      Map<URI, Map<String, Object>> uriSpecificProperties;
+      if (uriSpecificPropertiesCount == 0)
+      {
+        uriSpecificProperties = Collections.emptyMap();
+      }
+      else
+      {
+        uriSpecificProperties = new HashMap<>(uriSpecificPropertiesCount * 2);
+        for (int i = 0; i < uriSpecificPropertiesCount; i++)
+        {
+          URI uri = URI.create(reader.readString());
+          uriSpecificProperties.put(uri, reader.readMap());
+        }
+      }
+      reader.checkFullyRead();
+
+      return new UriProperties(clusterName, partitionDesc, uriSpecificProperties);
+    }
+    catch (PropertySerializationException e)
+    {
+      throw e;
+    }
+    catch (Exception e)
+    {
+      throw new PropertySerializationException(e);
+    }
+  }
+
+  @Override
+  public UriProperties fromBytes(byte[] bytes, long version) throws PropertySerializationException
+  {
+    UriProperties uriProperties = fromBytes(bytes);
+    uriProperties.setVersion(version);
+    return uriProperties;
+  }
+}
@@ -21,8 +21,9 @@
 package com.linkedin.d2.balancer.servers;
 
 import com.linkedin.d2.balancer.properties.UriProperties;
-import com.linkedin.d2.balancer.properties.UriPropertiesJsonSerializer;
+import com.linkedin.d2.balancer.properties.UriPropertiesBinarySerializer;
 import com.linkedin.d2.balancer.properties.UriPropertiesMerger;
+import com.linkedin.d2.discovery.PropertySerializationFormat;
 import com.linkedin.d2.discovery.stores.zk.ZKConnection;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperEphemeralStore;
 
@@ -40,7 +41,7 @@ public class ZKUriStoreFactory implements ZooKeeperConnectionManager.ZKStoreFact
   @Override
   public ZooKeeperEphemeralStore<UriProperties> createStore(ZKConnection connection, String path)
   {
-    return new ZooKeeperEphemeralStore<>(connection, new UriPropertiesJsonSerializer(),
+    return new ZooKeeperEphemeralStore<>(connection, new UriPropertiesBinarySerializer(PropertySerializationFormat.JSON),
         new UriPropertiesMerger(), path);
   }
 }
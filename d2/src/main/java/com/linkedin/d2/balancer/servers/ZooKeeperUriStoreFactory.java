@@ -1,8 +1,9 @@
 package com.linkedin.d2.balancer.servers;
 
 import com.linkedin.d2.balancer.properties.UriProperties;
-import com.linkedin.d2.balancer.properties.UriPropertiesJsonSerializer;
+import com.linkedin.d2.balancer.properties.UriPropertiesBinarySerializer;
 import com.linkedin.d2.balancer.properties.UriPropertiesMerger;
+import com.linkedin.d2.discovery.PropertySerializationFormat;
 import com.linkedin.d2.discovery.stores.zk.ZKConnection;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperEphemeralStore;
 import com.linkedin.d2.discovery.stores.zk.ZookeeperChildFilter;
@@ -19,6 +20,7 @@ public class ZooKeeperUriStoreFactory implements ZooKeeperConnectionManager.ZKSt
   private ZookeeperChildFilter _childFilter;
   private ZookeeperEphemeralPrefixGenerator _prefixGenerator;
   private boolean _useHashEphemeralPrefix;
+  private PropertySerializationFormat _propertySerializationFormat;
 
   public ZooKeeperUriStoreFactory()
   {
@@ -26,11 +28,22 @@ public class ZooKeeperUriStoreFactory implements ZooKeeperConnectionManager.ZKSt
   }
 
   public ZooKeeperUriStoreFactory(ZookeeperChildFilter childFilter, ZookeeperEphemeralPrefixGenerator prefixGenerator, boolean useHashEphemeralPrefix)
+  {
+    this(childFilter, prefixGenerator, useHashEphemeralPrefix, PropertySerializationFormat.JSON);
+  }
+
+  /**
+   * @param propertySerializationFormat format in which the uris are announced, {@link PropertySerializationFormat#BINARY}
+   *                                    uris are only readable by the clients supporting it
+   */
+  public ZooKeeperUriStoreFactory(ZookeeperChildFilter childFilter, ZookeeperEphemeralPrefixGenerator prefixGenerator,
+      boolean useHashEphemeralPrefix, PropertySerializationFormat propertySerializationFormat)
   {
 
     _childFilter = childFilter;
     _prefixGenerator = prefixGenerator;
     _useHashEphemeralPrefix = useHashEphemeralPrefix;
+    _propertySerializationFormat = propertySerializationFormat;
   }
 
   @Override
@@ -38,7 +51,7 @@ public class ZooKeeperUriStoreFactory implements ZooKeeperConnectionManager.ZKSt
   {
     ZooKeeperEphemeralStoreBuilder<UriProperties> storeBuilder = new ZooKeeperEphemeralStoreBuilder<>();
     storeBuilder.setZkConnection(connection);
-    storeBuilder.setSerializer(new UriPropertiesJsonSerializer());
+    storeBuilder.setSerializer(new UriPropertiesBinarySerializer(_propertySerializationFormat));
     storeBuilder.setMerger(new UriPropertiesMerger());
     storeBuilder.setPath(path);
 
@@ -54,6 +54,14 @@ public abstract class AbstractLoadBalancerSubscriber<T> implements
     return waiters != null && waiters.isClosed();
   }
 
+  /**
+   * @return true if the subscriber listens to the property, or waits for it to be initialized
+   */
+  boolean isSubscribedToProperty(String propertyName)
+  {
+    return _waiters.containsKey(propertyName);
+  }
+
   public int propertyListenCount()
   {
     return _waiters.size();
@@ -122,6 +130,29 @@ public abstract class AbstractLoadBalancerSubscriber<T> implements
     callback.done(_type, propertyName);
   }
 
+  /**
+   * Stops listening to all the properties, completing the callbacks still waiting for one.
+   */
+  public void stopListening()
+  {
+    for (String propertyName : _waiters.keySet())
+    {
+      ClosableQueue<LoadBalancerState.LoadBalancerStateListenerCallback> waiterQueue = _waiters.remove(propertyName);
+      if (waiterQueue != null)
+      {
+        _eventBus.unregister(Collections.singleton(propertyName), this);
+        List<LoadBalancerState.LoadBalancerStateListenerCallback> queueList = waiterQueue.ensureClosed();
+        if (queueList != null)
+        {
+          for (LoadBalancerState.LoadBalancerStateListenerCallback waiter : queueList)
+          {
+            waiter.done(_type, propertyName);
+          }
+        }
+      }
+    }
+  }
+
   @Override
   public void onAdd(final String propertyName, final T propertyValue)
   {
@@ -82,6 +82,8 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
 {
   private static final int                                                               LOG_SUBSET_MAX_SIZE = 20;
   private static final Logger                                                            _log = LoggerFactory.getLogger(SimpleLoadBalancerState.class);
+  public static final long                                                               DEFAULT_URI_UPDATE_COALESCING_WINDOW_MS = 0;
+  public static final long                                                               DEFAULT_URI_UPDATE_COALESCING_MAX_DELAY_MS = 1000;
 
   private final UriLoadBalancerSubscriber _uriSubscriber;
   private final ClusterLoadBalancerSubscriber _clusterSubscriber;
@@ -321,7 +323,7 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     _serviceProperties = new ConcurrentHashMap<>();
     _version = new AtomicLong(0);
 
-    _uriSubscriber = new UriLoadBalancerSubscriber(uriBus, this);
+    _uriSubscriber = new UriLoadBalancerSubscriber(uriBus, this, executorService);
     _clusterSubscriber = new ClusterLoadBalancerSubscriber(this, clusterBus, partitionAccessorRegistry);
     _serviceSubscriber = new ServiceLoadBalancerSubscriber(serviceBus, this);
 
@@ -750,6 +752,48 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     _delayedExecution = delayedExecution;
   }
 
+  /**
+   * Coalesces the uri properties updates of each cluster, so that the tracker clients are rebuilt once for a burst
+   * of updates instead of once per update.
+   *
+   * @param windowMs time without updates of a cluster after which its latest uri properties are applied, 0 to
+   *                 apply every update right away
+   * @param maxDelayMs max time the uri properties of a cluster can be delayed while updates keep coming
+   */
+  public void setUriUpdateCoalescing(long windowMs, long maxDelayMs)
+  {
+    _uriSubscriber.setCoalescing(windowMs, maxDelayMs);
+  }
+
+  public long getUriUpdateCoalescingWindowMs()
+  {
+    return _uriSubscriber.getCoalescingWindowMs();
+  }
+
+  public long getUriUpdateCoalescingMaxDelayMs()
+  {
+    return _uriSubscriber.getCoalescingMaxDelayMs();
+  }
+
+  /**
+   * @return the number of uri properties updates skipped because a later update of the same cluster replaced them
+   */
+  public long getCoalescedUriUpdateCount()
+  {
+    return _uriSubscriber.getCoalescedUpdateCount();
+  }
+
+  /**
+   * Stops listening to all the service, cluster and uri properties. Used when the buses are shared with other
+   * states, which keep publishing to this state after it is shut down otherwise.
+   */
+  public void stopListening()
+  {
+    _serviceSubscriber.stopListening();
+    _clusterSubscriber.stopListening();
+    _uriSubscriber.stopListening();
+  }
+
   @Override
   public SubsettingState.SubsetItem getClientsSubset(String serviceName,
                                                   int minClusterSubsetSize,
@@ -22,12 +22,17 @@ import com.linkedin.d2.balancer.clients.TrackerClient;
 import com.linkedin.d2.balancer.properties.PartitionData;
 import com.linkedin.d2.balancer.properties.UriProperties;
 import com.linkedin.d2.discovery.event.PropertyEventBus;
+import com.linkedin.util.clock.Clock;
+import com.linkedin.util.clock.SystemClock;
 import java.net.URI;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,19 +41,225 @@ import static com.linkedin.d2.discovery.util.LogUtil.*;
 
 /**
  * Subscriber to the uri data to update the SimpleLoadBalancerState
+ *
+ * When coalescing is enabled, the uri properties added for a cluster are not handled right away: they are handled
+ * once no other update came for the cluster during the coalescing window, or once the max delay after the first
+ * update passed, and only the latest uri properties are handled then. Each update carries all the uris of the
+ * cluster, so a burst of host announcements during a deployment results in a few rebuilds of the tracker clients
+ * instead of one per host. Initializations and removals are always handled right away. The pending update of a
+ * cluster is dropped once the subscriber stops listening to it.
+ *
+ * The coalesced updates are handled on the executor of the {@link SimpleLoadBalancerState}, while the other ones
+ * are handled on the thread the bus publishes on. The bus must therefore publish on the same single threaded
+ * executor, as the state requires anyway, so that the two paths never update the state at the same time.
  */
 class UriLoadBalancerSubscriber extends AbstractLoadBalancerSubscriber<UriProperties>
 {
   private static final Logger _log = LoggerFactory.getLogger(UriLoadBalancerSubscriber.class);
 
   private SimpleLoadBalancerState _simpleLoadBalancerState;
+  private final ScheduledExecutorService _executor;
+  private final Clock _clock;
+
+  private volatile long _coalescingWindowMs = SimpleLoadBalancerState.DEFAULT_URI_UPDATE_COALESCING_WINDOW_MS;
+  private volatile long _coalescingMaxDelayMs = SimpleLoadBalancerState.DEFAULT_URI_UPDATE_COALESCING_MAX_DELAY_MS;
+  private final Map<String, PendingUpdate> _pendingUpdates = new ConcurrentHashMap<>();
+  private final AtomicLong _coalescedUpdateCount = new AtomicLong();
 
   public UriLoadBalancerSubscriber(PropertyEventBus<UriProperties> uPropertyEventBus,
-                                   SimpleLoadBalancerState simpleLoadBalancerState)
+                                   SimpleLoadBalancerState simpleLoadBalancerState,
+                                   ScheduledExecutorService executor)
+  {
+    this(uPropertyEventBus, simpleLoadBalancerState, executor, SystemClock.instance());
+  }
+
+  /**
+   * @param executor the executor of the state, on which the bus publishes
+   * @param clock measures the coalescing window and max delay
+   */
+  UriLoadBalancerSubscriber(PropertyEventBus<UriProperties> uPropertyEventBus,
+                            SimpleLoadBalancerState simpleLoadBalancerState,
+                            ScheduledExecutorService executor,
+                            Clock clock)
   {
     super(LoadBalancerState.LoadBalancerStateListenerCallback.CLUSTER, uPropertyEventBus);
 
     _simpleLoadBalancerState = simpleLoadBalancerState;
+    _executor = executor;
+    _clock = clock;
+  }
+
+  /**
+   * @param windowMs time without updates after which the latest update of a cluster is handled, 0 to disable
+   *                 coalescing
+   * @param maxDelayMs max time an update can be delayed by later updates, at least the window
+   */
+  void setCoalescing(long windowMs, long maxDelayMs)
+  {
+    _coalescingWindowMs = windowMs;
+    _coalescingMaxDelayMs = Math.max(windowMs, maxDelayMs);
+  }
+
+  long getCoalescingWindowMs()
+  {
+    return _coalescingWindowMs;
+  }
+
+  long getCoalescingMaxDelayMs()
+  {
+    return _coalescingMaxDelayMs;
+  }
+
+  /**
+   * @return the number of updates replaced by a later update before being handled
+   */
+  long getCoalescedUpdateCount()
+  {
+    return _coalescedUpdateCount.get();
+  }
+
+  @Override
+  public void onAdd(final String cluster, final UriProperties uriProperties)
+  {
+    long windowMs = _coalescingWindowMs;
+    if (windowMs <= 0)
+    {
+      flushPendingUpdate(cluster);
+      super.onAdd(cluster, uriProperties);
+      return;
+    }
+
+    long now = _clock.currentTimeMillis();
+    PendingUpdate pendingUpdate = _pendingUpdates.get(cluster);
+    if (pendingUpdate != null && pendingUpdate.replace(uriProperties, now))
+    {
+      _coalescedUpdateCount.incrementAndGet();
+      return;
+    }
+
+    pendingUpdate = new PendingUpdate(cluster, uriProperties, now);
+    _pendingUpdates.put(cluster, pendingUpdate);
+    _executor.schedule(pendingUpdate, windowMs, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void onInitialize(final String cluster, final UriProperties uriProperties)
+  {
+    discardPendingUpdate(cluster);
+    super.onInitialize(cluster, uriProperties);
+  }
+
+  @Override
+  public void onRemove(final String cluster)
+  {
+    discardPendingUpdate(cluster);
+    super.onRemove(cluster);
+  }
+
+  @Override
+  public void tryStopListening(String cluster, LoadBalancerState.LoadBalancerStateListenerCallback callback)
+  {
+    super.tryStopListening(cluster, callback);
+    if (!isSubscribedToProperty(cluster))
+    {
+      discardPendingUpdate(cluster);
+    }
+  }
+
+  @Override
+  public void stopListening()
+  {
+    super.stopListening();
+    for (String cluster : _pendingUpdates.keySet())
+    {
+      discardPendingUpdate(cluster);
+    }
+  }
+
+  private void flushPendingUpdate(String cluster)
+  {
+    PendingUpdate pendingUpdate = _pendingUpdates.remove(cluster);
+    if (pendingUpdate != null && pendingUpdate.take())
+    {
+      super.onAdd(cluster, pendingUpdate._uriProperties);
+    }
+  }
+
+  private void discardPendingUpdate(String cluster)
+  {
+    PendingUpdate pendingUpdate = _pendingUpdates.remove(cluster);
+    if (pendingUpdate != null)
+    {
+      pendingUpdate.take();
+    }
+  }
+
+  /**
+   * Latest uri properties of a cluster not handled yet, run by the executor once the updates of the cluster stop
+   * for the coalescing window or the max delay passed.
+   */
+  private class PendingUpdate implements Runnable
+  {
+    private final String _cluster;
+    private final long _firstUpdateMs;
+    private UriProperties _uriProperties;
+    private long _lastUpdateMs;
+    private boolean _taken = false;
+
+    PendingUpdate(String cluster, UriProperties uriProperties, long now)
+    {
+      _cluster = cluster;
+      _uriProperties = uriProperties;
+      _firstUpdateMs = now;
+      _lastUpdateMs = now;
+    }
+
+    /**
+     * @return false if the update was already handled or discarded, and can not be replaced anymore
+     */
+    synchronized boolean replace(UriProperties uriProperties, long now)
+    {
+      if (_taken)
+      {
+        return false;
+      }
+      _uriProperties = uriProperties;
+      _lastUpdateMs = now;
+      return true;
+    }
+
+    /**
+     * @return true if the update was neither handled nor discarded before
+     */
+    synchronized boolean take()
+    {
+      boolean taken = _taken;
+      _taken = true;
+      return !taken;
+    }
+
+    @Override
+    public void run()
+    {
+      long delayMs;
+      synchronized (this)
+      {
+        if (_taken)
+        {
+          return;
+        }
+        long deadline = Math.min(_lastUpdateMs + _coalescingWindowMs, _firstUpdateMs + _coalescingMaxDelayMs);
+        delayMs = deadline - _clock.currentTimeMillis();
+      }
+      if (delayMs > 0)
+      {
+        _executor.schedule(this, delayMs, TimeUnit.MILLISECONDS);
+      }
+      else if (_pendingUpdates.remove(_cluster, this) && take() && isSubscribedToProperty(_cluster))
+      {
+        UriLoadBalancerSubscriber.super.onAdd(_cluster, _uriProperties);
+      }
+    }
   }
 
   @Override
@@ -17,8 +17,8 @@
 package com.linkedin.d2.balancer.strategies;
 
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyConfig;
-import com.linkedin.d2.balancer.util.hashing.ConsistentHashRing;
 import com.linkedin.d2.balancer.util.hashing.ConsistentHashRing.Point;
+import com.linkedin.d2.balancer.util.hashing.IncrementalConsistentHashRing;
 import com.linkedin.d2.balancer.util.hashing.Ring;
 
 import java.nio.ByteBuffer;
@@ -43,6 +43,10 @@ import org.slf4j.LoggerFactory;
  *    points for each update unless more Points are needed.
  * 2. Avoid re-invoking MD5 (or other expensive hashing mechanisms) for the point generation.
  *
+ * The rings created are {@link IncrementalConsistentHashRing}s. When only some of the hosts change their
+ * number of points, which is the common case of a degrader update, the new ring is derived from the previous
+ * one by adding and removing the points of these hosts, instead of sorting all the points again.
+ *
  * Note: DegraderRingFactory is not thread safe. It is currently protected by partition lock
  *       from the caller. Make sure to have proper protection if it is used in other environment.
  */
@@ -60,6 +64,10 @@ public class PointBasedConsistentHashRingFactory<T> implements RingFactory<T>
   private final int HASH_PARTITION_NUM = 4;
   private final int POINT_SIZE_IN_BYTE = 4;
 
+  // last ring created, and the number of points of each object in it
+  private IncrementalConsistentHashRing<T> _ring;
+  private Map<T, Integer> _ringPointCounts;
+
   public PointBasedConsistentHashRingFactory(final DegraderLoadBalancerStrategyConfig config)
   {
     this(config.getHashRingPointCleanUpRate());
@@ -83,9 +91,60 @@ public class PointBasedConsistentHashRingFactory<T> implements RingFactory<T>
 
   @Override
   public Ring<T> createRing(Map<T, Integer> points)
+  {
+    if (clearPoints(points.size()) || _ring == null || !updateRing(points))
+    {
+      buildRing(points);
+    }
+    _ringPointCounts = new HashMap<>(points);
+    return _ring;
+  }
+
+  /**
+   * Derives the new ring from the previous one, unless so many points change that building it is cheaper.
+   *
+   * @return true if the ring was updated
+   */
+  private boolean updateRing(Map<T, Integer> points)
+  {
+    List<Point<T>> removedPoints = new ArrayList<>();
+    List<Point<T>> addedPoints = new ArrayList<>();
+    int size = 0;
+    for (Map.Entry<T, Integer> entry : _ringPointCounts.entrySet())
+    {
+      if (!points.containsKey(entry.getKey()))
+      {
+        removedPoints.addAll(_ringPoints.get(entry.getKey()).subList(0, entry.getValue()));
+      }
+    }
+    for (Map.Entry<T, Integer> entry : points.entrySet())
+    {
+      T t = entry.getKey();
+      int numDesiredPoints = entry.getValue();
+      int numRingPoints = _ringPointCounts.getOrDefault(t, 0);
+      size += numDesiredPoints;
+      if (numDesiredPoints < numRingPoints)
+      {
+        removedPoints.addAll(_ringPoints.get(t).subList(numDesiredPoints, numRingPoints));
+      }
+      else if (numDesiredPoints > numRingPoints)
+      {
+        addedPoints.addAll(getPointList(t, numDesiredPoints).subList(numRingPoints, numDesiredPoints));
+      }
+    }
+
+    if (removedPoints.size() + addedPoints.size() > size / 2 || !_ring.hasSegmentsFor(size))
+    {
+      return false;
+    }
+    _log.debug("Updating hash ring, removing points {} and adding points {}", removedPoints, addedPoints);
+    _ring = _ring.update(removedPoints, addedPoints);
+    return true;
+  }
+
+  private void buildRing(Map<T, Integer> points)
   {
     List<Point<T>> newRingPoints = new ArrayList<>();
-    clearPoints(points.size());
     for (Map.Entry<T, Integer> entry : points.entrySet())
     {
       T t = entry.getKey();
@@ -97,7 +156,7 @@ public class PointBasedConsistentHashRingFactory<T> implements RingFactory<T>
     }
 
     _log.debug("Creating new hash ring with the following points {}", newRingPoints);
-    return new ConsistentHashRing<>(newRingPoints);
+    _ring = IncrementalConsistentHashRing.build(newRingPoints);
   }
 
   public Map<T, List<Point<T>>> getPointsMap()
@@ -122,15 +181,18 @@ public class PointBasedConsistentHashRingFactory<T> implements RingFactory<T>
    * time on clean up when the total host number is small.
    *
    * @param size the size of new URI list
+   * @return true if the points were cleaned up
    */
-  private void clearPoints(int size)
+  private boolean clearPoints(int size)
   {
     int unusedEntries = _ringPoints.size() - size;
     int unusedEntryThreshold = (int)(_ringPoints.size() * _hashRingPointCleanUpRate);
     if (unusedEntries > Math.max(unusedEntryThreshold, POINTS_CLEANUP_MIN_UNUSED_ENTRY))
     {
       _ringPoints.clear();
+      return true;
     }
+    return false;
   }
 
   /**
@@ -69,6 +69,21 @@ public class DegraderConfigFactory
         }
       }
 
+      if (properties.get(PropertyKeys.DEGRADER_PERCENTILE_TRACKING) != null)
+      {
+        try
+        {
+          config.setPercentileTracking(DegraderImpl.PercentileTracking.valueOf(properties.get(PropertyKeys.
+                                                                                                  DEGRADER_PERCENTILE_TRACKING)));
+        }
+        catch (IllegalArgumentException e)
+        {
+          warn(_log, "Received an illegal enum for percentileTracking in the cluster properties. The enum is " +
+              properties.get(PropertyKeys.DEGRADER_PERCENTILE_TRACKING), e);
+          config.setPercentileTracking(DegraderImpl.DEFAULT_PERCENTILE_TRACKING);
+        }
+      }
+
       config.setMaxDropRate(MapUtil.getWithDefault(properties, PropertyKeys.DEGRADER_MAX_DROP_RATE,
                                                    DegraderImpl.DEFAULT_MAX_DROP_RATE));
 
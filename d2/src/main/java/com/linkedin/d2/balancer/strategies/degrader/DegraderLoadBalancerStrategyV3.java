@@ -231,7 +231,7 @@ public class DegraderLoadBalancerStrategyV3 implements LoadBalancerStrategy
     if (degrader.checkPreemptiveTimeout())
     {
       DegraderControl degraderControl = client.getDegraderControl(partitionId);
-      requestContext.putLocalAttr(R2Constants.PREEMPTIVE_TIMEOUT_RATE, degraderControl.getPreemptiveRequestTimeoutRate());
+      requestContext.putLocalAttr(R2Constants.PREEMPTIVE_TIMEOUT_RATE_KEY, degraderControl.getPreemptiveRequestTimeoutRate());
     }
 
     return client;
@@ -0,0 +1,190 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.strategies.leastloaded;
+
+import com.linkedin.d2.balancer.KeyMapper;
+import com.linkedin.d2.balancer.clients.TrackerClient;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
+import com.linkedin.d2.balancer.util.hashing.HashFunction;
+import com.linkedin.d2.balancer.util.hashing.RandomHash;
+import com.linkedin.d2.balancer.util.hashing.Ring;
+import com.linkedin.r2.message.Request;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.util.degrader.CallTracker;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Load balancer strategy picking, for each request, the least loaded of a few hosts chosen at random (the
+ * "power of two choices"). The load of a host is its number of calls in flight, plus the new one, times the
+ * moving average of its call duration, divided by its weight in the partition. Both are read live from the
+ * {@link CallTracker} of the host, so that the strategy moves traffic away from a host as soon as its calls
+ * start piling up, during a GC pause for example, instead of at the next update of a hash ring.
+ *
+ * Comparing a few random hosts rather than all of them keeps each choice cheap, and keeps clients from all
+ * rushing to the same least loaded host.
+ */
+public class LeastLoadedLoadBalancerStrategy implements LoadBalancerStrategy
+{
+  private static final Logger LOG = LoggerFactory.getLogger(LeastLoadedLoadBalancerStrategy.class);
+
+  public static final String LEAST_LOADED_STRATEGY_NAME = "leastLoaded";
+
+  private final int _choiceCount;
+  private final HashFunction<Request> _hashFunction = new RandomHash();
+
+  /**
+   * @param choiceCount number of hosts chosen at random among which the least loaded is picked
+   */
+  public LeastLoadedLoadBalancerStrategy(int choiceCount)
+  {
+    if (choiceCount < 1)
+    {
+      throw new IllegalArgumentException("Invalid choice count: " + choiceCount);
+    }
+    _choiceCount = choiceCount;
+  }
+
+  @Override
+  public String getName()
+  {
+    return LEAST_LOADED_STRATEGY_NAME;
+  }
+
+  @Override
+  public TrackerClient getTrackerClient(Request request,
+                                        RequestContext requestContext,
+                                        long clusterGenerationId,
+                                        int partitionId,
+                                        Map<URI, TrackerClient> trackerClients)
+  {
+    if (trackerClients == null || trackerClients.isEmpty())
+    {
+      return null;
+    }
+
+    URI targetHostUri = KeyMapper.TargetHostHints.getRequestContextTargetHost(requestContext);
+    if (targetHostUri != null)
+    {
+      TrackerClient trackerClient = trackerClients.get(targetHostUri);
+      if (trackerClient == null)
+      {
+        LOG.warn("No client found for {}. Target host specified is no longer part of cluster", targetHostUri);
+      }
+      return trackerClient;
+    }
+
+    TrackerClient[] hosts = getHosts(trackerClients, ExcludedHostHints.getRequestContextExcludedHosts(requestContext));
+    TrackerClient trackerClient = pickLeastLoaded(hosts, partitionId);
+    if (trackerClient != null)
+    {
+      ExcludedHostHints.addRequestContextExcludedHost(requestContext, trackerClient.getUri());
+    }
+    return trackerClient;
+  }
+
+  /**
+   * @param hosts copy of the hosts, which is shuffled in place
+   */
+  private TrackerClient pickLeastLoaded(TrackerClient[] hosts, int partitionId)
+  {
+    int choiceCount = Math.min(_choiceCount, hosts.length);
+    // Partial Fisher-Yates shuffle, to choose distinct hosts
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < choiceCount && choiceCount < hosts.length; i++)
+    {
+      int j = i + random.nextInt(hosts.length - i);
+      TrackerClient choice = hosts[j];
+      hosts[j] = hosts[i];
+      hosts[i] = choice;
+    }
+
+    TrackerClient best = null;
+    double bestLoad = Double.MAX_VALUE;
+    for (int i = 0; i < choiceCount; i++)
+    {
+      double load = getLoad(hosts[i], partitionId);
+      if (best == null || load < bestLoad)
+      {
+        best = hosts[i];
+        bestLoad = load;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @return the load of a host, or {@link Double#MAX_VALUE} if it has no weight in the partition
+   */
+  static double getLoad(TrackerClient trackerClient, int partitionId)
+  {
+    Double partitionWeight = trackerClient.getPartitionWeight(partitionId);
+    double weight = (partitionWeight == null ? 1D : partitionWeight) * trackerClient.getSubsetWeight(partitionId);
+    if (weight <= 0)
+    {
+      return Double.MAX_VALUE;
+    }
+    CallTracker callTracker = trackerClient.getCallTracker();
+    // Hosts without a completed call yet count as fast, so that they get their first calls
+    double callTime = Math.max(callTracker.getCurrentCallTimeEwma(), 1D);
+    return (callTracker.getCurrentConcurrency() + 1) * callTime / weight;
+  }
+
+  private static TrackerClient[] getHosts(Map<URI, TrackerClient> trackerClients, Set<URI> excludedUris)
+  {
+    if (excludedUris == null || excludedUris.isEmpty())
+    {
+      return trackerClients.values().toArray(new TrackerClient[0]);
+    }
+    List<TrackerClient> hosts = new ArrayList<>(trackerClients.size());
+    for (TrackerClient trackerClient : trackerClients.values())
+    {
+      if (!excludedUris.contains(trackerClient.getUri()))
+      {
+        hosts.add(trackerClient);
+      }
+    }
+    return hosts.toArray(new TrackerClient[0]);
+  }
+
+  @Nonnull
+  @Override
+  public Ring<URI> getRing(long clusterGenerationId, int partitionId, Map<URI, TrackerClient> trackerClients)
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public HashFunction<Request> getHashFunction()
+  {
+    return _hashFunction;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "LeastLoadedLoadBalancerStrategy{choiceCount=" + _choiceCount + "}";
+  }
+}
@@ -0,0 +1,56 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.strategies.leastloaded;
+
+import com.linkedin.common.util.MapUtil;
+import com.linkedin.d2.balancer.properties.PropertyKeys;
+import com.linkedin.d2.balancer.properties.ServiceProperties;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategyFactory;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Load balancer factory for {@link LeastLoadedLoadBalancerStrategy}. The number of hosts compared for each
+ * request is read from the {@link PropertyKeys#HTTP_LB_CHOICE_COUNT} load balancer strategy property.
+ */
+public class LeastLoadedLoadBalancerStrategyFactory implements LoadBalancerStrategyFactory<LeastLoadedLoadBalancerStrategy>
+{
+  private static final Logger LOG = LoggerFactory.getLogger(LeastLoadedLoadBalancerStrategyFactory.class);
+
+  public static final int DEFAULT_CHOICE_COUNT = 2;
+
+  @Override
+  public LeastLoadedLoadBalancerStrategy newLoadBalancer(ServiceProperties serviceProperties)
+  {
+    int choiceCount = DEFAULT_CHOICE_COUNT;
+    Map<String, Object> loadBalancerStrategyProperties = serviceProperties.getLoadBalancerStrategyProperties();
+    if (loadBalancerStrategyProperties != null)
+    {
+      choiceCount = MapUtil.getWithDefault(loadBalancerStrategyProperties, PropertyKeys.HTTP_LB_CHOICE_COUNT,
+          DEFAULT_CHOICE_COUNT, Integer.class);
+    }
+    if (choiceCount < 1)
+    {
+      LOG.warn("Invalid choice count {} for service {}, falling back to {}", choiceCount,
+          serviceProperties.getServiceName(), DEFAULT_CHOICE_COUNT);
+      choiceCount = DEFAULT_CHOICE_COUNT;
+    }
+    return new LeastLoadedLoadBalancerStrategy(choiceCount);
+  }
+}
@@ -120,6 +120,11 @@ public class RelativeLoadBalancerStrategy implements LoadBalancerStrategy
     return _stateUpdater.getFirstValidPartitionId();
   }
 
+  public long getLastUpdateDurationMs()
+  {
+    return _stateUpdater.getLastUpdateDurationMs();
+  }
+
   /**
    * Exposed for testings
    */
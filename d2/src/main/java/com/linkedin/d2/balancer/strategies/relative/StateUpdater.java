@@ -24,14 +24,19 @@ import com.linkedin.d2.balancer.util.hashing.Ring;
 import com.linkedin.util.degrader.CallTracker;
 import com.linkedin.util.degrader.ErrorType;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
@@ -44,6 +49,11 @@ import org.slf4j.LoggerFactory;
  * There are 2 types of updates:
  * 1. The scheduled updates are scheduled with an executor service
  * 2. The incoming request may trigger an update too if the cluster is not initialized or cluster generation changed
+ *
+ * The scheduled update recomputes the partitions in parallel, with at most {@link #DEFAULT_UPDATE_PARALLELISM}
+ * (or the configured parallelism) partitions updated at the same time, so that services with many partitions and
+ * hosts finish their update within the interval. The scheduled update still waits for all the partitions to be
+ * updated, so that it never overlaps with the updates due to cluster changes, which run on the same executor.
  */
 public class StateUpdater
 {
@@ -54,6 +64,7 @@ public class StateUpdater
   private static final int SLOW_START_RECOVERY_FACTOR = 2;
   private static final int LOG_UNHEALTHY_CLIENT_NUMBERS = 10;
   private static final long EXECUTOR_INITIAL_DELAY = 10;
+  static final int DEFAULT_UPDATE_PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
 
   private final D2RelativeStrategyProperties _relativeStrategyProperties;
   private final QuarantineManager _quarantineManager;
@@ -61,7 +72,10 @@ public class StateUpdater
   private final Lock _lock;
   private final List<PartitionStateUpdateListener.Factory<PartitionState>> _listenerFactories;
   private final String _serviceName;
+  private final int _updateParallelism;
+  private final Executor _updateExecutor;
 
+  private volatile long _lastUpdateDurationMs = 0;
   private ConcurrentMap<Integer, PartitionState> _partitionLoadBalancerStateMap;
   private int _firstPartitionId = -1;
 
@@ -80,6 +94,23 @@ public class StateUpdater
       ConcurrentMap<Integer, PartitionState> partitionLoadBalancerStateMap,
       List<PartitionStateUpdateListener.Factory<PartitionState>> listenerFactories,
       String serviceName)
+  {
+    this(relativeStrategyProperties, quarantineManager, executorService, partitionLoadBalancerStateMap, listenerFactories,
+        serviceName, DEFAULT_UPDATE_PARALLELISM, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param updateParallelism The max number of partitions updated at the same time by the scheduled update
+   * @param updateExecutor The executor running the partition updates besides the scheduled update thread
+   */
+  StateUpdater(D2RelativeStrategyProperties relativeStrategyProperties,
+      QuarantineManager quarantineManager,
+      ScheduledExecutorService executorService,
+      ConcurrentMap<Integer, PartitionState> partitionLoadBalancerStateMap,
+      List<PartitionStateUpdateListener.Factory<PartitionState>> listenerFactories,
+      String serviceName,
+      int updateParallelism,
+      Executor updateExecutor)
   {
     _relativeStrategyProperties = relativeStrategyProperties;
     _quarantineManager = quarantineManager;
@@ -88,6 +119,8 @@ public class StateUpdater
     _partitionLoadBalancerStateMap = partitionLoadBalancerStateMap;
     _lock = new ReentrantLock();
     _serviceName = serviceName;
+    _updateParallelism = Math.max(1, updateParallelism);
+    _updateExecutor = updateExecutor;
 
     _executorService.scheduleWithFixedDelay(this::updateState, EXECUTOR_INITIAL_DELAY,
         _relativeStrategyProperties.getUpdateIntervalMs(), TimeUnit.MILLISECONDS);
@@ -161,24 +194,59 @@ public class StateUpdater
     return _firstPartitionId;
   }
 
+  /**
+   * Return the time taken by the last scheduled update of all the partitions.
+   */
+  long getLastUpdateDurationMs()
+  {
+    return _lastUpdateDurationMs;
+  }
+
   /**
    * Update the partition state.
    * This is scheduled by executor, we do not expect any host added/removed from this change
    */
   void updateState()
   {
+    long startTime = System.nanoTime();
     try {
-      // Update state for each partition
-      for (Integer partitionId : _partitionLoadBalancerStateMap.keySet())
+      List<Integer> partitionIds = new ArrayList<>(_partitionLoadBalancerStateMap.keySet());
+      AtomicInteger nextPartition = new AtomicInteger(0);
+      Runnable partitionUpdater = () -> {
+        for (int i = nextPartition.getAndIncrement(); i < partitionIds.size(); i = nextPartition.getAndIncrement())
+        {
+          updateStateForPartition(partitionIds.get(i));
+        }
+      };
+
+      // Update state for each partition, the current thread takes part in the update with the other workers
+      int workerCount = Math.min(_updateParallelism, partitionIds.size()) - 1;
+      List<CompletableFuture<Void>> workers = new ArrayList<>(Math.max(workerCount, 0));
+      for (int i = 0; i < workerCount; i++)
       {
-        PartitionState partitionState = _partitionLoadBalancerStateMap.get(partitionId);
-        updateStateForPartition(partitionState.getTrackerClients(), partitionId, partitionState, partitionState.getClusterGenerationId(),
-            false);
+        workers.add(CompletableFuture.runAsync(partitionUpdater, _updateExecutor));
       }
+      partitionUpdater.run();
+      CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).join();
     } catch (Exception ex)
     {
       LOG.error("Failed to update the state for service: " + _serviceName, ex);
     }
+    _lastUpdateDurationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+  }
+
+  private void updateStateForPartition(int partitionId)
+  {
+    try
+    {
+      PartitionState partitionState = _partitionLoadBalancerStateMap.get(partitionId);
+      updateStateForPartition(partitionState.getTrackerClients(), partitionId, partitionState, partitionState.getClusterGenerationId(),
+          false);
+    }
+    catch (Exception ex)
+    {
+      LOG.error("Failed to update the state for service: " + _serviceName + ", partitionId: " + partitionId, ex);
+    }
   }
 
   /**
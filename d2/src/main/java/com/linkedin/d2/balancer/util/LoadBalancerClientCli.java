@@ -22,12 +22,12 @@ import com.linkedin.common.util.None;
 import com.linkedin.d2.balancer.LoadBalancerState;
 import com.linkedin.d2.balancer.clients.DynamicClient;
 import com.linkedin.d2.balancer.properties.ClusterProperties;
-import com.linkedin.d2.balancer.properties.ClusterPropertiesJsonSerializer;
+import com.linkedin.d2.balancer.properties.ClusterPropertiesBinarySerializer;
 import com.linkedin.d2.balancer.properties.PartitionData;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
-import com.linkedin.d2.balancer.properties.ServicePropertiesJsonSerializer;
+import com.linkedin.d2.balancer.properties.ServicePropertiesBinarySerializer;
 import com.linkedin.d2.balancer.properties.UriProperties;
-import com.linkedin.d2.balancer.properties.UriPropertiesJsonSerializer;
+import com.linkedin.d2.balancer.properties.UriPropertiesBinarySerializer;
 import com.linkedin.d2.balancer.properties.UriPropertiesMerger;
 import com.linkedin.d2.balancer.simple.SimpleLoadBalancer;
 import com.linkedin.d2.balancer.simple.SimpleLoadBalancerState;
@@ -40,6 +40,7 @@ import com.linkedin.d2.balancer.zkfs.ZKFSComponentFactory;
 import com.linkedin.d2.balancer.zkfs.ZKFSLoadBalancer;
 import com.linkedin.d2.balancer.zkfs.ZKFSTogglingLoadBalancerFactoryImpl;
 import com.linkedin.d2.balancer.zkfs.ZKFSUtil;
+import com.linkedin.d2.discovery.PropertySerializationFormat;
 import com.linkedin.d2.discovery.PropertySerializer;
 import com.linkedin.d2.discovery.event.PropertyEventBus;
 import com.linkedin.d2.discovery.event.PropertyEventBusImpl;
@@ -709,15 +710,15 @@ public class LoadBalancerClientCli
     ZooKeeperPermanentStore<ClusterProperties> zkClusterRegistry =
         (ZooKeeperPermanentStore<ClusterProperties>) getStore(zkclient,
             clstoreString,
-            new ClusterPropertiesJsonSerializer());
+            new ClusterPropertiesBinarySerializer(PropertySerializationFormat.JSON));
     ZooKeeperPermanentStore<ServiceProperties> zkServiceRegistry =
         (ZooKeeperPermanentStore<ServiceProperties>) getStore(zkclient,
             scstoreString,
-            new ServicePropertiesJsonSerializer());
+            new ServicePropertiesBinarySerializer(PropertySerializationFormat.JSON));
     ZooKeeperEphemeralStore<UriProperties> zkUriRegistry =
         (ZooKeeperEphemeralStore<UriProperties>) getEphemeralStore(zkclient,
             uristoreString,
-            new UriPropertiesJsonSerializer(),
+            new UriPropertiesBinarySerializer(PropertySerializationFormat.JSON),
             new UriPropertiesMerger());
 
     PropertyEventBus<ServiceProperties> serviceBus =
@@ -805,11 +806,11 @@ public class LoadBalancerClientCli
     ZooKeeperPermanentStore<ServiceProperties> zkServiceRegistry =
         (ZooKeeperPermanentStore<ServiceProperties>) getStore(_zkclient,
                                                               scstoreString,
-                                                              new ServicePropertiesJsonSerializer());
+                                                              new ServicePropertiesBinarySerializer(PropertySerializationFormat.JSON));
     ZooKeeperEphemeralStore<UriProperties> zkUriRegistry =
         (ZooKeeperEphemeralStore<UriProperties>) getEphemeralStore(_zkclient,
                                                                    uristoreString,
-                                                                   new UriPropertiesJsonSerializer(),
+                                                                   new UriPropertiesBinarySerializer(PropertySerializationFormat.JSON),
                                                                    new UriPropertiesMerger());
 
     String clusterName = zkServiceRegistry.get(serviceName).getClusterName();
@@ -831,11 +832,11 @@ public class LoadBalancerClientCli
     ZooKeeperPermanentStore<ServiceProperties> zkServiceRegistry =
         (ZooKeeperPermanentStore<ServiceProperties>) getStore(_zkclient,
                                                               scstoreString,
-                                                              new ServicePropertiesJsonSerializer());
+                                                              new ServicePropertiesBinarySerializer(PropertySerializationFormat.JSON));
     ZooKeeperEphemeralStore<UriProperties> zkUriRegistry =
         (ZooKeeperEphemeralStore<UriProperties>) getEphemeralStore(_zkclient,
                                                                    uristoreString,
-                                                                   new UriPropertiesJsonSerializer(),
+                                                                   new UriPropertiesBinarySerializer(PropertySerializationFormat.JSON),
                                                                    new UriPropertiesMerger());
 
     List<String> currentservices = zkServiceRegistry.ls();
@@ -869,7 +870,7 @@ public class LoadBalancerClientCli
     zkServiceRegistry =
         (ZooKeeperPermanentStore<ServiceProperties>) getStore(zkclient,
                                                               scstoreString,
-                                                              new ServicePropertiesJsonSerializer());
+                                                              new ServicePropertiesBinarySerializer(PropertySerializationFormat.JSON));
 
     return zkServiceRegistry.get(service).getClusterName().equals(cluster);
 
@@ -906,11 +907,11 @@ public class LoadBalancerClientCli
       zkClusterRegistry =
         (ZooKeeperPermanentStore<ClusterProperties>) getStore(zkclient,
                                                               clstoreString,
-                                                              new ClusterPropertiesJsonSerializer());
+                                                              new ClusterPropertiesBinarySerializer(PropertySerializationFormat.JSON));
       zkUriRegistry =
         (ZooKeeperEphemeralStore<UriProperties>) getEphemeralStore(zkclient,
                                                                    uristoreString,
-                                                                   new UriPropertiesJsonSerializer(),
+                                                                   new UriPropertiesBinarySerializer(PropertySerializationFormat.JSON),
                                                                    new UriPropertiesMerger());
 
 
@@ -920,14 +921,14 @@ public class LoadBalancerClientCli
         String scstoreString = zkserver + ZKFSUtil.servicePath(d2path, serviceGroup);
         zkServiceRegistry = (ZooKeeperPermanentStore<ServiceProperties>) getStore(zkclient,
                                                                 scstoreString,
-                                                                new ServicePropertiesJsonSerializer());
+                                                                new ServicePropertiesBinarySerializer(PropertySerializationFormat.JSON));
       }
       else
       {
         String scstoreString = zkserver + ZKFSUtil.servicePath(d2path);
         zkServiceRegistry = (ZooKeeperPermanentStore<ServiceProperties>) getStore(zkclient,
                                                                 scstoreString,
-                                                                new ServicePropertiesJsonSerializer());
+                                                                new ServicePropertiesBinarySerializer(PropertySerializationFormat.JSON));
       }
 
       sb.append(printStore(zkClusterRegistry, zkUriRegistry, cluster));
@@ -1007,11 +1008,11 @@ public class LoadBalancerClientCli
     ZooKeeperPermanentStore<ClusterProperties> zkClusterRegistry =
         (ZooKeeperPermanentStore<ClusterProperties>) getStore(zkclient,
                                                               clstoreString,
-                                                              new ClusterPropertiesJsonSerializer());
+                                                              new ClusterPropertiesBinarySerializer(PropertySerializationFormat.JSON));
     ZooKeeperEphemeralStore<UriProperties> zkUriRegistry =
         (ZooKeeperEphemeralStore<UriProperties>) getEphemeralStore(zkclient,
                                                                    uristoreString,
-                                                                   new UriPropertiesJsonSerializer(),
+                                                                   new UriPropertiesBinarySerializer(PropertySerializationFormat.JSON),
                                                                    new UriPropertiesMerger());
 
     List<String> currentclusters = zkClusterRegistry.ls();
@@ -1024,7 +1025,7 @@ public class LoadBalancerClientCli
       ZooKeeperPermanentStore<ServiceProperties> zkServiceRegistry =
         (ZooKeeperPermanentStore<ServiceProperties>) getStore(zkclient,
                                                               scstoreString,
-                                                              new ServicePropertiesJsonSerializer());
+                                                              new ServicePropertiesBinarySerializer(PropertySerializationFormat.JSON));
       zkServiceRegistryMap.put(serviceGroup, zkServiceRegistry);
       List<String> services = zkServiceRegistry.ls();
       currentservices.addAll(services);
@@ -0,0 +1,374 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.util.hashing;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import javax.annotation.Nonnull;
+
+
+/**
+ * {@link ConsistentHashRing} whose points are split by hash range into sorted, immutable segments, so that
+ * a ring with a few hosts changing their number of points can be derived from the previous one by
+ * {@link #update(Collection, Collection)}: only the segments with points added or removed are copied, the
+ * others are shared between the two rings. This avoids sorting and allocating all the points of large rings,
+ * 2000 hosts with 100 points each for example, whenever a few host weights change.
+ *
+ * Segments hold about {@link #TARGET_SEGMENT_SIZE} points on average, and the number of segments is picked when
+ * the ring is built from scratch by {@link #build(List)}. Lookups first pick the segment of the key from its
+ * highest bits, and then binary search within the segment.
+ *
+ * @param <T>
+ */
+public class IncrementalConsistentHashRing<T> extends ConsistentHashRing<T>
+{
+  static final int TARGET_SEGMENT_SIZE = 64;
+  private static final int MAX_SEGMENT_BITS = 16;
+
+  private final Segments<T> _segments;
+
+  private IncrementalConsistentHashRing(Segments<T> segments)
+  {
+    super(segments);
+    _segments = segments;
+  }
+
+  /**
+   * Builds a ring with the given points, which do not need to be sorted.
+   */
+  public static <T> IncrementalConsistentHashRing<T> build(List<Point<T>> points)
+  {
+    int segmentBits = getSegmentBits(points.size());
+    List<List<Point<T>>> buckets = new ArrayList<>(1 << segmentBits);
+    for (int i = 0; i < 1 << segmentBits; i++)
+    {
+      buckets.add(new ArrayList<>());
+    }
+    for (Point<T> point : points)
+    {
+      buckets.get(getSegment(point.getHash(), segmentBits)).add(point);
+    }
+
+    @SuppressWarnings("unchecked")
+    Point<T>[][] segments = new Point[1 << segmentBits][];
+    for (int i = 0; i < segments.length; i++)
+    {
+      segments[i] = toSortedArray(buckets.get(i));
+    }
+    return new IncrementalConsistentHashRing<>(new Segments<>(segments, segmentBits));
+  }
+
+  /**
+   * Derives a new ring from this one, sharing the segments without changes.
+   *
+   * @param removedPoints points of this ring to remove, which are matched by identity
+   * @param addedPoints points to add
+   */
+  public IncrementalConsistentHashRing<T> update(Collection<Point<T>> removedPoints, Collection<Point<T>> addedPoints)
+  {
+    int segmentBits = _segments._segmentBits;
+    Map<Integer, List<Point<T>>> removedBySegment = groupBySegment(removedPoints, segmentBits);
+    Map<Integer, List<Point<T>>> addedBySegment = groupBySegment(addedPoints, segmentBits);
+
+    Point<T>[][] segments = _segments._segments.clone();
+    for (Map.Entry<Integer, List<Point<T>>> entry : removedBySegment.entrySet())
+    {
+      segments[entry.getKey()] = remove(segments[entry.getKey()], entry.getValue());
+    }
+    for (Map.Entry<Integer, List<Point<T>>> entry : addedBySegment.entrySet())
+    {
+      segments[entry.getKey()] = merge(segments[entry.getKey()], toSortedArray(entry.getValue()));
+    }
+    return new IncrementalConsistentHashRing<>(new Segments<>(segments, segmentBits));
+  }
+
+  /**
+   * @return true if a ring of the given size would have the same segments as this one when built from scratch
+   */
+  public boolean hasSegmentsFor(int size)
+  {
+    return getSegmentBits(size) == _segments._segmentBits;
+  }
+
+  @Override
+  public T get(int key)
+  {
+    Point<T> point = _segments.getPoint(key);
+    return point == null ? null : point.getT();
+  }
+
+  @Nonnull
+  @Override
+  public Iterator<T> getIterator(int key)
+  {
+    return new ConsistentHashRingIterator<>(_segments, _segments.isEmpty() ? 0 : _segments.getIndex(key));
+  }
+
+  int getSegmentCount()
+  {
+    return _segments._segments.length;
+  }
+
+  /**
+   * @return the segment at the given index, for tests to check which segments are shared
+   */
+  Point<T>[] getSegment(int index)
+  {
+    return _segments._segments[index];
+  }
+
+  private static int getSegmentBits(int size)
+  {
+    int segmentBits = 0;
+    while (segmentBits < MAX_SEGMENT_BITS && (TARGET_SEGMENT_SIZE << (segmentBits + 1)) <= size)
+    {
+      segmentBits++;
+    }
+    return segmentBits;
+  }
+
+  /**
+   * Segments are ordered like the hashes: the sign bit is flipped so that negative hashes come first.
+   */
+  private static int getSegment(int hash, int segmentBits)
+  {
+    return segmentBits == 0 ? 0 : (hash ^ Integer.MIN_VALUE) >>> (Integer.SIZE - segmentBits);
+  }
+
+  private static <T> Map<Integer, List<Point<T>>> groupBySegment(Collection<Point<T>> points, int segmentBits)
+  {
+    Map<Integer, List<Point<T>>> pointsBySegment = new HashMap<>();
+    for (Point<T> point : points)
+    {
+      pointsBySegment.computeIfAbsent(getSegment(point.getHash(), segmentBits), segment -> new ArrayList<>()).add(point);
+    }
+    return pointsBySegment;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Point<T>[] toSortedArray(List<Point<T>> points)
+  {
+    Point<T>[] array = points.toArray(new Point[0]);
+    Arrays.sort(array);
+    return array;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Point<T>[] remove(Point<T>[] segment, List<Point<T>> removedPoints)
+  {
+    Map<Point<T>, Boolean> removed = new IdentityHashMap<>(removedPoints.size());
+    for (Point<T> point : removedPoints)
+    {
+      removed.put(point, Boolean.TRUE);
+    }
+    Point<T>[] result = new Point[segment.length];
+    int size = 0;
+    for (Point<T> point : segment)
+    {
+      if (!removed.containsKey(point))
+      {
+        result[size++] = point;
+      }
+    }
+    return size == result.length ? result : Arrays.copyOf(result, size);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Point<T>[] merge(Point<T>[] segment, Point<T>[] addedPoints)
+  {
+    Point<T>[] result = new Point[segment.length + addedPoints.length];
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    while (i < segment.length && j < addedPoints.length)
+    {
+      result[k++] = segment[i].compareTo(addedPoints[j]) <= 0 ? segment[i++] : addedPoints[j++];
+    }
+    while (i < segment.length)
+    {
+      result[k++] = segment[i++];
+    }
+    while (j < addedPoints.length)
+    {
+      result[k++] = addedPoints[j++];
+    }
+    return result;
+  }
+
+  /**
+   * Immutable, sorted view of the points of all segments.
+   */
+  private static class Segments<T> extends AbstractList<Point<T>> implements RandomAccess
+  {
+    private final Point<T>[][] _segments;
+    private final int _segmentBits;
+    // Index in the ring of the first point of each segment, followed by the size of the ring
+    private final int[] _offsets;
+    // Index of the first non empty segment from each segment on, or -1
+    private final int[] _nextNonEmptySegments;
+
+    Segments(Point<T>[][] segments, int segmentBits)
+    {
+      _segments = segments;
+      _segmentBits = segmentBits;
+      _offsets = new int[segments.length + 1];
+      for (int i = 0; i < segments.length; i++)
+      {
+        _offsets[i + 1] = _offsets[i] + segments[i].length;
+      }
+      _nextNonEmptySegments = new int[segments.length + 1];
+      _nextNonEmptySegments[segments.length] = -1;
+      for (int i = segments.length - 1; i >= 0; i--)
+      {
+        _nextNonEmptySegments[i] = segments[i].length > 0 ? i : _nextNonEmptySegments[i + 1];
+      }
+    }
+
+    /**
+     * @return the first point with a hash greater than or equal to the key, wrapping around the ring
+     */
+    Point<T> getPoint(int key)
+    {
+      int segment = getSegment(key, _segmentBits);
+      Point<T>[] points = _segments[segment];
+      int index = search(points, key);
+      if (index < points.length)
+      {
+        return points[index];
+      }
+      int next = _nextNonEmptySegments[segment + 1];
+      if (next < 0)
+      {
+        next = _nextNonEmptySegments[0];
+      }
+      return next < 0 ? null : _segments[next][0];
+    }
+
+    /**
+     * @return the index in the ring of the point returned by {@link #getPoint(int)}
+     */
+    int getIndex(int key)
+    {
+      int segment = getSegment(key, _segmentBits);
+      return (_offsets[segment] + search(_segments[segment], key)) % size();
+    }
+
+    private static <T> int search(Point<T>[] points, int key)
+    {
+      int low = 0;
+      int high = points.length;
+      while (low < high)
+      {
+        int middle = (low + high) >>> 1;
+        if (points[middle].getHash() < key)
+        {
+          low = middle + 1;
+        }
+        else
+        {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    @Override
+    public Point<T> get(int index)
+    {
+      if (index < 0 || index >= size())
+      {
+        throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+      }
+      // Last segment starting at or before the index, which is not empty
+      int low = 0;
+      int high = _segments.length - 1;
+      while (low < high)
+      {
+        int middle = (low + high + 1) >>> 1;
+        if (_offsets[middle] <= index)
+        {
+          low = middle;
+        }
+        else
+        {
+          high = middle - 1;
+        }
+      }
+      return _segments[low][index - _offsets[low]];
+    }
+
+    @Override
+    public int size()
+    {
+      return _offsets[_segments.length];
+    }
+
+    @Override
+    public Iterator<Point<T>> iterator()
+    {
+      return new Iterator<Point<T>>()
+      {
+        private int _segment = 0;
+        private int _index = 0;
+
+        @Override
+        public boolean hasNext()
+        {
+          while (_segment < _segments.length && _index >= _segments[_segment].length)
+          {
+            _segment++;
+            _index = 0;
+          }
+          return _segment < _segments.length;
+        }
+
+        @Override
+        public Point<T> next()
+        {
+          if (!hasNext())
+          {
+            throw new NoSuchElementException();
+          }
+          return _segments[_segment][_index++];
+        }
+      };
+    }
+
+    /**
+     * The points are always sorted, so sorting them by their natural order, as {@link ConsistentHashRing} does,
+     * has nothing to do.
+     */
+    @Override
+    public void sort(Comparator<? super Point<T>> comparator)
+    {
+      if (comparator != null)
+      {
+        throw new UnsupportedOperationException();
+      }
+    }
+  }
+}
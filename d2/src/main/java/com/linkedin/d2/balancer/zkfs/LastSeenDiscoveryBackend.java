@@ -0,0 +1,331 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.zkfs;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.MultiCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.d2.balancer.properties.ClusterProperties;
+import com.linkedin.d2.balancer.properties.ServiceProperties;
+import com.linkedin.d2.balancer.properties.UriProperties;
+import com.linkedin.d2.discovery.event.PropertyEventBus;
+import com.linkedin.d2.discovery.event.PropertyEventBusImpl;
+import com.linkedin.d2.discovery.stores.zk.LastSeenZKStore;
+import com.linkedin.d2.discovery.stores.zk.ZKPersistentConnection;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The discovery part of a {@link LastSeenLoadBalancerWithFacilities}: the connection to ZooKeeper, the
+ * {@link LastSeenZKStore}s and the buses publishing their properties.
+ *
+ * The backend can be shared by several load balancers, each subscribing to its buses with its own state, so that
+ * the properties are watched and kept in memory once for all of them while their strategies stay independent.
+ * Each of them subscribes through the buses returned for its own executor, which call it back on that executor.
+ * It is reference counted: each user is added by {@link #acquire} when it is handed the backend, which keeps it from
+ * being shut down by the other users until it shuts down itself. The first {@link #start} starts it, the following
+ * ones only wait for it to be started, and only the last {@link #shutdown} shuts it down. The other ones unsubscribe
+ * their user from the buses instead.
+ */
+public class LastSeenDiscoveryBackend
+{
+  private static final Logger LOG = LoggerFactory.getLogger(LastSeenDiscoveryBackend.class);
+
+  private final ZKPersistentConnection _zkPersistentConnection;
+  private final LastSeenZKStore<ClusterProperties> _lsClusterStore;
+  private final LastSeenZKStore<ServiceProperties> _lsServiceStore;
+  private final LastSeenZKStore<UriProperties> _lsUrisStore;
+  private final SharedPropertyEventBus<ClusterProperties> _clusterBus;
+  private final SharedPropertyEventBus<ServiceProperties> _serviceBus;
+  private final SharedPropertyEventBus<UriProperties> _uriBus;
+
+  private final Object _lock = new Object();
+  private final List<Callback<None>> _startCallbacks = new ArrayList<>();
+  private int _userCount = 0;
+  private boolean _starting = false;
+  private boolean _started = false;
+  private Throwable _startError = null;
+  private boolean _shutdown = false;
+
+  /**
+   * Creates a backend publishing the properties of the stores to new buses, run on the given executor.
+   */
+  public LastSeenDiscoveryBackend(ZKPersistentConnection zkPersistentConnection,
+      LastSeenZKStore<ClusterProperties> lsClusterStore, LastSeenZKStore<ServiceProperties> lsServiceStore,
+      LastSeenZKStore<UriProperties> lsUrisStore, ExecutorService executorService)
+  {
+    this(zkPersistentConnection, lsClusterStore, lsServiceStore, lsUrisStore,
+        new SharedPropertyEventBus<>(new PropertyEventBusImpl<>(executorService, lsClusterStore)),
+        new SharedPropertyEventBus<>(new PropertyEventBusImpl<>(executorService, lsServiceStore)),
+        new SharedPropertyEventBus<>(new PropertyEventBusImpl<>(executorService, lsUrisStore)));
+  }
+
+  /**
+   * Creates a backend for stores already publishing to buses which are not known, used by a single load balancer
+   * which is already added as its user.
+   */
+  LastSeenDiscoveryBackend(ZKPersistentConnection zkPersistentConnection,
+      LastSeenZKStore<ClusterProperties> lsClusterStore, LastSeenZKStore<ServiceProperties> lsServiceStore,
+      LastSeenZKStore<UriProperties> lsUrisStore)
+  {
+    this(zkPersistentConnection, lsClusterStore, lsServiceStore, lsUrisStore, null, null, null);
+    acquire();
+  }
+
+  private LastSeenDiscoveryBackend(ZKPersistentConnection zkPersistentConnection,
+      LastSeenZKStore<ClusterProperties> lsClusterStore, LastSeenZKStore<ServiceProperties> lsServiceStore,
+      LastSeenZKStore<UriProperties> lsUrisStore, SharedPropertyEventBus<ClusterProperties> clusterBus,
+      SharedPropertyEventBus<ServiceProperties> serviceBus, SharedPropertyEventBus<UriProperties> uriBus)
+  {
+    _zkPersistentConnection = zkPersistentConnection;
+    _lsClusterStore = lsClusterStore;
+    _lsServiceStore = lsServiceStore;
+    _lsUrisStore = lsUrisStore;
+    _clusterBus = clusterBus;
+    _serviceBus = serviceBus;
+    _uriBus = uriBus;
+  }
+
+  // #################### lifecycle ####################
+
+  /**
+   * Adds a user to the backend, which must then {@link #shutdown} it once done with it, whether it started it or not.
+   *
+   * @return false if the backend is already shut down, in which case no user is added and a new backend is needed
+   */
+  public boolean acquire()
+  {
+    synchronized (_lock)
+    {
+      if (_shutdown)
+      {
+        return false;
+      }
+      _userCount++;
+      return true;
+    }
+  }
+
+  /**
+   * Starts the backend for a user added by {@link #acquire}, and calls back once the backend is started.
+   */
+  public void start(Callback<None> callback)
+  {
+    boolean startNow;
+    boolean started;
+    Throwable startError;
+    synchronized (_lock)
+    {
+      if (_shutdown)
+      {
+        callback.onError(new IllegalStateException("The discovery backend is already shut down"));
+        return;
+      }
+      started = _started;
+      startError = _startError;
+      startNow = !_starting;
+      if (!started)
+      {
+        _startCallbacks.add(callback);
+        _starting = true;
+      }
+    }
+
+    if (started)
+    {
+      if (startError == null)
+      {
+        callback.onSuccess(None.none());
+      }
+      else
+      {
+        callback.onError(startError);
+      }
+      return;
+    }
+
+    if (startNow)
+    {
+      try
+      {
+        _zkPersistentConnection.start();
+      }
+      catch (IOException e)
+      {
+        LOG.error("Error in starting connection while starting discovery backend. The connection may be already "
+            + "started. The backend will continue booting up", e);
+      }
+
+      MultiCallback multiCallback = new MultiCallback(new Callback<None>()
+      {
+        @Override
+        public void onError(Throwable e)
+        {
+          completeStart(e);
+        }
+
+        @Override
+        public void onSuccess(None result)
+        {
+          completeStart(null);
+        }
+      }, 3);
+      _lsClusterStore.start(multiCallback);
+      _lsServiceStore.start(multiCallback);
+      _lsUrisStore.start(multiCallback);
+    }
+  }
+
+  private void completeStart(Throwable e)
+  {
+    List<Callback<None>> callbacks;
+    synchronized (_lock)
+    {
+      _started = true;
+      _startError = e;
+      callbacks = new ArrayList<>(_startCallbacks);
+      _startCallbacks.clear();
+    }
+
+    for (Callback<None> callback : callbacks)
+    {
+      if (e == null)
+      {
+        callback.onSuccess(None.none());
+      }
+      else
+      {
+        callback.onError(e);
+      }
+    }
+  }
+
+  /**
+   * Removes a user added by {@link #acquire} from the backend. The last user shuts the backend down, while the other ones only run the given
+   * unsubscriber, which must stop its user listening to the buses it got for its executor. The backend stays
+   * subscribed to the properties, since stopping publishing a property removes it from the disk, where it must stay
+   * for the other users and the next start.
+   */
+  public void shutdown(Runnable unsubscriber, Callback<None> callback)
+  {
+    boolean last;
+    synchronized (_lock)
+    {
+      if (_userCount == 0)
+      {
+        LOG.warn("Shutting down a discovery backend which has no user");
+        callback.onSuccess(None.none());
+        return;
+      }
+      _userCount--;
+      last = _userCount == 0;
+      _shutdown = last;
+    }
+
+    if (!last)
+    {
+      LOG.info("Discovery backend still used by other load balancers, unsubscribing");
+      unsubscriber.run();
+      callback.onSuccess(None.none());
+      return;
+    }
+
+    LOG.info("Shutting down discovery backend");
+    MultiCallback multiCallback = new MultiCallback(callback, 3);
+    try
+    {
+      _zkPersistentConnection.shutdown();
+    }
+    catch (InterruptedException e)
+    {
+      LOG.info("Error in shutting down connection while shutting down discovery backend");
+    }
+
+    _lsClusterStore.shutdown(multiCallback);
+    _lsServiceStore.shutdown(multiCallback);
+    _lsUrisStore.shutdown(multiCallback);
+  }
+
+  /**
+   * @return true once the last user shut the backend down, after which it can not be started again
+   */
+  public boolean isShutdown()
+  {
+    synchronized (_lock)
+    {
+      return _shutdown;
+    }
+  }
+
+  public int getUserCount()
+  {
+    synchronized (_lock)
+    {
+      return _userCount;
+    }
+  }
+
+  // #################### accessors ####################
+
+  public ZKPersistentConnection getZKPersistentConnection()
+  {
+    return _zkPersistentConnection;
+  }
+
+  /**
+   * @return the cluster bus, calling its subscribers back on the executor of the backend, or null when the backend
+   *         was created for stores publishing to buses which are not known
+   */
+  public PropertyEventBus<ClusterProperties> getClusterBus()
+  {
+    return _clusterBus == null ? null : _clusterBus.getBus();
+  }
+
+  public PropertyEventBus<ServiceProperties> getServiceBus()
+  {
+    return _serviceBus == null ? null : _serviceBus.getBus();
+  }
+
+  public PropertyEventBus<UriProperties> getUriBus()
+  {
+    return _uriBus == null ? null : _uriBus.getBus();
+  }
+
+  /**
+   * @return the cluster bus for a user running on the given executor, calling its subscribers back on it. Only
+   *         available when the backend created the buses.
+   */
+  public PropertyEventBus<ClusterProperties> getClusterBus(ExecutorService executorService)
+  {
+    return _clusterBus.forExecutor(executorService);
+  }
+
+  public PropertyEventBus<ServiceProperties> getServiceBus(ExecutorService executorService)
+  {
+    return _serviceBus.forExecutor(executorService);
+  }
+
+  public PropertyEventBus<UriProperties> getUriBus(ExecutorService executorService)
+  {
+    return _uriBus.forExecutor(executorService);
+  }
+}
@@ -27,6 +27,7 @@ import com.linkedin.d2.balancer.properties.ClusterProperties;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
 import com.linkedin.d2.balancer.properties.UriProperties;
 import com.linkedin.d2.balancer.simple.SimpleLoadBalancer;
+import com.linkedin.d2.balancer.simple.SimpleLoadBalancerState;
 import com.linkedin.d2.balancer.util.ClusterInfoProvider;
 import com.linkedin.d2.balancer.util.hashing.ConsistentHashKeyMapper;
 import com.linkedin.d2.balancer.util.hashing.HashRingProvider;
@@ -38,7 +39,6 @@ import com.linkedin.r2.message.Request;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.transport.common.TransportClientFactory;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
-import java.io.IOException;
 import java.util.Collections;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
@@ -48,7 +48,8 @@ import org.slf4j.LoggerFactory;
 /**
  * The class adds the facilities interface to the LoadBalancer and takes care of starting all components.
  * It uses the LastSeenZKStore which allow reading the last values fetched from ZK even if ZK is not reachable
- * when the request is made
+ * when the request is made. The stores are part of a {@link LastSeenDiscoveryBackend}, which can be shared with other
+ * load balancers.
  *
  * @author Francesco Capponi (fcapponi@linkedin.com)
  */
@@ -57,23 +58,29 @@ public class LastSeenLoadBalancerWithFacilities implements LoadBalancerWithFacil
   private static final Logger LOG = LoggerFactory.getLogger(LastSeenLoadBalancerWithFacilities.class);
 
   private final ZKFSDirectory _directory;
-  private ZKPersistentConnection _zkPersistentConnection;
-  private LastSeenZKStore<ClusterProperties> _lsClusterStore;
-  private LastSeenZKStore<ServiceProperties> _lsServiceStore;
-  private LastSeenZKStore<UriProperties> _lsUrisStore;
+  private final LastSeenDiscoveryBackend _backend;
+  private final SimpleLoadBalancerState _state;
   private final SimpleLoadBalancer _loadBalancer;
   private final KeyMapper _keyMapper;
 
   public LastSeenLoadBalancerWithFacilities(SimpleLoadBalancer loadBalancer, String basePath, String d2ServicePath,
       ZKPersistentConnection zkPersistentConnection, LastSeenZKStore<ClusterProperties> lsClusterStore, LastSeenZKStore<ServiceProperties> lsServiceStore,
       LastSeenZKStore<UriProperties> lsUrisStore) {
+    this(loadBalancer, null, basePath, d2ServicePath,
+        new LastSeenDiscoveryBackend(zkPersistentConnection, lsClusterStore, lsServiceStore, lsUrisStore));
+  }
+
+  /**
+   * @param state state of the load balancer, subscribed to the buses of the backend, which stops listening to them
+   *              when the load balancer is shut down while other load balancers still use the backend
+   */
+  public LastSeenLoadBalancerWithFacilities(SimpleLoadBalancer loadBalancer, SimpleLoadBalancerState state,
+      String basePath, String d2ServicePath, LastSeenDiscoveryBackend backend) {
     _loadBalancer = loadBalancer;
+    _state = state;
     _directory = new ZKFSDirectory(basePath, d2ServicePath);
-    _zkPersistentConnection = zkPersistentConnection;
-
-    _lsClusterStore = lsClusterStore;
-    _lsServiceStore = lsServiceStore;
-    _lsUrisStore = lsUrisStore;
+    _backend = backend;
+    ZKPersistentConnection zkPersistentConnection = backend.getZKPersistentConnection();
     _keyMapper = new ConsistentHashKeyMapper(_loadBalancer, _loadBalancer);
     zkPersistentConnection.addListeners(Collections.singleton(new ZKPersistentConnection.EventListenerNotifiers() {
       @Override
@@ -87,17 +94,8 @@ public class LastSeenLoadBalancerWithFacilities implements LoadBalancerWithFacil
 
   @Override
   public void start(final Callback<None> callback) {
-    try {
-      _zkPersistentConnection.start();
-    } catch (IOException e) {
-      LOG.error("Error in starting connection while starting load balancer. The connection be already started. "
-          + "The LoadBalancer will continue booting up", e);
-    }
-
-    MultiCallback multiCallback = new MultiCallback(callback, 4);
-    _lsClusterStore.start(multiCallback);
-    _lsServiceStore.start(multiCallback);
-    _lsUrisStore.start(multiCallback);
+    MultiCallback multiCallback = new MultiCallback(callback, 2);
+    _backend.start(multiCallback);
     _loadBalancer.start(multiCallback);
   }
 
@@ -114,18 +112,14 @@ public class LastSeenLoadBalancerWithFacilities implements LoadBalancerWithFacil
       public void onSuccess(None result) {
         callback.done();
       }
-    }, 4);
+    }, 2);
 
+    _backend.shutdown(() -> {
+      if (_state != null) {
+        _state.stopListening();
+      }
+    }, multiCallback);
     _loadBalancer.shutdown(() -> multiCallback.onSuccess(None.none()));
-    try {
-      _zkPersistentConnection.shutdown();
-    } catch (InterruptedException e) {
-      LOG.info("Error in shutting down connection while shutting down load balancer");
-    }
-
-    _lsClusterStore.shutdown(multiCallback);
-    _lsServiceStore.shutdown(multiCallback);
-    _lsUrisStore.shutdown(multiCallback);
   }
 
   // #################### delegation ####################
@@ -0,0 +1,214 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.zkfs;
+
+import com.linkedin.d2.discovery.event.PropertyEventBus;
+import com.linkedin.d2.discovery.event.PropertyEventPublisher;
+import com.linkedin.d2.discovery.event.PropertyEventSubscriber;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A bus of a {@link LastSeenDiscoveryBackend} shared by several users, each of them seeing it through its own
+ * {@link #forExecutor view}.
+ *
+ * A view calls the subscribers of its user back on the executor of the user rather than on the one of the bus, since
+ * the state of a load balancer expects all its updates on its own single threaded executor. Unsubscribing from a
+ * view leaves the bus subscribed to the property: once a property is watched, it stays watched until the backend is
+ * shut down, because stopping publishing a property in a {@link com.linkedin.d2.discovery.stores.zk.LastSeenZKStore}
+ * deletes its file, which the other users and the next start still need.
+ */
+class SharedPropertyEventBus<T>
+{
+  private static final Logger LOG = LoggerFactory.getLogger(SharedPropertyEventBus.class);
+
+  private final PropertyEventBus<T> _bus;
+  private final Set<String> _keptProperties = ConcurrentHashMap.newKeySet();
+  private final PropertyEventSubscriber<T> _keeper = new PropertyEventSubscriber<T>()
+  {
+    @Override
+    public void onInitialize(String propertyName, T propertyValue)
+    {
+    }
+
+    @Override
+    public void onAdd(String propertyName, T propertyValue)
+    {
+    }
+
+    @Override
+    public void onRemove(String propertyName)
+    {
+    }
+  };
+
+  SharedPropertyEventBus(PropertyEventBus<T> bus)
+  {
+    _bus = bus;
+  }
+
+  PropertyEventBus<T> getBus()
+  {
+    return _bus;
+  }
+
+  /**
+   * @return a view of the bus calling back its subscribers on the given executor
+   */
+  PropertyEventBus<T> forExecutor(ExecutorService executorService)
+  {
+    return new ExecutorBus(executorService);
+  }
+
+  /**
+   * Subscribes the bus itself to the properties it does not keep yet, before they are unsubscribed from a view.
+   * Both go through the single threaded executor of the bus in order, so the properties never lose all their
+   * subscribers.
+   */
+  private void keep(Set<String> propertyNames)
+  {
+    Set<String> newProperties = new HashSet<>();
+    for (String propertyName : propertyNames)
+    {
+      if (_keptProperties.add(propertyName))
+      {
+        newProperties.add(propertyName);
+      }
+    }
+    if (!newProperties.isEmpty())
+    {
+      _bus.register(newProperties, _keeper);
+    }
+  }
+
+  private class ExecutorBus implements PropertyEventBus<T>
+  {
+    private final ExecutorService _executorService;
+    private final Map<PropertyEventSubscriber<T>, PropertyEventSubscriber<T>> _subscribers = new ConcurrentHashMap<>();
+
+    private ExecutorBus(ExecutorService executorService)
+    {
+      _executorService = executorService;
+    }
+
+    @Override
+    public void register(PropertyEventSubscriber<T> subscriber)
+    {
+      _bus.register(onExecutor(subscriber));
+    }
+
+    @Override
+    public void unregister(PropertyEventSubscriber<T> subscriber)
+    {
+      _bus.unregister(onExecutor(subscriber));
+    }
+
+    @Override
+    public void register(Set<String> propertyNames, PropertyEventSubscriber<T> subscriber)
+    {
+      _bus.register(propertyNames, onExecutor(subscriber));
+    }
+
+    @Override
+    public void unregister(Set<String> propertyNames, PropertyEventSubscriber<T> subscriber)
+    {
+      keep(propertyNames);
+      _bus.unregister(propertyNames, onExecutor(subscriber));
+    }
+
+    @Override
+    public void setPublisher(PropertyEventPublisher<T> publisher)
+    {
+      _bus.setPublisher(publisher);
+    }
+
+    @Override
+    public void publishInitialize(String prop, T value)
+    {
+      _bus.publishInitialize(prop, value);
+    }
+
+    @Override
+    public void publishAdd(String prop, T value)
+    {
+      _bus.publishAdd(prop, value);
+    }
+
+    @Override
+    public void publishRemove(String prop)
+    {
+      _bus.publishRemove(prop);
+    }
+
+    /**
+     * @return the subscriber registered to the bus for the given one, the same one each time so that it can be
+     *         unregistered
+     */
+    private PropertyEventSubscriber<T> onExecutor(PropertyEventSubscriber<T> subscriber)
+    {
+      return _subscribers.computeIfAbsent(subscriber, ExecutorSubscriber::new);
+    }
+
+    private class ExecutorSubscriber implements PropertyEventSubscriber<T>
+    {
+      private final PropertyEventSubscriber<T> _subscriber;
+
+      private ExecutorSubscriber(PropertyEventSubscriber<T> subscriber)
+      {
+        _subscriber = subscriber;
+      }
+
+      @Override
+      public void onInitialize(String propertyName, T propertyValue)
+      {
+        execute(propertyName, () -> _subscriber.onInitialize(propertyName, propertyValue));
+      }
+
+      @Override
+      public void onAdd(String propertyName, T propertyValue)
+      {
+        execute(propertyName, () -> _subscriber.onAdd(propertyName, propertyValue));
+      }
+
+      @Override
+      public void onRemove(String propertyName)
+      {
+        execute(propertyName, () -> _subscriber.onRemove(propertyName));
+      }
+
+      private void execute(String propertyName, Runnable event)
+      {
+        try
+        {
+          _executorService.execute(event);
+        }
+        catch (RejectedExecutionException e)
+        {
+          // The user shut its executor down after unsubscribing, before the bus processed the unsubscription
+          LOG.debug("Dropping event of property {} for a user which is shut down", propertyName);
+        }
+      }
+    }
+  }
+}
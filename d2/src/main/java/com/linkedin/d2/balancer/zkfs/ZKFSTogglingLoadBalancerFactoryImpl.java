@@ -25,11 +25,11 @@ import com.linkedin.common.util.None;
 import com.linkedin.d2.balancer.clusterfailout.FailoutConfigProviderFactory;
 import com.linkedin.d2.balancer.dualread.DualReadStateManager;
 import com.linkedin.d2.balancer.properties.ClusterProperties;
-import com.linkedin.d2.balancer.properties.ClusterPropertiesJsonSerializer;
+import com.linkedin.d2.balancer.properties.ClusterPropertiesBinarySerializer;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
-import com.linkedin.d2.balancer.properties.ServicePropertiesJsonSerializer;
+import com.linkedin.d2.balancer.properties.ServicePropertiesBinarySerializer;
 import com.linkedin.d2.balancer.properties.UriProperties;
-import com.linkedin.d2.balancer.properties.UriPropertiesJsonSerializer;
+import com.linkedin.d2.balancer.properties.UriPropertiesBinarySerializer;
 import com.linkedin.d2.balancer.properties.UriPropertiesMerger;
 import com.linkedin.d2.balancer.simple.SimpleLoadBalancer;
 import com.linkedin.d2.balancer.simple.SimpleLoadBalancerState;
@@ -42,6 +42,7 @@ import com.linkedin.d2.balancer.util.TogglingLoadBalancer;
 import com.linkedin.d2.balancer.util.canary.CanaryDistributionProvider;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessorRegistry;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessorRegistryImpl;
+import com.linkedin.d2.discovery.PropertySerializationFormat;
 import com.linkedin.d2.discovery.PropertySerializer;
 import com.linkedin.d2.discovery.event.PropertyEventBus;
 import com.linkedin.d2.discovery.event.PropertyEventBusImpl;
@@ -97,6 +98,9 @@ public class ZKFSTogglingLoadBalancerFactoryImpl implements ZKFSLoadBalancer.Tog
   private final FailoutConfigProviderFactory _failoutConfigProviderFactory;
   private final ServiceDiscoveryEventEmitter _serviceDiscoveryEventEmitter;
   private final DualReadStateManager _dualReadStateManager;
+  private final long _uriUpdateCoalescingWindowMs;
+  private final long _uriUpdateCoalescingMaxDelayMs;
+  private final PropertySerializationFormat _propertySerializationFormat;
 
   private static final Logger _log = LoggerFactory.getLogger(ZKFSTogglingLoadBalancerFactoryImpl.class);
 
@@ -362,6 +366,118 @@ public class ZKFSTogglingLoadBalancerFactoryImpl implements ZKFSLoadBalancer.Tog
       CanaryDistributionProvider canaryDistributionProvider,
       ServiceDiscoveryEventEmitter serviceDiscoveryEventEmitter,
       DualReadStateManager dualReadStateManager)
+  {
+    this(factory,
+        timeout,
+        timeoutUnit,
+        baseZKPath,
+        fsBasePath,
+        clientFactories,
+        loadBalancerStrategyFactories,
+        d2ServicePath,
+        sslContext,
+        sslParameters,
+        isSSLEnabled,
+        clientServicesConfig,
+        useNewEphemeralStoreWatcher,
+        partitionAccessorRegistry,
+        enableSaveUriDataOnDisk,
+        sslSessionValidatorFactory,
+        d2ClientJmxManager,
+        zookeeperReadWindowMs,
+        deterministicSubsettingMetadataProvider,
+        failoutConfigProviderFactory,
+        canaryDistributionProvider,
+        serviceDiscoveryEventEmitter,
+        dualReadStateManager,
+        SimpleLoadBalancerState.DEFAULT_URI_UPDATE_COALESCING_WINDOW_MS,
+        SimpleLoadBalancerState.DEFAULT_URI_UPDATE_COALESCING_MAX_DELAY_MS);
+  }
+
+  public ZKFSTogglingLoadBalancerFactoryImpl(ComponentFactory factory,
+      long timeout,
+      TimeUnit timeoutUnit,
+      String baseZKPath,
+      String fsBasePath,
+      Map<String, TransportClientFactory> clientFactories,
+      Map<String, LoadBalancerStrategyFactory<? extends LoadBalancerStrategy>> loadBalancerStrategyFactories,
+      String d2ServicePath,
+      SSLContext sslContext,
+      SSLParameters sslParameters,
+      boolean isSSLEnabled,
+      Map<String, Map<String, Object>> clientServicesConfig,
+      boolean useNewEphemeralStoreWatcher,
+      PartitionAccessorRegistry partitionAccessorRegistry,
+      boolean enableSaveUriDataOnDisk,
+      SslSessionValidatorFactory sslSessionValidatorFactory,
+      D2ClientJmxManager d2ClientJmxManager,
+      int zookeeperReadWindowMs,
+      DeterministicSubsettingMetadataProvider deterministicSubsettingMetadataProvider,
+      FailoutConfigProviderFactory failoutConfigProviderFactory,
+      CanaryDistributionProvider canaryDistributionProvider,
+      ServiceDiscoveryEventEmitter serviceDiscoveryEventEmitter,
+      DualReadStateManager dualReadStateManager,
+      long uriUpdateCoalescingWindowMs,
+      long uriUpdateCoalescingMaxDelayMs)
+  {
+    this(factory,
+        timeout,
+        timeoutUnit,
+        baseZKPath,
+        fsBasePath,
+        clientFactories,
+        loadBalancerStrategyFactories,
+        d2ServicePath,
+        sslContext,
+        sslParameters,
+        isSSLEnabled,
+        clientServicesConfig,
+        useNewEphemeralStoreWatcher,
+        partitionAccessorRegistry,
+        enableSaveUriDataOnDisk,
+        sslSessionValidatorFactory,
+        d2ClientJmxManager,
+        zookeeperReadWindowMs,
+        deterministicSubsettingMetadataProvider,
+        failoutConfigProviderFactory,
+        canaryDistributionProvider,
+        serviceDiscoveryEventEmitter,
+        dualReadStateManager,
+        uriUpdateCoalescingWindowMs,
+        uriUpdateCoalescingMaxDelayMs,
+        PropertySerializationFormat.JSON);
+  }
+
+  /**
+   * @param propertySerializationFormat format in which the properties are written to the backup files, the
+   *                                    properties read from ZooKeeper and the files can be in any format
+   */
+  public ZKFSTogglingLoadBalancerFactoryImpl(ComponentFactory factory,
+      long timeout,
+      TimeUnit timeoutUnit,
+      String baseZKPath,
+      String fsBasePath,
+      Map<String, TransportClientFactory> clientFactories,
+      Map<String, LoadBalancerStrategyFactory<? extends LoadBalancerStrategy>> loadBalancerStrategyFactories,
+      String d2ServicePath,
+      SSLContext sslContext,
+      SSLParameters sslParameters,
+      boolean isSSLEnabled,
+      Map<String, Map<String, Object>> clientServicesConfig,
+      boolean useNewEphemeralStoreWatcher,
+      PartitionAccessorRegistry partitionAccessorRegistry,
+      boolean enableSaveUriDataOnDisk,
+      SslSessionValidatorFactory sslSessionValidatorFactory,
+      D2ClientJmxManager d2ClientJmxManager,
+      int zookeeperReadWindowMs,
+      DeterministicSubsettingMetadataProvider deterministicSubsettingMetadataProvider,
+      FailoutConfigProviderFactory failoutConfigProviderFactory,
+      CanaryDistributionProvider canaryDistributionProvider,
+      ServiceDiscoveryEventEmitter serviceDiscoveryEventEmitter,
+      DualReadStateManager dualReadStateManager,
+      long uriUpdateCoalescingWindowMs,
+      long uriUpdateCoalescingMaxDelayMs,
+      PropertySerializationFormat propertySerializationFormat)
   {
     _factory = factory;
     _lbTimeout = timeout;
@@ -386,6 +502,9 @@ public class ZKFSTogglingLoadBalancerFactoryImpl implements ZKFSLoadBalancer.Tog
     _canaryDistributionProvider = canaryDistributionProvider;
     _serviceDiscoveryEventEmitter = serviceDiscoveryEventEmitter;
     _dualReadStateManager = dualReadStateManager;
+    _uriUpdateCoalescingWindowMs = uriUpdateCoalescingWindowMs;
+    _uriUpdateCoalescingMaxDelayMs = uriUpdateCoalescingMaxDelayMs;
+    _propertySerializationFormat = propertySerializationFormat;
   }
 
   @Override
@@ -394,13 +513,13 @@ public class ZKFSTogglingLoadBalancerFactoryImpl implements ZKFSLoadBalancer.Tog
     _log.info("Using d2ServicePath: " + _d2ServicePath);
     ZooKeeperPermanentStore<ClusterProperties> zkClusterRegistry = createPermanentStore(
       zkConnection, ZKFSUtil.clusterPath(_baseZKPath),
-      new ClusterPropertiesJsonSerializer(), executorService, _zookeeperReadWindowMs);
+      new ClusterPropertiesBinarySerializer(_propertySerializationFormat), executorService, _zookeeperReadWindowMs);
     zkClusterRegistry.setDualReadStateManager(_dualReadStateManager);
     _d2ClientJmxManager.setZkClusterRegistry(zkClusterRegistry);
 
     ZooKeeperPermanentStore<ServiceProperties> zkServiceRegistry = createPermanentStore(
       zkConnection, ZKFSUtil.servicePath(_baseZKPath, _d2ServicePath),
-      new ServicePropertiesJsonSerializer(_clientServicesConfig), executorService, _zookeeperReadWindowMs);
+      new ServicePropertiesBinarySerializer(_clientServicesConfig, _propertySerializationFormat), executorService, _zookeeperReadWindowMs);
     zkServiceRegistry.setDualReadStateManager(_dualReadStateManager);
     _d2ClientJmxManager.setZkServiceRegistry(zkServiceRegistry);
 
@@ -411,19 +530,19 @@ public class ZKFSTogglingLoadBalancerFactoryImpl implements ZKFSLoadBalancer.Tog
     }
 
     ZooKeeperEphemeralStore<UriProperties> zkUriRegistry =  createEphemeralStore(
-      zkConnection, ZKFSUtil.uriPath(_baseZKPath), new UriPropertiesJsonSerializer(),
+      zkConnection, ZKFSUtil.uriPath(_baseZKPath), new UriPropertiesBinarySerializer(_propertySerializationFormat),
       new UriPropertiesMerger(), _useNewEphemeralStoreWatcher, backupStoreFilePath, executorService, _zookeeperReadWindowMs);
     zkUriRegistry.setServiceDiscoveryEventEmitter(_serviceDiscoveryEventEmitter);
     zkUriRegistry.setDualReadStateManager(_dualReadStateManager);
     _d2ClientJmxManager.setZkUriRegistry(zkUriRegistry);
 
-    FileStore<ClusterProperties> fsClusterStore = createFileStore(FileSystemDirectory.getClusterDirectory(_fsd2DirPath), new ClusterPropertiesJsonSerializer());
+    FileStore<ClusterProperties> fsClusterStore = createFileStore(FileSystemDirectory.getClusterDirectory(_fsd2DirPath), new ClusterPropertiesBinarySerializer(_propertySerializationFormat));
     _d2ClientJmxManager.setFsClusterStore(fsClusterStore);
 
-    FileStore<ServiceProperties> fsServiceStore = createFileStore(FileSystemDirectory.getServiceDirectory(_fsd2DirPath, _d2ServicePath), new ServicePropertiesJsonSerializer());
+    FileStore<ServiceProperties> fsServiceStore = createFileStore(FileSystemDirectory.getServiceDirectory(_fsd2DirPath, _d2ServicePath), new ServicePropertiesBinarySerializer(_propertySerializationFormat));
     _d2ClientJmxManager.setFsServiceStore(fsServiceStore);
 
-    FileStore<UriProperties> fsUriStore = createFileStore(_fsd2DirPath + File.separator + "uris", new UriPropertiesJsonSerializer());
+    FileStore<UriProperties> fsUriStore = createFileStore(_fsd2DirPath + File.separator + "uris", new UriPropertiesBinarySerializer(_propertySerializationFormat));
     _d2ClientJmxManager.setFsUriStore(fsUriStore);
 
     PropertyEventBus<ClusterProperties> clusterBus = new PropertyEventBusImpl<>(executorService);
@@ -448,6 +567,7 @@ public class ZKFSTogglingLoadBalancerFactoryImpl implements ZKFSLoadBalancer.Tog
             executorService, uriBus, clusterBus, serviceBus, _clientFactories, _loadBalancerStrategyFactories,
             _sslContext, _sslParameters, _isSSLEnabled, _partitionAccessorRegistry,
             _sslSessionValidatorFactory, _deterministicSubsettingMetadataProvider, _canaryDistributionProvider);
+    state.setUriUpdateCoalescing(_uriUpdateCoalescingWindowMs, _uriUpdateCoalescingMaxDelayMs);
     _d2ClientJmxManager.setSimpleLoadBalancerState(state);
 
     SimpleLoadBalancer balancer = new SimpleLoadBalancer(state, _lbTimeout, _lbTimeoutUnit, executorService, _failoutConfigProviderFactory);
@@ -0,0 +1,36 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.discovery;
+
+/**
+ * Format in which the D2 properties are written to the stores, like ZooKeeper or the file store backups.
+ *
+ * The serializers supporting {@link #BINARY} read both formats, so all the readers of a store must be on such a
+ * serializer before its writers switch to {@link #BINARY}.
+ */
+public enum PropertySerializationFormat
+{
+  /**
+   * JSON, readable by all the clients.
+   */
+  JSON,
+
+  /**
+   * Compact and versioned binary format, faster to parse than JSON.
+   */
+  BINARY
+}
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -287,9 +288,22 @@ public class PropertyEventBusImpl<T> implements PropertyEventBus<T>
     return _publisher;
   }
 
+  /**
+   * @return the thread processing the events of the bus, which can be given to a {@link com.linkedin.d2.jmx.PropertyEventThreadJmx}
+   */
+  public PropertyEventThread getPropertyEventThread()
+  {
+    return _thread;
+  }
+
+  /**
+   * Runs the events on the executor, keeping the queue depth and lag metrics of {@link PropertyEventThread} for the
+   * events waiting in it.
+   */
   private class PropertyEventExecutor extends PropertyEventThread
   {
     private final ExecutorService _executor;
+    private final AtomicInteger _queuedMessageCount = new AtomicInteger();
 
     public PropertyEventExecutor(String name, ExecutorService executor)
     {
@@ -300,9 +314,29 @@ public class PropertyEventBusImpl<T> implements PropertyEventBus<T>
     @Override
     public boolean send(PropertyEvent message)
     {
-      _executor.execute(message);
+      final long sendTimeNanos = System.nanoTime();
+      _queuedMessageCount.incrementAndGet();
+      try
+      {
+        _executor.execute(() -> {
+          _queuedMessageCount.decrementAndGet();
+          recordEventLag(sendTimeNanos);
+          message.run();
+        });
+      }
+      catch (RuntimeException e)
+      {
+        _queuedMessageCount.decrementAndGet();
+        throw e;
+      }
       return true;
     }
+
+    @Override
+    public int getQueuedMessageCount()
+    {
+      return _queuedMessageCount.get();
+    }
   }
 
 }
@@ -28,12 +28,18 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Thread processing {@link PropertyEvent}s one at a time, in the order they are sent. It records how long the events
+ * wait before being processed, to tell when the processing lags behind the events.
+ */
 public class PropertyEventThread extends Thread
 {
   private static final Logger             _log =
                                                 LoggerFactory.getLogger(PropertyEventThread.class);
 
-  private BlockingQueue<PropertyEvent> _messages;
+  private BlockingQueue<QueuedPropertyEvent> _messages;
+  private volatile long _lastEventLagMs = 0;
+  private volatile long _maxEventLagMs = 0;
 
   public PropertyEventThread(String name)
   {
@@ -68,6 +74,35 @@ public class PropertyEventThread extends Thread
     return _messages.size();
   }
 
+  /**
+   * @return the time, in milliseconds, the last processed event waited before being processed
+   */
+  public long getLastEventLagMs()
+  {
+    return _lastEventLagMs;
+  }
+
+  /**
+   * @return the highest time, in milliseconds, an event waited before being processed
+   */
+  public long getMaxEventLagMs()
+  {
+    return _maxEventLagMs;
+  }
+
+  /**
+   * Records the lag of an event about to be processed. Only called by the single thread processing the events.
+   */
+  protected void recordEventLag(long sendTimeNanos)
+  {
+    long lagMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sendTimeNanos);
+    _lastEventLagMs = lagMs;
+    if (lagMs > _maxEventLagMs)
+    {
+      _maxEventLagMs = lagMs;
+    }
+  }
+
   @Override
   public void start()
   {
@@ -90,7 +125,7 @@ public class PropertyEventThread extends Thread
     {
       debug(_log, getName(), " got message: ", message);
 
-      return _messages.add(message);
+      return _messages.add(new QueuedPropertyEvent(message, System.nanoTime()));
     }
 
     int remainingCapacity = getRemainingCapacity();
@@ -117,11 +152,12 @@ public class PropertyEventThread extends Thread
     {
       try
       {
-        PropertyEvent message = _messages.poll(1, TimeUnit.SECONDS);
+        QueuedPropertyEvent message = _messages.poll(1, TimeUnit.SECONDS);
 
         if (message != null)
         {
-          message.run();
+          recordEventLag(message._sendTimeNanos);
+          message._event.run();
         }
         else
         {
@@ -143,6 +179,18 @@ public class PropertyEventThread extends Thread
     info(_log, "thread ", getName(), " finished run() and is now dying");
   }
 
+  private static class QueuedPropertyEvent
+  {
+    private final PropertyEvent _event;
+    private final long _sendTimeNanos;
+
+    QueuedPropertyEvent(PropertyEvent event, long sendTimeNanos)
+    {
+      _event = event;
+      _sendTimeNanos = sendTimeNanos;
+    }
+  }
+
   // interfaces
   public static abstract class PropertyEvent implements Runnable
   {
@@ -33,6 +33,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.annotation.Nullable;
@@ -49,6 +50,10 @@ import static com.linkedin.d2.discovery.util.LogUtil.warn;
  *
  * It has implements a global (non-per-prop) fair read-write lock to access the database,
  * allowing multiple reads at the same time.
+ *
+ * The store can also keep all its props-values in a single snapshot file, see {@link #writeSnapshot()}, which is
+ * loaded when the store starts and used to get the props-values which did not change since, instead of reading
+ * their files one by one.
  */
 public class FileStore<T> implements PropertyStore<T>, PropertyEventSubscriber<T>
 {
@@ -61,6 +66,8 @@ public class FileStore<T> implements PropertyStore<T>, PropertyEventSubscriber<T
   private final Stats _getStats;
   private final Stats _putStats;
   private final Stats _removeStats;
+  private final AtomicLong _snapshotGetCount = new AtomicLong();
+  private volatile FileStoreSnapshot _snapshot;
 
   private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock(true);
   private final Lock r = rwl.readLock();
@@ -114,6 +121,7 @@ public class FileStore<T> implements PropertyStore<T>, PropertyEventSubscriber<T
       {
         return file.mkdirs();
       }
+      loadSnapshot();
     }
     finally
     {
@@ -135,6 +143,23 @@ public class FileStore<T> implements PropertyStore<T>, PropertyEventSubscriber<T
     {
       _getStats.inc();
 
+      FileStoreSnapshot snapshot = _snapshot;
+      byte[] snapshotContent = snapshot == null ? null : snapshot.get(listenTo);
+      if (snapshotContent != null)
+      {
+        try
+        {
+          T property = _serializer.fromBytes(snapshotContent);
+          _snapshotGetCount.incrementAndGet();
+          return property;
+        }
+        catch (PropertySerializationException e)
+        {
+          _log.warn("Error deserializing property " + listenTo + " from the snapshot, reading its file", e);
+          snapshot.invalidate(listenTo);
+        }
+      }
+
       File file = getFile(listenTo);
 
       if (file.exists())
@@ -185,7 +210,7 @@ public class FileStore<T> implements PropertyStore<T>, PropertyEventSubscriber<T
     List<String> propertyNames;
     try
     {
-      propertyNames = FileSystemDirectory.getFileListWithoutExtension(_fsPath);
+      propertyNames = getPropertyNames();
 
       Map<String, T> result = new HashMap<>();
       for (String propertyName : propertyNames)
@@ -204,12 +229,59 @@ public class FileStore<T> implements PropertyStore<T>, PropertyEventSubscriber<T
     }
   }
 
+  /**
+   * @return the names of all the props-values in the store, without reading them
+   */
+  public List<String> getPropertyNames()
+  {
+    return FileSystemDirectory.getFileListWithoutExtension(_fsPath);
+  }
+
+  /**
+   * Writes all the props-values to the snapshot loaded the next time the store starts. The props-values which
+   * did not change since the current snapshot was loaded or written are copied from it, the others are read from
+   * their file, and then the new snapshot replaces the current one.
+   *
+   * @return false if the snapshot could not be written
+   */
+  public synchronized boolean writeSnapshot()
+  {
+    r.lock();
+    try
+    {
+      int count = FileStoreSnapshot.write(_fsPath, _fsFileExtension, getPropertyNames(), _snapshot);
+      // puts and removes wait for the read lock, so no file changed since the snapshot was written
+      _snapshot = FileStoreSnapshot.load(_fsPath, _fsFileExtension);
+      info(_log, "wrote snapshot of ", count, " properties in ", _fsPath);
+      return true;
+    }
+    catch (IOException e)
+    {
+      _log.error("Unable to write snapshot in " + _fsPath, e);
+      return false;
+    }
+    finally
+    {
+      r.unlock();
+    }
+  }
+
+  private void loadSnapshot()
+  {
+    _snapshot = FileStoreSnapshot.load(_fsPath, _fsFileExtension);
+    if (_snapshot != null)
+    {
+      info(_log, "loaded snapshot of ", _snapshot.size(), " properties in ", _fsPath);
+    }
+  }
+
   @Override
   public void put(String listenTo, T discoveryProperties)
   {
     w.lock();
     try
     {
+      invalidateSnapshot(listenTo);
       if (discoveryProperties == null)
       {
         warn(_log, "received a null property for resource ", listenTo, " received a null property");
@@ -251,6 +323,7 @@ public class FileStore<T> implements PropertyStore<T>, PropertyEventSubscriber<T
     try
     {
       _removeStats.inc();
+      invalidateSnapshot(listenTo);
 
       File file = getFile(listenTo);
 
@@ -274,6 +347,7 @@ public class FileStore<T> implements PropertyStore<T>, PropertyEventSubscriber<T
     w.lock();
     try
     {
+      _snapshot = null;
       return FileStore.removeDirectory(_fsPath);
     }
     finally
@@ -321,6 +395,15 @@ public class FileStore<T> implements PropertyStore<T>, PropertyEventSubscriber<T
     remove(propertyName);
   }
 
+  private void invalidateSnapshot(String listenTo)
+  {
+    FileStoreSnapshot snapshot = _snapshot;
+    if (snapshot != null)
+    {
+      snapshot.invalidate(listenTo);
+    }
+  }
+
   private File getFile(String listenTo)
   {
     return new File(_fsPath + File.separatorChar + listenTo + _fsFileExtension);
@@ -358,4 +441,21 @@ public class FileStore<T> implements PropertyStore<T>, PropertyEventSubscriber<T
   {
     return _removeStats.getCount();
   }
+
+  /**
+   * @return the number of props-values got from the snapshot instead of their file
+   */
+  public long getSnapshotGetCount()
+  {
+    return _snapshotGetCount.get();
+  }
+
+  /**
+   * @return the number of props-values which can still be got from the snapshot
+   */
+  public int getSnapshotSize()
+  {
+    FileStoreSnapshot snapshot = _snapshot;
+    return snapshot == null ? 0 : snapshot.size();
+  }
 }
@@ -0,0 +1,266 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.discovery.stores.file;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Single file holding the serialized properties of all the files of a {@link FileStore}, so that they can be loaded
+ * in one pass at startup instead of opening and reading every file.
+ *
+ * The snapshot is memory mapped and only its index is read when it is loaded: the bytes of a property are copied
+ * out of the mapping when the property is requested. Each entry records the last modified time and the length of
+ * the file it was copied from, and the entries whose file changed or disappeared since the snapshot was written are
+ * dropped when it is loaded, as are the entries of the properties put or removed afterwards. The file of a property
+ * is checked again when the property is requested, since another process may write to the same directory. The
+ * files stay the source of truth, the snapshot only saves reading them.
+ */
+class FileStoreSnapshot
+{
+  private static final Logger _log = LoggerFactory.getLogger(FileStoreSnapshot.class);
+
+  static final String SNAPSHOT_FILE_NAME = "d2-store.snapshot";
+  private static final int MAGIC = 0xD2540000;
+  private static final int FORMAT_VERSION = 1;
+  // name length, last modified time and length of an entry with an empty name and no bytes
+  private static final int MIN_ENTRY_SIZE = 4 + 8 + 4;
+
+  private final String _fsPath;
+  private final String _fsFileExtension;
+  private final ByteBuffer _buffer;
+  private final Map<String, Entry> _entries;
+
+  private FileStoreSnapshot(String fsPath, String fsFileExtension, ByteBuffer buffer, Map<String, Entry> entries)
+  {
+    _fsPath = fsPath;
+    _fsFileExtension = fsFileExtension;
+    _buffer = buffer;
+    _entries = entries;
+  }
+
+  /**
+   * @return the snapshot of the files with the given extension in the directory, or null if there is no valid one
+   */
+  static FileStoreSnapshot load(String fsPath, String fsFileExtension)
+  {
+    File snapshotFile = new File(fsPath, SNAPSHOT_FILE_NAME);
+    if (!snapshotFile.isFile())
+    {
+      return null;
+    }
+
+    try (RandomAccessFile file = new RandomAccessFile(snapshotFile, "r"); FileChannel channel = file.getChannel())
+    {
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+      {
+        _log.warn("Ignoring snapshot with an unknown format: " + snapshotFile.getAbsolutePath());
+        return null;
+      }
+
+      int count = buffer.getInt();
+      if (count < 0 || count > buffer.remaining() / MIN_ENTRY_SIZE)
+      {
+        throw new IOException("Invalid entry count: " + count);
+      }
+      Map<String, Entry> entries = new ConcurrentHashMap<>(count * 2);
+      for (int i = 0; i < count; i++)
+      {
+        byte[] name = new byte[readLength(buffer)];
+        buffer.get(name);
+        long lastModified = buffer.getLong();
+        int length = readLength(buffer);
+        int offset = buffer.position();
+        buffer.position(offset + length);
+
+        String propertyName = new String(name, StandardCharsets.UTF_8);
+        Entry entry = new Entry(offset, length, lastModified);
+        if (entry.matches(new File(fsPath, propertyName + fsFileExtension)))
+        {
+          entries.put(propertyName, entry);
+        }
+      }
+      return new FileStoreSnapshot(fsPath, fsFileExtension, buffer, entries);
+    }
+    catch (IOException | BufferUnderflowException | IllegalArgumentException e)
+    {
+      _log.warn("Ignoring snapshot that can not be read: " + snapshotFile.getAbsolutePath(), e);
+      return null;
+    }
+  }
+
+  /**
+   * Writes the snapshot of the given properties, taking the bytes of the entries still valid in the previous
+   * snapshot from it and the others from their file. The snapshot is written to a temporary file first, and then
+   * moved in place.
+   *
+   * @return the number of properties in the snapshot
+   */
+  static int write(String fsPath, String fsFileExtension, Collection<String> propertyNames,
+      FileStoreSnapshot previous) throws IOException
+  {
+    File snapshotFile = new File(fsPath, SNAPSHOT_FILE_NAME);
+    File tmpFile = new File(fsPath, SNAPSHOT_FILE_NAME + ".tmp");
+    int count = 0;
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile), 1 << 16)))
+    {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      // the count is written once known, since the files removed in the meantime are skipped
+      out.writeInt(0);
+      for (String propertyName : propertyNames)
+      {
+        Entry entry = previous == null ? null : previous.getEntry(propertyName);
+        byte[] bytes;
+        long lastModified;
+        if (entry != null)
+        {
+          bytes = previous.getBytes(entry);
+          lastModified = entry._lastModified;
+        }
+        else
+        {
+          File propertyFile = new File(fsPath, propertyName + fsFileExtension);
+          lastModified = propertyFile.lastModified();
+          try
+          {
+            bytes = Files.readAllBytes(propertyFile.toPath());
+          }
+          catch (NoSuchFileException e)
+          {
+            continue;
+          }
+        }
+
+        byte[] name = propertyName.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(name.length);
+        out.write(name);
+        out.writeLong(lastModified);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        count++;
+      }
+    }
+
+    try (RandomAccessFile file = new RandomAccessFile(tmpFile, "rw"))
+    {
+      file.seek(8);
+      file.writeInt(count);
+    }
+    Files.move(tmpFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    return count;
+  }
+
+  /**
+   * Reads a length, checked against the remaining bytes before anything is allocated or skipped.
+   */
+  private static int readLength(ByteBuffer buffer) throws IOException
+  {
+    int length = buffer.getInt();
+    if (length < 0 || length > buffer.remaining())
+    {
+      throw new IOException("Invalid length: " + length);
+    }
+    return length;
+  }
+
+  /**
+   * @return the bytes of the property, or null if the snapshot has no valid entry for it
+   */
+  byte[] get(String propertyName)
+  {
+    Entry entry = getEntry(propertyName);
+    return entry == null ? null : getBytes(entry);
+  }
+
+  /**
+   * @return the entry of the property if its file did not change since the snapshot was written, null otherwise
+   */
+  private Entry getEntry(String propertyName)
+  {
+    Entry entry = _entries.get(propertyName);
+    if (entry != null && !entry.matches(new File(_fsPath, propertyName + _fsFileExtension)))
+    {
+      _entries.remove(propertyName, entry);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Drops the entry of a property whose file changed.
+   */
+  void invalidate(String propertyName)
+  {
+    _entries.remove(propertyName);
+  }
+
+  int size()
+  {
+    return _entries.size();
+  }
+
+  private byte[] getBytes(Entry entry)
+  {
+    byte[] bytes = new byte[entry._length];
+    ByteBuffer buffer = _buffer.duplicate();
+    buffer.position(entry._offset);
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static class Entry
+  {
+    private final int _offset;
+    private final int _length;
+    private final long _lastModified;
+
+    Entry(int offset, int length, long lastModified)
+    {
+      _offset = offset;
+      _length = length;
+      _lastModified = lastModified;
+    }
+
+    /**
+     * @return true if the file has the last modified time and the length of the one the entry was copied from
+     */
+    boolean matches(File propertyFile)
+    {
+      return propertyFile.lastModified() == _lastModified && propertyFile.length() == _length;
+    }
+  }
+}
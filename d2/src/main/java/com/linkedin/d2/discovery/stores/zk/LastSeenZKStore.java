@@ -28,10 +28,13 @@ import com.linkedin.d2.discovery.event.PropertyEventSubscriber;
 import com.linkedin.d2.discovery.stores.file.FileStore;
 import com.linkedin.d2.discovery.stores.zk.builder.ZooKeeperStoreBuilder;
 import com.linkedin.r2.transport.http.client.TimeoutCallback;
+import com.linkedin.r2.util.NamedThreadFactory;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +54,11 @@ import org.slf4j.LoggerFactory;
  * This allow the connection to be shared among multiple objects which never take fully ownership of the it, and
  * leave the duty of coordination to the user of these objects.
  *
+ * When a snapshot interval is given, the store periodically writes the snapshot of the props on disk, see
+ * {@link FileStore#writeSnapshot()}, so that the next executions can load them from it at startup. The snapshot
+ * reads and writes all the props files, so it is written on a thread of its own rather than on the executor of the
+ * store, which delivers the updates of the bus.
+ *
  * @author Francesco Capponi (fcapponi@linkedin.com)
  */
 public class LastSeenZKStore<T> implements PropertyEventPublisher<T>
@@ -65,12 +73,28 @@ public class LastSeenZKStore<T> implements PropertyEventPublisher<T>
   private PropertyEventBus<T> _clientBus;
   private PropertyEventBus<T> _zkToFsBus;
   private final int _concurrentRequests;
+  private final long _snapshotIntervalMs;
+  private volatile ScheduledExecutorService _snapshotExecutor;
+  private volatile ScheduledFuture<?> _snapshotTask;
 
   public LastSeenZKStore(FileStore<T> fsStore,
                          ZooKeeperStoreBuilder<? extends ZooKeeperStore<T>> zooKeeperStoreBuilder,
       ZKPersistentConnection zkPersistentConnection, ScheduledExecutorService executorService, int warmUpTimeoutSeconds,
       int concurrentRequests)
   {
+    this(fsStore, zooKeeperStoreBuilder, zkPersistentConnection, executorService, warmUpTimeoutSeconds,
+        concurrentRequests, 0);
+  }
+
+  /**
+   * @param snapshotIntervalMs interval between the writes of the snapshot of the props on disk, 0 to not write it
+   */
+  public LastSeenZKStore(FileStore<T> fsStore,
+                         ZooKeeperStoreBuilder<? extends ZooKeeperStore<T>> zooKeeperStoreBuilder,
+      ZKPersistentConnection zkPersistentConnection, ScheduledExecutorService executorService, int warmUpTimeoutSeconds,
+      int concurrentRequests, long snapshotIntervalMs)
+  {
+    _snapshotIntervalMs = snapshotIntervalMs;
     _executorService = executorService;
     _warmUpTimeoutSeconds = warmUpTimeoutSeconds;
     _concurrentRequests = concurrentRequests;
@@ -178,6 +202,7 @@ public class LastSeenZKStore<T> implements PropertyEventPublisher<T>
       @Override
       public void onSuccess(None result)
       {
+        scheduleSnapshots();
         warmUp(callback);
       }
     };
@@ -215,16 +240,50 @@ public class LastSeenZKStore<T> implements PropertyEventPublisher<T>
           }
         }, "This message will never be used, even in case of timeout, no exception should be passed up");
 
-    // make warmup requests through requests throttler
-    List<String> fileListWithoutExtension = new ArrayList<>(_fsStore.getAll().keySet());
+    // make warmup requests through requests throttler, the values are read from disk only when published
+    List<String> fileListWithoutExtension = new ArrayList<>(_fsStore.getPropertyNames());
     PropertyEventBusRequestsThrottler<T> throttler =
         new PropertyEventBusRequestsThrottler<>(_zkToFsBus, _zkBusUpdaterSubscriber, fileListWithoutExtension,
             _concurrentRequests, true);
     throttler.sendRequests(timeoutCallback);
   }
 
+  /**
+   * The first snapshot is written after one interval, once the warm up refreshed the props from ZK
+   */
+  private void scheduleSnapshots()
+  {
+    if (_snapshotIntervalMs > 0)
+    {
+      ScheduledExecutorService snapshotExecutor =
+          Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("D2 FileStore Snapshot"));
+      _snapshotTask = snapshotExecutor.scheduleWithFixedDelay(_fsStore::writeSnapshot, _snapshotIntervalMs,
+          _snapshotIntervalMs, TimeUnit.MILLISECONDS);
+      _snapshotExecutor = snapshotExecutor;
+    }
+  }
+
   @Override
   public void shutdown(Callback<None> shutdown)
+  {
+    ScheduledExecutorService snapshotExecutor = _snapshotExecutor;
+    if (snapshotExecutor == null)
+    {
+      shutdownStores(shutdown);
+      return;
+    }
+
+    // the last snapshot is written after the one being written, if any, still off the executor of the store
+    _snapshotExecutor = null;
+    _snapshotTask.cancel(false);
+    snapshotExecutor.execute(() -> {
+      _fsStore.writeSnapshot();
+      shutdownStores(shutdown);
+    });
+    snapshotExecutor.shutdown();
+  }
+
+  private void shutdownStores(Callback<None> shutdown)
   {
     MultiCallback multiCallback = new MultiCallback(shutdown, 2);
     _fsStore.shutdown(multiCallback);
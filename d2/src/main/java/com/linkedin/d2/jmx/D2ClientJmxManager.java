@@ -28,13 +28,19 @@ import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
 import com.linkedin.d2.discovery.stores.file.FileStore;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperEphemeralStore;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperPermanentStore;
+import com.linkedin.r2.transport.http.client.AbstractJmxManager;
+import com.linkedin.r2.transport.http.client.PoolStatsProvider;
+import com.linkedin.r2.util.HashedWheelTimer;
+import com.linkedin.r2.util.RetryBudgets;
 import com.linkedin.util.ArgumentUtil;
 import javax.annotation.Nonnull;
 
 /**
- * JMX manager to register the D2 client components
+ * JMX manager to register the D2 client components. It can also be set as the JMX manager of the transport client
+ * factories, with {@link com.linkedin.r2.transport.http.client.HttpClientFactory.Builder#setJmxManager}, to register
+ * the {@link HashedWheelTimer} they create.
  */
-public class D2ClientJmxManager
+public class D2ClientJmxManager extends AbstractJmxManager
 {
   private final String _prefix;
   private final JmxManager _jmxManager;
@@ -174,6 +180,45 @@ public class D2ClientJmxManager
     _jmxManager.registerFileStore(_prefix + "-FileStoreServiceStore", serviceStore);
   }
 
+  /**
+   * Registers the budget of each service, as soon as it is created.
+   */
+  public void setRetryBudgets(RetryBudgets retryBudgets)
+  {
+    retryBudgets.addListener(
+        (serviceName, budget) -> _jmxManager.registerRetryBudget(_prefix + "-" + serviceName + "-RetryBudget", budget));
+  }
+
+  @Override
+  public void onHashedWheelTimerCreate(HashedWheelTimer timer)
+  {
+    _jmxManager.registerHashedWheelTimer(getHashedWheelTimerJmxName(timer), timer);
+  }
+
+  @Override
+  public void onHashedWheelTimerShutdown(HashedWheelTimer timer)
+  {
+    _jmxManager.unregister(getHashedWheelTimerJmxName(timer));
+  }
+
+  @Override
+  public void onProviderCreate(PoolStatsProvider provider)
+  {
+  }
+
+  @Override
+  public void onProviderShutdown(PoolStatsProvider provider)
+  {
+  }
+
+  /**
+   * @return the name of the timer, which tells apart the timers of the different client factories
+   */
+  private String getHashedWheelTimerJmxName(HashedWheelTimer timer)
+  {
+    return _prefix + "-HashedWheelTimer-" + Integer.toHexString(System.identityHashCode(timer));
+  }
+
   public void registerDualReadLoadBalancerJmx(DualReadLoadBalancerJmx dualReadLoadBalancerJmx)
   {
     _jmxManager.registerDualReadLoadBalancerJmxBean(_prefix + "-DualReadLoadBalancerJmx", dualReadLoadBalancerJmx);
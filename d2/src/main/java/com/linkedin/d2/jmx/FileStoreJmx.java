@@ -93,4 +93,22 @@ public class FileStoreJmx<T> implements FileStoreJmxMBean
   {
     return 0;
   }
+
+  @Override
+  public boolean writeSnapshot()
+  {
+    return _store.writeSnapshot();
+  }
+
+  @Override
+  public int getSnapshotSize()
+  {
+    return _store.getSnapshotSize();
+  }
+
+  @Override
+  public long getSnapshotGetCount()
+  {
+    return _store.getSnapshotGetCount();
+  }
 }
@@ -37,4 +37,10 @@ public interface FileStoreJmxMBean
   long getPutCount();
 
   long getRemoveCount();
+
+  boolean writeSnapshot();
+
+  int getSnapshotSize();
+
+  long getSnapshotGetCount();
 }
@@ -0,0 +1,69 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.jmx;
+
+import com.linkedin.r2.util.HashedWheelTimer;
+
+
+/**
+ * Implementation of HashedWheelTimerJmxMBean
+ */
+public class HashedWheelTimerJmx implements HashedWheelTimerJmxMBean
+{
+  private final HashedWheelTimer _timer;
+
+  public HashedWheelTimerJmx(HashedWheelTimer timer)
+  {
+    _timer = timer;
+  }
+
+  @Override
+  public long getPendingCount()
+  {
+    return _timer.getPendingCount();
+  }
+
+  @Override
+  public long getScheduledCount()
+  {
+    return _timer.getScheduledCount();
+  }
+
+  @Override
+  public long getCancelledCount()
+  {
+    return _timer.getCancelledCount();
+  }
+
+  @Override
+  public long getExpiredCount()
+  {
+    return _timer.getExpiredCount();
+  }
+
+  @Override
+  public long getTickDurationMs()
+  {
+    return _timer.getTickDurationMs();
+  }
+
+  @Override
+  public boolean isAlive()
+  {
+    return !_timer.isShutdown();
+  }
+}
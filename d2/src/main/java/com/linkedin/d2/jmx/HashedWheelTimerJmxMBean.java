@@ -0,0 +1,39 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.jmx;
+
+
+/**
+ * JMX tools for monitoring the timeouts held by a {@link com.linkedin.r2.util.HashedWheelTimer}
+ */
+public interface HashedWheelTimerJmxMBean
+{
+  /**
+   * @return the number of timeouts that have neither been run nor cancelled
+   */
+  long getPendingCount();
+
+  long getScheduledCount();
+
+  long getCancelledCount();
+
+  long getExpiredCount();
+
+  long getTickDurationMs();
+
+  boolean isAlive();
+}
@@ -32,6 +32,8 @@ import com.linkedin.d2.discovery.stores.file.FileStore;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperEphemeralStore;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperPermanentStore;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperTogglingStore;
+import com.linkedin.r2.util.HashedWheelTimer;
+import com.linkedin.r2.util.RetryBudget;
 import java.lang.management.ManagementFactory;
 import java.util.HashSet;
 import java.util.Set;
@@ -211,6 +213,20 @@ public class JmxManager
     return this;
   }
 
+  public synchronized JmxManager registerHashedWheelTimer(String name, HashedWheelTimer timer)
+  {
+    checkReg(new HashedWheelTimerJmx(timer), name);
+
+    return this;
+  }
+
+  public synchronized JmxManager registerRetryBudget(String name, RetryBudget budget)
+  {
+    checkReg(new RetryBudgetJmx(budget), name);
+
+    return this;
+  }
+
   public synchronized JmxManager registerZooKeeperServer(String name, ZooKeeperServer zkServer)
   {
     checkReg(new ZooKeeperServerJmx(zkServer), name);
@@ -25,6 +25,7 @@ import com.linkedin.d2.discovery.stores.file.FileStore;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperEphemeralStore;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperPermanentStore;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperTogglingStore;
+import com.linkedin.r2.util.RetryBudget;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import javax.management.ObjectName;
 
@@ -69,6 +70,11 @@ public class NoOpJmxManager extends JmxManager
     return this;
   }
 
+  public synchronized NoOpJmxManager registerRetryBudget(String name, RetryBudget budget)
+  {
+    return this;
+  }
+
   public synchronized NoOpJmxManager registerZooKeeperServer(String name, ZooKeeperServer zkServer)
   {
 
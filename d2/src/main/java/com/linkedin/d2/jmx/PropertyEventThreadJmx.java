@@ -44,4 +44,16 @@ public class PropertyEventThreadJmx implements PropertyEventThreadJmxMBean
   {
     return _thread.isAlive();
   }
+
+  @Override
+  public long getLastEventLagMs()
+  {
+    return _thread.getLastEventLagMs();
+  }
+
+  @Override
+  public long getMaxEventLagMs()
+  {
+    return _thread.getMaxEventLagMs();
+  }
 }
@@ -23,4 +23,14 @@ public interface PropertyEventThreadJmxMBean
   int getQueuedMessageCount();
 
   boolean isAlive();
+
+  /**
+   * @return the time, in milliseconds, the last processed event waited before being processed
+   */
+  long getLastEventLagMs();
+
+  /**
+   * @return the highest time, in milliseconds, an event waited before being processed
+   */
+  long getMaxEventLagMs();
 }
@@ -192,6 +192,12 @@ public class RelativeLoadBalancerStrategyJmx implements RelativeLoadBalancerStra
         .sum();
   }
 
+  @Override
+  public long getLastUpdateDurationMs()
+  {
+    return _strategy.getLastUpdateDurationMs();
+  }
+
   static boolean hasTraffic(TrackerClient trackerClient)
   {
     CallTracker.CallStats stats = trackerClient.getCallTracker().getCallStats();
@@ -67,4 +67,10 @@ public interface RelativeLoadBalancerStrategyJmxMBean
    * @return number of total points in hash ring
    */
   int getTotalPointsInHashRing();
+
+  /**
+   *
+   * @return the time in milliseconds taken by the last scheduled update of all the partitions
+   */
+  long getLastUpdateDurationMs();
 }
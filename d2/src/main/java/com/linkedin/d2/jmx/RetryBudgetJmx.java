@@ -0,0 +1,69 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.jmx;
+
+import com.linkedin.r2.util.RetryBudget;
+
+
+/**
+ * Implementation of RetryBudgetJmxMBean
+ */
+public class RetryBudgetJmx implements RetryBudgetJmxMBean
+{
+  private final RetryBudget _budget;
+
+  public RetryBudgetJmx(RetryBudget budget)
+  {
+    _budget = budget;
+  }
+
+  @Override
+  public double getBalance()
+  {
+    return _budget.getBalance();
+  }
+
+  @Override
+  public double getRetryRatio()
+  {
+    return _budget.getRetryRatio();
+  }
+
+  @Override
+  public int getMinRetriesPerSecond()
+  {
+    return _budget.getMinRetriesPerSecond();
+  }
+
+  @Override
+  public long getDepositCount()
+  {
+    return _budget.getDepositCount();
+  }
+
+  @Override
+  public long getWithdrawalCount()
+  {
+    return _budget.getWithdrawalCount();
+  }
+
+  @Override
+  public long getRejectedCount()
+  {
+    return _budget.getRejectedCount();
+  }
+}
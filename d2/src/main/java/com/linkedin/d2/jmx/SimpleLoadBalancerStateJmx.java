@@ -149,6 +149,30 @@ public class SimpleLoadBalancerStateJmx implements SimpleLoadBalancerStateJmxMBe
     _state.setDelayedExecution(milliseconds);
   }
 
+  @Override
+  public long getUriUpdateCoalescingWindowMs()
+  {
+    return _state.getUriUpdateCoalescingWindowMs();
+  }
+
+  @Override
+  public long getUriUpdateCoalescingMaxDelayMs()
+  {
+    return _state.getUriUpdateCoalescingMaxDelayMs();
+  }
+
+  @Override
+  public void setUriUpdateCoalescing(long windowMs, long maxDelayMs)
+  {
+    _state.setUriUpdateCoalescing(windowMs, maxDelayMs);
+  }
+
+  @Override
+  public long getCoalescedUriUpdateCount()
+  {
+    return _state.getCoalescedUriUpdateCount();
+  }
+
   @Override
   public String getServerUrisForServiceName(String serviceName)
   {
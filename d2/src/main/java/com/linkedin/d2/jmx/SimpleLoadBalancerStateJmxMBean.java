@@ -61,6 +61,18 @@ public interface SimpleLoadBalancerStateJmxMBean
 
   void setDelayedExecution(long milliseconds);
 
+  long getUriUpdateCoalescingWindowMs();
+
+  long getUriUpdateCoalescingMaxDelayMs();
+
+  /**
+   * @param windowMs time without updates of a cluster after which its latest uri properties are applied, 0 to disable
+   * @param maxDelayMs max time the uri properties of a cluster can be delayed while updates keep coming
+   */
+  void setUriUpdateCoalescing(long windowMs, long maxDelayMs);
+
+  long getCoalescedUriUpdateCount();
+
   /**
    * @param serviceName this can be obtained through serviceProperty
    * @return returns a list of tracker clients URI (this will include banned URI for the cluster)
@@ -0,0 +1,138 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.d2.balancer.properties.ClusterProperties;
+import com.linkedin.d2.balancer.properties.ServiceProperties;
+import com.linkedin.d2.balancer.properties.UriProperties;
+import com.linkedin.d2.balancer.zkfs.LastSeenDiscoveryBackend;
+import com.linkedin.d2.discovery.stores.zk.LastSeenZKStore;
+import com.linkedin.d2.discovery.stores.zk.ZKPersistentConnection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.any;
+
+
+public class SharedDiscoveryBackendProviderTest
+{
+  private ScheduledExecutorService _executorService;
+  private SharedDiscoveryBackendProvider _provider;
+  private D2ClientConfig _config;
+  private AtomicInteger _createdBackends;
+  private LastSeenZKStore<UriProperties> _lsUrisStore;
+
+  @BeforeMethod
+  public void setUp()
+  {
+    _executorService = Executors.newSingleThreadScheduledExecutor();
+    _provider = new SharedDiscoveryBackendProvider(_executorService);
+    _config = new D2ClientConfig();
+    _config.zkHosts = "localhost:2121";
+    _createdBackends = new AtomicInteger();
+  }
+
+  @AfterMethod
+  public void tearDown()
+  {
+    _executorService.shutdownNow();
+  }
+
+  @Test
+  public void testNewClientStartsAfterOldClientShutdown() throws Exception
+  {
+    LastSeenDiscoveryBackend oldBackend = _provider.getBackend(_config, this::createBackend);
+    start(oldBackend);
+
+    // a new client is built to replace the old one, which is shut down before the new one is started
+    LastSeenDiscoveryBackend newBackend = _provider.getBackend(_config, this::createBackend);
+    Assert.assertSame(newBackend, oldBackend);
+    AtomicInteger unsubscribed = new AtomicInteger();
+    shutdown(oldBackend, unsubscribed::incrementAndGet);
+    Assert.assertEquals(unsubscribed.get(), 1);
+    Assert.assertFalse(newBackend.isShutdown());
+    Mockito.verify(_lsUrisStore, Mockito.never()).shutdown(any());
+
+    start(newBackend);
+    Assert.assertEquals(newBackend.getUserCount(), 1);
+    Assert.assertEquals(_provider.getBackendCount(), 1);
+    Assert.assertEquals(_createdBackends.get(), 1);
+
+    // the last client shuts the backend down, and the next one gets a new backend
+    shutdown(newBackend, unsubscribed::incrementAndGet);
+    Assert.assertEquals(unsubscribed.get(), 1);
+    Assert.assertTrue(newBackend.isShutdown());
+    Assert.assertEquals(_provider.getBackendCount(), 0);
+
+    LastSeenDiscoveryBackend nextBackend = _provider.getBackend(_config, this::createBackend);
+    Assert.assertNotSame(nextBackend, newBackend);
+    start(nextBackend);
+    Assert.assertEquals(_createdBackends.get(), 2);
+  }
+
+  private LastSeenDiscoveryBackend createBackend(ScheduledExecutorService executorService)
+  {
+    _createdBackends.incrementAndGet();
+    _lsUrisStore = mockStore();
+    LastSeenZKStore<ClusterProperties> lsClusterStore = mockStore();
+    LastSeenZKStore<ServiceProperties> lsServiceStore = mockStore();
+    return new LastSeenDiscoveryBackend(Mockito.mock(ZKPersistentConnection.class), lsClusterStore, lsServiceStore,
+        _lsUrisStore, executorService);
+  }
+
+  /**
+   * @return a store starting and shutting down right away
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> LastSeenZKStore<T> mockStore()
+  {
+    LastSeenZKStore<T> store = Mockito.mock(LastSeenZKStore.class);
+    Mockito.doAnswer(invocation -> {
+      ((Callback<None>) invocation.getArguments()[0]).onSuccess(None.none());
+      return null;
+    }).when(store).start(any());
+    Mockito.doAnswer(invocation -> {
+      ((Callback<None>) invocation.getArguments()[0]).onSuccess(None.none());
+      return null;
+    }).when(store).shutdown(any());
+    return store;
+  }
+
+  private static void start(LastSeenDiscoveryBackend backend) throws Exception
+  {
+    FutureCallback<None> callback = new FutureCallback<>();
+    backend.start(callback);
+    callback.get(5, TimeUnit.SECONDS);
+  }
+
+  private static void shutdown(LastSeenDiscoveryBackend backend, Runnable unsubscriber) throws Exception
+  {
+    FutureCallback<None> callback = new FutureCallback<>();
+    backend.shutdown(unsubscriber, callback);
+    callback.get(5, TimeUnit.SECONDS);
+  }
+}
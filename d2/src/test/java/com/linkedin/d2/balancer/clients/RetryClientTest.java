@@ -40,6 +40,8 @@ import com.linkedin.r2.message.stream.entitystream.ByteStringWriter;
 import com.linkedin.r2.message.stream.entitystream.EntityStreams;
 import com.linkedin.r2.transport.http.client.HttpClientFactory;
 import com.linkedin.r2.util.NamedThreadFactory;
+import com.linkedin.r2.util.RetryBudget;
+import com.linkedin.r2.util.RetryBudgets;
 import com.linkedin.test.util.ClockedExecutor;
 import com.linkedin.test.util.retry.SingleRetry;
 import com.linkedin.test.util.retry.ThreeRetries;
@@ -61,6 +63,7 @@ import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
@@ -386,6 +389,58 @@ public class RetryClientTest
     assertNotNull(restCallback.t);
   }
 
+  @Test
+  public void testRestRetryExceedsRetryBudget() throws Exception
+  {
+    SimpleLoadBalancer balancer = prepareLoadBalancer(Arrays.asList("http://test.linkedin.com/retry1", "http://test.linkedin.com/good"),
+        HttpClientFactory.UNLIMITED_CLIENT_REQUEST_RETRY_RATIO);
+    SettableClock clock = new SettableClock();
+    // A single retry per second, whatever the number of successful calls
+    RetryBudgets retryBudgets = new RetryBudgets(serviceName -> new RetryBudget(0, 1, 1000, 1, clock));
+    DynamicClient dynamicClient = new DynamicClient(balancer, null);
+    RetryClient client = new RetryClient(
+        dynamicClient,
+        balancer,
+        D2ClientConfig.DEFAULT_RETRY_LIMIT,
+        RetryClient.DEFAULT_UPDATE_INTERVAL_MS,
+        RetryClient.DEFAULT_AGGREGATED_INTERVAL_NUM,
+        clock,
+        true,
+        false,
+        retryBudgets);
+    URI uri = URI.create("d2://retryService?arg1=empty&arg2=empty");
+    RestRequest restRequest = new RestRequestBuilder(uri).build();
+
+    // This request will be retried and route to the good host
+    DegraderTrackerClientTest.TestCallback<RestResponse> restCallback = new DegraderTrackerClientTest.TestCallback<>();
+    client.restRequest(restRequest, restCallback);
+
+    assertNull(restCallback.e);
+    assertNotNull(restCallback.t);
+
+    // This request will not be retried because the retry budget is exhausted
+    restCallback = new DegraderTrackerClientTest.TestCallback<>();
+    client.restRequest(restRequest, restCallback);
+
+    assertNull(restCallback.t);
+    assertNotNull(restCallback.e);
+    assertTrue(restCallback.e.getMessage().contains("Data not available"));
+
+    RetryBudget retryBudget = retryBudgets.getBudget("retryService");
+    assertEquals(retryBudget.getDepositCount(), 1);
+    assertEquals(retryBudget.getWithdrawalCount(), 1);
+    assertEquals(retryBudget.getRejectedCount(), 1);
+
+    // The budget is replenished in the next interval
+    clock.addDuration(1000);
+
+    restCallback = new DegraderTrackerClientTest.TestCallback<>();
+    client.restRequest(restRequest, restCallback);
+
+    assertNull(restCallback.e);
+    assertNotNull(restCallback.t);
+  }
+
   @Test
   public void testRestRetryUnlimitedClientRetryRatio() throws Exception
   {
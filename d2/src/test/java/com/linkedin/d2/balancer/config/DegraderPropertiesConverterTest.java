@@ -19,6 +19,7 @@ package com.linkedin.d2.balancer.config;
 import com.linkedin.d2.D2DegraderProperties;
 import com.linkedin.d2.balancer.properties.PropertyKeys;
 import com.linkedin.d2.latencyType;
+import com.linkedin.d2.percentileTrackingType;
 import java.util.HashMap;
 import java.util.Map;
 import org.testng.Assert;
@@ -47,6 +48,7 @@ public class DegraderPropertiesConverterTest
     final Integer minOutstandingCount = 5;
     final Long maxDropDuration = 50000l;
     final latencyType latencyToUse = latencyType.PCT50;
+    final percentileTrackingType percentileTracking = percentileTrackingType.SKETCH;
     final Double initialDropRate = 0.1;
     final Double slowStartThreshold = 0.32;
     final Double logThreshold = 0.8;
@@ -66,6 +68,7 @@ public class DegraderPropertiesConverterTest
     degraderProperties.put(PropertyKeys.DEGRADER_MIN_OUTSTANDING_COUNT, minOutstandingCount.toString());
     degraderProperties.put(PropertyKeys.DEGRADER_MAX_DROP_DURATION, maxDropDuration.toString());
     degraderProperties.put(PropertyKeys.DEGRADER_LATENCY_TO_USE, latencyToUse.name());
+    degraderProperties.put(PropertyKeys.DEGRADER_PERCENTILE_TRACKING, percentileTracking.name());
     degraderProperties.put(PropertyKeys.DEGRADER_INITIAL_DROP_RATE, initialDropRate.toString());
     degraderProperties.put(PropertyKeys.DEGRADER_SLOW_START_THRESHOLD, slowStartThreshold.toString());
     degraderProperties.put(PropertyKeys.DEGRADER_LOG_THRESHOLD, logThreshold.toString());
@@ -86,6 +89,7 @@ public class DegraderPropertiesConverterTest
         .setMinOutstandingCount(minOutstandingCount)
         .setMaxDropDuration(maxDropDuration)
         .setLatencyToUse(latencyToUse)
+        .setPercentileTracking(percentileTracking)
         .setInitialDropRate(initialDropRate)
         .setSlowStartThreshold(slowStartThreshold)
         .setLogThreshold(logThreshold);
@@ -297,6 +297,16 @@ public class ClusterPropertiesSerializerTest
     assertEquals(serializer.fromBytes(serializer.toBytes(property)), property);
   }
 
+  @Test(dataProvider = "ClusterProperties")
+  public void testClusterStorePropertiesBinarySerializer(ClusterStoreProperties property) throws PropertySerializationException
+  {
+    ClusterPropertiesBinarySerializer serializer = new ClusterPropertiesBinarySerializer();
+    assertEquals(serializer.fromBytes(serializer.toBytes(property)), property);
+    // the binary serializer reads the bytes written in JSON
+    assertEquals(serializer.fromBytes(new ClusterPropertiesJsonSerializer().toBytes(property)), property);
+    assertEquals(serializer.fromBytes(serializer.toBytes(property), 3).getVersion(), 3);
+  }
+
   @DataProvider(name = "testToBytesDataProvider")
   public Object[][] testToBytesDataProvider() {
     ClusterProperties stableProperties = new ClusterProperties("test");
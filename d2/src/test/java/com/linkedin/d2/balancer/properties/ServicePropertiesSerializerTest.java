@@ -122,6 +122,24 @@ public class ServicePropertiesSerializerTest
     assertEquals(serializer.fromBytes(serializer.toBytes(property)), property);
   }
 
+  @Test(dataProvider = "distributionStrategies")
+  public void testServicePropertiesBinarySerializer(CanaryDistributionStrategy distributionStrategy) throws PropertySerializationException
+  {
+    ServicePropertiesBinarySerializer serializer = new ServicePropertiesBinarySerializer();
+
+    ServiceProperties canaryProperty = new ServiceProperties("servicename2", "clustername3",
+        "/path2", Arrays.asList("rr"), new HashMap<>(),
+        null, null, Arrays.asList("HTTPS"), Collections.emptySet(),
+        Collections.emptyMap(), Collections.emptyList(), RelativeStrategyPropertiesConverter.toMap(createRelativeStrategyProperties()));
+    ServiceStoreProperties property = new ServiceStoreProperties("servicename2",
+        "clustername2", "/path2", Arrays.asList("strategy2"), canaryProperty, distributionStrategy);
+
+    assertEquals(serializer.fromBytes(serializer.toBytes(property)), property);
+    // the binary serializer reads the bytes written in JSON
+    assertEquals(serializer.fromBytes(new ServicePropertiesJsonSerializer().toBytes(property)), property);
+    assertEquals(serializer.fromBytes(serializer.toBytes(property), 3).getVersion(), 3);
+  }
+
   @Test
   public void testServicePropertiesWithCanaryEdgeCases()  throws PropertySerializationException
   {
@@ -0,0 +1,129 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.properties;
+
+import com.linkedin.d2.discovery.PropertySerializationException;
+import com.linkedin.d2.discovery.PropertySerializationFormat;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class UriPropertiesBinarySerializerTest
+{
+  @Test(groups = { "small", "back-end" })
+  public void testRoundTrip() throws PropertySerializationException
+  {
+    UriPropertiesBinarySerializer serializer = new UriPropertiesBinarySerializer();
+
+    UriProperties property = new UriProperties("test", Collections.emptyMap());
+    assertEquals(serializer.fromBytes(serializer.toBytes(property)), property);
+
+    UriProperties properties = createUriProperties();
+    byte[] bytes = serializer.toBytes(properties);
+    assertEquals(bytes[0], PropertiesBinaryCodec.MAGIC);
+    assertEquals(serializer.fromBytes(bytes), properties);
+    assertTrue(bytes.length < new UriPropertiesJsonSerializer().toBytes(properties).length);
+
+    UriProperties versioned = serializer.fromBytes(bytes, 42);
+    assertEquals(versioned.getVersion(), 42);
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testReadsJson() throws PropertySerializationException
+  {
+    UriPropertiesBinarySerializer serializer = new UriPropertiesBinarySerializer();
+    UriProperties properties = createUriProperties();
+
+    assertEquals(serializer.fromBytes(new UriPropertiesJsonSerializer().toBytes(properties)), properties);
+    assertEquals(serializer.fromBytes(
+        "{\"clusterName\":\"test\",\"weights\":{\"http://www.linkedin.com\": 1.0}}".getBytes()),
+        new UriProperties("test", Collections.singletonMap(URI.create("http://www.linkedin.com"),
+            Collections.singletonMap(0, new PartitionData(1d)))));
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testWritesJson() throws PropertySerializationException
+  {
+    UriPropertiesBinarySerializer serializer = new UriPropertiesBinarySerializer(PropertySerializationFormat.JSON);
+    UriProperties properties = createUriProperties();
+
+    byte[] bytes = serializer.toBytes(properties);
+    assertEquals(new UriPropertiesJsonSerializer().fromBytes(bytes), properties);
+    assertEquals(serializer.fromBytes(bytes), properties);
+  }
+
+  @Test(groups = { "small", "back-end" }, expectedExceptions = PropertySerializationException.class)
+  public void testUnknownFormatVersion() throws PropertySerializationException
+  {
+    UriPropertiesBinarySerializer serializer = new UriPropertiesBinarySerializer();
+    byte[] bytes = serializer.toBytes(createUriProperties());
+    bytes[1] = PropertiesBinaryCodec.FORMAT_VERSION + 1;
+    serializer.fromBytes(bytes);
+  }
+
+  @Test(groups = { "small", "back-end" }, expectedExceptions = PropertySerializationException.class)
+  public void testTruncatedBytes() throws PropertySerializationException
+  {
+    UriPropertiesBinarySerializer serializer = new UriPropertiesBinarySerializer();
+    byte[] bytes = serializer.toBytes(createUriProperties());
+    serializer.fromBytes(Arrays.copyOf(bytes, bytes.length - 3));
+  }
+
+  @Test(groups = { "small", "back-end" }, expectedExceptions = PropertySerializationException.class)
+  public void testCorruptedCount() throws PropertySerializationException
+  {
+    UriPropertiesBinarySerializer serializer = new UriPropertiesBinarySerializer();
+    byte[] bytes = serializer.toBytes(createUriProperties());
+    // the uri count follows the header and the cluster name, and is checked before sizing the map of the uris
+    ByteBuffer.wrap(bytes, 2 + 4 + "test".length(), 4).putInt(Integer.MAX_VALUE / 2);
+    serializer.fromBytes(bytes);
+  }
+
+  private static UriProperties createUriProperties()
+  {
+    Map<Integer, PartitionData> partitions = new HashMap<>();
+    partitions.put(0, new PartitionData(0.3d));
+    partitions.put(1000, new PartitionData(0.7d));
+
+    Map<URI, Map<Integer, PartitionData>> partitionDesc = new HashMap<>();
+    Map<URI, Map<String, Object>> uriSpecificProperties = new HashMap<>();
+    for (int i = 0; i < 10; i++)
+    {
+      URI uri = URI.create("https://host-" + i + ".linkedin.com:1234/service");
+      partitionDesc.put(uri, partitions);
+
+      Map<String, Object> applicationProperties = new HashMap<>();
+      applicationProperties.put("foo", "fooValue");
+      applicationProperties.put("int", i);
+      applicationProperties.put("long", Long.MAX_VALUE);
+      applicationProperties.put("double", 0.5d);
+      applicationProperties.put("bool", true);
+      applicationProperties.put("null", null);
+      applicationProperties.put("list", Arrays.asList("a", 1, Collections.singletonMap("b", "c")));
+      uriSpecificProperties.put(uri, applicationProperties);
+    }
+    return new UriProperties("test", partitionDesc, uriSpecificProperties);
+  }
+}
@@ -46,6 +46,7 @@ import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategy
 import com.linkedin.d2.balancer.util.partitions.DefaultPartitionAccessor;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessException;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessor;
+import com.linkedin.d2.discovery.event.PropertyEventBus;
 import com.linkedin.d2.discovery.event.PropertyEventBusImpl;
 import com.linkedin.d2.discovery.event.PropertyEventThread.PropertyEventShutdownCallback;
 import com.linkedin.d2.discovery.event.SynchronousExecutorService;
@@ -1093,6 +1094,202 @@ public class SimpleLoadBalancerStateTest
     }
   }
 
+  @Test(groups = { "small", "back-end" })
+  public void testUriUpdateCoalescing()
+  {
+    // the bus, the state and the coalescing all run on the same executor, whose clock is moved by the test
+    ClockedExecutor executor = new ClockedExecutor();
+    MockStore<UriProperties> uriRegistry = new MockStore<>();
+    PropertyEventBus<UriProperties> uriBus = new PropertyEventBusImpl<>(executor, uriRegistry);
+    Map<String, TransportClientFactory> clientFactories = new HashMap<>();
+    clientFactories.put("http", new SimpleLoadBalancerTest.DoNothingClientFactory());
+    Map<String, LoadBalancerStrategyFactory<? extends LoadBalancerStrategy>> loadBalancerStrategyFactories = new HashMap<>();
+    loadBalancerStrategyFactories.put("random", new RandomLoadBalancerStrategyFactory());
+    PropertyEventBus<ClusterProperties> clusterBus = new PropertyEventBusImpl<>(executor, new MockStore<>());
+    PropertyEventBus<ServiceProperties> serviceBus = new PropertyEventBusImpl<>(executor, new MockStore<>());
+    SimpleLoadBalancerState state = new SimpleLoadBalancerState(executor, uriBus, clusterBus, serviceBus,
+        clientFactories, loadBalancerStrategyFactories, null, null, false, null, SSL_SESSION_VALIDATOR_FACTORY);
+    UriLoadBalancerSubscriber subscriber = new UriLoadBalancerSubscriber(uriBus, state, executor, executor);
+    subscriber.setCoalescing(200, 2000);
+    assertEquals(subscriber.getCoalescingWindowMs(), 200);
+    assertEquals(subscriber.getCoalescingMaxDelayMs(), 2000);
+
+    subscriber.ensureListening("cluster-1", new NullStateListenerCallback());
+    executor.runFor(0);
+    // every update handled replaces the uri properties of the cluster in a new version of the state
+    long initialVersion = state.getVersion();
+
+    // a burst of hosts announcing themselves is handled as a single update with all the hosts, once the window
+    // passed without updates
+    Map<URI, Map<Integer, PartitionData>> uriData = new HashMap<>();
+    for (int i = 0; i < 10; i++)
+    {
+      uriData.put(URI.create("http://cluster-1/test" + i),
+          Collections.singletonMap(DefaultPartitionAccessor.DEFAULT_PARTITION_ID, new PartitionData(1d)));
+      uriRegistry.put("cluster-1", new UriProperties("cluster-1", new HashMap<>(uriData)));
+    }
+    executor.runFor(199);
+    assertEquals(state.getVersion(), initialVersion);
+    executor.runFor(1);
+    assertEquals(state.getVersion(), initialVersion + 1);
+    assertEquals(state.getUriProperties("cluster-1").getProperty().Uris().size(), 10);
+    assertEquals(subscriber.getCoalescedUpdateCount(), 9);
+
+    // updates coming every 150ms, within the window, are still handled once the max delay passed
+    for (int i = 0; i < 20; i++)
+    {
+      uriData.put(URI.create("http://cluster-1/test" + (10 + i)),
+          Collections.singletonMap(DefaultPartitionAccessor.DEFAULT_PARTITION_ID, new PartitionData(1d)));
+      uriRegistry.put("cluster-1", new UriProperties("cluster-1", new HashMap<>(uriData)));
+      executor.runFor(150);
+    }
+    // the 14 updates until 1950ms are handled at 2000ms, the max delay, and the 6 following ones 200ms after the last
+    assertEquals(state.getVersion(), initialVersion + 2);
+    executor.runFor(1000);
+    assertEquals(state.getVersion(), initialVersion + 3);
+    assertEquals(state.getUriProperties("cluster-1").getProperty().Uris().size(), 30);
+    assertEquals(subscriber.getCoalescedUpdateCount(), 9 + 18);
+
+    // removals are handled right away and drop the update still pending
+    uriData.remove(URI.create("http://cluster-1/test0"));
+    uriRegistry.put("cluster-1", new UriProperties("cluster-1", new HashMap<>(uriData)));
+    uriRegistry.remove("cluster-1");
+    executor.runFor(0);
+    assertNull(state.getUriProperties("cluster-1"));
+    long versionAfterRemoval = state.getVersion();
+    executor.runFor(3000);
+    assertEquals(state.getVersion(), versionAfterRemoval);
+    assertNull(state.getUriProperties("cluster-1"));
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testUriUpdateCoalescingStopListening()
+  {
+    ClockedExecutor executor = new ClockedExecutor();
+    MockStore<UriProperties> uriRegistry = new MockStore<>();
+    PropertyEventBus<UriProperties> uriBus = new PropertyEventBusImpl<>(executor, uriRegistry);
+    Map<String, TransportClientFactory> clientFactories = new HashMap<>();
+    clientFactories.put("http", new SimpleLoadBalancerTest.DoNothingClientFactory());
+    Map<String, LoadBalancerStrategyFactory<? extends LoadBalancerStrategy>> loadBalancerStrategyFactories = new HashMap<>();
+    loadBalancerStrategyFactories.put("random", new RandomLoadBalancerStrategyFactory());
+    PropertyEventBus<ClusterProperties> clusterBus = new PropertyEventBusImpl<>(executor, new MockStore<>());
+    PropertyEventBus<ServiceProperties> serviceBus = new PropertyEventBusImpl<>(executor, new MockStore<>());
+    SimpleLoadBalancerState state = new SimpleLoadBalancerState(executor, uriBus, clusterBus, serviceBus,
+        clientFactories, loadBalancerStrategyFactories, null, null, false, null, SSL_SESSION_VALIDATOR_FACTORY);
+    UriLoadBalancerSubscriber subscriber = new UriLoadBalancerSubscriber(uriBus, state, executor, executor);
+    subscriber.setCoalescing(200, 2000);
+
+    Map<URI, Map<Integer, PartitionData>> uriData = new HashMap<>();
+    uriData.put(URI.create("http://cluster-1/test0"),
+        Collections.singletonMap(DefaultPartitionAccessor.DEFAULT_PARTITION_ID, new PartitionData(1d)));
+    uriRegistry.put("cluster-1", new UriProperties("cluster-1", new HashMap<>(uriData)));
+    subscriber.ensureListening("cluster-1", new NullStateListenerCallback());
+    executor.runFor(0);
+    assertEquals(state.getUriProperties("cluster-1").getProperty().Uris().size(), 1);
+
+    // the update pending when the subscriber stops listening to the cluster is never handled
+    uriData.put(URI.create("http://cluster-1/test1"),
+        Collections.singletonMap(DefaultPartitionAccessor.DEFAULT_PARTITION_ID, new PartitionData(1d)));
+    uriRegistry.put("cluster-1", new UriProperties("cluster-1", new HashMap<>(uriData)));
+    executor.runFor(0);
+    long version = state.getVersion();
+    subscriber.tryStopListening("cluster-1", new NullStateListenerCallback());
+    executor.runFor(3000);
+    assertFalse(subscriber.isListeningToProperty("cluster-1"));
+    assertEquals(state.getVersion(), version);
+    assertEquals(state.getUriProperties("cluster-1").getProperty().Uris().size(), 1);
+
+    // listening again initializes the cluster with its latest uris, and stopping listening to all the clusters
+    // drops the update pending again
+    subscriber.ensureListening("cluster-1", new NullStateListenerCallback());
+    executor.runFor(0);
+    assertEquals(state.getUriProperties("cluster-1").getProperty().Uris().size(), 2);
+    uriData.put(URI.create("http://cluster-1/test2"),
+        Collections.singletonMap(DefaultPartitionAccessor.DEFAULT_PARTITION_ID, new PartitionData(1d)));
+    uriRegistry.put("cluster-1", new UriProperties("cluster-1", new HashMap<>(uriData)));
+    executor.runFor(0);
+    version = state.getVersion();
+    subscriber.stopListening();
+    executor.runFor(3000);
+    assertFalse(subscriber.isListeningToProperty("cluster-1"));
+    assertEquals(state.getVersion(), version);
+    assertEquals(state.getUriProperties("cluster-1").getProperty().Uris().size(), 2);
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testStopListeningToSharedBuses() throws Exception
+  {
+    ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+    MockStore<UriProperties> uriRegistry = new MockStore<>();
+    MockStore<ClusterProperties> clusterRegistry = new MockStore<>();
+    MockStore<ServiceProperties> serviceRegistry = new MockStore<>();
+    PropertyEventBus<UriProperties> uriBus = new PropertyEventBusImpl<>(executorService, uriRegistry);
+    PropertyEventBus<ClusterProperties> clusterBus = new PropertyEventBusImpl<>(executorService, clusterRegistry);
+    PropertyEventBus<ServiceProperties> serviceBus = new PropertyEventBusImpl<>(executorService, serviceRegistry);
+    Map<String, TransportClientFactory> clientFactories = new HashMap<>();
+    clientFactories.put("http", new SimpleLoadBalancerTest.DoNothingClientFactory());
+    Map<String, LoadBalancerStrategyFactory<? extends LoadBalancerStrategy>> loadBalancerStrategyFactories = new HashMap<>();
+    loadBalancerStrategyFactories.put("random", new RandomLoadBalancerStrategyFactory());
+    try
+    {
+      clusterRegistry.put("cluster-1", new ClusterProperties("cluster-1"));
+      serviceRegistry.put("service-1", new ServiceProperties("service-1", "cluster-1", "/test",
+          Arrays.asList("random"), Collections.<String, Object>emptyMap(), null, null, Arrays.asList("http"), null));
+      Map<URI, Map<Integer, PartitionData>> uriData = new HashMap<>();
+      uriData.put(URI.create("http://cluster-1/test0"),
+          Collections.singletonMap(DefaultPartitionAccessor.DEFAULT_PARTITION_ID, new PartitionData(1d)));
+      uriRegistry.put("cluster-1", new UriProperties("cluster-1", new HashMap<>(uriData)));
+
+      // both states get the properties published once to the shared buses
+      List<SimpleLoadBalancerState> states = new ArrayList<>();
+      for (int i = 0; i < 2; i++)
+      {
+        SimpleLoadBalancerState state = new SimpleLoadBalancerState(executorService, uriBus, clusterBus, serviceBus,
+            clientFactories, loadBalancerStrategyFactories, null, null, false, null, SSL_SESSION_VALIDATOR_FACTORY);
+        FutureCallback<None> startCallback = new FutureCallback<>();
+        state.start(startCallback);
+        startCallback.get(5, TimeUnit.SECONDS);
+        state.listenToService("service-1", new NullStateListenerCallback());
+        state.listenToCluster("cluster-1", new NullStateListenerCallback());
+        states.add(state);
+      }
+      awaitExecutor(executorService, 0);
+      for (SimpleLoadBalancerState state : states)
+      {
+        assertTrue(state.isListeningToCluster("cluster-1"));
+        assertEquals(state.getTrackerClients().get("service-1").size(), 1);
+      }
+
+      // the state which stopped listening is not updated anymore, while the other one is
+      states.get(0).stopListening();
+      awaitExecutor(executorService, 0);
+      assertFalse(states.get(0).isListeningToService("service-1"));
+      assertFalse(states.get(0).isListeningToCluster("cluster-1"));
+
+      uriData.put(URI.create("http://cluster-1/test1"),
+          Collections.singletonMap(DefaultPartitionAccessor.DEFAULT_PARTITION_ID, new PartitionData(1d)));
+      uriRegistry.put("cluster-1", new UriProperties("cluster-1", new HashMap<>(uriData)));
+      awaitExecutor(executorService, 0);
+
+      assertEquals(states.get(0).getUriProperties("cluster-1").getProperty().Uris().size(), 1);
+      assertEquals(states.get(1).getUriProperties("cluster-1").getProperty().Uris().size(), 2);
+      assertEquals(states.get(1).getTrackerClients().get("service-1").size(), 2);
+    }
+    finally
+    {
+      executorService.shutdownNow();
+    }
+  }
+
+  /**
+   * Waits for the tasks submitted to the executor, and the ones it schedules within the given delay, to run.
+   */
+  private static void awaitExecutor(ScheduledExecutorService executorService, long delayMs) throws Exception
+  {
+    executorService.schedule(() -> { }, delayMs, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS);
+    executorService.submit(() -> { }).get(5, TimeUnit.SECONDS);
+  }
+
   @Test(groups = { "small", "back-end" })
   public void testClientsShutdownAfterPropertyUpdatesRestRequest() throws URISyntaxException, InterruptedException
   {
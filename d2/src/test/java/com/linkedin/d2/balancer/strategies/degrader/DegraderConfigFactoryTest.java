@@ -40,6 +40,7 @@ public class DegraderConfigFactoryTest
     Map<String,String> properties = new HashMap<>();;
     Boolean logEnabled = false;
     DegraderImpl.LatencyToUse latencyToUse = DegraderImpl.LatencyToUse.PCT95;
+    DegraderImpl.PercentileTracking percentileTracking = DegraderImpl.PercentileTracking.SKETCH;
     Double maxDropRate = 0.33;
     Long maxDropDuration = 23190l;
     Double upStep = 0.3;
@@ -57,6 +58,7 @@ public class DegraderConfigFactoryTest
     Double preemptiveRequestTimeoutRate = 0.5;
     properties.put(PropertyKeys.DEGRADER_LOG_ENABLED, logEnabled.toString());
     properties.put(PropertyKeys.DEGRADER_LATENCY_TO_USE, latencyToUse.toString());
+    properties.put(PropertyKeys.DEGRADER_PERCENTILE_TRACKING, percentileTracking.toString());
     properties.put(PropertyKeys.DEGRADER_MAX_DROP_RATE, maxDropRate.toString());
     properties.put(PropertyKeys.DEGRADER_MAX_DROP_DURATION, maxDropDuration.toString());
     properties.put(PropertyKeys.DEGRADER_UP_STEP, upStep.toString());
@@ -75,6 +77,7 @@ public class DegraderConfigFactoryTest
     DegraderImpl.Config config = DegraderConfigFactory.toDegraderConfig(properties);
     assertEquals(config.isLogEnabled(), logEnabled.booleanValue());
     assertEquals(config.getLatencyToUse(), latencyToUse);
+    assertEquals(config.getPercentileTracking(), percentileTracking);
     assertEquals(config.getMaxDropRate(), maxDropRate);
     assertEquals(config.getMaxDropDuration(), maxDropDuration.longValue());
     assertEquals(config.getUpStep(), upStep.doubleValue());
@@ -0,0 +1,170 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.strategies.leastloaded;
+
+import com.linkedin.d2.balancer.KeyMapper;
+import com.linkedin.d2.balancer.clients.TrackerClient;
+import com.linkedin.d2.balancer.clients.TrackerClientImpl;
+import com.linkedin.d2.balancer.properties.PartitionData;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
+import com.linkedin.d2.balancer.util.partitions.DefaultPartitionAccessor;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.util.clock.SettableClock;
+import com.linkedin.util.degrader.CallCompletion;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class LeastLoadedLoadBalancerStrategyTest
+{
+  private static final int PARTITION_ID = DefaultPartitionAccessor.DEFAULT_PARTITION_ID;
+
+  private SettableClock _clock;
+
+  @BeforeMethod
+  public void setUp()
+  {
+    _clock = new SettableClock();
+  }
+
+  @Test
+  public void testAvoidsHostWithCallsInFlight()
+  {
+    LeastLoadedLoadBalancerStrategy strategy = new LeastLoadedLoadBalancerStrategy(2);
+    TrackerClient busy = createTrackerClient("http://host-1/test", 1d);
+    TrackerClient idle = createTrackerClient("http://host-2/test", 1d);
+    for (int i = 0; i < 10; i++)
+    {
+      busy.getCallTracker().startCall();
+    }
+
+    Map<URI, TrackerClient> trackerClients = toMap(busy, idle);
+    for (int i = 0; i < 100; i++)
+    {
+      Assert.assertSame(strategy.getTrackerClient(null, new RequestContext(), 0, PARTITION_ID, trackerClients), idle);
+    }
+  }
+
+  @Test
+  public void testAvoidsSlowHost()
+  {
+    LeastLoadedLoadBalancerStrategy strategy = new LeastLoadedLoadBalancerStrategy(2);
+    TrackerClient slow = createTrackerClient("http://host-1/test", 1d);
+    TrackerClient fast = createTrackerClient("http://host-2/test", 1d);
+    completeCalls(slow, 100);
+    completeCalls(fast, 10);
+    Assert.assertEquals(slow.getCallTracker().getCurrentCallTimeEwma(), 100d);
+
+    // The fast host stays less loaded until it has ten times as many calls in flight
+    for (int i = 0; i < 5; i++)
+    {
+      fast.getCallTracker().startCall();
+    }
+    Map<URI, TrackerClient> trackerClients = toMap(slow, fast);
+    Assert.assertSame(strategy.getTrackerClient(null, new RequestContext(), 0, PARTITION_ID, trackerClients), fast);
+  }
+
+  @Test
+  public void testWeighsHostsByPartitionWeight()
+  {
+    LeastLoadedLoadBalancerStrategy strategy = new LeastLoadedLoadBalancerStrategy(2);
+    TrackerClient light = createTrackerClient("http://host-1/test", 1d);
+    TrackerClient heavy = createTrackerClient("http://host-2/test", 4d);
+    for (int i = 0; i < 2; i++)
+    {
+      heavy.getCallTracker().startCall();
+    }
+
+    Map<URI, TrackerClient> trackerClients = toMap(light, heavy);
+    Assert.assertSame(strategy.getTrackerClient(null, new RequestContext(), 0, PARTITION_ID, trackerClients), heavy);
+  }
+
+  @Test
+  public void testHonorsHints()
+  {
+    LeastLoadedLoadBalancerStrategy strategy = new LeastLoadedLoadBalancerStrategy(2);
+    TrackerClient busy = createTrackerClient("http://host-1/test", 1d);
+    TrackerClient idle = createTrackerClient("http://host-2/test", 1d);
+    busy.getCallTracker().startCall();
+    Map<URI, TrackerClient> trackerClients = toMap(busy, idle);
+
+    // The chosen host is excluded from the retries of the request
+    RequestContext requestContext = new RequestContext();
+    Assert.assertSame(strategy.getTrackerClient(null, requestContext, 0, PARTITION_ID, trackerClients), idle);
+    Assert.assertSame(strategy.getTrackerClient(null, requestContext, 0, PARTITION_ID, trackerClients), busy);
+    Assert.assertNull(strategy.getTrackerClient(null, requestContext, 0, PARTITION_ID, trackerClients));
+    Assert.assertEquals(LoadBalancerStrategy.ExcludedHostHints.getRequestContextExcludedHosts(requestContext).size(), 2);
+
+    RequestContext targetContext = new RequestContext();
+    KeyMapper.TargetHostHints.setRequestContextTargetHost(targetContext, busy.getUri());
+    Assert.assertSame(strategy.getTrackerClient(null, targetContext, 0, PARTITION_ID, trackerClients), busy);
+  }
+
+  @Test
+  public void testSpreadsLoadOverManyHosts()
+  {
+    LeastLoadedLoadBalancerStrategy strategy = new LeastLoadedLoadBalancerStrategy(2);
+    TrackerClient[] hosts = new TrackerClient[10];
+    for (int i = 0; i < hosts.length; i++)
+    {
+      hosts[i] = createTrackerClient("http://host-" + i + "/test", 1d);
+    }
+    Map<URI, TrackerClient> trackerClients = toMap(hosts);
+
+    // Calls are never completed, so the calls in flight pile up on the hosts picked
+    for (int i = 0; i < 1000; i++)
+    {
+      strategy.getTrackerClient(null, new RequestContext(), 0, PARTITION_ID, trackerClients).getCallTracker().startCall();
+    }
+    for (TrackerClient host : hosts)
+    {
+      int concurrency = host.getCallTracker().getCurrentConcurrency();
+      Assert.assertTrue(concurrency > 80 && concurrency < 120, "Calls in flight: " + concurrency);
+    }
+  }
+
+  private TrackerClient createTrackerClient(String uri, double weight)
+  {
+    return new TrackerClientImpl(URI.create(uri), Collections.singletonMap(PARTITION_ID, new PartitionData(weight)),
+        null, _clock, 5000, status -> status >= 500, false, false, false);
+  }
+
+  private void completeCalls(TrackerClient trackerClient, long durationMs)
+  {
+    for (int i = 0; i < 10; i++)
+    {
+      CallCompletion callCompletion = trackerClient.getCallTracker().startCall();
+      _clock.addDuration(durationMs);
+      callCompletion.endCall();
+    }
+  }
+
+  private static Map<URI, TrackerClient> toMap(TrackerClient... trackerClients)
+  {
+    Map<URI, TrackerClient> map = new HashMap<>();
+    for (TrackerClient trackerClient : trackerClients)
+    {
+      map.put(trackerClient.getUri(), trackerClient);
+    }
+    return map;
+  }
+}
@@ -23,6 +23,7 @@ import com.linkedin.test.util.retry.ThreeRetries;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +35,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -423,6 +425,61 @@ public class StateUpdaterTest
     assertEquals(partitionLoadBalancerStateMap.get(1).getPointsMap().get(overlapUri).intValue(), HEALTHY_POINTS);
   }
 
+  @Test
+  public void testUpdatePartitionsInParallel() throws InterruptedException
+  {
+    int partitionCount = 50;
+    int updateParallelism = 4;
+    ConcurrentMap<Integer, PartitionState> partitionLoadBalancerStateMap = new ConcurrentHashMap<>();
+    Map<Integer, TrackerClient> unhealthyTrackerClients = new HashMap<>();
+    for (int partitionId = 0; partitionId < partitionCount; partitionId++)
+    {
+      List<TrackerClient> trackerClients = TrackerClientMockHelper.mockTrackerClients(3,
+          Arrays.asList(20, 20, 20), Arrays.asList(10, 10, 10), Arrays.asList(200L, 300L, 1000L),
+          Arrays.asList(100L, 200L, 500L), Arrays.asList(0, 0, 0));
+      unhealthyTrackerClients.put(partitionId, trackerClients.get(2));
+      partitionLoadBalancerStateMap.put(partitionId, new PartitionStateTestDataBuilder()
+          .setClusterGenerationId(DEFAULT_CLUSTER_GENERATION_ID)
+          .setTrackerClientStateMap(trackerClients,
+              Arrays.asList(StateUpdater.MAX_HEALTH_SCORE, StateUpdater.MAX_HEALTH_SCORE, StateUpdater.MAX_HEALTH_SCORE),
+              Arrays.asList(TrackerClientState.HealthState.HEALTHY, TrackerClientState.HealthState.HEALTHY, TrackerClientState.HealthState.HEALTHY),
+              Arrays.asList(30, 30, 30))
+          .build());
+    }
+
+    // Each partition update waits for another one to run at the same time, and records how many run concurrently
+    CountDownLatch concurrentUpdates = new CountDownLatch(2);
+    AtomicInteger runningUpdates = new AtomicInteger();
+    AtomicInteger maxRunningUpdates = new AtomicInteger();
+    QuarantineManager quarantineManager = Mockito.mock(QuarantineManager.class);
+    Mockito.doAnswer(invocation -> {
+      maxRunningUpdates.accumulateAndGet(runningUpdates.incrementAndGet(), Math::max);
+      concurrentUpdates.countDown();
+      concurrentUpdates.await(5, TimeUnit.SECONDS);
+      runningUpdates.decrementAndGet();
+      return null;
+    }).when(quarantineManager).updateQuarantineState(any(PartitionState.class), any(PartitionState.class), anyLong());
+
+    ExecutorService updateExecutor = Executors.newFixedThreadPool(2 * updateParallelism);
+    D2RelativeStrategyProperties relativeStrategyProperties = new D2RelativeStrategyProperties();
+    RelativeLoadBalancerStrategyFactory.putDefaultValues(relativeStrategyProperties);
+    _stateUpdater = new StateUpdater(relativeStrategyProperties, quarantineManager, _executorService,
+        partitionLoadBalancerStateMap, Collections.emptyList(), SERVICE_NAME, updateParallelism, updateExecutor);
+
+    _stateUpdater.updateState();
+    updateExecutor.shutdown();
+
+    assertEquals(concurrentUpdates.getCount(), 0, "The partitions should be updated in parallel");
+    assertTrue(maxRunningUpdates.get() <= updateParallelism, "Too many partitions updated at the same time: " + maxRunningUpdates.get());
+    assertEquals(runningUpdates.get(), 0, "All the partition updates should be done");
+    for (int partitionId = 0; partitionId < partitionCount; partitionId++)
+    {
+      assertEquals(partitionLoadBalancerStateMap.get(partitionId).getPointsMap().get(unhealthyTrackerClients.get(partitionId).getUri()).intValue(),
+          (int) (HEALTHY_POINTS - RelativeLoadBalancerStrategyFactory.DEFAULT_DOWN_STEP * RelativeLoadBalancerStrategyFactory.DEFAULT_POINTS_PER_WEIGHT));
+    }
+    assertTrue(_stateUpdater.getLastUpdateDurationMs() >= 0);
+  }
+
   @Test
   public void testClusterUrisChange()
   {
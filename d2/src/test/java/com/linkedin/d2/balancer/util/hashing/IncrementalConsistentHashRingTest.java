@@ -0,0 +1,169 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.util.hashing;
+
+import com.linkedin.d2.balancer.strategies.PointBasedConsistentHashRingFactory;
+import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyConfig;
+import com.linkedin.d2.balancer.util.hashing.ConsistentHashRing.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class IncrementalConsistentHashRingTest
+{
+  @Test(groups = { "small", "back-end" })
+  public void testEmptyRing()
+  {
+    IncrementalConsistentHashRing<String> ring = IncrementalConsistentHashRing.build(new ArrayList<>());
+    assertTrue(ring.isEmpty());
+    assertNull(ring.get(0));
+    assertFalse(ring.getIterator(0).hasNext());
+
+    ring = ring.update(Collections.emptyList(), Collections.singletonList(new Point<>("host", 42)));
+    assertEquals(ring.get(Integer.MIN_VALUE), "host");
+    assertEquals(ring.get(Integer.MAX_VALUE), "host");
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testMatchesConsistentHashRing()
+  {
+    Random random = new Random(1);
+    List<Point<String>> points = new ArrayList<>();
+    for (int i = 0; i < 10000; i++)
+    {
+      points.add(new Point<>("host-" + random.nextInt(100), random.nextInt()));
+    }
+    IncrementalConsistentHashRing<String> ring = IncrementalConsistentHashRing.build(new ArrayList<>(points));
+    ConsistentHashRing<String> expected = new ConsistentHashRing<>(new ArrayList<>(points));
+    assertTrue(ring.getSegmentCount() > 1);
+
+    assertRingsMatch(ring, expected, random);
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testUpdateMatchesFullBuild()
+  {
+    Random random = new Random(2);
+    Map<String, Integer> pointsMap = new HashMap<>();
+    for (int i = 0; i < 200; i++)
+    {
+      pointsMap.put("http://test.linkedin.com:" + (10000 + i), 100);
+    }
+    PointBasedConsistentHashRingFactory<String> ringFactory =
+        new PointBasedConsistentHashRingFactory<>(DegraderLoadBalancerStrategyConfig.DEFAULT_HASHRING_POINT_CLEANUP_RATE);
+    IncrementalConsistentHashRing<String> ring = (IncrementalConsistentHashRing<String>) ringFactory.createRing(pointsMap);
+
+    for (int i = 0; i < 20; i++)
+    {
+      // A few hosts get degraded or recover, as in a degrader update
+      for (int j = 0; j < 5; j++)
+      {
+        pointsMap.put("http://test.linkedin.com:" + (10000 + random.nextInt(200)), random.nextInt(101));
+      }
+      IncrementalConsistentHashRing<String> previousRing = ring;
+      ring = (IncrementalConsistentHashRing<String>) ringFactory.createRing(pointsMap);
+
+      PointBasedConsistentHashRingFactory<String> fullBuildFactory =
+          new PointBasedConsistentHashRingFactory<>(DegraderLoadBalancerStrategyConfig.DEFAULT_HASHRING_POINT_CLEANUP_RATE);
+      ConsistentHashRing<String> fullBuildRing = (ConsistentHashRing<String>) fullBuildFactory.createRing(pointsMap);
+      assertRingsMatch(ring, new ConsistentHashRing<>(new ArrayList<>(fullBuildRing.getPoints())), random);
+
+      // The segments without changes are shared with the previous ring
+      int sharedSegments = 0;
+      for (int segment = 0; segment < ring.getSegmentCount(); segment++)
+      {
+        if (Arrays.equals(ring.getSegment(segment), previousRing.getSegment(segment)))
+        {
+          assertSame(ring.getSegment(segment), previousRing.getSegment(segment));
+          sharedSegments++;
+        }
+      }
+      assertTrue(sharedSegments > 0);
+    }
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testHostsAddedAndRemoved()
+  {
+    Map<String, Integer> pointsMap = new HashMap<>();
+    for (int i = 0; i < 50; i++)
+    {
+      pointsMap.put("http://test.linkedin.com:" + (10000 + i), 100);
+    }
+    PointBasedConsistentHashRingFactory<String> ringFactory =
+        new PointBasedConsistentHashRingFactory<>(DegraderLoadBalancerStrategyConfig.DEFAULT_HASHRING_POINT_CLEANUP_RATE);
+    ringFactory.createRing(pointsMap);
+
+    pointsMap.remove("http://test.linkedin.com:10000");
+    pointsMap.put("http://test.linkedin.com:20000", 100);
+    ConsistentHashRing<String> ring = (ConsistentHashRing<String>) ringFactory.createRing(pointsMap);
+
+    Map<String, Integer> counts = new HashMap<>();
+    for (Point<String> point : ring.getPoints())
+    {
+      counts.merge(point.getT(), 1, Integer::sum);
+    }
+    assertEquals(counts, pointsMap);
+  }
+
+  private static void assertRingsMatch(ConsistentHashRing<String> ring, ConsistentHashRing<String> expected, Random random)
+  {
+    assertEquals(ring.getPoints(), expected.getPoints());
+    List<Point<String>> points = expected.getPoints();
+    List<Integer> keys = new ArrayList<>();
+    for (int i = 0; i < 1000; i++)
+    {
+      keys.add(random.nextInt());
+    }
+    // Keys on and around the points, and at both ends of the ring
+    for (int i = 0; i < points.size(); i += 97)
+    {
+      keys.add(points.get(i).getHash());
+      keys.add(points.get(i).getHash() + 1);
+    }
+    keys.add(Integer.MIN_VALUE);
+    keys.add(Integer.MAX_VALUE);
+
+    for (int key : keys)
+    {
+      assertEquals(ring.get(key), expected.get(key), "Different host for key " + key);
+    }
+    for (int key : keys.subList(0, 10))
+    {
+      Iterator<String> iterator = ring.getIterator(key);
+      Iterator<String> expectedIterator = expected.getIterator(key);
+      while (expectedIterator.hasNext())
+      {
+        assertSame(iterator.next(), expectedIterator.next());
+      }
+      assertFalse(iterator.hasNext());
+    }
+  }
+}
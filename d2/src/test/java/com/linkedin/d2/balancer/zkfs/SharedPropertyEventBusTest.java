@@ -0,0 +1,197 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.zkfs;
+
+import com.linkedin.d2.discovery.event.PropertyEventBus;
+import com.linkedin.d2.discovery.event.PropertyEventBusImpl;
+import com.linkedin.d2.discovery.event.PropertyEventSubscriber;
+import com.linkedin.d2.discovery.stores.mock.MockStore;
+import com.linkedin.r2.util.NamedThreadFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class SharedPropertyEventBusTest
+{
+  private static final String PROPERTY = "cluster-1";
+
+  private ExecutorService _busExecutor;
+  private ExecutorService _executor1;
+  private ExecutorService _executor2;
+  private Set<String> _stoppedProperties;
+  private MockStore<String> _store;
+  private SharedPropertyEventBus<String> _sharedBus;
+
+  @BeforeMethod
+  public void setUp()
+  {
+    _busExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("bus"));
+    _executor1 = Executors.newSingleThreadExecutor(new NamedThreadFactory("user1"));
+    _executor2 = Executors.newSingleThreadExecutor(new NamedThreadFactory("user2"));
+    _stoppedProperties = ConcurrentHashMap.newKeySet();
+    _store = new MockStore<String>()
+    {
+      @Override
+      public void stopPublishing(String prop)
+      {
+        _stoppedProperties.add(prop);
+        super.stopPublishing(prop);
+      }
+    };
+    _sharedBus = new SharedPropertyEventBus<>(new PropertyEventBusImpl<>(_busExecutor, _store));
+  }
+
+  @AfterMethod
+  public void tearDown()
+  {
+    _busExecutor.shutdownNow();
+    _executor1.shutdownNow();
+    _executor2.shutdownNow();
+  }
+
+  @Test
+  public void testCallsBackOnUserExecutor() throws Exception
+  {
+    _store.put(PROPERTY, "v1");
+    RecordingSubscriber subscriber1 = new RecordingSubscriber();
+    RecordingSubscriber subscriber2 = new RecordingSubscriber();
+    _sharedBus.forExecutor(_executor1).register(Collections.singleton(PROPERTY), subscriber1);
+    _sharedBus.forExecutor(_executor2).register(Collections.singleton(PROPERTY), subscriber2);
+    awaitExecutors();
+
+    _store.put(PROPERTY, "v2");
+    _store.remove(PROPERTY);
+    awaitExecutors();
+
+    Assert.assertEquals(subscriber1._events, Arrays.asList("init v1", "add v2", "remove"));
+    Assert.assertEquals(subscriber2._events, Arrays.asList("init v1", "add v2", "remove"));
+    Assert.assertEquals(subscriber1._threads.size(), 1);
+    Assert.assertTrue(subscriber1._threads.iterator().next().startsWith("user1-"));
+    Assert.assertEquals(subscriber2._threads.size(), 1);
+    Assert.assertTrue(subscriber2._threads.iterator().next().startsWith("user2-"));
+  }
+
+  @Test
+  public void testUnsubscribingKeepsPublishing() throws Exception
+  {
+    _store.put(PROPERTY, "v1");
+    PropertyEventBus<String> bus1 = _sharedBus.forExecutor(_executor1);
+    RecordingSubscriber subscriber1 = new RecordingSubscriber();
+    bus1.register(Collections.singleton(PROPERTY), subscriber1);
+    awaitExecutors();
+
+    // the only user watching the property unsubscribes, while the backend keeps publishing it
+    bus1.unregister(Collections.singleton(PROPERTY), subscriber1);
+    awaitExecutors();
+    _store.put(PROPERTY, "v2");
+    awaitExecutors();
+    Assert.assertTrue(_stoppedProperties.isEmpty());
+    Assert.assertEquals(subscriber1._events, Collections.singletonList("init v1"));
+
+    // subscribing and unsubscribing again keeps it once
+    bus1.register(Collections.singleton(PROPERTY), subscriber1);
+    awaitExecutors();
+    bus1.unregister(Collections.singleton(PROPERTY), subscriber1);
+    awaitExecutors();
+    Assert.assertTrue(_stoppedProperties.isEmpty());
+    Assert.assertEquals(subscriber1._events, Arrays.asList("init v1", "init v2"));
+
+    // another user gets the property still up to date
+    RecordingSubscriber subscriber2 = new RecordingSubscriber();
+    _sharedBus.forExecutor(_executor2).register(Collections.singleton(PROPERTY), subscriber2);
+    awaitExecutors();
+    _store.put(PROPERTY, "v3");
+    awaitExecutors();
+    Assert.assertEquals(subscriber2._events, Arrays.asList("init v2", "add v3"));
+    Assert.assertEquals(subscriber1._events, Arrays.asList("init v1", "init v2"));
+  }
+
+  @Test
+  public void testUserExecutorShutDown() throws Exception
+  {
+    _store.put(PROPERTY, "v1");
+    RecordingSubscriber subscriber1 = new RecordingSubscriber();
+    RecordingSubscriber subscriber2 = new RecordingSubscriber();
+    _sharedBus.forExecutor(_executor1).register(Collections.singleton(PROPERTY), subscriber1);
+    _sharedBus.forExecutor(_executor2).register(Collections.singleton(PROPERTY), subscriber2);
+    awaitExecutors();
+
+    // the events for a user whose executor is shut down are dropped without failing the other users
+    _executor1.shutdown();
+    _store.put(PROPERTY, "v2");
+    awaitExecutor(_busExecutor);
+    awaitExecutor(_executor2);
+    Assert.assertEquals(subscriber1._events, Collections.singletonList("init v1"));
+    Assert.assertEquals(subscriber2._events, Arrays.asList("init v1", "add v2"));
+  }
+
+  /**
+   * Waits for the events published on the bus to be called back on the executors of the users.
+   */
+  private void awaitExecutors() throws Exception
+  {
+    awaitExecutor(_busExecutor);
+    awaitExecutor(_executor1);
+    awaitExecutor(_executor2);
+  }
+
+  private static void awaitExecutor(ExecutorService executorService) throws Exception
+  {
+    executorService.submit(() -> { }).get(5, TimeUnit.SECONDS);
+  }
+
+  private static class RecordingSubscriber implements PropertyEventSubscriber<String>
+  {
+    private final List<String> _events = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> _threads = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void onInitialize(String propertyName, String propertyValue)
+    {
+      record("init " + propertyValue);
+    }
+
+    @Override
+    public void onAdd(String propertyName, String propertyValue)
+    {
+      record("add " + propertyValue);
+    }
+
+    @Override
+    public void onRemove(String propertyName)
+    {
+      record("remove");
+    }
+
+    private void record(String event)
+    {
+      _events.add(event);
+      _threads.add(Thread.currentThread().getName());
+    }
+  }
+}
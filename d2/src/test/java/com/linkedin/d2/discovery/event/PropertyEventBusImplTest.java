@@ -23,9 +23,14 @@ package com.linkedin.d2.discovery.event;
 import com.linkedin.d2.discovery.stores.mock.MockStore;
 
 
+import com.linkedin.test.util.ClockedExecutor;
+import java.util.Collections;
 import java.util.concurrent.ScheduledExecutorService;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
 /**
  * @author Steven Ihde
  * @version $Revision: $
@@ -64,6 +69,23 @@ public class PropertyEventBusImplTest extends PropertyEventBusTest
     return (MockStore<String>) bus.getPublisher();
   }
 
+  @Test
+  public void testQueuedMessageCount()
+  {
+    ClockedExecutor executor = new ClockedExecutor();
+    MockStore<String> store = new MockStore<>();
+    PropertyEventBusImpl<String> bus = new PropertyEventBusImpl<>(executor, store);
+    PropertyEventThread thread = bus.getPropertyEventThread();
+
+    bus.register(Collections.singleton("property"), new PropertyEventTestSubscriber());
+    store.put("property", "value");
+    assertEquals(thread.getQueuedMessageCount(), 1);
+
+    executor.runFor(0);
+    assertEquals(thread.getQueuedMessageCount(), 0);
+    assertTrue(thread.getMaxEventLagMs() >= thread.getLastEventLagMs());
+  }
+
   @Test
   public void testNothing()
   {
@@ -20,6 +20,7 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.testng.annotations.Test;
@@ -65,6 +66,44 @@ public class PropertyEventThreadTest
     assertEquals(testEvent.getCount(), 2);
   }
 
+  @Test(groups = { "small", "back-end" })
+  public void testEventLag() throws InterruptedException
+  {
+    PropertyEventThread thread = new PropertyEventThread("test");
+    CountDownLatch release = new CountDownLatch(1);
+    PropertyTestEvent testEvent = new PropertyTestEvent("counter");
+
+    thread.start();
+
+    // the second event waits in the queue until the first one is done
+    assertTrue(thread.send(new PropertyEvent("blocking")
+    {
+      @Override
+      public void innerRun()
+      {
+        try
+        {
+          release.await();
+        }
+        catch (InterruptedException e)
+        {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }));
+    assertTrue(thread.send(testEvent));
+    Thread.sleep(50);
+    release.countDown();
+
+    thread.interrupt();
+    thread.join(0);
+
+    assertEquals(testEvent.getCount(), 1);
+    assertEquals(thread.getQueuedMessageCount(), 0);
+    assertTrue(thread.getLastEventLagMs() >= 50);
+    assertTrue(thread.getMaxEventLagMs() >= thread.getLastEventLagMs());
+  }
+
   public class PropertyTestEvent extends PropertyEvent
   {
     private final AtomicLong _count;
@@ -27,7 +27,12 @@ import java.util.Collections;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 
 import static com.linkedin.d2.balancer.util.LoadBalancerUtil.createTempDirectory;
 import static org.testng.Assert.fail;
@@ -88,6 +93,112 @@ public class FileStoreTest extends PropertyStoreTest
     Assert.assertEquals(fileStore.getAll(), Collections.emptyMap(), "Expected empty map since all files were not deserialized properly.");
   }
 
+  @Test
+  public void testSnapshot() throws IOException
+  {
+    String path = createTempDirectory("file-store-test").toString();
+    FileStore<String> fileStore = new FileStore<>(path, FileSystemDirectory.FILE_STORE_EXTENSION, new PropertyStringSerializer());
+    Assert.assertTrue(fileStore.start());
+    for (int i = 0; i < 10; i++)
+    {
+      fileStore.put("property" + i, "contents" + i);
+    }
+    Assert.assertTrue(fileStore.writeSnapshot());
+    Assert.assertEquals(fileStore.getSnapshotSize(), 10);
+
+    // the props-values changed after the snapshot was written are read from their file
+    fileStore.put("property0", "newContents0");
+    fileStore.remove("property1");
+    fileStore.put("property10", "contents10");
+
+    FileStore<String> restartedFileStore =
+        new FileStore<>(path, FileSystemDirectory.FILE_STORE_EXTENSION, new PropertyStringSerializer());
+    Assert.assertTrue(restartedFileStore.start());
+    Assert.assertEquals(restartedFileStore.getSnapshotSize(), 8);
+    Assert.assertEquals(restartedFileStore.get("property0"), "newContents0");
+    Assert.assertNull(restartedFileStore.get("property1"));
+    Assert.assertEquals(restartedFileStore.get("property10"), "contents10");
+    for (int i = 2; i < 10; i++)
+    {
+      Assert.assertEquals(restartedFileStore.get("property" + i), "contents" + i);
+    }
+    Assert.assertEquals(restartedFileStore.getSnapshotGetCount(), 8);
+    Assert.assertEquals(restartedFileStore.getAll().size(), 10);
+
+    restartedFileStore.put("property2", "newContents2");
+    Assert.assertEquals(restartedFileStore.get("property2"), "newContents2");
+    Assert.assertTrue(restartedFileStore.writeSnapshot());
+    Assert.assertEquals(restartedFileStore.getSnapshotSize(), 10);
+    Assert.assertEquals(restartedFileStore.get("property2"), "newContents2");
+  }
+
+  @Test
+  public void testCorruptedSnapshot() throws IOException
+  {
+    String path = createTempDirectory("file-store-test").toString();
+    FileStore<String> fileStore = new FileStore<>(path, FileSystemDirectory.FILE_STORE_EXTENSION, new PropertyStringSerializer());
+    Assert.assertTrue(fileStore.start());
+    fileStore.put("property", "contents");
+    Assert.assertTrue(fileStore.writeSnapshot());
+
+    File snapshotFile = new File(path, FileStoreSnapshot.SNAPSHOT_FILE_NAME);
+    byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+    Files.write(snapshotFile.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+
+    FileStore<String> restartedFileStore =
+        new FileStore<>(path, FileSystemDirectory.FILE_STORE_EXTENSION, new PropertyStringSerializer());
+    Assert.assertTrue(restartedFileStore.start());
+    Assert.assertEquals(restartedFileStore.getSnapshotSize(), 0);
+    Assert.assertEquals(restartedFileStore.get("property"), "contents");
+  }
+
+  @Test
+  public void testCorruptedSnapshotLength() throws IOException
+  {
+    String path = createTempDirectory("file-store-test").toString();
+    FileStore<String> fileStore = new FileStore<>(path, FileSystemDirectory.FILE_STORE_EXTENSION, new PropertyStringSerializer());
+    Assert.assertTrue(fileStore.start());
+    fileStore.put("property", "contents");
+    Assert.assertTrue(fileStore.writeSnapshot());
+
+    // the length of the name of the first entry follows the magic, the version and the count
+    File snapshotFile = new File(path, FileStoreSnapshot.SNAPSHOT_FILE_NAME);
+    byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+    ByteBuffer.wrap(bytes, 12, 4).putInt(Integer.MAX_VALUE);
+    Files.write(snapshotFile.toPath(), bytes);
+
+    FileStore<String> restartedFileStore =
+        new FileStore<>(path, FileSystemDirectory.FILE_STORE_EXTENSION, new PropertyStringSerializer());
+    Assert.assertTrue(restartedFileStore.start());
+    Assert.assertEquals(restartedFileStore.getSnapshotSize(), 0);
+    Assert.assertEquals(restartedFileStore.get("property"), "contents");
+  }
+
+  @Test
+  public void testSnapshotOfFileChangedByAnotherWriter() throws IOException
+  {
+    String path = createTempDirectory("file-store-test").toString();
+    FileStore<String> fileStore = new FileStore<>(path, FileSystemDirectory.FILE_STORE_EXTENSION, new PropertyStringSerializer());
+    Assert.assertTrue(fileStore.start());
+    fileStore.put("property", "contents");
+    Assert.assertTrue(fileStore.writeSnapshot());
+
+    FileStore<String> restartedFileStore =
+        new FileStore<>(path, FileSystemDirectory.FILE_STORE_EXTENSION, new PropertyStringSerializer());
+    Assert.assertTrue(restartedFileStore.start());
+    Assert.assertEquals(restartedFileStore.getSnapshotSize(), 1);
+
+    // another store writes the file once the snapshot is loaded
+    File propertyFile = new File(path, "property" + FileSystemDirectory.FILE_STORE_EXTENSION);
+    long lastModified = propertyFile.lastModified();
+    Files.write(propertyFile.toPath(), "newContents".getBytes(StandardCharsets.UTF_8));
+    Assert.assertTrue(propertyFile.setLastModified(lastModified + 2000));
+
+    Assert.assertEquals(restartedFileStore.get("property"), "newContents");
+    Assert.assertEquals(restartedFileStore.getSnapshotSize(), 0);
+    Assert.assertEquals(restartedFileStore.getSnapshotGetCount(), 0);
+  }
+
   /**
    * Test serializer that throws when deserializing.
    *
@@ -23,6 +23,10 @@ import com.linkedin.d2.balancer.simple.ClusterInfoItem;
 import com.linkedin.d2.balancer.simple.SimpleLoadBalancerState;
 import com.linkedin.d2.balancer.util.canary.CanaryDistributionProvider;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessor;
+import com.linkedin.r2.util.HashedWheelTimer;
+import com.linkedin.r2.util.RetryBudget;
+import com.linkedin.r2.util.RetryBudgets;
+import com.linkedin.test.util.ClockedExecutor;
 import java.net.URI;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicLong;
@@ -178,4 +182,28 @@ public class D2ClientJmxManagerTest {
         _unregisteredObjectNameCaptor.getValue(),
         _servicePropertiesLBState.getProperty().getServiceName() + "-ServiceProperties");
   }
+
+  @Test
+  public void testSetRetryBudgets()
+  {
+    RetryBudgets retryBudgets = new RetryBudgets();
+    RetryBudget existingBudget = retryBudgets.getBudget("S_Foo");
+    _d2ClientJmxManager.setRetryBudgets(retryBudgets);
+    Mockito.verify(_jmxManager).registerRetryBudget("Foo-S_Foo-RetryBudget", existingBudget);
+
+    RetryBudget newBudget = retryBudgets.getBudget("S_Bar");
+    Mockito.verify(_jmxManager).registerRetryBudget("Foo-S_Bar-RetryBudget", newBudget);
+  }
+
+  @Test
+  public void testHashedWheelTimer()
+  {
+    HashedWheelTimer timer = new HashedWheelTimer(new ClockedExecutor());
+    _d2ClientJmxManager.onHashedWheelTimerCreate(timer);
+    Mockito.verify(_jmxManager).registerHashedWheelTimer(_registerObjectNameCaptor.capture(), Mockito.eq(timer));
+    Assert.assertTrue(_registerObjectNameCaptor.getValue().startsWith("Foo-HashedWheelTimer-"));
+
+    _d2ClientJmxManager.onHashedWheelTimerShutdown(timer);
+    Mockito.verify(_jmxManager).unregister(_registerObjectNameCaptor.getValue());
+  }
 }
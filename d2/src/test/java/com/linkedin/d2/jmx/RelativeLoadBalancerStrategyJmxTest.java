@@ -161,4 +161,14 @@ public class RelativeLoadBalancerStrategyJmxTest {
     assertEquals(jmx.getUnhealthyHostsCount(), 0);
     assertEquals(jmx.getQuarantineHostsCount(), 0);
   }
+
+  @Test
+  public void testLastUpdateDuration()
+  {
+    RelativeLoadBalancerStrategy strategy = Mockito.mock(RelativeLoadBalancerStrategy.class);
+    Mockito.when(strategy.getLastUpdateDurationMs()).thenReturn(42L);
+
+    RelativeLoadBalancerStrategyJmx jmx = new RelativeLoadBalancerStrategyJmx(strategy);
+    assertEquals(jmx.getLastUpdateDurationMs(), 42L);
+  }
 }
\ No newline at end of file
@@ -102,6 +102,16 @@ public interface CallTracker
    */
   int getCurrentConcurrency();
 
+  /**
+   * Returns the exponentially weighted moving average of the duration of the completed calls, which follows
+   * the latency call by call rather than at the end of each sampling interval.
+   * @return the moving average of the call duration in milliseconds, or 0 if no call has completed.
+   */
+  default double getCurrentCallTimeEwma()
+  {
+    return 0;
+  }
+
   /**
    * Tracks a single successful call
    * @param duration in milliseconds
@@ -27,8 +27,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 import com.linkedin.common.stats.LongStats;
 import com.linkedin.util.clock.Clock;
@@ -39,11 +45,20 @@ import com.linkedin.util.clock.SystemClock;
  * As the name implies CallTrackerImpl does call tracking i.e. counts, error, latency, concurrency, etc.
  * There are 4 classes that is involved in call tracking.
  * 1.) CallTrackerImpl counts the total events, be it total call counts, total error count, etc.
- * 2.) CallTrackerImpl.Tracker counts the events happening in one interval and publish an event to its listener
- * periodically.
+ * 2.) CallTrackerImpl.Interval counts the events happening in one interval, and is rolled over to publish an
+ * event to the listeners periodically.
  * 3.) CallTrackerImpl.CallTrackerStats is the actual data that is being moved around. You can think of
  * CallTrackerStats as an immutable DTO.
- * 4.) LongTracking is used in CallTrackerImpl.Tracker to calculate the statistics of the call.
+ * 4.) LongTracking is used in CallTrackerImpl.Interval to calculate the statistics of the call. It can be
+ * replaced, by {@link com.linkedin.common.stats.QuantileSketchLongTracking} for example, to compute the
+ * percentiles in fixed memory.
+ *
+ * Calls are tracked without locking, since every request sent to a host goes through its tracker. Counts are
+ * kept in {@link LongAdder}s, and call times are batched in per-thread stripes before being added to the
+ * {@link LongTracker} of the interval. The caller finding the current interval elapsed rolls it over: it
+ * publishes the next interval, then waits for the callers still recording into the elapsed one before computing
+ * its stats. The other callers finding it elapsed wait for the rollover, so that they neither record into the
+ * elapsed interval nor return the stats of the one before it. Callers within the interval never wait.
  *
  * @author Dave Messink
  * @author Chris Pettitt
@@ -55,25 +70,38 @@ import com.linkedin.util.clock.SystemClock;
 public class CallTrackerImpl implements CallTracker
 {
   private static final Clock DEFAULT_CLOCK = SystemClock.instance();
+  // Weight of the latest call in the moving average of the call duration
+  private static final double CALL_TIME_EWMA_WEIGHT = 0.2;
+  private static final int CALL_TIME_STRIPES =
+      Math.min(64, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1);
+  private static final int CALL_TIME_BATCH_SIZE = 32;
+  private static final int ERROR_TYPES = ErrorType.values().length;
 
-  private final Object _lock = new Object();
+  private final Object _listenersLock = new Object();
 
   private final Clock _clock;
   private final long _interval;
-
-  private final Tracker _tracker;
+  private final Supplier<LongTracker> _callTimeTrackingFactory;
+  private final LongStats _emptyCallTimeStats;
 
   private volatile long _lastStartTime;
   private volatile long _lastResetTime;
-  private long _callCountTotal;
-  private long _callStartCountTotal;
-  private long _errorCountTotal;
-  private int _concurrency;
-  private long _sumOfOutstandingStartTimes;
+  private final LongAdder _callCountTotal = new LongAdder();
+  private final LongAdder _callStartCountTotal = new LongAdder();
+  private final LongAdder _errorCountTotal = new LongAdder();
+  private final AtomicInteger _concurrency = new AtomicInteger();
+  private final LongAdder _sumOfOutstandingStartTimes = new LongAdder();
+  private volatile double _callTimeEwma;
   //Total counts of specific types of error like RemoteInvocation error, 400 errors, 500 errors
-  private Map<ErrorType, Integer> _errorTypeCountsTotal;
+  private final LongAdder[] _errorTypeCountsTotal = newAdders(ERROR_TYPES);
+
+  private volatile Interval _current;
+  private volatile CallStats _stats;
+  // Held by the caller rolling over or resetting the intervals
+  private final AtomicBoolean _rolling = new AtomicBoolean();
 
-  private Pending _pending = null;
+  private final ConcurrentLinkedQueue<PendingEvent> _pendingEvents = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean _delivering = new AtomicBoolean();
 
   // This CallTrackerListener list is immutable and copy-on-write.
   private volatile List<StatsRolloverEventListener> _listeners = new ArrayList<>();
@@ -89,39 +117,43 @@ public class CallTrackerImpl implements CallTracker
   }
 
   public CallTrackerImpl(long interval, Clock clock, boolean percentileTrackingEnabled) {
+    this(interval, clock, percentileTrackingEnabled ? LongTracking::new : SimpleLongTracking::new);
+  }
+
+  /**
+   * @param callTimeTrackingFactory creates the {@link LongTracker} computing the call time statistics
+   *                                of each interval
+   */
+  public CallTrackerImpl(long interval, Clock clock, Supplier<LongTracker> callTimeTrackingFactory)
+  {
     _clock = clock;
     _interval = interval;
+    _callTimeTrackingFactory = callTimeTrackingFactory;
+    _emptyCallTimeStats = newCallTimeTracking().getStats();
     _lastStartTime = -1;
     _lastResetTime = _clock.currentTimeMillis();
-    _errorTypeCountsTotal = new HashMap<>();
-    /* create trackers for each resolution */
-    _tracker = new Tracker(percentileTrackingEnabled);
+    _current = new Interval(_lastResetTime, 0);
+    _stats = createStats(_lastResetTime - _interval, _lastResetTime, null);
   }
 
   @Override
   public CallCompletion startCall()
   {
-    long currentTime;
-    Pending pending;
-    synchronized (_lock)
+    long currentTime = _clock.currentTimeMillis();
+    Interval interval = enterInterval(currentTime);
+    try
     {
-      currentTime = _clock.currentTimeMillis();
-      _tracker.getStatsWithCurrentTime(currentTime);
-      _callStartCountTotal++;
-      _tracker._callStartCount++;
-      _concurrency++;
-      if (_concurrency > _tracker._concurrentMax)
-      {
-        _tracker._concurrentMax = _concurrency;
-      }
+      _callStartCountTotal.increment();
+      interval._callStartCount.increment();
+      interval._concurrentMax.accumulate(_concurrency.incrementAndGet());
       _lastStartTime = currentTime;
-      _sumOfOutstandingStartTimes += currentTime;
-      pending = checkForPending();
+      _sumOfOutstandingStartTimes.add(currentTime);
     }
-    if (pending != null)
+    finally
     {
-      pending.deliver();
+      interval.exit();
     }
+    deliverPending();
     return new CallCompletionImpl(currentTime);
   }
 
@@ -133,21 +165,13 @@ public class CallTrackerImpl implements CallTracker
 
   private CallStats getStatsWithCurrentTime(long currentTimeMillis)
   {
-    CallStats stats;
-    stats = _tracker.getMostRecentStats();
+    CallStats stats = _stats;
     if (stats.stale(currentTimeMillis))
     {
-      Pending pending;
-      synchronized (_lock)
-      {
-        stats = _tracker.getStatsWithCurrentTime(currentTimeMillis);
-        pending = checkForPending();
-      }
-      // Always deliver events without holding _lock to avoid deadlocks.
-      if (pending != null)
-      {
-        pending.deliver();
-      }
+      rollover(currentTimeMillis);
+      // Always deliver events once done with the intervals.
+      deliverPending();
+      stats = _stats;
     }
     return stats;
   }
@@ -161,11 +185,10 @@ public class CallTrackerImpl implements CallTracker
   @Override
   public void addStatsRolloverEventListener(StatsRolloverEventListener listener)
   {
-    synchronized (_lock)
+    synchronized (_listenersLock)
     {
       // Since addListener and removeListener should be rare
-      // compared to read access to deliver events
-      // which cannot be be done while holding _lock,
+      // compared to read access to deliver events,
       // copy-on-write is implemented for _listeners.
       List<StatsRolloverEventListener> copy = new ArrayList<>(_listeners);
       copy.add(listener);
@@ -177,11 +200,10 @@ public class CallTrackerImpl implements CallTracker
   public boolean removeStatsRolloverEventListener(StatsRolloverEventListener listener)
   {
     boolean removed = false;
-    synchronized (_lock)
+    synchronized (_listenersLock)
     {
       // Since addListener and removeListener should be rare
-      // compared to read access to deliver events
-      // which cannot be be done while holding _lock,
+      // compared to read access to deliver events,
       // copy-on-write is implemented for _listeners.
       if (_listeners.contains(listener))
       {
@@ -196,31 +218,37 @@ public class CallTrackerImpl implements CallTracker
   @Override
   public long getCurrentCallCountTotal()
   {
-    return _callCountTotal;
+    return _callCountTotal.sum();
   }
 
   @Override
   public long getCurrentCallStartCountTotal()
   {
-    return _callStartCountTotal;
+    return _callStartCountTotal.sum();
   }
 
   @Override
   public long getCurrentErrorCountTotal()
   {
-    return _errorCountTotal;
+    return _errorCountTotal.sum();
   }
 
   @Override
   public Map<ErrorType, Integer> getCurrentErrorTypeCountsTotal()
   {
-    return Collections.unmodifiableMap(new HashMap<>(_errorTypeCountsTotal));
+    return Collections.unmodifiableMap(toErrorTypeCounts(_errorTypeCountsTotal));
   }
 
   @Override
   public int getCurrentConcurrency()
   {
-    return _concurrency;
+    return _concurrency.get();
+  }
+
+  @Override
+  public double getCurrentCallTimeEwma()
+  {
+    return _callTimeEwma;
   }
 
   @Override
@@ -233,73 +261,205 @@ public class CallTrackerImpl implements CallTracker
   @Override
   public void reset()
   {
-    Pending pending;
-    synchronized (_lock)
+    lockIntervals();
+    try
     {
       _lastStartTime = -1;
       _lastResetTime = _clock.currentTimeMillis();
-      _callCountTotal = 0;
-      _callStartCountTotal = 0;
-      _errorCountTotal = 0;
-      _tracker.reset();
-      _errorTypeCountsTotal.clear();
-      pending = checkForPending();
+      _callCountTotal.reset();
+      _callStartCountTotal.reset();
+      _errorCountTotal.reset();
+      for (LongAdder errorTypeCount : _errorTypeCountsTotal)
+      {
+        errorTypeCount.reset();
+      }
+
+      // The calls of the current interval are discarded
+      Interval interval = _current;
+      _current = new Interval(_lastResetTime, _concurrency.get());
+      interval.seal();
+      publish(createStats(_lastResetTime - _interval, _lastResetTime, null), true);
     }
-    // Always deliver pending events without holding _lock to avoid deadlocks.
-    if (pending != null)
+    finally
     {
-      pending.deliver();
+      _rolling.set(false);
     }
+    // Always deliver pending events once done with the intervals.
+    deliverPending();
+  }
+
+  @Override
+  public long getLastResetTime()
+  {
+    return _lastResetTime;
   }
 
   /**
-   * Add a pending event that will be delivered to listeners after releasing _lock.
-   *
-   * @param stats is statistics associated with the event.
-   * @param reset indicates whether the statistics were reset.
+   * Returns the current interval, rolling it over first if it has elapsed, after registering the caller as
+   * recording into it. The caller must {@link Interval#exit()} the interval once done.
    */
-  private void addPending(CallStats stats, boolean reset)
+  private Interval enterInterval(long currentTime)
   {
-    if (!_listeners.isEmpty())
+    while (true)
     {
-      if (_pending == null)
+      Interval interval = _current;
+      if (interval.elapsed(currentTime))
+      {
+        rollover(currentTime);
+        interval = _current;
+      }
+      if (interval.enter())
       {
-        _pending = new Pending(_listeners);
+        return interval;
       }
-      _pending.add(stats, reset);
+      // The interval was sealed by a rollover or a reset, the next one has already been published
     }
   }
 
   /**
-   * Check if there are pending events to be delivered.
-   *
-   * If there are pending events, return the object holding pending events, and
-   * clear reference to this object. Returning the object allows the caller to
-   * deliver the events after releasing _lock. Clearing the reference ensures
-   * only this caller will deliver the pending events.
-   *
-   * Must be called while holding _lock.
+   * Rolls the current interval over if it has elapsed, after waiting for the caller already doing so if any.
+   */
+  private void rollover(long currentTime)
+  {
+    lockIntervals();
+    try
+    {
+      Interval interval = _current;
+      if (!interval.elapsed(currentTime))
+      {
+        return;
+      }
+      long offset = currentTime - _lastResetTime;
+      long currentStartOffset = ((offset / _interval) * _interval);
+      long lastEnd = _lastResetTime + currentStartOffset;
+      long lastStart = lastEnd - _interval;
+      if (interval._startTime > lastStart)
+      {
+        return;
+      }
+
+      _current = new Interval(lastEnd, _concurrency.get());
+      interval.seal();
+      if (interval._startTime == lastStart)
+      {
+        // Current interval has elapsed.
+        // Emit stats and start new current interval.
+        publish(createStats(interval._startTime, lastEnd, interval), false);
+      }
+      else
+      {
+        // Current interval is stale, emit stale accumulated stats.
+        publish(createStats(interval._startTime, interval._startTime + _interval, interval), false);
+        // Emit the empty interval preceding the new one.
+        publish(createStats(lastStart, lastEnd, null), false);
+      }
+    }
+    finally
+    {
+      _rolling.set(false);
+    }
+  }
+
+  /**
+   * Waits for the caller rolling over or resetting the intervals, which only lasts until the callers recording
+   * into the elapsed interval are done, and takes over.
+   */
+  private void lockIntervals()
+  {
+    while (!_rolling.compareAndSet(false, true))
+    {
+      Thread.yield();
+    }
+  }
+
+  /**
+   * @param interval the sealed interval whose calls are counted, or null for an interval without calls
+   */
+  private CallStats createStats(long startTime, long endTime, Interval interval)
+  {
+    int concurrency = _concurrency.get();
+    long sumOfOutstandingStartTimes = _sumOfOutstandingStartTimes.sum();
+    return new CallTrackerStats(
+      _interval,
+      startTime,
+      endTime,
+      _callCountTotal.sum(),
+      interval == null ? 0 : interval._callStartCount.intValue(),
+      _callStartCountTotal.sum(),
+      interval == null ? 0 : interval._errorCount.intValue(),
+      _errorCountTotal.sum(),
+      interval == null ? concurrency : (int) interval._concurrentMax.get(),
+      concurrency <= 0 ? 0 : (sumOfOutstandingStartTimes / concurrency),
+      concurrency,
+      interval == null ? _emptyCallTimeStats : interval.getCallTimeStats(),
+      interval == null ? Collections.emptyMap() : toErrorTypeCounts(interval._errorTypeCounts),
+      toErrorTypeCounts(_errorTypeCountsTotal));
+  }
+
+  /**
+   * Makes stats the most recent ones, and queues an event to be delivered to the current listeners.
+   */
+  private void publish(CallStats stats, boolean reset)
+  {
+    _stats = stats;
+    List<StatsRolloverEventListener> listeners = _listeners;
+    if (!listeners.isEmpty())
+    {
+      _pendingEvents.add(new PendingEvent(stats, reset, listeners));
+    }
+  }
+
+  /**
+   * Delivers the pending events, in order, unless another caller is already delivering them.
    *
-   * @return pending events
+   * Must not be called while holding the intervals, to avoid deadlocks with listeners calling back.
    */
-  private Pending checkForPending()
+  private void deliverPending()
   {
-    if (_pending == null)
+    while (!_pendingEvents.isEmpty() && _delivering.compareAndSet(false, true))
     {
-      return null;
+      try
+      {
+        PendingEvent event;
+        while ((event = _pendingEvents.poll()) != null)
+        {
+          event.deliver();
+        }
+      }
+      finally
+      {
+        _delivering.set(false);
+      }
     }
-    else
+  }
+
+  private LongTracker newCallTimeTracking()
+  {
+    return _callTimeTrackingFactory.get();
+  }
+
+  private static LongAdder[] newAdders(int count)
+  {
+    LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; i++)
     {
-      Pending pending = _pending;
-      _pending = null;
-      return pending;
+      adders[i] = new LongAdder();
     }
+    return adders;
   }
 
-  @Override
-  public long getLastResetTime()
+  private static Map<ErrorType, Integer> toErrorTypeCounts(LongAdder[] errorTypeCounts)
   {
-    return _lastResetTime;
+    Map<ErrorType, Integer> counts = new HashMap<>();
+    for (ErrorType errorType : ErrorType.values())
+    {
+      int count = errorTypeCounts[errorType.ordinal()].intValue();
+      if (count != 0)
+      {
+        counts.put(errorType, count);
+      }
+    }
+    return counts;
   }
 
   private class CallCompletionImpl implements CallCompletion
@@ -341,36 +501,29 @@ public class CallTrackerImpl implements CallTracker
     {
       if (_done.compareAndSet(false, true))
       {
-        Pending pending;
-        synchronized (_lock)
-        {
-          _endTime.compareAndSet(0, _clock.currentTimeMillis());
-          long duration = _endTime.get() - _start;
+        _endTime.compareAndSet(0, _clock.currentTimeMillis());
+        long duration = _endTime.get() - _start;
 
-          if (_start >= _lastResetTime)
-          {
-            addCallData(duration, hasError, _endTime.get(), errorType);
-          }
-
-          // Concurrency is not reset
-          if (_concurrency > 0)
-          {
-            _concurrency--;
-          }
+        if (_start >= _lastResetTime)
+        {
+          addCallData(duration, hasError, _endTime.get(), errorType);
+        }
 
-          // Sum of outstanding start times is not reset
-          _sumOfOutstandingStartTimes -= _start;
-          if (_concurrency == 0 && _sumOfOutstandingStartTimes != 0)
-          {
-            _sumOfOutstandingStartTimes = 0;
-          }
-          pending = checkForPending();
+        // Concurrency is not reset
+        int concurrency;
+        do
+        {
+          concurrency = _concurrency.get();
         }
-        // Always deliver events without holding _lock to avoid deadlocks.
-        if (pending != null)
+        while (concurrency > 0 && !_concurrency.compareAndSet(concurrency, concurrency - 1));
+
+        // Sum of outstanding start times is not reset
+        if (concurrency > 0)
         {
-          pending.deliver();
+          _sumOfOutstandingStartTimes.add(-_start);
         }
+        // Always deliver events once done with the intervals.
+        deliverPending();
       }
     }
   }
@@ -378,43 +531,51 @@ public class CallTrackerImpl implements CallTracker
 
   private void addCallData(long duration, boolean hasError, long currentTime, ErrorType errorType)
   {
-    _tracker.addNewData(currentTime, hasError, duration, errorType);
-
-    // Has to be after addNewData
-    if (hasError)
+    Interval interval = enterInterval(currentTime);
+    try
     {
-      _errorCountTotal++;
+      interval.addCallTime(duration);
+      if (hasError)
+      {
+        interval._errorCount.increment();
+      }
+      //we don't have to track the error if errorType is null
       if (errorType != null)
       {
-        Integer count = _errorTypeCountsTotal.get(errorType);
-        if (count == null)
-        {
-          _errorTypeCountsTotal.put(errorType, 1);
-        }
-        else
+        interval._errorTypeCounts[errorType.ordinal()].increment();
+      }
+
+      // Has to be after the interval data
+      if (hasError)
+      {
+        _errorCountTotal.increment();
+        if (errorType != null)
         {
-          _errorTypeCountsTotal.put(errorType, count + 1);
+          _errorTypeCountsTotal[errorType.ordinal()].increment();
         }
       }
+
+      _callCountTotal.increment();
+    }
+    finally
+    {
+      interval.exit();
     }
 
-    _callCountTotal++;
+    // The moving average is not reset, like the concurrency. Concurrent updates may overwrite each other, which
+    // only delays the average by a call.
+    double callTimeEwma = _callTimeEwma;
+    _callTimeEwma = callTimeEwma == 0
+        ? duration
+        : callTimeEwma + CALL_TIME_EWMA_WEIGHT * (duration - callTimeEwma);
   }
 
   private void trackCall(long duration, boolean hasError)
   {
-    Pending pending;
-    synchronized (_lock)
-    {
-      addCallData(duration, hasError, _clock.currentTimeMillis(), null);
-      pending = checkForPending();
-    }
+    addCallData(duration, hasError, _clock.currentTimeMillis(), null);
 
-    // Always deliver events without holding _lock to avoid deadlocks.
-    if (pending != null)
-    {
-      pending.deliver();
-    }
+    // Always deliver events once done with the intervals.
+    deliverPending();
   }
 
   @Override
@@ -430,184 +591,166 @@ public class CallTrackerImpl implements CallTracker
   }
 
   /**
-   * Tracker is used to track the statistics of calls in one interval. Notice that this class is an inner class
-   * of CallTrackerImpl. This means some instance variables like totalCall refers to the outer class. This is
-   * because CallTrackerImpl keeps track of total call whereas Tracker keeps track of call in one interval.
-   * Tracker uses the helper class LongTracking for keeping track of statistics like percentage error rate,
+   * Interval counts the calls of one interval. Callers {@link #enter()} the interval before recording into it
+   * and {@link #exit()} it afterwards, so that a rollover can {@link #seal()} the interval and wait for the
+   * callers still recording before reading its counts.
+   * Interval uses the helper class LongTracking for keeping track of statistics like percentage error rate,
    * 95 percentile, max value, etc.
-   * Tracker also rollover the call stats every interval to listeners.
    */
-  private class Tracker
+  private class Interval
   {
-    private volatile CallStats _stats;
-
-    private long _startTime;
-    private int _callStartCount;
-    private int _errorCount;
-    private int _concurrentMax;
-    private final LongTracker _callTimeTracking;
-    //this map is used to store the number of specific errors that happened in one interval only
-    private final Map<ErrorType, Integer> _errorTypeCounts;
-
-    private Tracker(boolean percentileTrackingEnabled)
-    {
-      if (percentileTrackingEnabled)
-      {
-        _callTimeTracking = new LongTracking();
-      } else
-      {
-        _callTimeTracking = new SimpleLongTracking();
-      }
-      _errorTypeCounts = new HashMap<>();
-      reset();
-    }
-
-    private void resetStats(long startTime)
+    private final long _startTime;
+    // Unlike a LongAdder, read atomically, so that a seal can not miss a caller entering the interval
+    private final AtomicInteger _writers = new AtomicInteger();
+    private volatile boolean _sealed = false;
+
+    private final LongAdder _callStartCount = new LongAdder();
+    private final LongAdder _errorCount = new LongAdder();
+    private final LongAccumulator _concurrentMax;
+    //this array is used to store the number of specific errors that happened in one interval only
+    private final LongAdder[] _errorTypeCounts = newAdders(ERROR_TYPES);
+    private final AtomicReferenceArray<CallTimeStripe> _callTimeStripes =
+        new AtomicReferenceArray<>(CALL_TIME_STRIPES);
+    private final LongTracker _callTimeTracking = newCallTimeTracking();
+
+    private Interval(long startTime, int concurrency)
     {
       _startTime = startTime;
-      _callStartCount = 0;
-      _errorCount = 0;
-      _concurrentMax = _concurrency;
-      _callTimeTracking.reset();
-      _errorTypeCounts.clear();
+      _concurrentMax = new LongAccumulator(Math::max, concurrency);
     }
 
-    private void reset()
+    private boolean elapsed(long currentTime)
     {
-      resetStats(_lastResetTime - _interval);
-      rolloverStats(_lastResetTime, true);
+      return currentTime >= _startTime + _interval;
     }
 
     /**
-     * rollover the stats and inform all the listeners for the new statistics
+     * @return false if the interval is sealed, in which case the caller must not record into it
      */
-    private void rolloverStats(long endTime, boolean reset)
+    private boolean enter()
     {
-      _stats = new CallTrackerStats(
-        _interval,
-        _startTime,
-        endTime,
-        _callCountTotal,
-        _callStartCount,
-        _callStartCountTotal,
-        _errorCount,
-        _errorCountTotal,
-        _concurrentMax,
-        _concurrency == 0 ? 0 : (_sumOfOutstandingStartTimes / _concurrency),
-        _concurrency,
-        _callTimeTracking.getStats(), _errorTypeCounts, _errorTypeCountsTotal);
-
-      resetStats(endTime);
+      _writers.incrementAndGet();
+      if (_sealed)
+      {
+        _writers.decrementAndGet();
+        return false;
+      }
+      return true;
+    }
 
-      addPending(_stats, reset);
+    private void exit()
+    {
+      _writers.decrementAndGet();
     }
 
     /**
-     * this method is called to track the number of calls made during this interval
+     * Prevents new callers from recording into the interval, and waits for the callers recording into it.
      */
-    private void addNewData(long currentTime, boolean hasError, long duration, ErrorType errorType)
+    private void seal()
     {
-      getStatsWithCurrentTime(currentTime);
-      _callTimeTracking.addValue(duration);
-      if (hasError)
+      _sealed = true;
+      while (_writers.get() != 0)
       {
-        _errorCount++;
+        Thread.yield();
       }
-      if (errorType != null)
+      for (int i = 0; i < _callTimeStripes.length(); i++)
       {
-        Integer count = _errorTypeCounts.get(errorType);
-        if (count == null)
-        {
-          _errorTypeCounts.put(errorType, 1);
-        }
-        else
+        CallTimeStripe stripe = _callTimeStripes.get(i);
+        if (stripe != null)
         {
-          _errorTypeCounts.put(errorType, count + 1);
+          synchronized (stripe)
+          {
+            stripe.flush(_callTimeTracking);
+          }
         }
       }
-      //we don't have to track the error if errorType is null
     }
 
-    private CallStats getMostRecentStats()
+    private void addCallTime(long duration)
     {
-      return _stats;
+      int index = (int) Thread.currentThread().getId() & (CALL_TIME_STRIPES - 1);
+      CallTimeStripe stripe = _callTimeStripes.get(index);
+      if (stripe == null)
+      {
+        _callTimeStripes.compareAndSet(index, null, new CallTimeStripe());
+        stripe = _callTimeStripes.get(index);
+      }
+      synchronized (stripe)
+      {
+        stripe.add(duration, _callTimeTracking);
+      }
     }
 
-    public CallStats getStatsWithCurrentTime(long currentTime)
+    private LongStats getCallTimeStats()
     {
-      if (_stats.stale(currentTime))
+      synchronized (_callTimeTracking)
       {
-        long offset = currentTime - _lastResetTime;
-        long currentStartOffset = ((offset / _interval) * _interval);
-        long lastEnd = _lastResetTime + currentStartOffset;
-        long lastStart = lastEnd - _interval;
-        if (_startTime == lastStart)
-        {
-          // Current interval has elapsed.
-          // Emit stats and start new current interval.
-          rolloverStats(lastEnd, false);
-        }
-        else if (_startTime < lastStart)
-        {
-          // Current interval is stale, emit stale accumulated stats.
-          rolloverStats(_startTime + _interval, false);
-          // Start new interval.
-          _startTime = lastStart;
-          rolloverStats(lastEnd, false);
-        }
+        return _callTimeTracking.getStats();
       }
-      return _stats;
     }
   }
 
-  private static class Pending
+  /**
+   * Batch of call times recorded by the threads mapped to the stripe, added to the {@link LongTracker} of the
+   * interval once full, so that the threads rarely contend on it.
+   */
+  private static class CallTimeStripe
   {
-    private static class PendingEvent implements StatsRolloverEvent
-    {
-      private final CallStats _stats;
-      private final boolean _reset;
-
-      PendingEvent(CallStats stats, boolean reset)
-      {
-        _stats = stats;
-        _reset = reset;
-      }
+    private final long[] _callTimes = new long[CALL_TIME_BATCH_SIZE];
+    private int _size = 0;
 
-      @Override
-      public CallStats getCallStats()
+    private void add(long callTime, LongTracker callTimeTracking)
+    {
+      _callTimes[_size++] = callTime;
+      if (_size == _callTimes.length)
       {
-        return _stats;
+        flush(callTimeTracking);
       }
+    }
 
-      @Override
-      public boolean isReset()
+    private void flush(LongTracker callTimeTracking)
+    {
+      synchronized (callTimeTracking)
       {
-        return _reset;
+        for (int i = 0; i < _size; i++)
+        {
+          callTimeTracking.addValue(_callTimes[i]);
+        }
       }
+      _size = 0;
     }
+  }
 
-    private final List<PendingEvent> _pendingEvents;
+  private static class PendingEvent implements StatsRolloverEvent
+  {
+    private final CallStats _stats;
+    private final boolean _reset;
     private final List<StatsRolloverEventListener> _listeners;
 
-    private Pending(List<StatsRolloverEventListener> listeners)
+    PendingEvent(CallStats stats, boolean reset, List<StatsRolloverEventListener> listeners)
     {
-      _pendingEvents = new ArrayList<>(4);
+      _stats = stats;
+      _reset = reset;
       _listeners = listeners;
     }
 
-    private void add(CallStats stats, boolean reset)
+    @Override
+    public CallStats getCallStats()
+    {
+      return _stats;
+    }
+
+    @Override
+    public boolean isReset()
     {
-      _pendingEvents.add(new PendingEvent(stats, reset));
+      return _reset;
     }
 
     private void deliver()
     {
-      for (PendingEvent event : _pendingEvents)
+      for (StatsRolloverEventListener listener : _listeners)
       {
-        for (StatsRolloverEventListener listener : _listeners)
-        {
-          listener.onStatsRollover(event);
-        }
+        listener.onStatsRollover(this);
       }
     }
   }
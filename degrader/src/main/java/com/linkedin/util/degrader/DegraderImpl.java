@@ -26,6 +26,9 @@ package com.linkedin.util.degrader;
  */
 
 import com.linkedin.common.stats.LongStats;
+import com.linkedin.common.stats.LongTracker;
+import com.linkedin.common.stats.LongTracking;
+import com.linkedin.common.stats.QuantileSketchLongTracking;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.ThreadLocalRandom;
@@ -116,7 +119,10 @@ import com.linkedin.common.util.ConfigHelper;
  *
  * The latency metric from CallTracker that compared against highLatency and lowLatency
  * is determined by the latencyToUse configuration parameter. It can be the average,
- * 50, 90, 95, 99th percentile latency.
+ * 50, 90, 95, 99th percentile latency. How the CallTracker computes the percentiles is
+ * determined by the percentileTracking configuration parameter, which is read when the
+ * CallTracker is created: EXACT records every call time of the interval, up to a few
+ * thousands, while SKETCH counts them in fixed memory, within 1% of the exact percentiles.
  */
 public class DegraderImpl implements Degrader
 {
@@ -125,6 +131,7 @@ public class DegraderImpl implements Degrader
   public static final Clock    DEFAULT_CLOCK = SystemClock.instance();
   public static final Boolean  DEFAULT_LOG_ENABLED = false;
   public static final LatencyToUse DEFAULT_LATENCY_TO_USE = LatencyToUse.AVERAGE;
+  public static final PercentileTracking DEFAULT_PERCENTILE_TRACKING = PercentileTracking.EXACT;
   public static final Double   DEFAULT_OVERRIDE_DROP_RATE = -1.0;
   public static final Double   DEFAULT_MAX_DROP_RATE = 1.00;
   public static final long     DEFAULT_MAX_DROP_DURATION = Time.milliseconds(60000);
@@ -538,6 +545,31 @@ public class DegraderImpl implements Degrader
     PCT99
   }
 
+  public static enum PercentileTracking
+  {
+    EXACT
+    {
+      @Override
+      public LongTracker newLongTracker()
+      {
+        return new LongTracking();
+      }
+    },
+    SKETCH
+    {
+      @Override
+      public LongTracker newLongTracker()
+      {
+        return new QuantileSketchLongTracking();
+      }
+    };
+
+    /**
+     * Creates the {@link LongTracker} computing the call time statistics of a {@link CallTrackerImpl} interval.
+     */
+    public abstract LongTracker newLongTracker();
+  }
+
   @Override
   public String toString()
   {
@@ -680,6 +712,7 @@ public class DegraderImpl implements Degrader
     protected Clock _clock = DEFAULT_CLOCK;
     protected boolean _logEnabled = DEFAULT_LOG_ENABLED;
     protected LatencyToUse _latencyToUse = DEFAULT_LATENCY_TO_USE;
+    protected PercentileTracking _percentileTracking = DEFAULT_PERCENTILE_TRACKING;
     protected double _overrideDropRate = DEFAULT_OVERRIDE_DROP_RATE;
     protected double _maxDropRate = DEFAULT_MAX_DROP_RATE;
     protected long _maxDropDuration = DEFAULT_MAX_DROP_DURATION;
@@ -711,6 +744,7 @@ public class DegraderImpl implements Degrader
       _clock = config._clock;
       _logEnabled = config._logEnabled;
       _latencyToUse = config._latencyToUse;
+      _percentileTracking = config._percentileTracking;
       _overrideDropRate = config._overrideDropRate;
       _maxDropRate = config._maxDropRate;
       _maxDropDuration = config._maxDropDuration;
@@ -757,6 +791,11 @@ public class DegraderImpl implements Degrader
       return ConfigHelper.getRequired(_latencyToUse);
     }
 
+    public PercentileTracking getPercentileTracking()
+    {
+      return ConfigHelper.getRequired(_percentileTracking);
+    }
+
     public double getOverrideDropRate()
     {
       return _overrideDropRate;
@@ -890,6 +929,11 @@ public class DegraderImpl implements Degrader
       _latencyToUse = latencyToUse;
     }
 
+    public void setPercentileTracking(PercentileTracking percentileTracking)
+    {
+      _percentileTracking = percentileTracking;
+    }
+
     public void setOverrideDropRate(Double overrideDropRate)
     {
       _overrideDropRate = overrideDropRate;
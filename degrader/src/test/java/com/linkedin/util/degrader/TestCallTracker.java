@@ -22,10 +22,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 
+import com.linkedin.common.stats.LongStats;
+import com.linkedin.common.stats.LongTracking;
 import com.linkedin.util.clock.SettableClock;
 import com.linkedin.util.clock.Time;
 import org.testng.annotations.Test;
@@ -1275,6 +1282,171 @@ public class TestCallTracker
                         "Interval standard deviation is incorrect");
   }
 
+  @org.testng.annotations.Test public void testCallTimeEwma()
+  {
+    Assert.assertEquals(_callTracker.getCurrentCallTimeEwma(), 0.0, "Empty call time average is incorrect");
+
+    CallCompletion done = _callTracker.startCall();
+    _clock.addDuration(TEN_MS);
+    done.endCall();
+    Assert.assertEquals(_callTracker.getCurrentCallTimeEwma(), 10.0, "First call time average is incorrect");
+
+    done = _callTracker.startCall();
+    _clock.addDuration(TEN_MS * 6);
+    done.endCall();
+    Assert.assertEquals(_callTracker.getCurrentCallTimeEwma(), 20.0, 0.001, "Call time average is incorrect");
+
+    // The average follows the calls across intervals and resets
+    _clock.addDuration(INTERVAL);
+    _callTracker.reset();
+    Assert.assertEquals(_callTracker.getCurrentCallTimeEwma(), 20.0, 0.001, "Call time average was reset");
+  }
+
+  @org.testng.annotations.Test public void testSketchPercentiles()
+  {
+    CallTrackerImpl callTracker =
+        new CallTrackerImpl(INTERVAL, _clock, DegraderImpl.PercentileTracking.SKETCH::newLongTracker);
+    for (int i = 1; i <= 100; i++)
+    {
+      CallCompletion done = callTracker.startCall();
+      _clock.addDuration(i * TEN_MS);
+      done.endCall();
+    }
+    _clock.addDuration(INTERVAL);
+
+    LongStats callTimeStats = callTracker.getCallStats().getCallTimeStats();
+    Assert.assertEquals(callTimeStats.getCount(), 100, "Interval call count is incorrect");
+    Assert.assertEquals(callTimeStats.getAverage(), 505.0, "Interval average time is incorrect");
+    Assert.assertEquals(callTimeStats.getMinimum(), TEN_MS, "Interval minimum time is incorrect");
+    Assert.assertEquals(callTimeStats.getMaximum(), 100 * TEN_MS, "Interval maximum time is incorrect");
+    Assert.assertEquals(callTimeStats.get50Pct(), 510, 510 * 0.01, "Interval 50 percentile is incorrect");
+    Assert.assertEquals(callTimeStats.get90Pct(), 900, 900 * 0.01, "Interval 90 percentile is incorrect");
+    Assert.assertEquals(callTimeStats.get99Pct(), 990, 990 * 0.01, "Interval 99 percentile is incorrect");
+  }
+
+  @org.testng.annotations.Test public void testConcurrentCalls() throws Exception
+  {
+    final AtomicLong time = new AtomicLong(_clock.currentTimeMillis());
+    final CallTrackerImpl callTracker = new CallTrackerImpl(INTERVAL, time::get);
+    final List<CallTracker.StatsRolloverEvent> events = new CopyOnWriteArrayList<>();
+    callTracker.addStatsRolloverEventListener(events::add);
+
+    final int threadCount = 8;
+    final int callsPerThread = 10000;
+    final CountDownLatch done = new CountDownLatch(threadCount);
+    for (int t = 0; t < threadCount; t++)
+    {
+      final int threadIndex = t;
+      new Thread(() ->
+      {
+        for (int i = 0; i < callsPerThread; i++)
+        {
+          CallCompletion completion = callTracker.startCall();
+          if (threadIndex == 0 && i % 1000 == 0)
+          {
+            // Roll over intervals while the other threads are recording
+            time.addAndGet(INTERVAL);
+          }
+          if (i % 10 == 0)
+          {
+            completion.endCallWithError(ErrorType.SERVER_ERROR);
+          }
+          else
+          {
+            completion.endCall();
+          }
+        }
+        done.countDown();
+      }).start();
+    }
+    Assert.assertTrue(done.await(1, TimeUnit.MINUTES), "Calls did not complete");
+
+    time.addAndGet(INTERVAL);
+    callTracker.getCallStats();
+
+    int totalCalls = threadCount * callsPerThread;
+    Assert.assertEquals(callTracker.getCurrentCallCountTotal(), totalCalls, "Total call count is incorrect");
+    Assert.assertEquals(callTracker.getCurrentCallStartCountTotal(), totalCalls, "Total call start count is incorrect");
+    Assert.assertEquals(callTracker.getCurrentErrorCountTotal(), totalCalls / 10, "Total error count is incorrect");
+    Assert.assertEquals(callTracker.getCurrentErrorTypeCountsTotal().get(ErrorType.SERVER_ERROR).intValue(),
+                        totalCalls / 10, "Total error type count is incorrect");
+    Assert.assertEquals(callTracker.getCurrentConcurrency(), 0, "Concurrency is incorrect");
+
+    // Every call is counted in exactly one interval
+    long callCount = 0;
+    long callStartCount = 0;
+    long errorCount = 0;
+    for (CallTracker.StatsRolloverEvent event : events)
+    {
+      callCount += event.getCallStats().getCallCount();
+      callStartCount += event.getCallStats().getCallStartCount();
+      errorCount += event.getCallStats().getErrorCount();
+    }
+    Assert.assertEquals(callCount, totalCalls, "Interval call counts are incorrect");
+    Assert.assertEquals(callStartCount, totalCalls, "Interval call start counts are incorrect");
+    Assert.assertEquals(errorCount, totalCalls / 10, "Interval error counts are incorrect");
+  }
+
+  @org.testng.annotations.Test public void testCallsDuringRollover() throws Exception
+  {
+    // The rollover creates the call time tracking of the next interval before publishing it, so blocking the
+    // creation holds the rollover in progress
+    final AtomicBoolean blockRollover = new AtomicBoolean();
+    final CountDownLatch rolling = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CallTrackerImpl callTracker = new CallTrackerImpl(INTERVAL, _clock, () ->
+    {
+      if (blockRollover.compareAndSet(true, false))
+      {
+        rolling.countDown();
+        try
+        {
+          release.await();
+        }
+        catch (InterruptedException e)
+        {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return new LongTracking();
+    });
+    final List<CallTracker.StatsRolloverEvent> events = new CopyOnWriteArrayList<>();
+    callTracker.addStatsRolloverEventListener(events::add);
+
+    callTracker.trackCall(FIVE_MS);
+    _clock.addDuration(INTERVAL);
+    final long lastEnd = _clock.currentTimeMillis();
+
+    blockRollover.set(true);
+    Thread roller = new Thread(callTracker::getCallStats);
+    roller.start();
+    Assert.assertTrue(rolling.await(1, TimeUnit.MINUTES), "Rollover did not start");
+
+    // The calls of the next interval, and its stats, wait for the rollover in progress
+    final List<CallTracker.CallStats> stats = new CopyOnWriteArrayList<>();
+    Thread caller = new Thread(() -> callTracker.trackCall(TEN_MS));
+    Thread reader = new Thread(() -> stats.add(callTracker.getCallStats()));
+    caller.start();
+    reader.start();
+    caller.join(100);
+    reader.join(100);
+    Assert.assertTrue(caller.isAlive(), "Call recorded during the rollover");
+    Assert.assertTrue(reader.isAlive(), "Stats returned during the rollover");
+
+    release.countDown();
+    roller.join(TimeUnit.MINUTES.toMillis(1));
+    caller.join(TimeUnit.MINUTES.toMillis(1));
+    reader.join(TimeUnit.MINUTES.toMillis(1));
+
+    Assert.assertEquals(stats.get(0).getIntervalEndTime(), lastEnd, "Stats of the elapsed interval not returned");
+    Assert.assertEquals(events.size(), 1);
+    Assert.assertEquals(events.get(0).getCallStats().getCallCount(), 1, "Elapsed interval call count is incorrect");
+
+    _clock.addDuration(INTERVAL);
+    Assert.assertEquals(callTracker.getCallStats().getCallCount(), 1, "Next interval call count is incorrect");
+    Assert.assertEquals(callTracker.getCurrentCallCountTotal(), 2, "Total call count is incorrect");
+  }
+
    private List<CallCompletion> startCall(CallTracker callTracker, int count)
   {
     List<CallCompletion> dones = new ArrayList<>();
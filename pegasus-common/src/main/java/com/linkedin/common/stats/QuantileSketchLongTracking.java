@@ -0,0 +1,189 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.common.stats;
+
+import java.util.Arrays;
+
+
+/**
+ * Extends {@link SimpleLongTracking} with approximate percentile information, computed
+ * in fixed memory.
+ *
+ * Instead of recording every value like {@link LongTracking}, values are counted in
+ * buckets whose bounds grow exponentially, so that every percentile returned is within
+ * the configured relative accuracy of the exact percentile. Adding a value is constant
+ * time, and the number of buckets only depends on the relative accuracy and on the
+ * largest value tracked: about 2200 buckets cover all positive longs with the default
+ * accuracy of 1%, and a few hundred cover latencies up to minutes in milliseconds.
+ * Values lower than 1 are counted together, as 0. Count, average, standard deviation,
+ * minimum and maximum are exact.
+ *
+ * This class implementation is not synchronized. If concurrent access is required, it
+ * must be synchronized externally.
+ */
+public class QuantileSketchLongTracking implements LongTracker
+{
+  public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+  private static final int   INITIAL_BUCKET_COUNT      = 64;
+
+  private final double        _relativeAccuracy;
+  private final double        _gamma;
+  private final double        _logGamma;
+  private final int           _maxBucketCount;
+
+  private int[]               _bucketCounts;
+  private int                 _zeroCount;
+
+  private final SimpleLongTracking _simpleLongTracking;
+
+  public QuantileSketchLongTracking()
+  {
+    this(DEFAULT_RELATIVE_ACCURACY);
+  }
+
+  /**
+   * @param relativeAccuracy maximum relative error of the percentiles returned, between 0 and 1 exclusive
+   */
+  public QuantileSketchLongTracking(double relativeAccuracy)
+  {
+    if (relativeAccuracy <= 0.0 || relativeAccuracy >= 1.0)
+    {
+      throw new IllegalArgumentException("Relative accuracy must be between 0 and 1 exclusive: " + relativeAccuracy);
+    }
+
+    _relativeAccuracy = relativeAccuracy;
+    _gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    _logGamma = Math.log(_gamma);
+    _maxBucketCount = getBucketIndex(Long.MAX_VALUE) + 1;
+    _bucketCounts = new int[Math.min(INITIAL_BUCKET_COUNT, _maxBucketCount)];
+    _simpleLongTracking = new SimpleLongTracking();
+
+    reset();
+  }
+
+  @Override
+  public void reset()
+  {
+    _simpleLongTracking.reset();
+
+    Arrays.fill(_bucketCounts, 0);
+    _zeroCount = 0;
+  }
+
+  @Override
+  public void addValue(long value)
+  {
+    _simpleLongTracking.addValue(value);
+
+    if (value < 1)
+    {
+      _zeroCount++;
+      return;
+    }
+
+    int index = getBucketIndex(value);
+    if (index >= _bucketCounts.length)
+    {
+      grow(index);
+    }
+    _bucketCounts[index]++;
+  }
+
+  @Override
+  public LongStats getStats()
+  {
+    return new LongStats(_simpleLongTracking.getCount(), _simpleLongTracking.getAverage(),
+        _simpleLongTracking.getStandardDeviation(),
+        _simpleLongTracking.getMinimum(), _simpleLongTracking.getMaximum(),
+        getPercentile(0.50), getPercentile(0.90), getPercentile(0.95), getPercentile(0.99));
+  }
+
+  public double getRelativeAccuracy()
+  {
+    return _relativeAccuracy;
+  }
+
+  public int getBucketCount()
+  {
+    return _bucketCounts.length;
+  }
+
+  /**
+   * Gets the value at the given percentile, picked the same way as {@link LongTracking#getPercentile(double)}.
+   */
+  public long getPercentile(double pct)
+  {
+    int count = _simpleLongTracking.getCount();
+    if (count == 0)
+    {
+      return 0;
+    }
+    if (pct < 0.0)
+    {
+      pct = 0;
+    }
+    else if (pct > 1.0)
+    {
+      pct = 1.0;
+    }
+    long rank = Math.round(pct * (count - 1));
+    // The sketch is exact at both ends
+    if (rank == 0)
+    {
+      return _simpleLongTracking.getMinimum();
+    }
+    if (rank == count - 1)
+    {
+      return _simpleLongTracking.getMaximum();
+    }
+
+    long value = 0;
+    long seen = _zeroCount;
+    for (int index = 0; seen <= rank && index < _bucketCounts.length; index++)
+    {
+      seen += _bucketCounts[index];
+      value = getBucketValue(index);
+    }
+    return Math.min(Math.max(value, _simpleLongTracking.getMinimum()), _simpleLongTracking.getMaximum());
+  }
+
+  /**
+   * Values in bucket {@code i} are in {@code (gamma^(i - 1), gamma^i]}.
+   */
+  private int getBucketIndex(long value)
+  {
+    return (int) Math.ceil(Math.log(value) / _logGamma);
+  }
+
+  /**
+   * @return the value within the relative accuracy of all values in the bucket
+   */
+  private long getBucketValue(int index)
+  {
+    return Math.round(2 * Math.pow(_gamma, index) / (_gamma + 1));
+  }
+
+  private void grow(int index)
+  {
+    int newBucketCount = Math.max(_bucketCounts.length * 2, index + 1);
+    if (newBucketCount > _maxBucketCount)
+    {
+      newBucketCount = _maxBucketCount;
+    }
+    _bucketCounts = Arrays.copyOf(_bucketCounts, newBucketCount);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.common.stats;
+
+import java.util.Random;
+import java.util.function.LongSupplier;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestQuantileSketchLongTracking
+{
+  private static final double[] PERCENTILES = { 0.0, 0.01, 0.25, 0.50, 0.75, 0.90, 0.95, 0.99, 0.999, 1.0 };
+  // Under the max capacity of LongTracking, which then keeps all values and is exact
+  private static final int EXACT_VALUE_COUNT = 4000;
+
+  @DataProvider
+  public Object[][] distributions()
+  {
+    Random random = new Random(42);
+    return new Object[][] {
+        { "uniform", (LongSupplier) () -> 1 + random.nextInt(1000) },
+        { "small", (LongSupplier) () -> random.nextInt(20) },
+        { "exponential", (LongSupplier) () -> (long) (-50 * Math.log(1 - random.nextDouble())) },
+        { "lognormal", (LongSupplier) () -> (long) Math.exp(4 + 1.5 * random.nextGaussian()) },
+        { "bimodal", (LongSupplier) () -> random.nextInt(10) == 0 ? 5000 + random.nextInt(100) : 10 + random.nextInt(5) },
+        { "wide", (LongSupplier) () -> random.nextLong() >>> (39 + random.nextInt(25)) }
+    };
+  }
+
+  @Test(dataProvider = "distributions")
+  public void testAccuracyAgainstLongTracking(String name, LongSupplier values)
+  {
+    QuantileSketchLongTracking sketch = new QuantileSketchLongTracking();
+    LongTracking exact = new LongTracking();
+    for (int i = 0; i < EXACT_VALUE_COUNT; i++)
+    {
+      long value = values.getAsLong();
+      sketch.addValue(value);
+      exact.addValue(value);
+    }
+
+    for (double pct : PERCENTILES)
+    {
+      long expected = exact.getPercentile(pct);
+      long actual = sketch.getPercentile(pct);
+      // Rounding to a long adds up to half a unit of error
+      double tolerance = expected * sketch.getRelativeAccuracy() + 0.5;
+      assertTrue(Math.abs(actual - expected) <= tolerance,
+          name + " " + pct + " percentile is " + actual + " instead of " + expected);
+    }
+
+    LongStats sketchStats = sketch.getStats();
+    LongStats exactStats = exact.getStats();
+    assertEquals(sketchStats.getCount(), exactStats.getCount(), "Count is incorrect");
+    assertEquals(sketchStats.getAverage(), exactStats.getAverage(), "Average is incorrect");
+    assertEquals(sketchStats.getStandardDeviation(), exactStats.getStandardDeviation(), "Standard deviation is incorrect");
+    assertEquals(sketchStats.getMinimum(), exactStats.getMinimum(), "Minimum is incorrect");
+    assertEquals(sketchStats.getMaximum(), exactStats.getMaximum(), "Maximum is incorrect");
+    assertEquals(sketchStats.get50Pct(), sketch.getPercentile(0.50), "50 percentile is incorrect");
+    assertEquals(sketchStats.get99Pct(), sketch.getPercentile(0.99), "99 percentile is incorrect");
+  }
+
+  @Test
+  public void testFixedMemory()
+  {
+    QuantileSketchLongTracking sketch = new QuantileSketchLongTracking();
+    long begin = 1000000;
+    long count = 1000000;
+    for (long i = begin; i < begin + count; ++i)
+    {
+      sketch.addValue(i);
+    }
+    int bucketCount = sketch.getBucketCount();
+    for (long i = begin; i < begin + count; ++i)
+    {
+      sketch.addValue(i);
+    }
+    assertEquals(sketch.getBucketCount(), bucketCount, "Buckets grew for values already tracked");
+
+    assertEquals(sketch.getStats().getCount(), 2 * count, "Count is incorrect");
+    assertEquals(sketch.getPercentile(0.50), begin + count * 0.50, (begin + count) * 0.01, "50 percentile is incorrect");
+    assertEquals(sketch.getPercentile(0.99), begin + count * 0.99, (begin + count) * 0.01, "99 percentile is incorrect");
+
+    sketch.addValue(Long.MAX_VALUE);
+    assertTrue(sketch.getBucketCount() < 2500, "Too many buckets: " + sketch.getBucketCount());
+    assertEquals(sketch.getPercentile(1.0), Long.MAX_VALUE, "Maximum percentile is incorrect");
+  }
+
+  @Test
+  public void testEmptyAndReset()
+  {
+    QuantileSketchLongTracking sketch = new QuantileSketchLongTracking();
+    assertEquals(sketch.getPercentile(0.5), 0);
+    assertEquals(sketch.getStats().getCount(), 0);
+
+    sketch.addValue(-5);
+    sketch.addValue(0);
+    sketch.addValue(100);
+    assertEquals(sketch.getPercentile(0.0), -5, "Minimum percentile is incorrect");
+    assertEquals(sketch.getPercentile(0.5), 0, "50 percentile is incorrect");
+    assertEquals(sketch.getPercentile(1.0), 100, "Maximum percentile is incorrect");
+
+    sketch.reset();
+    assertEquals(sketch.getStats().getCount(), 0);
+    assertEquals(sketch.getPercentile(0.5), 0);
+    sketch.addValue(7);
+    assertEquals(sketch.getPercentile(0.5), 7);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidRelativeAccuracy()
+  {
+    new QuantileSketchLongTracking(1.0);
+  }
+}
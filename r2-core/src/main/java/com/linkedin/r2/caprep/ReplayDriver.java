@@ -0,0 +1,201 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.caprep;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.caprep.db.SegmentedLogDbSource.CapturedExchange;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.transport.common.Client;
+import com.linkedin.r2.util.NamedThreadFactory;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Sends captured requests, such as the ones of a
+ * {@link com.linkedin.r2.caprep.db.SegmentedLogDbSource}, to a {@link Client} with the same spacing as
+ * when they were recorded, divided by a rate multiplier: a multiplier of 2 replays the traffic twice as fast.
+ *
+ * The load is open loop: each request is sent at its scheduled time from a single dispatcher thread,
+ * whether or not the responses to the previous requests have been received, so that a slow server does
+ * not slow the replay down. Requests that could not be sent on time, because the dispatcher fell behind,
+ * are sent as soon as possible and counted as late.
+ *
+ * @see ReplayFilter to serve recorded responses instead of sending requests
+ */
+public class ReplayDriver
+{
+  private static final Logger _log = LoggerFactory.getLogger(ReplayDriver.class);
+  private static final long LATE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Iterable<CapturedExchange> _exchanges;
+  private final Client _client;
+  private final double _rateMultiplier;
+
+  private final AtomicBoolean _started = new AtomicBoolean(false);
+  private volatile boolean _stopped = false;
+  private final AtomicLong _sent = new AtomicLong();
+  private final AtomicLong _late = new AtomicLong();
+  private final AtomicLong _succeeded = new AtomicLong();
+  private final AtomicLong _failed = new AtomicLong();
+  // Requests in flight, plus one until all the requests have been sent
+  private final AtomicLong _pending = new AtomicLong(1);
+
+  /**
+   * @param exchanges the captured requests, in the order in which they were recorded.
+   * @param client the client to send the requests with.
+   * @param rateMultiplier the multiple of the recorded rate at which to send the requests, or
+   *                       {@link Double#POSITIVE_INFINITY} to send them as fast as possible.
+   */
+  public ReplayDriver(Iterable<CapturedExchange> exchanges, Client client, double rateMultiplier)
+  {
+    if (!(rateMultiplier > 0))
+    {
+      throw new IllegalArgumentException("Invalid rate multiplier: " + rateMultiplier);
+    }
+    _exchanges = exchanges;
+    _client = client;
+    _rateMultiplier = rateMultiplier;
+  }
+
+  /**
+   * Starts sending the requests on a new thread.
+   *
+   * @param callback called once all the requests have been sent and have completed, or once the replay
+   *                 has been stopped and the requests in flight have completed.
+   */
+  public void start(Callback<None> callback)
+  {
+    if (!_started.compareAndSet(false, true))
+    {
+      throw new IllegalStateException("Replay already started");
+    }
+    new NamedThreadFactory("R2 Replay Driver").newThread(() ->
+    {
+      try
+      {
+        dispatch(callback);
+      }
+      catch (RuntimeException e)
+      {
+        _log.error("Replay failed after sending " + _sent.get() + " requests", e);
+        _stopped = true;
+      }
+      finally
+      {
+        complete(callback);
+      }
+    }).start();
+  }
+
+  /**
+   * Stops sending requests. The requests already sent are not cancelled.
+   */
+  public void stop()
+  {
+    _stopped = true;
+  }
+
+  public long getSentCount()
+  {
+    return _sent.get();
+  }
+
+  /**
+   * @return the number of requests sent more than a millisecond after their scheduled time.
+   */
+  public long getLateCount()
+  {
+    return _late.get();
+  }
+
+  public long getSucceededCount()
+  {
+    return _succeeded.get();
+  }
+
+  public long getFailedCount()
+  {
+    return _failed.get();
+  }
+
+  private void dispatch(Callback<None> callback)
+  {
+    final Iterator<CapturedExchange> exchanges = _exchanges.iterator();
+    final long startNanos = System.nanoTime();
+    long firstTimestampNanos = -1;
+
+    while (!_stopped && exchanges.hasNext())
+    {
+      final CapturedExchange exchange = exchanges.next();
+      if (firstTimestampNanos < 0)
+      {
+        firstTimestampNanos = exchange.getTimestampNanos();
+      }
+
+      final long offsetNanos = (long) ((exchange.getTimestampNanos() - firstTimestampNanos) / _rateMultiplier);
+      final long dueNanos = startNanos + offsetNanos;
+      long delayNanos;
+      while ((delayNanos = dueNanos - System.nanoTime()) > 0 && !_stopped)
+      {
+        LockSupport.parkNanos(delayNanos);
+      }
+      if (_stopped)
+      {
+        break;
+      }
+      if (-delayNanos > LATE_THRESHOLD_NANOS)
+      {
+        _late.incrementAndGet();
+      }
+
+      _pending.incrementAndGet();
+      _sent.incrementAndGet();
+      _client.restRequest(exchange.getRequest(), new RequestContext(), new Callback<RestResponse>()
+      {
+        @Override
+        public void onError(Throwable e)
+        {
+          _failed.incrementAndGet();
+          complete(callback);
+        }
+
+        @Override
+        public void onSuccess(RestResponse result)
+        {
+          _succeeded.incrementAndGet();
+          complete(callback);
+        }
+      });
+    }
+  }
+
+  private void complete(Callback<None> callback)
+  {
+    if (_pending.decrementAndGet() == 0)
+    {
+      callback.onSuccess(None.none());
+    }
+  }
+}
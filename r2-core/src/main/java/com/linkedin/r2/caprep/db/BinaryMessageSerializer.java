@@ -0,0 +1,160 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.caprep.db;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.message.MessageHeaders;
+import com.linkedin.r2.message.MessageHeadersBuilder;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Compact binary serializer for messages, used by the segmented capture log. Unlike
+ * {@link DefaultMessageSerializer}, messages are length prefixed, so that a stream may hold several of them,
+ * and entities and header values are written as is.
+ *
+ * A request is written as its method, URI, headers, cookies and entity; a response as its status, headers,
+ * cookies and entity. Strings are written as an int length followed by their UTF-8 bytes.
+ */
+public class BinaryMessageSerializer implements MessageSerializer
+{
+  @Override
+  public void writeRequest(OutputStream out, RestRequest req) throws IOException
+  {
+    final DataOutputStream data = new DataOutputStream(out);
+    writeString(data, req.getMethod());
+    writeString(data, req.getURI().toString());
+    writeHeaders(data, req);
+    writeEntity(data, req.getEntity());
+    data.flush();
+  }
+
+  @Override
+  public void writeResponse(OutputStream out, RestResponse res) throws IOException
+  {
+    final DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(res.getStatus());
+    writeHeaders(data, res);
+    writeEntity(data, res.getEntity());
+    data.flush();
+  }
+
+  @Override
+  public RestRequest readRestRequest(InputStream in) throws IOException
+  {
+    final DataInputStream data = new DataInputStream(in);
+    final String method = readString(data);
+    final RestRequestBuilder builder = new RestRequestBuilder(URI.create(readString(data)));
+    builder.setMethod(method);
+    readHeaders(data, builder);
+    builder.setEntity(readEntity(data));
+    return builder.build();
+  }
+
+  @Override
+  public RestResponse readRestResponse(InputStream in) throws IOException
+  {
+    final DataInputStream data = new DataInputStream(in);
+    final RestResponseBuilder builder = new RestResponseBuilder();
+    builder.setStatus(data.readInt());
+    readHeaders(data, builder);
+    builder.setEntity(readEntity(data));
+    return builder.build();
+  }
+
+  private static void writeHeaders(DataOutputStream out, MessageHeaders message) throws IOException
+  {
+    final Map<String, String> headers = message.getHeaders();
+    out.writeInt(headers.size());
+    for (Map.Entry<String, String> header : headers.entrySet())
+    {
+      writeString(out, header.getKey());
+      writeString(out, header.getValue());
+    }
+
+    final List<String> cookies = message.getCookies();
+    out.writeInt(cookies.size());
+    for (String cookie : cookies)
+    {
+      writeString(out, cookie);
+    }
+  }
+
+  private static void readHeaders(DataInputStream in, MessageHeadersBuilder<?> builder) throws IOException
+  {
+    final int headerCount = readCount(in);
+    for (int i = 0; i < headerCount; i++)
+    {
+      builder.setHeader(readString(in), readString(in));
+    }
+
+    final int cookieCount = readCount(in);
+    for (int i = 0; i < cookieCount; i++)
+    {
+      builder.addCookie(readString(in));
+    }
+  }
+
+  private static void writeEntity(DataOutputStream out, ByteString entity) throws IOException
+  {
+    out.writeInt(entity.length());
+    entity.write(out);
+  }
+
+  private static ByteString readEntity(DataInputStream in) throws IOException
+  {
+    final byte[] entity = new byte[readCount(in)];
+    in.readFully(entity);
+    return ByteString.unsafeWrap(entity);
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException
+  {
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException
+  {
+    final byte[] bytes = new byte[readCount(in)];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static int readCount(DataInputStream in) throws IOException
+  {
+    final int count = in.readInt();
+    if (count < 0)
+    {
+      throw new IOException("Invalid length: " + count);
+    }
+    return count;
+  }
+}
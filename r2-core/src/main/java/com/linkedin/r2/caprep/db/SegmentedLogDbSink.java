@@ -0,0 +1,183 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.caprep.db;
+
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+
+/**
+ * DbSink which appends messages to a segmented binary log in a directory on the filesystem, in the format
+ * described by {@link SegmentedLogDbUtil}. Unlike {@link DirectoryDbSink}, which writes two files per
+ * request, it can record millions of requests, to be replayed with {@link SegmentedLogDbSource}.
+ *
+ * Messages are serialized by the recording thread, and only the append to the current segment is
+ * serialized between threads. A new segment is started when the current one would exceed the maximum
+ * segment size, and when the sink is opened on an existing log.
+ */
+public class SegmentedLogDbSink implements DbSink, Closeable
+{
+  public static final long DEFAULT_MAX_SEGMENT_BYTES = 256 * 1024 * 1024;
+
+  private final File _dir;
+  private final long _maxSegmentBytes;
+  private final MessageSerializer _serializer = new BinaryMessageSerializer();
+  private final long _epochNanosAtStart;
+  private final long _nanoTimeAtStart;
+
+  private FileChannel _segment;
+  private int _segmentIndex;
+  private long _segmentBytes;
+
+  /**
+   * Construct a new instance with the specified directory and the default maximum segment size.
+   *
+   * @param dir the {@link File} object for the directory of the log.
+   * @throws IOException
+   */
+  public SegmentedLogDbSink(File dir) throws IOException
+  {
+    this(dir, DEFAULT_MAX_SEGMENT_BYTES);
+  }
+
+  /**
+   * Construct a new instance with the specified directory and maximum segment size.
+   *
+   * @param dir the {@link File} object for the directory of the log.
+   * @param maxSegmentBytes the size after which a new segment is started. Segments are memory-mapped when
+   *                        replayed, so it cannot exceed {@link Integer#MAX_VALUE}.
+   * @throws IOException
+   */
+  public SegmentedLogDbSink(File dir, long maxSegmentBytes) throws IOException
+  {
+    if (maxSegmentBytes <= SegmentedLogDbUtil.SEGMENT_HEADER_LENGTH || maxSegmentBytes > Integer.MAX_VALUE)
+    {
+      throw new IllegalArgumentException("Invalid maximum segment size: " + maxSegmentBytes);
+    }
+    _dir = dir;
+    if (!_dir.exists() & !_dir.mkdirs())
+    {
+      throw new IOException("Could not create directory: " + _dir);
+    }
+    _maxSegmentBytes = maxSegmentBytes;
+    _epochNanosAtStart = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    _nanoTimeAtStart = System.nanoTime();
+
+    int maxIndex = -1;
+    for (File segment : SegmentedLogDbUtil.listSegments(_dir))
+    {
+      maxIndex = Math.max(maxIndex, SegmentedLogDbUtil.getIndex(segment));
+    }
+    _segmentIndex = maxIndex;
+    openNextSegment();
+  }
+
+  @Override
+  public void record(RestRequest req, RestResponse res) throws IOException
+  {
+    final long timestampNanos = _epochNanosAtStart + (System.nanoTime() - _nanoTimeAtStart);
+    final int hash = SegmentedLogDbUtil.hash(SegmentedLogDbUtil.canonicalBytes(req, _serializer));
+
+    final ByteArrayOutputStream message = new ByteArrayOutputStream();
+    _serializer.writeRequest(message, req);
+    final int requestLength = message.size();
+    _serializer.writeResponse(message, res);
+
+    final ByteArrayOutputStream payloadBytes =
+        new ByteArrayOutputStream(SegmentedLogDbUtil.PAYLOAD_HEADER_LENGTH + message.size());
+    final DataOutputStream payload = new DataOutputStream(payloadBytes);
+    payload.writeLong(timestampNanos);
+    payload.writeInt(hash);
+    payload.writeInt(requestLength);
+    message.writeTo(payload);
+
+    final byte[] bytes = payloadBytes.toByteArray();
+    final CRC32 crc = new CRC32();
+    crc.update(bytes);
+
+    final ByteBuffer record = ByteBuffer.allocate(SegmentedLogDbUtil.RECORD_HEADER_LENGTH + bytes.length);
+    record.putInt(bytes.length);
+    record.putInt((int) crc.getValue());
+    record.put(bytes);
+    record.flip();
+    append(record);
+  }
+
+  /**
+   * Flush the current segment to the storage device and close it.
+   */
+  @Override
+  public synchronized void close() throws IOException
+  {
+    if (_segment != null)
+    {
+      _segment.force(false);
+      _segment.close();
+      _segment = null;
+    }
+  }
+
+  private synchronized void append(ByteBuffer record) throws IOException
+  {
+    if (_segment == null)
+    {
+      throw new IOException("Sink is closed: " + _dir);
+    }
+    if (_segmentBytes + record.remaining() > _maxSegmentBytes && _segmentBytes > SegmentedLogDbUtil.SEGMENT_HEADER_LENGTH)
+    {
+      close();
+      openNextSegment();
+    }
+    if (_segmentBytes + record.remaining() > Integer.MAX_VALUE)
+    {
+      throw new IOException("Message too large for a segment: " + record.remaining() + " bytes");
+    }
+    _segmentBytes += writeFully(record);
+  }
+
+  private void openNextSegment() throws IOException
+  {
+    _segmentIndex++;
+    _segment = FileChannel.open(SegmentedLogDbUtil.segmentFileName(_dir, _segmentIndex).toPath(),
+        StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    final ByteBuffer header = ByteBuffer.allocate(SegmentedLogDbUtil.SEGMENT_HEADER_LENGTH);
+    header.putInt(SegmentedLogDbUtil.MAGIC);
+    header.putInt(SegmentedLogDbUtil.VERSION);
+    header.flip();
+    _segmentBytes = writeFully(header);
+  }
+
+  private int writeFully(ByteBuffer buffer) throws IOException
+  {
+    final int length = buffer.remaining();
+    while (buffer.hasRemaining())
+    {
+      _segment.write(buffer);
+    }
+    return length;
+  }
+}
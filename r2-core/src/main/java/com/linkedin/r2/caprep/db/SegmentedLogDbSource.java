@@ -0,0 +1,333 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.caprep.db;
+
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * DbSource which obtains messages from a segmented binary log written by {@link SegmentedLogDbSink}.
+ *
+ * The segments are memory-mapped and only the position and the request hash of each record are kept on the
+ * heap: 8 bytes per record for its position, in recording order, and 8 bytes for its entry in the index sorted
+ * by request hash, so 16 bytes per record; messages are deserialized when they are looked up. The source is
+ * immutable once constructed and may be used from several threads.
+ *
+ * There is no close method: Java offers no supported way to unmap a segment, which stays mapped until the
+ * source is garbage collected. The segment files should therefore not be truncated while the source is in use,
+ * and may not be deletable before then on some platforms.
+ *
+ * As with {@link DirectoryDbSource}, requests are matched on their canonical form. When the same request
+ * has been recorded several times, the last recorded response is replayed. The records are also available,
+ * in the order in which they were recorded, through {@link #iterator()}.
+ */
+public class SegmentedLogDbSource implements DbSource, Iterable<SegmentedLogDbSource.CapturedExchange>
+{
+  private static final Logger _log = LoggerFactory.getLogger(SegmentedLogDbSource.class);
+
+  private final MessageSerializer _serializer = new BinaryMessageSerializer();
+  private final List<MappedByteBuffer> _segments = new ArrayList<>();
+  // (segment index << 32 | offset) of each record, in the order in which they were recorded
+  private final long[] _positions;
+  // (request hash << 32 | record number) of each record, sorted
+  private final long[] _index;
+
+  /**
+   * Construct a new instance with the specified directory.
+   *
+   * @param dir the {@link File} object for the directory of the log.
+   * @throws IOException
+   */
+  public SegmentedLogDbSource(File dir) throws IOException
+  {
+    long[] positions = new long[1024];
+    int[] hashes = new int[1024];
+    int count = 0;
+
+    for (File file : SegmentedLogDbUtil.listSegments(dir))
+    {
+      final MappedByteBuffer segment;
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+      {
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+      if (segment.remaining() < SegmentedLogDbUtil.SEGMENT_HEADER_LENGTH
+          || segment.getInt(0) != SegmentedLogDbUtil.MAGIC || segment.getInt(4) != SegmentedLogDbUtil.VERSION)
+      {
+        _log.warn("Ignoring segment with an invalid header: " + file);
+        continue;
+      }
+      final int segmentIndex = _segments.size();
+      _segments.add(segment);
+
+      int offset = SegmentedLogDbUtil.SEGMENT_HEADER_LENGTH;
+      while (offset < segment.limit())
+      {
+        if (!isValidRecord(segment, offset))
+        {
+          _log.warn("Ignoring truncated or corrupt record at offset " + offset + " of segment: " + file);
+          break;
+        }
+        if (count == positions.length)
+        {
+          positions = Arrays.copyOf(positions, count * 2);
+          hashes = Arrays.copyOf(hashes, count * 2);
+        }
+        positions[count] = ((long) segmentIndex << 32) | offset;
+        hashes[count] = segment.getInt(offset + SegmentedLogDbUtil.RECORD_HEADER_LENGTH + 8);
+        count++;
+        offset += SegmentedLogDbUtil.RECORD_HEADER_LENGTH + segment.getInt(offset);
+      }
+    }
+
+    _positions = Arrays.copyOf(positions, count);
+    _index = new long[count];
+    for (int i = 0; i < count; i++)
+    {
+      _index[i] = ((long) hashes[i] << 32) | i;
+    }
+    Arrays.sort(_index);
+  }
+
+  @Override
+  public RestResponse replay(RestRequest req)
+  {
+    try
+    {
+      final byte[] canonical = SegmentedLogDbUtil.canonicalBytes(req, _serializer);
+      final int hash = SegmentedLogDbUtil.hash(canonical);
+
+      // Look for the last record of the request, among the records with the same hash
+      int i = lastIndexOf(hash);
+      for (; i >= 0 && (int) (_index[i] >> 32) == hash; i--)
+      {
+        final ByteBuffer record = record((int) _index[i]);
+        final RestRequest recorded = _serializer.readRestRequest(new ByteBufferInputStream(record));
+        if (Arrays.equals(canonical, SegmentedLogDbUtil.canonicalBytes(recorded, _serializer)))
+        {
+          return _serializer.readRestResponse(new ByteBufferInputStream(record));
+        }
+      }
+      return null;
+    }
+    catch (Exception e)
+    {
+      _log.debug("Failed to replay request: " + req, e);
+      return null;
+    }
+  }
+
+  /**
+   * @return the number of records in the log.
+   */
+  public int size()
+  {
+    return _positions.length;
+  }
+
+  /**
+   * @return an iterator over the records of the log, in the order in which they were recorded.
+   */
+  @Override
+  public Iterator<CapturedExchange> iterator()
+  {
+    return new Iterator<CapturedExchange>()
+    {
+      private int _next = 0;
+
+      @Override
+      public boolean hasNext()
+      {
+        return _next < _positions.length;
+      }
+
+      @Override
+      public CapturedExchange next()
+      {
+        if (!hasNext())
+        {
+          throw new NoSuchElementException();
+        }
+        return exchange(_next++);
+      }
+    };
+  }
+
+  /**
+   * A request and response recorded in the log.
+   */
+  public static class CapturedExchange
+  {
+    private final long _timestampNanos;
+    private final RestRequest _request;
+    private final RestResponse _response;
+
+    CapturedExchange(long timestampNanos, RestRequest request, RestResponse response)
+    {
+      _timestampNanos = timestampNanos;
+      _request = request;
+      _response = response;
+    }
+
+    /**
+     * @return the time at which the exchange was recorded, in nanoseconds since the epoch.
+     */
+    public long getTimestampNanos()
+    {
+      return _timestampNanos;
+    }
+
+    public RestRequest getRequest()
+    {
+      return _request;
+    }
+
+    public RestResponse getResponse()
+    {
+      return _response;
+    }
+  }
+
+  private CapturedExchange exchange(int recordNumber)
+  {
+    final long position = _positions[recordNumber];
+    final ByteBuffer segment = _segments.get((int) (position >>> 32));
+    final long timestampNanos = segment.getLong((int) position + SegmentedLogDbUtil.RECORD_HEADER_LENGTH);
+    try
+    {
+      final InputStream in = new ByteBufferInputStream(record(recordNumber));
+      return new CapturedExchange(timestampNanos, _serializer.readRestRequest(in), _serializer.readRestResponse(in));
+    }
+    catch (IOException e)
+    {
+      // The record has been checked when the log was opened
+      throw new IllegalStateException("Failed to read record " + recordNumber, e);
+    }
+  }
+
+  /**
+   * @return a buffer positioned at the request of a record, and limited to its response.
+   */
+  private ByteBuffer record(int recordNumber)
+  {
+    final long position = _positions[recordNumber];
+    final ByteBuffer record = _segments.get((int) (position >>> 32)).duplicate();
+    final int offset = (int) position;
+    final int payloadStart = offset + SegmentedLogDbUtil.RECORD_HEADER_LENGTH;
+    record.limit(payloadStart + record.getInt(offset));
+    record.position(payloadStart + SegmentedLogDbUtil.PAYLOAD_HEADER_LENGTH);
+    return record;
+  }
+
+  private int lastIndexOf(int hash)
+  {
+    // Index of the last key lower than the first key of the next hash
+    final long bound = ((long) hash << 32) | 0xffffffffL;
+    int low = 0;
+    int high = _index.length - 1;
+    while (low <= high)
+    {
+      final int mid = (low + high) >>> 1;
+      if (_index[mid] <= bound)
+      {
+        low = mid + 1;
+      }
+      else
+      {
+        high = mid - 1;
+      }
+    }
+    return high;
+  }
+
+  private static boolean isValidRecord(ByteBuffer segment, int offset)
+  {
+    if (segment.limit() - offset < SegmentedLogDbUtil.RECORD_HEADER_LENGTH)
+    {
+      return false;
+    }
+    final int length = segment.getInt(offset);
+    final int payloadStart = offset + SegmentedLogDbUtil.RECORD_HEADER_LENGTH;
+    if (length < SegmentedLogDbUtil.PAYLOAD_HEADER_LENGTH || length > segment.limit() - payloadStart)
+    {
+      return false;
+    }
+    final ByteBuffer payload = segment.duplicate();
+    payload.position(payloadStart);
+    payload.limit(payloadStart + length);
+    final CRC32 crc = new CRC32();
+    crc.update(payload);
+    return (int) crc.getValue() == segment.getInt(offset + 4);
+  }
+
+  /**
+   * InputStream over the remaining bytes of a buffer.
+   */
+  private static class ByteBufferInputStream extends InputStream
+  {
+    private final ByteBuffer _buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer)
+    {
+      _buffer = buffer;
+    }
+
+    @Override
+    public int read()
+    {
+      return _buffer.hasRemaining() ? _buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len)
+    {
+      if (len == 0)
+      {
+        return 0;
+      }
+      if (!_buffer.hasRemaining())
+      {
+        return -1;
+      }
+      final int read = Math.min(len, _buffer.remaining());
+      _buffer.get(b, off, read);
+      return read;
+    }
+
+    @Override
+    public int available()
+    {
+      return _buffer.remaining();
+    }
+  }
+}
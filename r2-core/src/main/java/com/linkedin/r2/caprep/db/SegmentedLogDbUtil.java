@@ -0,0 +1,128 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.caprep.db;
+
+import com.linkedin.r2.message.rest.RestRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+
+/**
+ * Format of the segmented capture log shared by {@link SegmentedLogDbSink} and {@link SegmentedLogDbSource}.
+ *
+ * A log is a directory of segment files named {@code capture-<index>.log}. Each segment starts with
+ * {@link #MAGIC} and {@link #VERSION}, followed by records of:
+ *
+ * <ul>
+ *   <li>the int length of the record payload,</li>
+ *   <li>the int CRC32 of the record payload,</li>
+ *   <li>the payload: the long capture time in nanoseconds since the epoch, the int hash of the canonical
+ *       request, the int length of the request, and the request and response as written by
+ *       {@link BinaryMessageSerializer}.</li>
+ * </ul>
+ *
+ * Records are only ever appended, so a log interrupted while writing has at most one truncated record at
+ * the end of its last segment, which is detected by its length or CRC and ignored.
+ */
+public class SegmentedLogDbUtil
+{
+  public static final int MAGIC = 0x5232434c; // "R2CL"
+  public static final int VERSION = 1;
+  public static final int SEGMENT_HEADER_LENGTH = 8;
+  public static final int RECORD_HEADER_LENGTH = 8;
+  public static final int PAYLOAD_HEADER_LENGTH = 16;
+
+  private static final String SEGMENT_PREFIX = "capture-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  private static final int FNV_OFFSET_BASIS = 0x811c9dc5;
+  private static final int FNV_PRIME = 0x01000193;
+
+  /**
+   * Create the file name of a segment.
+   *
+   * @param dir the directory of the log.
+   * @param index the index of the segment.
+   * @return the {@link File} object for the segment.
+   */
+  public static File segmentFileName(File dir, int index)
+  {
+    return new File(dir, String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+  }
+
+  /**
+   * List the segments of a log, in the order in which they were written.
+   *
+   * @param dir the directory of the log.
+   * @return the segment files, or an empty array if the directory does not exist.
+   */
+  public static File[] listSegments(File dir)
+  {
+    final File[] segments = dir.listFiles(file -> getIndex(file) >= 0);
+    if (segments == null)
+    {
+      return new File[0];
+    }
+    Arrays.sort(segments, (a, b) -> Integer.compare(getIndex(a), getIndex(b)));
+    return segments;
+  }
+
+  /**
+   * @return the index of a segment file, or -1 if the file is not a segment.
+   */
+  public static int getIndex(File segment)
+  {
+    final String name = segment.getName();
+    if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX))
+    {
+      return -1;
+    }
+    try
+    {
+      return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+    catch (NumberFormatException e)
+    {
+      return -1;
+    }
+  }
+
+  /**
+   * Serialize the canonical form of a request, which identifies the requests to be given the same response.
+   */
+  static byte[] canonicalBytes(RestRequest req, MessageSerializer serializer) throws IOException
+  {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    serializer.writeRequest(out, req.builder().buildCanonical());
+    return out.toByteArray();
+  }
+
+  /**
+   * FNV-1a hash of the canonical form of a request, stable across processes.
+   */
+  static int hash(byte[] canonicalBytes)
+  {
+    int hash = FNV_OFFSET_BASIS;
+    for (byte b : canonicalBytes)
+    {
+      hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+    }
+    return hash;
+  }
+}
@@ -28,6 +28,7 @@ import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.message.stream.entitystream.Observer;
 import com.linkedin.r2.util.RequestContextUtil;
+import com.linkedin.r2.util.finalizer.RequestFinalizerManager;
 import com.linkedin.r2.util.finalizer.RequestFinalizerManagerImpl;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -113,12 +114,12 @@ public class ClientRequestFinalizerFilter implements RestFilter, StreamFilter
   private <REQ extends Request, RES extends Response> void handleRequest(REQ request, RequestContext requestContext,
       Map<String, String> wireAttrs, NextFilter<REQ, RES> nextFilter)
   {
-    final RequestFinalizerManagerImpl manager = (RequestFinalizerManagerImpl) requestContext.getLocalAttr(
-        R2Constants.CLIENT_REQUEST_FINALIZER_MANAGER_REQUEST_CONTEXT_KEY);
+    final RequestFinalizerManager manager =
+        requestContext.getLocalAttr(R2Constants.CLIENT_REQUEST_FINALIZER_MANAGER_KEY);
 
     if (manager == null)
     {
-      requestContext.putLocalAttr(R2Constants.CLIENT_REQUEST_FINALIZER_MANAGER_REQUEST_CONTEXT_KEY,
+      requestContext.putLocalAttr(R2Constants.CLIENT_REQUEST_FINALIZER_MANAGER_KEY,
           new RequestFinalizerManagerImpl(request, requestContext));
     }
     else
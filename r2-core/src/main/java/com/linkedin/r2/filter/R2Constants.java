@@ -16,6 +16,9 @@
 
 package com.linkedin.r2.filter;
 
+import com.linkedin.r2.message.RequestContextKey;
+import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
+import com.linkedin.r2.util.finalizer.RequestFinalizerManager;
 
 /**
  * @author kparikh
@@ -52,6 +55,8 @@ public class R2Constants
   public static final String IS_QUERY_TUNNELED = "IS_QUERY_TUNNELED";
   public static final String FORCE_QUERY_TUNNEL = "FORCE_QUERY_TUNNEL";
   public static final String RESPONSE_DECOMPRESSION_OFF = "RESPONSE_DECOMPRESSION_OFF";
+  public static final String REQUEST_COALESCING_OFF = "REQUEST_COALESCING_OFF";
+  public static final String RESPONSE_CACHE_OFF = "RESPONSE_CACHE_OFF";
   public static final String IS_FULL_REQUEST = "IS_FULL_REQUEST";
   public static final int DEFAULT_DATA_CHUNK_SIZE = 8192;
   public static final boolean DEFAULT_REST_OVER_STREAM = false;
@@ -95,4 +100,23 @@ public class R2Constants
    * @see com.linkedin.r2.filter.ClientRequestFinalizerFilter
    */
   public static final String CLIENT_REQUEST_FINALIZER_MANAGER_REQUEST_CONTEXT_KEY = "CLIENT_REQUEST_FINALIZER_MANAGER";
+
+  /*
+   * Typed keys of the attributes set on most requests, stored in a slot of the RequestContext. The attributes are
+   * still accessible with their names above.
+   */
+  public static final RequestContextKey<String> OPERATION_KEY = RequestContextKey.of(OPERATION, String.class);
+  public static final RequestContextKey<HttpProtocolVersion> HTTP_PROTOCOL_VERSION_KEY =
+      RequestContextKey.of(HTTP_PROTOCOL_VERSION, HttpProtocolVersion.class);
+  public static final RequestContextKey<Boolean> IS_FULL_REQUEST_KEY =
+      RequestContextKey.of(IS_FULL_REQUEST, Boolean.class);
+  public static final RequestContextKey<Number> REQUEST_TIMEOUT_KEY = RequestContextKey.of(REQUEST_TIMEOUT, Number.class);
+  public static final RequestContextKey<Number> CLIENT_REQUEST_TIMEOUT_VIEW_KEY =
+      RequestContextKey.of(CLIENT_REQUEST_TIMEOUT_VIEW, Number.class);
+  public static final RequestContextKey<Double> PREEMPTIVE_TIMEOUT_RATE_KEY =
+      RequestContextKey.of(PREEMPTIVE_TIMEOUT_RATE, Double.class);
+  public static final RequestContextKey<RequestFinalizerManager> SERVER_REQUEST_FINALIZER_MANAGER_KEY =
+      RequestContextKey.of(SERVER_REQUEST_FINALIZER_MANAGER_REQUEST_CONTEXT_KEY, RequestFinalizerManager.class);
+  public static final RequestContextKey<RequestFinalizerManager> CLIENT_REQUEST_FINALIZER_MANAGER_KEY =
+      RequestContextKey.of(CLIENT_REQUEST_FINALIZER_MANAGER_REQUEST_CONTEXT_KEY, RequestFinalizerManager.class);
 }
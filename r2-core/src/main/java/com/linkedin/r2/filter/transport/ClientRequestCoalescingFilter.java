@@ -0,0 +1,224 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.transport;
+
+import com.linkedin.r2.filter.NextFilter;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.filter.message.rest.RestFilter;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Client filter that coalesces identical in-flight GET requests: the first request (the leader) is sent down
+ * the filter chain, and every identical request arriving before the leader completes waits for the leader's
+ * response or error instead of being sent on the wire.
+ *
+ * Two requests are identical when they have the same method, URI, cookies and headers, except for the headers
+ * configured as ignored (e.g. per request tracing identifiers). Requests with an entity are never coalesced,
+ * and a request can opt out by setting {@link R2Constants#REQUEST_COALESCING_OFF} to true in its
+ * {@link RequestContext}.
+ *
+ * The {@link RestResponse} is immutable and shared as is between all the waiters; each waiter receives its own
+ * copy of the wire attributes.
+ *
+ * Only rest requests are coalesced; stream requests, whose response entity can only be read once, go through
+ * untouched.
+ */
+public class ClientRequestCoalescingFilter implements RestFilter
+{
+  private static final Logger LOG = LoggerFactory.getLogger(ClientRequestCoalescingFilter.class);
+
+  private static final String LEADER_KEY = "CLIENT_REQUEST_COALESCING_LEADER_KEY";
+  private static final String GET = "GET";
+
+  private final Set<String> _ignoredHeaders;
+  private final ConcurrentMap<String, InFlightRequest> _inFlightRequests = new ConcurrentHashMap<>();
+  private final AtomicLong _coalescedCount = new AtomicLong();
+
+  public ClientRequestCoalescingFilter()
+  {
+    this(Collections.emptySet());
+  }
+
+  /**
+   * @param ignoredHeaders names of the headers that do not affect the response and are left out of the
+   *                       comparison of requests. Header names are case insensitive.
+   */
+  public ClientRequestCoalescingFilter(Collection<String> ignoredHeaders)
+  {
+    _ignoredHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    _ignoredHeaders.addAll(ignoredHeaders);
+  }
+
+  /**
+   * @return the number of requests that have been answered with the response of an identical in-flight request
+   */
+  public long getCoalescedCount()
+  {
+    return _coalescedCount.get();
+  }
+
+  /**
+   * @return the number of requests currently in flight that identical requests can join
+   */
+  public int getInFlightCount()
+  {
+    return _inFlightRequests.size();
+  }
+
+  @Override
+  public void onRestRequest(RestRequest req, RequestContext requestContext, Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    if (!isCoalescable(req, requestContext))
+    {
+      nextFilter.onRequest(req, requestContext, wireAttrs);
+      return;
+    }
+
+    final String key = getKey(req);
+    final InFlightRequest candidate = new InFlightRequest();
+    for (;;)
+    {
+      InFlightRequest inFlight = _inFlightRequests.putIfAbsent(key, candidate);
+      if (inFlight == null)
+      {
+        requestContext.putLocalAttr(LEADER_KEY, key);
+        nextFilter.onRequest(req, requestContext, wireAttrs);
+        return;
+      }
+      if (inFlight.join(requestContext, nextFilter))
+      {
+        _coalescedCount.incrementAndGet();
+        LOG.debug("Coalesced request for {} with an identical in-flight request", req.getURI());
+        return;
+      }
+      // The in-flight request completed after being looked up; help removing it and try again
+      _inFlightRequests.remove(key, inFlight);
+    }
+  }
+
+  @Override
+  public void onRestResponse(RestResponse res, RequestContext requestContext, Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    final List<Waiter> waiters = complete(requestContext);
+    nextFilter.onResponse(res, requestContext, wireAttrs);
+    for (Waiter waiter : waiters)
+    {
+      waiter._nextFilter.onResponse(res, waiter._requestContext, new HashMap<>(wireAttrs));
+    }
+  }
+
+  @Override
+  public void onRestError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    final List<Waiter> waiters = complete(requestContext);
+    nextFilter.onError(ex, requestContext, wireAttrs);
+    for (Waiter waiter : waiters)
+    {
+      waiter._nextFilter.onError(ex, waiter._requestContext, new HashMap<>(wireAttrs));
+    }
+  }
+
+  private boolean isCoalescable(RestRequest req, RequestContext requestContext)
+  {
+    return GET.equalsIgnoreCase(req.getMethod())
+        && req.getEntity().length() == 0
+        && !Boolean.TRUE.equals(requestContext.getLocalAttr(R2Constants.REQUEST_COALESCING_OFF));
+  }
+
+  private String getKey(RestRequest req)
+  {
+    final StringBuilder key = new StringBuilder(req.getMethod()).append(' ').append(req.getURI());
+    // Headers are kept in a case insensitive sorted map, so equal header sets produce equal keys
+    for (Map.Entry<String, String> header : req.getHeaders().entrySet())
+    {
+      if (!_ignoredHeaders.contains(header.getKey()))
+      {
+        key.append('\n').append(header.getKey().toLowerCase()).append(':').append(header.getValue());
+      }
+    }
+    for (String cookie : req.getCookies())
+    {
+      key.append("\ncookie:").append(cookie);
+    }
+    return key.toString();
+  }
+
+  private List<Waiter> complete(RequestContext requestContext)
+  {
+    final Object key = requestContext.removeLocalAttr(LEADER_KEY);
+    if (key == null)
+    {
+      // Not a leader: either a request that was not coalescable, or a waiter being completed
+      return Collections.emptyList();
+    }
+    final InFlightRequest inFlight = _inFlightRequests.remove(key);
+    return inFlight == null ? Collections.emptyList() : inFlight.complete();
+  }
+
+  private static class Waiter
+  {
+    private final RequestContext _requestContext;
+    private final NextFilter<RestRequest, RestResponse> _nextFilter;
+
+    private Waiter(RequestContext requestContext, NextFilter<RestRequest, RestResponse> nextFilter)
+    {
+      _requestContext = requestContext;
+      _nextFilter = nextFilter;
+    }
+  }
+
+  private static class InFlightRequest
+  {
+    private final List<Waiter> _waiters = new ArrayList<>();
+    private boolean _completed = false;
+
+    synchronized boolean join(RequestContext requestContext, NextFilter<RestRequest, RestResponse> nextFilter)
+    {
+      if (_completed)
+      {
+        return false;
+      }
+      _waiters.add(new Waiter(requestContext, nextFilter));
+      return true;
+    }
+
+    synchronized List<Waiter> complete()
+    {
+      _completed = true;
+      return _waiters;
+    }
+  }
+}
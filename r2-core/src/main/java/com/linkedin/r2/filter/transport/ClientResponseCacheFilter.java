@@ -0,0 +1,402 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.transport;
+
+import com.linkedin.r2.filter.NextFilter;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.filter.message.rest.RestFilter;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestException;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import com.linkedin.util.ArgumentUtil;
+import com.linkedin.util.clock.Clock;
+import com.linkedin.util.clock.SystemClock;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Client filter that caches the responses to GET requests, following the ETag and Cache-Control headers of the
+ * responses:
+ * <ul>
+ *   <li>a response with a Cache-Control max-age is served from the cache until it expires;</li>
+ *   <li>an expired response, or one without max-age, that has an ETag is revalidated by sending the request with
+ *   an If-None-Match header. A 304 Not Modified answer is replaced with the cached response;</li>
+ *   <li>responses with Cache-Control no-store, or with neither ETag nor max-age, are not cached.</li>
+ * </ul>
+ *
+ * A request with Cache-Control no-cache or no-store bypasses the cached response, and a request can opt out of
+ * the cache entirely by setting {@link R2Constants#RESPONSE_CACHE_OFF} to true in its {@link RequestContext}.
+ *
+ * Requests are identified by their URI, cookies and headers, except for the headers configured as ignored. The
+ * cache is bounded by the approximate number of bytes held by the cached responses, evicting the least recently
+ * used responses first. The raw {@link RestResponse} is cached along with its wire attributes, which are replayed on
+ * each hit, so each hit is decoded again by the caller.
+ */
+public class ClientResponseCacheFilter implements RestFilter
+{
+  private static final String CACHE_KEY = "CLIENT_RESPONSE_CACHE_KEY";
+  private static final String REVALIDATED_ENTRY = "CLIENT_RESPONSE_CACHE_REVALIDATED_ENTRY";
+  private static final String GET = "GET";
+  private static final String NO_STORE = "no-store";
+  private static final String NO_CACHE = "no-cache";
+  private static final String MAX_AGE = "max-age=";
+
+  private final long _maxSizeBytes;
+  private final Set<String> _ignoredHeaders;
+  private final Clock _clock;
+
+  /**
+   * Entries in access order, so that the first entry is the least recently used one. Guarded by {@code this}.
+   */
+  private final LinkedHashMap<String, CacheEntry> _entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long _sizeBytes = 0;
+
+  private final AtomicLong _hitCount = new AtomicLong();
+  private final AtomicLong _revalidatedCount = new AtomicLong();
+  private final AtomicLong _missCount = new AtomicLong();
+  private final AtomicLong _evictionCount = new AtomicLong();
+
+  public ClientResponseCacheFilter(long maxSizeBytes)
+  {
+    this(maxSizeBytes, Collections.emptySet(), SystemClock.instance());
+  }
+
+  /**
+   * @param maxSizeBytes the approximate maximum number of bytes held by the cached responses
+   * @param ignoredHeaders names of the request headers that do not affect the response and are left out of the
+   *                       identification of requests. Header names are case insensitive.
+   * @param clock the clock used to expire cached responses
+   */
+  public ClientResponseCacheFilter(long maxSizeBytes, Collection<String> ignoredHeaders, Clock clock)
+  {
+    ArgumentUtil.checkArgument(maxSizeBytes > 0, "maxSizeBytes");
+    ArgumentUtil.notNull(clock, "clock");
+    _maxSizeBytes = maxSizeBytes;
+    _ignoredHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    _ignoredHeaders.addAll(ignoredHeaders);
+    _clock = clock;
+  }
+
+  /**
+   * @return the number of requests answered from the cache without being sent
+   */
+  public long getHitCount()
+  {
+    return _hitCount.get();
+  }
+
+  /**
+   * @return the number of requests answered from the cache after the server confirmed the cached response
+   */
+  public long getRevalidatedCount()
+  {
+    return _revalidatedCount.get();
+  }
+
+  /**
+   * @return the number of cacheable requests that were sent without a cached response to revalidate
+   */
+  public long getMissCount()
+  {
+    return _missCount.get();
+  }
+
+  /**
+   * @return the number of responses evicted to keep the cache within its maximum size
+   */
+  public long getEvictionCount()
+  {
+    return _evictionCount.get();
+  }
+
+  /**
+   * @return the approximate number of bytes held by the cached responses
+   */
+  public synchronized long getSizeBytes()
+  {
+    return _sizeBytes;
+  }
+
+  public synchronized void clear()
+  {
+    _entries.clear();
+    _sizeBytes = 0;
+  }
+
+  @Override
+  public void onRestRequest(RestRequest req, RequestContext requestContext, Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    if (!isCacheable(req, requestContext))
+    {
+      nextFilter.onRequest(req, requestContext, wireAttrs);
+      return;
+    }
+
+    final String key = getKey(req);
+    final CacheEntry entry = get(key);
+    if (entry != null && entry.isFresh(_clock.currentTimeMillis()) && !hasDirective(req.getHeaders(), NO_CACHE))
+    {
+      _hitCount.incrementAndGet();
+      nextFilter.onResponse(entry._response, requestContext, new HashMap<>(entry._wireAttrs));
+      return;
+    }
+
+    requestContext.putLocalAttr(CACHE_KEY, key);
+    if (entry != null && entry._eTag != null && req.getHeader(HttpConstants.IF_NONE_MATCH) == null)
+    {
+      requestContext.putLocalAttr(REVALIDATED_ENTRY, entry);
+      req = req.builder().setHeader(HttpConstants.IF_NONE_MATCH, entry._eTag).build();
+    }
+    else
+    {
+      _missCount.incrementAndGet();
+    }
+    nextFilter.onRequest(req, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onRestResponse(RestResponse res, RequestContext requestContext, Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    final String key = (String) requestContext.removeLocalAttr(CACHE_KEY);
+    final CacheEntry revalidated = (CacheEntry) requestContext.removeLocalAttr(REVALIDATED_ENTRY);
+    if (key != null)
+    {
+      if (res.getStatus() == HttpConstants.NOT_MODIFIED && revalidated != null)
+      {
+        nextFilter.onResponse(onNotModified(key, revalidated, res), requestContext, wireAttrs);
+        return;
+      }
+      if (res.getStatus() == HttpConstants.OK)
+      {
+        put(key, res, wireAttrs);
+      }
+    }
+    nextFilter.onResponse(res, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onRestError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    final String key = (String) requestContext.removeLocalAttr(CACHE_KEY);
+    final CacheEntry revalidated = (CacheEntry) requestContext.removeLocalAttr(REVALIDATED_ENTRY);
+    // Transports report any non 2xx status as an error, including 304 Not Modified
+    if (key != null && revalidated != null && ex instanceof RestException)
+    {
+      final RestResponse res = ((RestException) ex).getResponse();
+      if (res.getStatus() == HttpConstants.NOT_MODIFIED)
+      {
+        nextFilter.onResponse(onNotModified(key, revalidated, res), requestContext, wireAttrs);
+        return;
+      }
+    }
+    nextFilter.onError(ex, requestContext, wireAttrs);
+  }
+
+  private RestResponse onNotModified(String key, CacheEntry revalidated, RestResponse notModified)
+  {
+    _revalidatedCount.incrementAndGet();
+    final long expiresAt = getExpiresAt(notModified.getHeaders());
+    final CacheEntry refreshed = new CacheEntry(revalidated._response, revalidated._wireAttrs, revalidated._eTag,
+        expiresAt >= 0 ? expiresAt : revalidated._expiresAt, revalidated._sizeBytes);
+    synchronized (this)
+    {
+      // Only refresh the entry if it has not been replaced or evicted in the meantime
+      if (_entries.get(key) == revalidated)
+      {
+        _entries.put(key, refreshed);
+      }
+    }
+    return revalidated._response;
+  }
+
+  private boolean isCacheable(RestRequest req, RequestContext requestContext)
+  {
+    return GET.equalsIgnoreCase(req.getMethod())
+        && req.getEntity().length() == 0
+        && !hasDirective(req.getHeaders(), NO_STORE)
+        && !Boolean.TRUE.equals(requestContext.getLocalAttr(R2Constants.RESPONSE_CACHE_OFF));
+  }
+
+  private String getKey(RestRequest req)
+  {
+    final StringBuilder key = new StringBuilder(req.getURI().toString());
+    for (Map.Entry<String, String> header : req.getHeaders().entrySet())
+    {
+      if (!_ignoredHeaders.contains(header.getKey()) && !HttpConstants.CACHE_CONTROL.equalsIgnoreCase(header.getKey()))
+      {
+        key.append('\n').append(header.getKey().toLowerCase()).append(':').append(header.getValue());
+      }
+    }
+    for (String cookie : req.getCookies())
+    {
+      key.append("\ncookie:").append(cookie);
+    }
+    return key.toString();
+  }
+
+  private synchronized CacheEntry get(String key)
+  {
+    return _entries.get(key);
+  }
+
+  private void put(String key, RestResponse res, Map<String, String> wireAttrs)
+  {
+    final Map<String, String> headers = res.getHeaders();
+    final String eTag = headers.get(HttpConstants.ETAG);
+    final long expiresAt = getExpiresAt(headers);
+    if (hasDirective(headers, NO_STORE) || (eTag == null && expiresAt < 0))
+    {
+      return;
+    }
+
+    final long sizeBytes = estimateSize(key, res, wireAttrs);
+    if (sizeBytes > _maxSizeBytes)
+    {
+      return;
+    }
+
+    final CacheEntry entry = new CacheEntry(res, new HashMap<>(wireAttrs), eTag, expiresAt, sizeBytes);
+    synchronized (this)
+    {
+      final CacheEntry previous = _entries.put(key, entry);
+      if (previous != null)
+      {
+        _sizeBytes -= previous._sizeBytes;
+      }
+      _sizeBytes += sizeBytes;
+
+      final Iterator<CacheEntry> iterator = _entries.values().iterator();
+      while (_sizeBytes > _maxSizeBytes && iterator.hasNext())
+      {
+        _sizeBytes -= iterator.next()._sizeBytes;
+        iterator.remove();
+        _evictionCount.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * @return the time until which the response may be served without revalidation, the current time if it must
+   *         always be revalidated, or -1 if the response does not specify any max-age.
+   */
+  private long getExpiresAt(Map<String, String> headers)
+  {
+    final String cacheControl = headers.get(HttpConstants.CACHE_CONTROL);
+    if (cacheControl == null)
+    {
+      return -1;
+    }
+
+    final long now = _clock.currentTimeMillis();
+    long expiresAt = -1;
+    for (String directive : cacheControl.split(","))
+    {
+      directive = directive.trim().toLowerCase();
+      if (directive.equals(NO_CACHE))
+      {
+        return now;
+      }
+      if (directive.startsWith(MAX_AGE))
+      {
+        try
+        {
+          expiresAt = now + TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(directive.substring(MAX_AGE.length()))));
+        }
+        catch (NumberFormatException e)
+        {
+          // Malformed max-age, treat the response as stale
+          expiresAt = now;
+        }
+      }
+    }
+    return expiresAt;
+  }
+
+  private static boolean hasDirective(Map<String, String> headers, String directive)
+  {
+    final String cacheControl = headers.get(HttpConstants.CACHE_CONTROL);
+    if (cacheControl == null)
+    {
+      return false;
+    }
+    for (String value : cacheControl.split(","))
+    {
+      if (value.trim().equalsIgnoreCase(directive))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long estimateSize(String key, RestResponse res, Map<String, String> wireAttrs)
+  {
+    // Strings are counted as two bytes per character
+    long size = res.getEntity().length() + 2L * key.length();
+    for (Map.Entry<String, String> header : res.getHeaders().entrySet())
+    {
+      size += 2L * (header.getKey().length() + header.getValue().length());
+    }
+    for (Map.Entry<String, String> attr : wireAttrs.entrySet())
+    {
+      size += 2L * (attr.getKey().length() + attr.getValue().length());
+    }
+    for (String cookie : res.getCookies())
+    {
+      size += 2L * cookie.length();
+    }
+    return size;
+  }
+
+  private static class CacheEntry
+  {
+    private final RestResponse _response;
+    private final Map<String, String> _wireAttrs;
+    private final String _eTag;
+    private final long _expiresAt;
+    private final long _sizeBytes;
+
+    private CacheEntry(RestResponse response, Map<String, String> wireAttrs, String eTag, long expiresAt,
+        long sizeBytes)
+    {
+      _response = response;
+      _wireAttrs = wireAttrs;
+      _eTag = eTag;
+      _expiresAt = expiresAt;
+      _sizeBytes = sizeBytes;
+    }
+
+    private boolean isFresh(long now)
+    {
+      return now < _expiresAt;
+    }
+  }
+}
@@ -31,6 +31,9 @@ import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.stream.StreamException;
 import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.util.RetryBudget;
+import com.linkedin.r2.util.RetryBudgets;
+import java.net.URI;
 import java.util.Map;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
@@ -41,6 +44,12 @@ import org.slf4j.LoggerFactory;
  * when a retry is requested. This filter checks for that attribute and convert it to a
  * {@link RetriableRequestException}.
  *
+ * When created with {@link RetryBudgets}, the filter records the successful calls in the budget of the service
+ * called, and withdraws a token from it for each retry requested by the server. The retry is disabled with
+ * {@link RetriableRequestException#setDoNotRetryOverride(boolean)} when the budget is exhausted. The service is the
+ * one put in the request context with {@link RetryBudgets#SERVICE_NAME_KEY}, by the D2 load balancer for instance,
+ * or else the authority of the request uri.
+ *
  * @author Xialin Zhu
  * @see ServerRetryFilter
  */
@@ -48,6 +57,69 @@ public class ClientRetryFilter implements RestFilter, StreamFilter
 {
   private static final Logger LOG = LoggerFactory.getLogger(ServerRetryFilter.class);
 
+  private final RetryBudgets _retryBudgets;
+
+  public ClientRetryFilter()
+  {
+    this((RetryBudgets) null);
+  }
+
+  /**
+   * @param retryBudget budget of the retries requested by the server for every service
+   */
+  public ClientRetryFilter(RetryBudget retryBudget)
+  {
+    this(new RetryBudgets(serviceName -> retryBudget));
+  }
+
+  /**
+   * @param retryBudgets per service budgets of the retries requested by the server, or null for no budget
+   */
+  public ClientRetryFilter(RetryBudgets retryBudgets)
+  {
+    _retryBudgets = retryBudgets;
+  }
+
+  @Override
+  public void onRestRequest(RestRequest req,
+      RequestContext requestContext,
+      Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    setServiceName(req, requestContext);
+    nextFilter.onRequest(req, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onStreamRequest(StreamRequest req,
+      RequestContext requestContext,
+      Map<String, String> wireAttrs,
+      NextFilter<StreamRequest, StreamResponse> nextFilter)
+  {
+    setServiceName(req, requestContext);
+    nextFilter.onRequest(req, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onRestResponse(RestResponse res,
+      RequestContext requestContext,
+      Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    recordSuccess(requestContext);
+    nextFilter.onResponse(res, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onStreamResponse(StreamResponse res,
+      RequestContext requestContext,
+      Map<String, String> wireAttrs,
+      NextFilter<StreamRequest, StreamResponse> nextFilter)
+  {
+    recordSuccess(requestContext);
+    nextFilter.onResponse(res, requestContext, wireAttrs);
+  }
+
   @Override
   public void onRestError(Throwable ex,
       RequestContext requestContext,
@@ -74,20 +146,64 @@ public class ClientRetryFilter implements RestFilter, StreamFilter
     String retryAttr = wireAttrs.get(R2Constants.RETRY_MESSAGE_ATTRIBUTE_KEY);
     if (retryAttr != null)
     {
+      RetriableRequestException retriableException;
       if (ex instanceof RestException)
       {
-        ex = new RestException(((RestException) ex).getResponse(), new RetriableRequestException(retryAttr, ex.getCause()));
+        retriableException = new RetriableRequestException(retryAttr, ex.getCause());
+        ex = new RestException(((RestException) ex).getResponse(), retriableException);
       }
       else if (ex instanceof StreamException)
       {
-        ex = new StreamException(((StreamException) ex).getResponse(), new RetriableRequestException(retryAttr, ex.getCause()));
+        retriableException = new RetriableRequestException(retryAttr, ex.getCause());
+        ex = new StreamException(((StreamException) ex).getResponse(), retriableException);
       }
       else
       {
-        ex = new RetriableRequestException(retryAttr, ex);
+        retriableException = new RetriableRequestException(retryAttr, ex);
+        ex = retriableException;
+      }
+
+      if (_retryBudgets != null && RetryBudget.markRecorded(requestContext))
+      {
+        RetryBudget retryBudget = getRetryBudget(requestContext);
+        if (!retryBudget.tryWithdraw())
+        {
+          LOG.debug("Retry budget exhausted, the retry requested by the server is disabled: {}", retryBudget);
+          retriableException.setDoNotRetryOverride(true);
+        }
       }
     }
 
     nextFilter.onError(ex, requestContext, wireAttrs);
   }
+
+  private void recordSuccess(RequestContext requestContext)
+  {
+    if (_retryBudgets != null)
+    {
+      getRetryBudget(requestContext).recordSuccess(requestContext);
+    }
+  }
+
+  /**
+   * Keeps the service set by the load balancer, or else sets the authority of the uri, which is the service for
+   * the clients sending their requests to a host directly.
+   */
+  private void setServiceName(Request req, RequestContext requestContext)
+  {
+    if (_retryBudgets != null && requestContext.getLocalAttr(RetryBudgets.SERVICE_NAME_KEY) == null)
+    {
+      URI uri = req.getURI();
+      if (uri != null && uri.getAuthority() != null)
+      {
+        requestContext.putLocalAttr(RetryBudgets.SERVICE_NAME_KEY, uri.getAuthority());
+      }
+    }
+  }
+
+  private RetryBudget getRetryBudget(RequestContext requestContext)
+  {
+    String serviceName = requestContext.getLocalAttr(RetryBudgets.SERVICE_NAME_KEY);
+    return _retryBudgets.getBudget(serviceName == null ? "" : serviceName);
+  }
 }
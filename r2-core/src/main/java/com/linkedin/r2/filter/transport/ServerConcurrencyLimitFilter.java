@@ -0,0 +1,196 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.transport;
+
+import com.linkedin.r2.RetriableRequestException;
+import com.linkedin.r2.filter.NextFilter;
+import com.linkedin.r2.filter.message.rest.RestFilter;
+import com.linkedin.r2.filter.message.stream.StreamFilter;
+import com.linkedin.r2.message.Messages;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.RequestContextKey;
+import com.linkedin.r2.message.rest.RestException;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import com.linkedin.r2.util.AdaptiveConcurrencyLimit;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Server filter limiting the number of requests in flight with an {@link AdaptiveConcurrencyLimit}, so that an
+ * overloaded server sheds the excess requests as soon as they arrive rather than queueing them until they time
+ * out after having consumed resources.
+ *
+ * Requests over the limit are rejected with a 503 response carrying a Retry-After header. The error is caused
+ * by a {@link RetriableRequestException}, so that a {@link ServerRetryFilter} placed before this filter in the
+ * chain lets the client retry the request on another host. The latency of stream requests is measured until
+ * their response headers, not until their entity has been written.
+ *
+ * @see ClientRetryFilter
+ */
+public class ServerConcurrencyLimitFilter implements RestFilter, StreamFilter
+{
+  private static final Logger LOG = LoggerFactory.getLogger(ServerConcurrencyLimitFilter.class);
+
+  public static final int DEFAULT_RETRY_AFTER_SECONDS = 1;
+
+  private static final RequestContextKey<Long> START_NANOS_KEY =
+      RequestContextKey.of("R2_CONCURRENCY_LIMIT_START_NANOS", Long.class);
+
+  private final AdaptiveConcurrencyLimit _limit;
+  private final int _retryAfterSeconds;
+
+  public ServerConcurrencyLimitFilter()
+  {
+    this(new AdaptiveConcurrencyLimit(), DEFAULT_RETRY_AFTER_SECONDS);
+  }
+
+  /**
+   * @param limit the limit on the number of requests in flight
+   * @param retryAfterSeconds the delay after which the clients of rejected requests are told to retry
+   */
+  public ServerConcurrencyLimitFilter(AdaptiveConcurrencyLimit limit, int retryAfterSeconds)
+  {
+    _limit = limit;
+    _retryAfterSeconds = retryAfterSeconds;
+  }
+
+  @Override
+  public void onRestRequest(RestRequest req,
+      RequestContext requestContext,
+      Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    if (acquire(requestContext))
+    {
+      nextFilter.onRequest(req, requestContext, wireAttrs);
+    }
+    else
+    {
+      nextFilter.onError(rejection(), requestContext, wireAttrs);
+    }
+  }
+
+  @Override
+  public void onRestResponse(RestResponse res,
+      RequestContext requestContext,
+      Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    release(requestContext, null);
+    nextFilter.onResponse(res, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onRestError(Throwable ex,
+      RequestContext requestContext,
+      Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    release(requestContext, ex);
+    nextFilter.onError(ex, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onStreamRequest(StreamRequest req,
+      RequestContext requestContext,
+      Map<String, String> wireAttrs,
+      NextFilter<StreamRequest, StreamResponse> nextFilter)
+  {
+    if (acquire(requestContext))
+    {
+      nextFilter.onRequest(req, requestContext, wireAttrs);
+    }
+    else
+    {
+      nextFilter.onError(Messages.toStreamException(rejection()), requestContext, wireAttrs);
+    }
+  }
+
+  @Override
+  public void onStreamResponse(StreamResponse res,
+      RequestContext requestContext,
+      Map<String, String> wireAttrs,
+      NextFilter<StreamRequest, StreamResponse> nextFilter)
+  {
+    release(requestContext, null);
+    nextFilter.onResponse(res, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onStreamError(Throwable ex,
+      RequestContext requestContext,
+      Map<String, String> wireAttrs,
+      NextFilter<StreamRequest, StreamResponse> nextFilter)
+  {
+    release(requestContext, ex);
+    nextFilter.onError(ex, requestContext, wireAttrs);
+  }
+
+  private boolean acquire(RequestContext requestContext)
+  {
+    if (!_limit.tryAcquire())
+    {
+      LOG.debug("Rejecting request over the concurrency limit: {}", _limit);
+      return false;
+    }
+    requestContext.putLocalAttr(START_NANOS_KEY, System.nanoTime());
+    return true;
+  }
+
+  /**
+   * Releases the permit of a request, if it was given one. Rejected requests go through the error path of this
+   * filter as well, and have no permit to release.
+   */
+  private void release(RequestContext requestContext, Throwable ex)
+  {
+    final Long startNanos = requestContext.removeLocalAttr(START_NANOS_KEY);
+    if (startNanos != null)
+    {
+      _limit.release(System.nanoTime() - startNanos, ex != null && isTimeout(ex));
+    }
+  }
+
+  private RestException rejection()
+  {
+    final String message = "Server is over its concurrency limit of " + _limit.getLimit() + " requests";
+    final RestResponse response = new RestResponseBuilder()
+        .setStatus(HttpConstants.SERVICE_UNAVAILABLE)
+        .setHeader(HttpConstants.RETRY_AFTER, Integer.toString(_retryAfterSeconds))
+        .build();
+    return new RestException(response, message, new RetriableRequestException(message), false);
+  }
+
+  private static boolean isTimeout(Throwable ex)
+  {
+    for (Throwable cause = ex; cause != null; cause = cause.getCause())
+    {
+      if (cause instanceof TimeoutException)
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -25,7 +25,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 
 /**
@@ -43,9 +42,7 @@ public abstract class BaseMessage implements MessageHeaders
   {
     ArgumentUtil.notNull(headers, "headers");
     ArgumentUtil.notNull(cookies, "cookies");
-    TreeMap<String, String> tmpHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-    tmpHeaders.putAll(headers);
-    _headers = Collections.unmodifiableSortedMap(tmpHeaders);
+    _headers = CompactHeaderMap.immutableCopyOf(headers);
     _cookies = Collections.unmodifiableList(new ArrayList<>(cookies));
   }
 
@@ -26,7 +26,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.regex.Pattern;
 
 
@@ -45,7 +44,10 @@ public abstract class BaseMessageBuilder<B extends BaseMessageBuilder<B>>
 
   private static final String CANONICAL_REPLACEMENT = " ";
 
-  private TreeMap<String, String> _headers;
+  // Shared with the messages built from this builder once frozen, and copied before being modified again
+  private CompactHeaderMap _headers;
+  // Unmodifiable live view of the headers, which follows _headers when it is copied
+  private final Map<String, String> _headersView = new CompactHeaderMap.View(() -> _headers);
 
   private List<String> _cookies;
 
@@ -117,7 +119,7 @@ public abstract class BaseMessageBuilder<B extends BaseMessageBuilder<B>>
   @Override
   public B clearHeaders()
   {
-    _headers.clear();
+    _headers = new CompactHeaderMap();
     return thisBuilder();
   }
 
@@ -125,7 +127,7 @@ public abstract class BaseMessageBuilder<B extends BaseMessageBuilder<B>>
   public B removeHeader(String name)
   {
     validateFieldName(name);
-    _headers.remove(name);
+    mutableHeaders().remove(name);
     return thisBuilder();
   }
 
@@ -139,7 +141,7 @@ public abstract class BaseMessageBuilder<B extends BaseMessageBuilder<B>>
   @Override
   public Map<String, String> getHeaders()
   {
-    return Collections.unmodifiableSortedMap(_headers);
+    return _headersView;
   }
 
   @Override
@@ -175,7 +177,7 @@ public abstract class BaseMessageBuilder<B extends BaseMessageBuilder<B>>
    */
   public B unsafeSetHeader(String name, String value)
   {
-    _headers.put(name, value);
+    mutableHeaders().put(name, value);
     return thisBuilder();
   }
 
@@ -191,17 +193,18 @@ public abstract class BaseMessageBuilder<B extends BaseMessageBuilder<B>>
   {
     // This is "safe" because we explicitly state in StreamMessageBuilder that the builder is not thread
     // safe and proper external synchronization must be used to use instances across threads.
-    final String current = _headers.get(name);
+    final Map<String, String> headers = mutableHeaders();
+    final String current = headers.get(name);
 
     if (current == null)
     {
-      _headers.put(name, value);
+      headers.put(name, value);
     }
     else
     {
       StringBuilder builder = new StringBuilder();
       builder.append(current).append(',').append(value);
-      _headers.put(name, builder.toString());
+      headers.put(name, builder.toString());
     }
 
     return thisBuilder();
@@ -216,7 +219,13 @@ public abstract class BaseMessageBuilder<B extends BaseMessageBuilder<B>>
    */
   public B unsafeSetHeaders(Map<String, String> headers)
   {
-    _headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    if (headers instanceof CompactHeaderMap && ((CompactHeaderMap) headers).isFrozen())
+    {
+      // e.g. the headers of the message this builder copies; they are copied only if modified
+      _headers = (CompactHeaderMap) headers;
+      return thisBuilder();
+    }
+    _headers = new CompactHeaderMap(Math.max(headers.size(), 8));
     return unsafeOverwriteHeaders(headers);
   }
 
@@ -229,7 +238,7 @@ public abstract class BaseMessageBuilder<B extends BaseMessageBuilder<B>>
    */
   public B unsafeOverwriteHeaders(Map<String, String> headers)
   {
-    _headers.putAll(headers);
+    mutableHeaders().putAll(headers);
     return thisBuilder();
   }
 
@@ -331,6 +340,15 @@ public abstract class BaseMessageBuilder<B extends BaseMessageBuilder<B>>
     return Collections.unmodifiableList(cookies);
   }
 
+  private CompactHeaderMap mutableHeaders()
+  {
+    if (_headers.isFrozen())
+    {
+      _headers = _headers.mutableCopy();
+    }
+    return _headers;
+  }
+
   @SuppressWarnings("unchecked")
   protected B thisBuilder()
   {
@@ -0,0 +1,549 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Supplier;
+
+
+/**
+ * A map of headers with case insensitive names, backed by two flat arrays of names and values.
+ *
+ * Compared to a {@link java.util.TreeMap} with {@link String#CASE_INSENSITIVE_ORDER}, it allocates no entry per
+ * header, and looks up the well known headers set on most requests and responses (Content-Type, Accept,
+ * X-RestLi-Protocol-Version, ...) in constant time, without any string allocation. Other headers are looked up by
+ * a linear scan while the map is being built, and by a binary search once it is frozen.
+ *
+ * Freezing a map sorts its entries in {@link String#CASE_INSENSITIVE_ORDER}, the iteration order of the headers of
+ * messages, and makes it immutable. {@link BaseMessageBuilder} hands its map over to the message it builds by
+ * freezing it, and copies it before its next modification, so that building a message does not copy the headers.
+ *
+ * Like the headers of a message, this map does not support null names.
+ */
+public final class CompactHeaderMap extends AbstractMap<String, String>
+{
+  private static final String[] KNOWN_NAMES = {
+      "Accept",
+      "Accept-Encoding",
+      "Cache-Control",
+      "Connection",
+      "Content-Disposition",
+      "Content-Encoding",
+      "Content-ID",
+      "Content-Length",
+      "Content-Type",
+      "Date",
+      "ETag",
+      "Host",
+      "If-None-Match",
+      "Location",
+      "Transfer-Encoding",
+      "User-Agent",
+      "Vary",
+      "X-LinkedIn-Error-Response",
+      "X-LinkedIn-Id",
+      "X-Number-Of-Retry-Attempts",
+      "X-Response-Compression-Threshold",
+      "X-RestLi-Error-Response",
+      "X-RestLi-Id",
+      "X-RestLi-Method",
+      "X-RestLi-Protocol-Version",
+      "x-restli-service-scoped-path",
+      "x-restli-symbol-table-request",
+  };
+
+  // Open addressing table from the case insensitive hash of a known name to its index in KNOWN_NAMES
+  private static final int[] KNOWN_TABLE;
+  private static final int KNOWN_MASK;
+
+  // Positions are kept in unsigned bytes; known headers past this position are looked up like the other ones
+  private static final int MAX_SLOTTED_INDEX = 254;
+  private static final int DEFAULT_CAPACITY = 8;
+
+  static
+  {
+    KNOWN_TABLE = new int[Integer.highestOneBit(KNOWN_NAMES.length) << 2];
+    KNOWN_MASK = KNOWN_TABLE.length - 1;
+    Arrays.fill(KNOWN_TABLE, -1);
+    for (int id = 0; id < KNOWN_NAMES.length; id++)
+    {
+      int i = hash(KNOWN_NAMES[id]) & KNOWN_MASK;
+      while (KNOWN_TABLE[i] >= 0)
+      {
+        i = (i + 1) & KNOWN_MASK;
+      }
+      KNOWN_TABLE[i] = id;
+    }
+  }
+
+  private String[] _names;
+  private String[] _values;
+  private int _size;
+  // Position + 1 of each known header present in the map, indexed by known header id
+  private byte[] _slots;
+  private boolean _frozen;
+
+  public CompactHeaderMap()
+  {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param capacity the number of headers the map can hold before growing
+   */
+  public CompactHeaderMap(int capacity)
+  {
+    _names = new String[Math.max(capacity, 1)];
+    _values = new String[_names.length];
+  }
+
+  /**
+   * @return a new modifiable map holding the given headers
+   */
+  public static CompactHeaderMap copyOf(Map<String, String> headers)
+  {
+    if (headers instanceof CompactHeaderMap)
+    {
+      return ((CompactHeaderMap) headers).mutableCopy();
+    }
+    CompactHeaderMap map = new CompactHeaderMap(Math.max(headers.size(), DEFAULT_CAPACITY));
+    map.putAll(headers);
+    return map;
+  }
+
+  /**
+   * @return the given headers if they are already a frozen map, the frozen current map of a {@link View}, or a
+   *         frozen copy of them
+   */
+  static CompactHeaderMap immutableCopyOf(Map<String, String> headers)
+  {
+    if (headers instanceof View)
+    {
+      return ((View) headers).frozen();
+    }
+    if (headers instanceof CompactHeaderMap && ((CompactHeaderMap) headers)._frozen)
+    {
+      return (CompactHeaderMap) headers;
+    }
+    return copyOf(headers).freeze();
+  }
+
+  /**
+   * Sorts the entries of this map and makes it immutable.
+   *
+   * @return this map
+   */
+  CompactHeaderMap freeze()
+  {
+    if (!_frozen)
+    {
+      // Headers are few, and usually added in order, which makes an insertion sort the cheapest
+      for (int i = 1; i < _size; i++)
+      {
+        String name = _names[i];
+        String value = _values[i];
+        int j = i - 1;
+        for (; j >= 0 && String.CASE_INSENSITIVE_ORDER.compare(_names[j], name) > 0; j--)
+        {
+          _names[j + 1] = _names[j];
+          _values[j + 1] = _values[j];
+        }
+        _names[j + 1] = name;
+        _values[j + 1] = value;
+      }
+      updateSlots(0);
+      _frozen = true;
+    }
+    return this;
+  }
+
+  /**
+   * @return true if this map is immutable
+   */
+  public boolean isFrozen()
+  {
+    return _frozen;
+  }
+
+  /**
+   * @return a modifiable copy of this map
+   */
+  public CompactHeaderMap mutableCopy()
+  {
+    CompactHeaderMap copy = new CompactHeaderMap(Math.max(_size, DEFAULT_CAPACITY));
+    System.arraycopy(_names, 0, copy._names, 0, _size);
+    System.arraycopy(_values, 0, copy._values, 0, _size);
+    copy._size = _size;
+    copy._slots = _slots == null ? null : _slots.clone();
+    return copy;
+  }
+
+  @Override
+  public int size()
+  {
+    return _size;
+  }
+
+  @Override
+  public boolean isEmpty()
+  {
+    return _size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key)
+  {
+    return key instanceof String && indexOf((String) key) >= 0;
+  }
+
+  @Override
+  public String get(Object key)
+  {
+    if (!(key instanceof String))
+    {
+      return null;
+    }
+    int index = indexOf((String) key);
+    return index < 0 ? null : _values[index];
+  }
+
+  /**
+   * Sets the value of a header. As with {@link java.util.TreeMap}, the name under which an existing header was
+   * first put is kept.
+   */
+  @Override
+  public String put(String name, String value)
+  {
+    checkMutable();
+    int id = knownId(name);
+    int index = indexOf(name, id);
+    if (index >= 0)
+    {
+      String previous = _values[index];
+      _values[index] = value;
+      return previous;
+    }
+
+    if (_size == _names.length)
+    {
+      _names = Arrays.copyOf(_names, _size << 1);
+      _values = Arrays.copyOf(_values, _size << 1);
+    }
+    _names[_size] = name;
+    _values[_size] = value;
+    if (id >= 0)
+    {
+      setSlot(id, _size);
+    }
+    _size++;
+    return null;
+  }
+
+  @Override
+  public String remove(Object key)
+  {
+    checkMutable();
+    if (!(key instanceof String))
+    {
+      return null;
+    }
+    int index = indexOf((String) key);
+    if (index < 0)
+    {
+      return null;
+    }
+    String previous = _values[index];
+    removeAt(index);
+    return previous;
+  }
+
+  @Override
+  public void clear()
+  {
+    checkMutable();
+    Arrays.fill(_names, 0, _size, null);
+    Arrays.fill(_values, 0, _size, null);
+    _size = 0;
+    _slots = null;
+  }
+
+  @Override
+  public Set<Entry<String, String>> entrySet()
+  {
+    return new EntrySet();
+  }
+
+  private void checkMutable()
+  {
+    if (_frozen)
+    {
+      throw new UnsupportedOperationException("Headers are immutable");
+    }
+  }
+
+  private int indexOf(String name)
+  {
+    return indexOf(name, knownId(name));
+  }
+
+  private int indexOf(String name, int id)
+  {
+    if (id >= 0)
+    {
+      int slot = _slots == null ? 0 : _slots[id] & 0xFF;
+      if (slot != 0)
+      {
+        return slot - 1;
+      }
+      if (_size <= MAX_SLOTTED_INDEX)
+      {
+        return -1;
+      }
+    }
+
+    if (_frozen)
+    {
+      int low = 0;
+      int high = _size - 1;
+      while (low <= high)
+      {
+        int mid = (low + high) >>> 1;
+        int cmp = String.CASE_INSENSITIVE_ORDER.compare(_names[mid], name);
+        if (cmp < 0)
+        {
+          low = mid + 1;
+        }
+        else if (cmp > 0)
+        {
+          high = mid - 1;
+        }
+        else
+        {
+          return mid;
+        }
+      }
+      return -1;
+    }
+
+    for (int i = 0; i < _size; i++)
+    {
+      if (_names[i].equalsIgnoreCase(name))
+      {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void removeAt(int index)
+  {
+    int id = knownId(_names[index]);
+    if (id >= 0 && _slots != null)
+    {
+      _slots[id] = 0;
+    }
+    _size--;
+    System.arraycopy(_names, index + 1, _names, index, _size - index);
+    System.arraycopy(_values, index + 1, _values, index, _size - index);
+    _names[_size] = null;
+    _values[_size] = null;
+    updateSlots(index);
+  }
+
+  private void updateSlots(int from)
+  {
+    for (int i = from; i < _size; i++)
+    {
+      int id = knownId(_names[i]);
+      if (id >= 0)
+      {
+        setSlot(id, i);
+      }
+    }
+  }
+
+  private void setSlot(int id, int index)
+  {
+    if (index < MAX_SLOTTED_INDEX)
+    {
+      if (_slots == null)
+      {
+        _slots = new byte[KNOWN_NAMES.length];
+      }
+      _slots[id] = (byte) (index + 1);
+    }
+    else if (_slots != null)
+    {
+      _slots[id] = 0;
+    }
+  }
+
+  /**
+   * @return the index of the given name in {@link #KNOWN_NAMES}, or -1 if it is not a known header name
+   */
+  private static int knownId(String name)
+  {
+    for (int i = hash(name) & KNOWN_MASK; ; i = (i + 1) & KNOWN_MASK)
+    {
+      int id = KNOWN_TABLE[i];
+      if (id < 0 || KNOWN_NAMES[id].equalsIgnoreCase(name))
+      {
+        return id;
+      }
+    }
+  }
+
+  /**
+   * Hashes a name consistently with {@link String#equalsIgnoreCase(String)}.
+   */
+  private static int hash(String name)
+  {
+    int h = 0;
+    for (int i = 0; i < name.length(); i++)
+    {
+      char c = name.charAt(i);
+      if (c >= 'A' && c <= 'Z')
+      {
+        c += 'a' - 'A';
+      }
+      else if (c >= 128)
+      {
+        c = Character.toLowerCase(Character.toUpperCase(c));
+      }
+      h = 31 * h + c;
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<String, String>>
+  {
+    @Override
+    public int size()
+    {
+      return _size;
+    }
+
+    @Override
+    public Iterator<Entry<String, String>> iterator()
+    {
+      return new Iterator<Entry<String, String>>()
+      {
+        private int _next = 0;
+        private int _last = -1;
+
+        @Override
+        public boolean hasNext()
+        {
+          return _next < _size;
+        }
+
+        @Override
+        public Entry<String, String> next()
+        {
+          if (_next >= _size)
+          {
+            throw new NoSuchElementException();
+          }
+          _last = _next++;
+          return new SimpleImmutableEntry<>(_names[_last], _values[_last]);
+        }
+
+        @Override
+        public void remove()
+        {
+          if (_last < 0)
+          {
+            throw new IllegalStateException();
+          }
+          checkMutable();
+          removeAt(_last);
+          _next = _last;
+          _last = -1;
+        }
+      };
+    }
+  }
+
+  /**
+   * An unmodifiable live view of the map a builder currently holds, which it replaces when copying it on write.
+   * Iterating the view freezes the current map, so that the headers are seen in case insensitive order like the
+   * headers of messages; the builder copies it on its next modification.
+   */
+  static final class View extends AbstractMap<String, String>
+  {
+    private final Supplier<CompactHeaderMap> _current;
+
+    View(Supplier<CompactHeaderMap> current)
+    {
+      _current = current;
+    }
+
+    CompactHeaderMap frozen()
+    {
+      return _current.get().freeze();
+    }
+
+    @Override
+    public int size()
+    {
+      return _current.get().size();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+      return _current.get().isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+      return _current.get().containsKey(key);
+    }
+
+    @Override
+    public String get(Object key)
+    {
+      return _current.get().get(key);
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet()
+    {
+      return new AbstractSet<Entry<String, String>>()
+      {
+        @Override
+        public int size()
+        {
+          return _current.get().size();
+        }
+
+        @Override
+        public Iterator<Entry<String, String>> iterator()
+        {
+          return frozen().entrySet().iterator();
+        }
+      };
+    }
+  }
+}
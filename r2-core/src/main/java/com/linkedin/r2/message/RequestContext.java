@@ -20,30 +20,44 @@
 
 package com.linkedin.r2.message;
 
-import java.util.Collections;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * RequestContext should not be shared across requests.
  *
+ * Attributes registered as a {@link RequestContextKey} are kept in an array slot and read and written without
+ * locking; the other attributes are kept in a map guarded by the monitor of {@link #getLocalAttrs()}. Both kinds
+ * of attributes are accessible through either the typed or the string based methods, and through the map view.
+ *
  * @author Josh Walker
  * @version $Revision: $
  */
 public class RequestContext
 {
-  private final Map<String, Object> _localAttrs;
+  // Stands for a null attribute value in a slot, where null means no attribute
+  private static final Object NULL_VALUE = new Object();
+
+  private final AtomicReferenceArray<Object> _slots;
+  private final Map<String, Object> _attrs;
+  // We use a map view synchronizing on itself instead of a ConcurrentHashMap because
+  // this class publicly exposes it through getLocalAttrs() and the returned Map
+  // must support null values because there is plenty of code that is using this property.
+  private final LocalAttrs _localAttrs = new LocalAttrs();
 
   /**
    * Construct a new instance with an empty set of attributes.
    */
   public RequestContext()
   {
-    // We use Collections.synchronizedMap() instead of ConcurrentHashMap because
-    // this class publicly exposes the _localAttrs through getLocalAttrs() and
-    // returned Map that must support null values because there is plenty of code
-    // that is using this property.
-    _localAttrs = Collections.synchronizedMap(new HashMap<>());
+    _slots = new AtomicReferenceArray<>(RequestContextKey.count());
+    _attrs = new HashMap<>();
   }
 
   /**
@@ -54,14 +68,20 @@ public class RequestContext
    */
   public RequestContext(RequestContext other)
   {
-    synchronized (other._localAttrs) {
-      _localAttrs = Collections.synchronizedMap(new HashMap<>(other._localAttrs));
+    _slots = new AtomicReferenceArray<>(Math.max(RequestContextKey.count(), other._slots.length()));
+    for (int i = 0; i < other._slots.length(); i++)
+    {
+      _slots.set(i, other._slots.get(i));
+    }
+    synchronized (other._localAttrs)
+    {
+      _attrs = new HashMap<>(other._attrs.size());
+      // Keys registered after the other context was created may have a slot in this one
+      for (Map.Entry<String, Object> entry : other._attrs.entrySet())
+      {
+        putLocalAttr(entry.getKey(), entry.getValue());
+      }
     }
-  }
-
-  private RequestContext(Map<String, Object> localAttrs)
-  {
-    _localAttrs = Collections.synchronizedMap(localAttrs);
   }
 
   /**
@@ -82,7 +102,28 @@ public class RequestContext
    */
   public Object getLocalAttr(String key)
   {
-    return _localAttrs.get(key);
+    final int slot = slotOf(RequestContextKey.forName(key));
+    if (slot >= 0)
+    {
+      return unmask(_slots.get(slot));
+    }
+    synchronized (_localAttrs)
+    {
+      return _attrs.get(key);
+    }
+  }
+
+  /**
+   * Return a specific attribute from this object.
+   *
+   * @param key the key for the attribute to be obtained.
+   * @return the value of the specified attribute, or null if the attribute does not exist.
+   * @throws ClassCastException if the attribute, set by name, is not of the type of the key.
+   */
+  public <T> T getLocalAttr(RequestContextKey<T> key)
+  {
+    final int slot = slotOf(key);
+    return key.cast(slot >= 0 ? unmask(_slots.get(slot)) : getLocalAttr(key.getName()));
   }
 
   /**
@@ -93,7 +134,26 @@ public class RequestContext
    */
   public void putLocalAttr(String key, Object value)
   {
-    _localAttrs.put(key, value);
+    put(key, value);
+  }
+
+  /**
+   * Set the value of a specific attribute in this object.
+   *
+   * @param key the key for the attribute to be set.
+   * @param value the value for the attribute to be set.
+   */
+  public <T> void putLocalAttr(RequestContextKey<T> key, T value)
+  {
+    final int slot = slotOf(key);
+    if (slot >= 0)
+    {
+      _slots.set(slot, mask(value));
+    }
+    else
+    {
+      put(key.getName(), value);
+    }
   }
 
   /**
@@ -104,33 +164,318 @@ public class RequestContext
    */
   public Object removeLocalAttr(String key)
   {
-    return _localAttrs.remove(key);
+    final int slot = slotOf(RequestContextKey.forName(key));
+    if (slot >= 0)
+    {
+      return unmask(_slots.getAndSet(slot, null));
+    }
+    synchronized (_localAttrs)
+    {
+      return _attrs.remove(key);
+    }
+  }
+
+  /**
+   * Remove a specific attribute from this object.
+   *
+   * @param key the key for the attribute to be removed.
+   * @return the previous value of the attribute, or null if the attribute does not exist.
+   * @throws ClassCastException if the attribute, set by name, is not of the type of the key. It is removed anyway.
+   */
+  public <T> T removeLocalAttr(RequestContextKey<T> key)
+  {
+    final int slot = slotOf(key);
+    return key.cast(slot >= 0 ? unmask(_slots.getAndSet(slot, null)) : removeLocalAttr(key.getName()));
   }
 
   @Override
   public RequestContext clone()
   {
-    Map<String, Object> localAttrs = new HashMap<>();
-    localAttrs.putAll(this._localAttrs);
-    return new RequestContext(Collections.synchronizedMap(localAttrs));
+    return new RequestContext(this);
   }
 
   @Override
   public boolean equals(Object o)
   {
+    if (o == this)
+    {
+      return true;
+    }
+    // Compares snapshots taken one after the other rather than locking both contexts, which could deadlock
     return (o instanceof RequestContext) &&
-        ((RequestContext)o)._localAttrs.equals(this._localAttrs);
+        ((RequestContext)o).snapshot().equals(snapshot());
   }
 
   @Override
   public int hashCode()
   {
-    return _localAttrs.hashCode();
+    synchronized (_localAttrs)
+    {
+      return _localAttrs.hashCode();
+    }
   }
 
   @Override
   public String toString()
   {
-    return _localAttrs.toString();
+    synchronized (_localAttrs)
+    {
+      return _localAttrs.toString();
+    }
+  }
+
+  /**
+   * @return a copy of all the attributes
+   */
+  private Map<String, Object> snapshot()
+  {
+    synchronized (_localAttrs)
+    {
+      return new HashMap<>(_localAttrs);
+    }
+  }
+
+  private Object put(String key, Object value)
+  {
+    final int slot = slotOf(RequestContextKey.forName(key));
+    if (slot >= 0)
+    {
+      return unmask(_slots.getAndSet(slot, mask(value)));
+    }
+    synchronized (_localAttrs)
+    {
+      return _attrs.put(key, value);
+    }
+  }
+
+  /**
+   * @return the slot of the given key, or -1 if it is stored in the map, because it is not registered or was
+   *         registered after this context was created
+   */
+  private int slotOf(RequestContextKey<?> key)
+  {
+    return key != null && key.getIndex() >= 0 && key.getIndex() < _slots.length() ? key.getIndex() : -1;
+  }
+
+  private static Object mask(Object value)
+  {
+    return value == null ? NULL_VALUE : value;
+  }
+
+  private static Object unmask(Object value)
+  {
+    return value == NULL_VALUE ? null : value;
+  }
+
+  /**
+   * Map view of all the attributes. Its monitor guards the attributes that are not in a slot.
+   */
+  private class LocalAttrs extends AbstractMap<String, Object>
+  {
+    @Override
+    public Object get(Object key)
+    {
+      return key instanceof String ? getLocalAttr((String) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+      if (!(key instanceof String))
+      {
+        return false;
+      }
+      final int slot = slotOf(RequestContextKey.forName((String) key));
+      if (slot >= 0)
+      {
+        return _slots.get(slot) != null;
+      }
+      synchronized (this)
+      {
+        return _attrs.containsKey(key);
+      }
+    }
+
+    @Override
+    public Object put(String key, Object value)
+    {
+      return RequestContext.this.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key)
+    {
+      return key instanceof String ? removeLocalAttr((String) key) : null;
+    }
+
+    @Override
+    public void clear()
+    {
+      for (int i = 0; i < _slots.length(); i++)
+      {
+        _slots.set(i, null);
+      }
+      synchronized (this)
+      {
+        _attrs.clear();
+      }
+    }
+
+    @Override
+    public synchronized int size()
+    {
+      int size = _attrs.size();
+      for (int i = 0; i < _slots.length(); i++)
+      {
+        if (_slots.get(i) != null)
+        {
+          size++;
+        }
+      }
+      return size;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet()
+    {
+      return new AbstractSet<Entry<String, Object>>()
+      {
+        @Override
+        public int size()
+        {
+          return LocalAttrs.this.size();
+        }
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator()
+        {
+          return new EntryIterator();
+        }
+      };
+    }
+  }
+
+  /**
+   * Iterates over the slots, then over the map. Like the iterators of a synchronized map, it must be used while
+   * holding the monitor of the map view if the attributes can be modified concurrently.
+   */
+  private class EntryIterator implements Iterator<Map.Entry<String, Object>>
+  {
+    private final Iterator<Map.Entry<String, Object>> _attrsIterator = _attrs.entrySet().iterator();
+    private int _nextSlot = -1;
+    private int _lastSlot = -1;
+    private boolean _inAttrs = false;
+
+    private EntryIterator()
+    {
+      advanceSlot();
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return _nextSlot < _slots.length() || _attrsIterator.hasNext();
+    }
+
+    @Override
+    public Map.Entry<String, Object> next()
+    {
+      if (_nextSlot < _slots.length())
+      {
+        _lastSlot = _nextSlot;
+        _inAttrs = false;
+        final SlotEntry entry = new SlotEntry(RequestContextKey.forIndex(_lastSlot).getName(), _lastSlot);
+        advanceSlot();
+        return entry;
+      }
+      if (_attrsIterator.hasNext())
+      {
+        _inAttrs = true;
+        return _attrsIterator.next();
+      }
+      throw new NoSuchElementException();
+    }
+
+    @Override
+    public void remove()
+    {
+      if (_inAttrs)
+      {
+        _attrsIterator.remove();
+      }
+      else if (_lastSlot >= 0)
+      {
+        _slots.set(_lastSlot, null);
+        _lastSlot = -1;
+      }
+      else
+      {
+        throw new IllegalStateException();
+      }
+    }
+
+    private void advanceSlot()
+    {
+      do
+      {
+        _nextSlot++;
+      }
+      while (_nextSlot < _slots.length() && _slots.get(_nextSlot) == null);
+    }
+  }
+
+  private class SlotEntry implements Map.Entry<String, Object>
+  {
+    private final String _name;
+    private final int _slot;
+
+    private SlotEntry(String name, int slot)
+    {
+      _name = name;
+      _slot = slot;
+    }
+
+    @Override
+    public String getKey()
+    {
+      return _name;
+    }
+
+    @Override
+    public Object getValue()
+    {
+      return unmask(_slots.get(_slot));
+    }
+
+    @Override
+    public Object setValue(Object value)
+    {
+      return unmask(_slots.getAndSet(_slot, mask(value)));
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (!(o instanceof Map.Entry))
+      {
+        return false;
+      }
+      final Map.Entry<?, ?> that = (Map.Entry<?, ?>) o;
+      final Object value = getValue();
+      return _name.equals(that.getKey()) && (value == null ? that.getValue() == null : value.equals(that.getValue()));
+    }
+
+    @Override
+    public int hashCode()
+    {
+      final Object value = getValue();
+      return _name.hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public String toString()
+    {
+      return _name + "=" + getValue();
+    }
   }
 }
@@ -0,0 +1,162 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message;
+
+import com.linkedin.util.ArgumentUtil;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A typed key of a {@link RequestContext} attribute.
+ *
+ * Each key is registered once, usually as a constant, and gets its own slot in every {@link RequestContext}
+ * created afterwards: reading or writing the attribute is an array access without locking, whether it is done
+ * through the key or through its name with the string based methods of {@link RequestContext}.
+ *
+ * Since every context allocates the slots of all the registered keys, only the first {@link #MAX_SLOTTED_KEYS}
+ * keys get a slot. The keys created after them are not registered, and their attributes are kept in the map of
+ * the context like the attributes set by name only. Keys are meant to be constants for well known attributes,
+ * not to be created per request.
+ *
+ * @param <T> the type of the attribute value
+ */
+public final class RequestContextKey<T>
+{
+  private static final Logger LOG = LoggerFactory.getLogger(RequestContextKey.class);
+
+  static final int MAX_SLOTTED_KEYS = 64;
+
+  private static final ConcurrentMap<String, RequestContextKey<?>> KEYS = new ConcurrentHashMap<>();
+  private static volatile RequestContextKey<?>[] _keys = new RequestContextKey<?>[0];
+  private static volatile int _count = 0;
+
+  private final String _name;
+  private final Class<?> _type;
+  private final int _index;
+
+  private RequestContextKey(String name, Class<?> type, int index)
+  {
+    _name = name;
+    _type = type;
+    _index = index;
+  }
+
+  /**
+   * Returns the key of the attribute with the given name, registering it if needed and if there are less than
+   * {@link #MAX_SLOTTED_KEYS} registered keys.
+   *
+   * @param name the name of the attribute, as used by the string based methods of {@link RequestContext}
+   * @param type the type of the attribute value
+   * @throws IllegalArgumentException if a key with the same name but a different type is already registered
+   */
+  @SuppressWarnings("unchecked")
+  public static synchronized <T> RequestContextKey<T> of(String name, Class<? super T> type)
+  {
+    ArgumentUtil.notNull(name, "name");
+    ArgumentUtil.notNull(type, "type");
+
+    RequestContextKey<?> key = KEYS.get(name);
+    if (key == null && _count >= MAX_SLOTTED_KEYS)
+    {
+      LOG.warn("Too many request context keys registered, the attribute " + name + " is not given a slot");
+      return new RequestContextKey<>(name, type, -1);
+    }
+    if (key == null)
+    {
+      key = new RequestContextKey<>(name, type, _count);
+      // Visible by name before any RequestContext has a slot for it, so that both APIs agree on where it is stored
+      KEYS.put(name, key);
+      RequestContextKey<?>[] keys = Arrays.copyOf(_keys, _count + 1);
+      keys[_count] = key;
+      _keys = keys;
+      _count++;
+    }
+    else if (key._type != type)
+    {
+      throw new IllegalArgumentException("Request context key " + name + " is already registered with type "
+          + key._type.getName());
+    }
+    return (RequestContextKey<T>) key;
+  }
+
+  /**
+   * @return the registered key with the given name, or null if there is none
+   */
+  static RequestContextKey<?> forName(String name)
+  {
+    return KEYS.get(name);
+  }
+
+  /**
+   * @return the registered key with the given index
+   */
+  static RequestContextKey<?> forIndex(int index)
+  {
+    return _keys[index];
+  }
+
+  /**
+   * @return the number of registered keys, which is the number of slots of a new {@link RequestContext}
+   */
+  static int count()
+  {
+    return _count;
+  }
+
+  public String getName()
+  {
+    return _name;
+  }
+
+  public Class<?> getType()
+  {
+    return _type;
+  }
+
+  /**
+   * @return the index of the slot of this key, or -1 if it has none
+   */
+  int getIndex()
+  {
+    return _index;
+  }
+
+  /**
+   * @return the given attribute value, cast to the type of this key
+   * @throws ClassCastException if the value is not null and not an instance of the type of this key
+   */
+  @SuppressWarnings("unchecked")
+  T cast(Object value)
+  {
+    if (value != null && !_type.isInstance(value))
+    {
+      throw new ClassCastException("Request context attribute " + _name + " is a " + value.getClass().getName()
+          + ", not a " + _type.getName());
+    }
+    return (T) value;
+  }
+
+  @Override
+  public String toString()
+  {
+    return _name;
+  }
+}
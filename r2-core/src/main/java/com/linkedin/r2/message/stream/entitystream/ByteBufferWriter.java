@@ -0,0 +1,97 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message.stream.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.util.ArgumentUtil;
+import java.nio.ByteBuffer;
+
+
+/**
+ * A writer that produces the remaining content of a {@link ByteBuffer} in chunks.
+ *
+ * If the buffer is backed by an accessible array, the chunks are views over that array and no copy is made;
+ * the caller must not modify the buffer content afterwards. Otherwise, e.g. for direct or read-only buffers,
+ * each chunk is copied as it is written, so at most one chunk is held on heap at a time.
+ *
+ * The position and limit of the given buffer are left untouched.
+ */
+public class ByteBufferWriter implements Writer
+{
+  public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+  private final ByteBuffer _buffer;
+  private final int _chunkSize;
+  private WriteHandle _wh;
+
+  public ByteBufferWriter(ByteBuffer buffer)
+  {
+    this(buffer, DEFAULT_CHUNK_SIZE);
+  }
+
+  public ByteBufferWriter(ByteBuffer buffer, int chunkSize)
+  {
+    ArgumentUtil.notNull(buffer, "buffer");
+    ArgumentUtil.checkArgument(chunkSize > 0, "chunkSize");
+    _buffer = buffer.duplicate();
+    _chunkSize = chunkSize;
+  }
+
+  @Override
+  public void onInit(WriteHandle wh)
+  {
+    _wh = wh;
+  }
+
+  @Override
+  public void onWritePossible()
+  {
+    while (_wh.remaining() > 0)
+    {
+      if (!_buffer.hasRemaining())
+      {
+        _wh.done();
+        return;
+      }
+      _wh.write(nextChunk());
+    }
+  }
+
+  @Override
+  public void onAbort(Throwable e)
+  {
+    // do nothing
+  }
+
+  private ByteString nextChunk()
+  {
+    final int length = Math.min(_chunkSize, _buffer.remaining());
+    final ByteString chunk;
+    if (_buffer.hasArray())
+    {
+      chunk = ByteString.unsafeWrap(_buffer.array(), _buffer.arrayOffset() + _buffer.position(), length);
+    }
+    else
+    {
+      ByteBuffer slice = _buffer.slice();
+      slice.limit(length);
+      chunk = ByteString.copy(slice);
+    }
+    _buffer.position(_buffer.position() + length);
+    return chunk;
+  }
+}
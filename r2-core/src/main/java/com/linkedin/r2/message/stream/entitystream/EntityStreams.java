@@ -17,6 +17,7 @@
 package com.linkedin.r2.message.stream.entitystream;
 
 import com.linkedin.r2.message.stream.entitystream.adapter.EntityStreamAdapters;
+import java.nio.channels.FileChannel;
 
 
 /**
@@ -44,4 +45,19 @@ public final class EntityStreams
     return EntityStreamAdapters.fromGenericEntityStream(
         com.linkedin.entitystream.EntityStreams.newEntityStream(EntityStreamAdapters.toGenericWriter(writer)));
   }
+
+  /**
+   * The method to create a new EntityStream whose content is a region of a file. Transports that support it
+   * send such a stream to the socket without copying the content through the heap; other readers consume it
+   * as a regular stream. The stream takes ownership of the channel.
+   *
+   * @param channel the channel of the file
+   * @param position the position in the channel of the first byte of the region
+   * @param count the number of bytes in the region
+   * @return an instance of {@link FileRegionEntityStream}
+   */
+  public static EntityStream newFileRegionEntityStream(FileChannel channel, long position, long count)
+  {
+    return new FileRegionEntityStream(channel, position, count);
+  }
 }
@@ -0,0 +1,110 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message.stream.entitystream;
+
+import java.nio.channels.FileChannel;
+
+
+/**
+ * An {@link EntityStream} whose content is a region of a {@link FileChannel}.
+ *
+ * The stream behaves like any other stream, producing the region through a {@link FileRegionWriter}. In addition,
+ * a transport that is able to send the region to the socket without copying it through the heap, e.g. with
+ * sendfile, may {@link #claim()} the stream as long as nobody has observed or started reading it. A claimed stream
+ * rejects any later reader or observer, and the transport becomes responsible for closing the channel.
+ *
+ * Instances are created with {@link EntityStreams#newFileRegionEntityStream(FileChannel, long, long)}.
+ */
+public final class FileRegionEntityStream implements EntityStream
+{
+  private final FileChannel _channel;
+  private final long _position;
+  private final long _count;
+  private final EntityStream _entityStream;
+
+  private final Object _lock = new Object();
+  private boolean _used = false;
+  private boolean _claimed = false;
+
+  FileRegionEntityStream(FileChannel channel, long position, long count)
+  {
+    _channel = channel;
+    _position = position;
+    _count = count;
+    _entityStream = EntityStreams.newEntityStream(new FileRegionWriter(channel, position, count));
+  }
+
+  public FileChannel getChannel()
+  {
+    return _channel;
+  }
+
+  public long getPosition()
+  {
+    return _position;
+  }
+
+  public long getCount()
+  {
+    return _count;
+  }
+
+  /**
+   * Claims the file region for direct transfer.
+   *
+   * @return true if the caller now owns the region and its channel; false if the stream has already been
+   *         observed, read or claimed, in which case it must be consumed as a regular stream.
+   */
+  public boolean claim()
+  {
+    synchronized (_lock)
+    {
+      if (_used || _claimed)
+      {
+        return false;
+      }
+      _claimed = true;
+      return true;
+    }
+  }
+
+  @Override
+  public void addObserver(Observer o)
+  {
+    use();
+    _entityStream.addObserver(o);
+  }
+
+  @Override
+  public void setReader(Reader r)
+  {
+    use();
+    _entityStream.setReader(r);
+  }
+
+  private void use()
+  {
+    synchronized (_lock)
+    {
+      if (_claimed)
+      {
+        throw new IllegalStateException("The file region has been claimed for direct transfer");
+      }
+      _used = true;
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message.stream.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.util.ArgumentUtil;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A writer that produces the content of a region of a {@link FileChannel}. Each chunk is read from the
+ * channel directly into the array backing the written {@link ByteString}, so the content is copied once
+ * from the file and never again by the writer.
+ *
+ * The writer takes ownership of the channel and closes it once the region has been fully written or
+ * the stream is aborted.
+ *
+ * Transports that can send a file region directly to the socket should not read the stream through this
+ * writer; see {@link FileRegionEntityStream}.
+ */
+public class FileRegionWriter implements Writer
+{
+  private static final Logger LOG = LoggerFactory.getLogger(FileRegionWriter.class);
+
+  public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+  private final FileChannel _channel;
+  private final long _end;
+  private final int _chunkSize;
+  private long _position;
+  private WriteHandle _wh;
+
+  public FileRegionWriter(FileChannel channel, long position, long count)
+  {
+    this(channel, position, count, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * @param channel the channel to read from
+   * @param position the position in the channel of the first byte to write
+   * @param count the number of bytes to write
+   * @param chunkSize the maximum size of each written chunk
+   */
+  public FileRegionWriter(FileChannel channel, long position, long count, int chunkSize)
+  {
+    ArgumentUtil.notNull(channel, "channel");
+    ArgumentUtil.checkArgument(position >= 0, "position");
+    ArgumentUtil.checkArgument(count >= 0, "count");
+    ArgumentUtil.checkArgument(chunkSize > 0, "chunkSize");
+    _channel = channel;
+    _position = position;
+    _end = position + count;
+    _chunkSize = chunkSize;
+  }
+
+  @Override
+  public void onInit(WriteHandle wh)
+  {
+    _wh = wh;
+  }
+
+  @Override
+  public void onWritePossible()
+  {
+    try
+    {
+      while (_wh.remaining() > 0)
+      {
+        if (_position >= _end)
+        {
+          close();
+          _wh.done();
+          return;
+        }
+        _wh.write(readChunk());
+      }
+    }
+    catch (IOException e)
+    {
+      close();
+      _wh.error(e);
+    }
+  }
+
+  @Override
+  public void onAbort(Throwable e)
+  {
+    close();
+  }
+
+  private ByteString readChunk() throws IOException
+  {
+    final byte[] bytes = new byte[(int) Math.min(_chunkSize, _end - _position)];
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining())
+    {
+      int read = _channel.read(buffer, _position);
+      if (read < 0)
+      {
+        throw new EOFException("Reached end of file at position " + _position + " before end of region at " + _end);
+      }
+      _position += read;
+    }
+    return ByteString.unsafeWrap(bytes);
+  }
+
+  private void close()
+  {
+    try
+    {
+      _channel.close();
+    }
+    catch (IOException e)
+    {
+      LOG.warn("Failed to close file channel", e);
+    }
+  }
+}
@@ -34,6 +34,11 @@ class ByteStringToGenericEntityStream implements com.linkedin.entitystream.Entit
     _entityStream = entityStream;
   }
 
+  EntityStream getEntityStream()
+  {
+    return _entityStream;
+  }
+
   @Override
   public void addObserver(Observer<? super ByteString> o)
   {
@@ -34,6 +34,11 @@ public class EntityStreamAdapters
    */
   public static EntityStream fromGenericEntityStream(com.linkedin.entitystream.EntityStream<ByteString> entityStream)
   {
+    if (entityStream instanceof ByteStringToGenericEntityStream)
+    {
+      // Unwrap instead of stacking adapters, so that the original stream, e.g. a FileRegionEntityStream, is preserved
+      return ((ByteStringToGenericEntityStream) entityStream).getEntityStream();
+    }
     return new GenericToByteStringEntityStream(entityStream);
   }
 
@@ -42,6 +47,10 @@ public class EntityStreamAdapters
    */
   public static com.linkedin.entitystream.EntityStream<ByteString> toGenericEntityStream(EntityStream entityStream)
   {
+    if (entityStream instanceof GenericToByteStringEntityStream)
+    {
+      return ((GenericToByteStringEntityStream) entityStream).getEntityStream();
+    }
     return new ByteStringToGenericEntityStream(entityStream);
   }
 
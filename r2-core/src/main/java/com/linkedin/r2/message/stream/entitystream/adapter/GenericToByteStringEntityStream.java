@@ -34,6 +34,11 @@ class GenericToByteStringEntityStream implements EntityStream
     _entityStream = entityStream;
   }
 
+  com.linkedin.entitystream.EntityStream<ByteString> getEntityStream()
+  {
+    return _entityStream;
+  }
+
   @Override
   public void addObserver(Observer o)
   {
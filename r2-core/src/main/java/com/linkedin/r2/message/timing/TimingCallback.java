@@ -164,8 +164,8 @@ public class TimingCallback<T> implements Callback<T>
         throw new IllegalStateException("Missing request context");
       }
 
-      TimingImportance timingImportanceThreshold = (TimingImportance) _requestContext
-          .getLocalAttr(TimingContextUtil.TIMING_IMPORTANCE_THRESHOLD_KEY_NAME);
+      TimingImportance timingImportanceThreshold =
+          _requestContext.getLocalAttr(TimingContextUtil.TIMING_IMPORTANCE_THRESHOLD_KEY);
 
       // If a timing importance threshold is specified, filter out keys excluded by it
       if (timingImportanceThreshold != null)
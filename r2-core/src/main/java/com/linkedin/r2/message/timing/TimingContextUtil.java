@@ -17,6 +17,7 @@
 package com.linkedin.r2.message.timing;
 
 import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.RequestContextKey;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
@@ -40,19 +41,25 @@ public class TimingContextUtil
   // Used to temporarily disable latency instrumentation for scatter-gather requests
   public static final String TIMINGS_DISABLED_KEY_NAME = "timingsDisabled";
 
+  public static final RequestContextKey<Map<TimingKey, TimingContext>> TIMINGS_KEY =
+      RequestContextKey.of(TIMINGS_KEY_NAME, Map.class);
+  public static final RequestContextKey<TimingImportance> TIMING_IMPORTANCE_THRESHOLD_KEY =
+      RequestContextKey.of(TIMING_IMPORTANCE_THRESHOLD_KEY_NAME, TimingImportance.class);
+  public static final RequestContextKey<Boolean> TIMINGS_DISABLED_KEY =
+      RequestContextKey.of(TIMINGS_DISABLED_KEY_NAME, Boolean.class);
+
   /**
    * Looks for all timing records in the RequestContext, initiate one if not present.
    * @param context RequestContext for the request
    * @return URI for target service hint, or null if no hint is present in the RequestContext
    */
-  @SuppressWarnings("unchecked")
   public static Map<TimingKey, TimingContext> getTimingsMap(RequestContext context)
   {
-    Map<TimingKey, TimingContext> timings = (Map<TimingKey, TimingContext>)context.getLocalAttr(TIMINGS_KEY_NAME);
+    Map<TimingKey, TimingContext> timings = context.getLocalAttr(TIMINGS_KEY);
     if (timings == null)
     {
       timings = new ConcurrentHashMap<>();
-      context.putLocalAttr(TIMINGS_KEY_NAME, timings);
+      context.putLocalAttr(TIMINGS_KEY, timings);
     }
 
     return timings;
@@ -179,8 +186,7 @@ public class TimingContextUtil
    */
   static boolean checkTimingImportanceThreshold(RequestContext requestContext, TimingKey timingKey)
   {
-    TimingImportance timingImportanceThreshold = (TimingImportance) requestContext.getLocalAttr(
-        TIMING_IMPORTANCE_THRESHOLD_KEY_NAME);
+    TimingImportance timingImportanceThreshold = requestContext.getLocalAttr(TIMING_IMPORTANCE_THRESHOLD_KEY);
     return timingImportanceThreshold == null || timingKey.getTimingImportance().isAtLeast(timingImportanceThreshold);
   }
 
@@ -191,8 +197,7 @@ public class TimingContextUtil
    */
   private static boolean areTimingsDisabled(RequestContext requestContext)
   {
-    final Object timingsDisabled = requestContext.getLocalAttr(TIMINGS_DISABLED_KEY_NAME);
-    return timingsDisabled instanceof Boolean && (boolean) timingsDisabled;
+    return Boolean.TRUE.equals(requestContext.getLocalAttr(TIMINGS_DISABLED_KEY));
   }
 
   /**
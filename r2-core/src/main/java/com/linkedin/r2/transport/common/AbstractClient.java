@@ -88,7 +88,7 @@ public abstract class AbstractClient implements Client
     StreamRequest streamRequest = Messages.toStreamRequest(request);
     // IS_FULL_REQUEST flag, if set true, would result in the request being sent without using chunked transfer encoding
     // This is needed as the legacy R2 server (before 2.8.0) does not support chunked transfer encoding.
-    requestContext.putLocalAttr(R2Constants.IS_FULL_REQUEST, true);
+    requestContext.putLocalAttr(R2Constants.IS_FULL_REQUEST_KEY, true);
 
     boolean addContentLengthHeader = !HTTP_HEAD_METHOD.equalsIgnoreCase(request.getMethod());
     // here we add back the content-length header for the response because some client code depends on this header
@@ -0,0 +1,113 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.common.bridge.server;
+
+import com.linkedin.r2.RetriableRequestException;
+import com.linkedin.r2.message.Messages;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestException;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.entitystream.DrainReader;
+import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import com.linkedin.r2.util.PriorityRequestScheduler;
+import java.util.Collections;
+import java.util.Map;
+
+
+/**
+ * A {@link TransportDispatcher} decorator that dispatches requests on a {@link PriorityRequestScheduler}, so
+ * that {@link RequestPriority#CRITICAL} requests are served first and {@link RequestPriority#BATCH} requests
+ * are shed first when the server is overloaded. The priority of each request is put in its
+ * {@link RequestContext} under {@link RequestPriority#CONTEXT_KEY}.
+ *
+ * Shed requests are answered with a 503 response carrying a Retry-After header. As for the requests rejected by
+ * a {@link com.linkedin.r2.filter.transport.ServerConcurrencyLimitFilter}, the error is caused by a
+ * {@link RetriableRequestException}, so that a {@link com.linkedin.r2.filter.transport.ServerRetryFilter} lets
+ * the clients retry them on another host.
+ *
+ * @see RequestPriority#of
+ */
+public class PriorityTransportDispatcher implements TransportDispatcher
+{
+  public static final int DEFAULT_RETRY_AFTER_SECONDS = 1;
+
+  private final TransportDispatcher _transportDispatcher;
+  private final PriorityRequestScheduler _scheduler;
+  private final int _retryAfterSeconds;
+
+  public PriorityTransportDispatcher(TransportDispatcher transportDispatcher, PriorityRequestScheduler scheduler)
+  {
+    this(transportDispatcher, scheduler, DEFAULT_RETRY_AFTER_SECONDS);
+  }
+
+  /**
+   * @param transportDispatcher the dispatcher to which the requests are delegated
+   * @param scheduler the scheduler running the requests
+   * @param retryAfterSeconds the delay after which the clients of shed requests are told to retry
+   */
+  public PriorityTransportDispatcher(TransportDispatcher transportDispatcher, PriorityRequestScheduler scheduler,
+      int retryAfterSeconds)
+  {
+    _transportDispatcher = transportDispatcher;
+    _scheduler = scheduler;
+    _retryAfterSeconds = retryAfterSeconds;
+  }
+
+  @Override
+  public void handleRestRequest(RestRequest req, Map<String, String> wireAttrs, RequestContext requestContext,
+      TransportCallback<RestResponse> callback)
+  {
+    final RequestPriority priority = RequestPriority.of(req, requestContext);
+    requestContext.putLocalAttr(RequestPriority.CONTEXT_KEY, priority);
+    _scheduler.execute(priority,
+        () -> _transportDispatcher.handleRestRequest(req, wireAttrs, requestContext, callback),
+        () -> callback.onResponse(TransportResponseImpl.error(shedError(priority), Collections.emptyMap())));
+  }
+
+  @Override
+  public void handleStreamRequest(StreamRequest req, Map<String, String> wireAttrs,
+      RequestContext requestContext, TransportCallback<StreamResponse> callback)
+  {
+    final RequestPriority priority = RequestPriority.of(req, requestContext);
+    requestContext.putLocalAttr(RequestPriority.CONTEXT_KEY, priority);
+    _scheduler.execute(priority,
+        () -> _transportDispatcher.handleStreamRequest(req, wireAttrs, requestContext, callback),
+        () ->
+        {
+          // The request entity will never be read
+          req.getEntityStream().setReader(new DrainReader());
+          callback.onResponse(TransportResponseImpl.error(Messages.toStreamException(shedError(priority)),
+              Collections.emptyMap()));
+        });
+  }
+
+  private RestException shedError(RequestPriority priority)
+  {
+    final String message = "Server is overloaded, shed " + priority + " request";
+    final RestResponse response = new RestResponseBuilder()
+        .setStatus(HttpConstants.SERVICE_UNAVAILABLE)
+        .setHeader(HttpConstants.RETRY_AFTER, Integer.toString(_retryAfterSeconds))
+        .build();
+    return new RestException(response, message, new RetriableRequestException(message), false);
+  }
+}
@@ -0,0 +1,80 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.common.bridge.server;
+
+import com.linkedin.r2.message.Request;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.RequestContextKey;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+
+
+/**
+ * Priority class of a request on the server, from the highest to the lowest. Under overload, requests of a
+ * higher priority are served first and requests of the lowest priority are shed first.
+ *
+ * @see PriorityTransportDispatcher
+ */
+public enum RequestPriority
+{
+  /**
+   * User-facing requests which must be served even when the server is overloaded.
+   */
+  CRITICAL,
+
+  /**
+   * Requests without a priority.
+   */
+  NORMAL,
+
+  /**
+   * Batch or offline requests which can be retried later.
+   */
+  BATCH;
+
+  /**
+   * Attribute of the {@link RequestContext} holding the priority of a request, which takes precedence over the
+   * {@link HttpConstants#HEADER_REQUEST_PRIORITY} header.
+   */
+  public static final RequestContextKey<RequestPriority> CONTEXT_KEY =
+      RequestContextKey.of("R2_REQUEST_PRIORITY", RequestPriority.class);
+
+  /**
+   * @return the priority of a request, taken from its request context or its
+   *         {@link HttpConstants#HEADER_REQUEST_PRIORITY} header, or {@link #NORMAL} if it has none or an
+   *         unknown one.
+   */
+  public static RequestPriority of(Request request, RequestContext requestContext)
+  {
+    final RequestPriority priority = requestContext.getLocalAttr(CONTEXT_KEY);
+    if (priority != null)
+    {
+      return priority;
+    }
+    final String header = request.getHeader(HttpConstants.HEADER_REQUEST_PRIORITY);
+    if (header != null)
+    {
+      for (RequestPriority value : values())
+      {
+        if (value.name().equalsIgnoreCase(header.trim()))
+        {
+          return value;
+        }
+      }
+    }
+    return NORMAL;
+  }
+}
@@ -20,6 +20,8 @@
 
 package com.linkedin.r2.transport.http.client;
 
+import com.linkedin.r2.util.HashedWheelTimer;
+
 
 /**
  * @author Ang Xu
@@ -39,4 +41,18 @@ public abstract class AbstractJmxManager implements PoolStatsProviderAware
     {
     }
   };
+
+  /**
+   * Called when a client factory starts using a {@link HashedWheelTimer} it created for the request timeouts.
+   */
+  public void onHashedWheelTimerCreate(HashedWheelTimer timer)
+  {
+  }
+
+  /**
+   * Called when the client factory which created the {@link HashedWheelTimer} stops it.
+   */
+  public void onHashedWheelTimerShutdown(HashedWheelTimer timer)
+  {
+  }
 }
@@ -0,0 +1,142 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client;
+
+import com.linkedin.util.ArgumentUtil;
+
+
+/**
+ * An {@link AsyncPoolSizingPolicy} that grows the effective maximum pool size quickly when checkouts
+ * queue up and shrinks it slowly when the pool is under-utilized.
+ *
+ * <ul>
+ *   <li>The pool is considered congested when it is saturated at its effective maximum and either waiters
+ *   are queued or the average checkout latency of the interval exceeds the target wait time. A congested
+ *   pool grows multiplicatively by the growth factor.</li>
+ *   <li>The pool is considered under-utilized when there are no waiters and the peak number of checked out
+ *   objects stayed below the low utilization ratio of the effective maximum. An under-utilized pool shrinks
+ *   by the shrink step, but never below the observed peak.</li>
+ *   <li>No shrink happens within the cool-down period following any change, which prevents the size from
+ *   oscillating around a bursty load.</li>
+ * </ul>
+ *
+ * Instances keep per-pool state and must not be shared between pools.
+ */
+public class AdaptiveAsyncPoolSizingPolicy implements AsyncPoolSizingPolicy
+{
+  public static final long DEFAULT_EVALUATION_INTERVAL_MILLIS = 1000;
+  public static final long DEFAULT_TARGET_WAIT_TIME_MILLIS = 5;
+  public static final double DEFAULT_GROWTH_FACTOR = 1.5;
+  public static final int DEFAULT_SHRINK_STEP = 1;
+  public static final double DEFAULT_LOW_UTILIZATION = 0.5;
+  public static final long DEFAULT_COOLDOWN_MILLIS = 30000;
+
+  private final long _evaluationIntervalMillis;
+  private final long _targetWaitTimeMillis;
+  private final double _growthFactor;
+  private final int _shrinkStep;
+  private final double _lowUtilization;
+  private final long _cooldownMillis;
+
+  private long _lastChangeTime = Long.MIN_VALUE;
+
+  public AdaptiveAsyncPoolSizingPolicy()
+  {
+    this(DEFAULT_EVALUATION_INTERVAL_MILLIS, DEFAULT_TARGET_WAIT_TIME_MILLIS, DEFAULT_GROWTH_FACTOR,
+        DEFAULT_SHRINK_STEP, DEFAULT_LOW_UTILIZATION, DEFAULT_COOLDOWN_MILLIS);
+  }
+
+  /**
+   * @param evaluationIntervalMillis interval between two evaluations of the pool
+   * @param targetWaitTimeMillis checkout latency above which the pool is considered congested
+   * @param growthFactor multiplier applied to the effective maximum size when growing; must be greater than 1
+   * @param shrinkStep number of objects removed from the effective maximum size when shrinking
+   * @param lowUtilization ratio of peak checked out objects to the effective maximum size below which the
+   *                       pool is considered under-utilized; must be within (0, 1]
+   * @param cooldownMillis minimum time after a change before the pool is allowed to shrink
+   */
+  public AdaptiveAsyncPoolSizingPolicy(long evaluationIntervalMillis,
+      long targetWaitTimeMillis,
+      double growthFactor,
+      int shrinkStep,
+      double lowUtilization,
+      long cooldownMillis)
+  {
+    ArgumentUtil.checkArgument(evaluationIntervalMillis > 0, "evaluationIntervalMillis");
+    ArgumentUtil.checkArgument(targetWaitTimeMillis >= 0, "targetWaitTimeMillis");
+    ArgumentUtil.checkArgument(growthFactor > 1, "growthFactor");
+    ArgumentUtil.checkArgument(shrinkStep > 0, "shrinkStep");
+    ArgumentUtil.checkArgument(lowUtilization > 0 && lowUtilization <= 1, "lowUtilization");
+    ArgumentUtil.checkArgument(cooldownMillis >= 0, "cooldownMillis");
+
+    _evaluationIntervalMillis = evaluationIntervalMillis;
+    _targetWaitTimeMillis = targetWaitTimeMillis;
+    _growthFactor = growthFactor;
+    _shrinkStep = shrinkStep;
+    _lowUtilization = lowUtilization;
+    _cooldownMillis = cooldownMillis;
+  }
+
+  @Override
+  public long getEvaluationIntervalMillis()
+  {
+    return _evaluationIntervalMillis;
+  }
+
+  @Override
+  public int getMaxSize(Sample sample)
+  {
+    final int current = sample.getCurrentMaxSize();
+    final long now = sample.getTimeMillis();
+
+    if (isCongested(sample))
+    {
+      int grown = Math.min(sample.getConfiguredMaxSize(), Math.max(current + 1, (int) Math.ceil(current * _growthFactor)));
+      if (grown > current)
+      {
+        _lastChangeTime = now;
+      }
+      return Math.max(grown, current);
+    }
+
+    if (_lastChangeTime != Long.MIN_VALUE && now - _lastChangeTime < _cooldownMillis)
+    {
+      return current;
+    }
+
+    if (sample.getWaiters() == 0 && sample.getMaxCheckedOut() < current * _lowUtilization)
+    {
+      int shrunk = Math.max(sample.getMaxCheckedOut(), current - _shrinkStep);
+      if (shrunk < current)
+      {
+        _lastChangeTime = now;
+        return shrunk;
+      }
+    }
+    return current;
+  }
+
+  private boolean isCongested(Sample sample)
+  {
+    if (sample.getPoolSize() < sample.getCurrentMaxSize())
+    {
+      // Checkouts are waiting on creations that are already allowed, a larger pool would not help
+      return false;
+    }
+    return sample.getWaiters() > 0 || sample.getAverageWaitTime() > _targetWaitTimeMillis;
+  }
+}
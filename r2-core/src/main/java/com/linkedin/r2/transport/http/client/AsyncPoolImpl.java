@@ -68,7 +68,9 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
   private final ScheduledExecutorService _timeoutExecutor;
   private final int _minSize;
   private volatile ScheduledFuture<?> _objectTimeoutFuture;
+  private volatile ScheduledFuture<?> _sizingFuture;
   private final RateLimiter _rateLimiter;
+  private final AsyncPoolSizingPolicy _sizingPolicy;
 
   public static final int MIN_WAITER_TIMEOUT = 300;
   public static final int MAX_WAITER_TIMEOUT = 1000;
@@ -86,6 +88,14 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
   // Including idle, checked out, and creations/destructions in progress
   private int _poolSize = 0;
   private int _checkedOut = 0;
+  // Maximum size currently enforced, adjusted by the sizing policy within [max(1, _minSize), _maxSize].
+  // Only written while holding the lock but read without it by the stats tracker.
+  private volatile int _effectiveMaxSize;
+  // Checkout activity since the last evaluation of the sizing policy
+  private int _sizingMaxCheckedOut = 0;
+  private int _sizingCheckouts = 0;
+  private long _sizingTotalWaitTime = 0;
+  private long _sizingMaxWaitTime = 0;
   // Unused objects live here, sorted by age.
   // The first object is the least recently added object.
   private final Deque<TimedObject<T>> _idle = new LinkedList<>();
@@ -224,15 +234,45 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       RateLimiter rateLimiter,
       Clock clock,
       LongTracker waitTimeTracker)
+  {
+    this(name, lifecycle, maxSize, idleTimeout, waiterTimeout, timeoutExecutor, maxWaiters, strategy, minSize,
+        rateLimiter, clock, waitTimeTracker, NoopAsyncPoolSizingPolicy.instance());
+  }
+
+  /**
+   * Creates an AsyncPoolImpl whose maximum size is adjusted at runtime by the given
+   * {@link AsyncPoolSizingPolicy}. The configured maxSize is used as the initial maximum
+   * size and remains the upper bound of any adjustment; minSize remains the lower bound.
+   *
+   * @param sizingPolicy the policy used to adjust the maximum pool size. Use
+   *                     {@link NoopAsyncPoolSizingPolicy} to always enforce maxSize.
+   * @see #AsyncPoolImpl(String, Lifecycle, int, long, long, ScheduledExecutorService, int, Strategy, int,
+   *      RateLimiter, Clock, LongTracker)
+   */
+  public AsyncPoolImpl(String name,
+      Lifecycle<T> lifecycle,
+      int maxSize,
+      long idleTimeout,
+      long waiterTimeout,
+      ScheduledExecutorService timeoutExecutor,
+      int maxWaiters,
+      Strategy strategy,
+      int minSize,
+      RateLimiter rateLimiter,
+      Clock clock,
+      LongTracker waitTimeTracker,
+      AsyncPoolSizingPolicy sizingPolicy)
   {
     ArgumentUtil.notNull(lifecycle, "lifecycle");
     ArgumentUtil.notNull(timeoutExecutor, "timeoutExecutor");
     ArgumentUtil.notNull(strategy, "strategy");
     ArgumentUtil.notNull(rateLimiter, "rateLimiter");
+    ArgumentUtil.notNull(sizingPolicy, "sizingPolicy");
 
     _poolName = name + "/" + Integer.toHexString(hashCode());
     _lifecycle = lifecycle;
     _maxSize = maxSize;
+    _effectiveMaxSize = maxSize;
     _idleTimeout = idleTimeout;
     _waiterTimeout = waiterTimeout;
     _creationTimeout = DEFAULT_OBJECT_CREATION_TIMEOUT; // TODO: expose this through cfg2
@@ -241,10 +281,11 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     _strategy = strategy;
     _minSize = minSize;
     _rateLimiter = rateLimiter;
+    _sizingPolicy = sizingPolicy;
     _clock = clock;
     _statsTracker = new AsyncPoolStatsTracker(
         () -> _lifecycle.getStats(),
-        () -> _maxSize,
+        () -> _effectiveMaxSize,
         () -> _minSize,
         () -> {
           synchronized (_lock) {
@@ -294,6 +335,12 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
           }
         }, freq, freq, TimeUnit.MILLISECONDS);
       }
+      long sizingInterval = _sizingPolicy.getEvaluationIntervalMillis();
+      if (sizingInterval > 0)
+      {
+        _sizingFuture = _timeoutExecutor.scheduleAtFixedRate(this::resize, sizingInterval, sizingInterval,
+            TimeUnit.MILLISECONDS);
+      }
     }
 
     // Make the minimum required number of connections now
@@ -405,7 +452,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
         synchronized (_lock)
         {
           _checkedOut++;
-          _statsTracker.sampleMaxCheckedOut();
+          sampleMaxCheckedOut();
         }
         callbackWithTracking.onSuccess(rawObj);
         return () -> false;
@@ -484,7 +531,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       else
       {
         _checkedOut++;
-        _statsTracker.sampleMaxCheckedOut();
+        sampleMaxCheckedOut();
       }
       shutdown = checkShutdownComplete();
     }
@@ -609,7 +656,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     {
       if (_state == State.RUNNING)
       {
-        if (_poolSize >= _maxSize)
+        if (_poolSize >= _effectiveMaxSize)
         {
           // If we pass up an opportunity to create an object due to full pool, the next
           // timeout is not necessarily caused by any previous creation failure.  Need to
@@ -739,6 +786,95 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     });
   }
 
+  /**
+   * This method must be called while holding the lock.
+   */
+  private void sampleMaxCheckedOut()
+  {
+    _statsTracker.sampleMaxCheckedOut();
+    _sizingMaxCheckedOut = Math.max(_sizingMaxCheckedOut, _checkedOut);
+  }
+
+  /**
+   * This method must be called while holding the lock.
+   */
+  private void trackWaitTime(long waitTime)
+  {
+    _statsTracker.trackWaitTime(waitTime);
+    _statsTracker.sampleMaxWaitTime(waitTime);
+    _sizingCheckouts++;
+    _sizingTotalWaitTime += waitTime;
+    _sizingMaxWaitTime = Math.max(_sizingMaxWaitTime, waitTime);
+  }
+
+  /**
+   * Evaluates the sizing policy and applies the new maximum size. Growing the pool initiates
+   * creations for the queued waiters; shrinking it destroys the idle objects above the new
+   * maximum. Checked out objects are left alone, and go back to the idle queue or to a waiter
+   * when returned: the pool only shrinks further as objects are disposed or time out idle,
+   * since no object is created while the pool is at or above its maximum.
+   */
+  private void resize()
+  {
+    final AsyncPoolSizingPolicy.Sample sample;
+    synchronized (_lock)
+    {
+      if (_state != State.RUNNING)
+      {
+        return;
+      }
+      sample = new AsyncPoolSizingPolicy.Sample(_clock.currentTimeMillis(), _maxSize, _effectiveMaxSize, _minSize,
+          _poolSize, _checkedOut, _idle.size(), _waiters.size(), _sizingMaxCheckedOut, _sizingCheckouts,
+          _sizingTotalWaitTime, _sizingMaxWaitTime);
+      _sizingMaxCheckedOut = _checkedOut;
+      _sizingCheckouts = 0;
+      _sizingTotalWaitTime = 0;
+      _sizingMaxWaitTime = 0;
+    }
+
+    final int newMaxSize;
+    try
+    {
+      newMaxSize = Math.min(_maxSize, Math.max(Math.max(1, _minSize), _sizingPolicy.getMaxSize(sample)));
+    }
+    catch (Exception e)
+    {
+      LOG.error(_poolName + ": failed to evaluate pool sizing policy", e);
+      return;
+    }
+
+    int creates = 0;
+    List<T> excess = new ArrayList<>();
+    synchronized (_lock)
+    {
+      if (_state != State.RUNNING || newMaxSize == _effectiveMaxSize)
+      {
+        return;
+      }
+      _effectiveMaxSize = newMaxSize;
+      // Each waiter queued while the pool was full can now trigger one creation
+      while (creates < _waiters.size() && shouldCreate())
+      {
+        creates++;
+      }
+      for (int i = _poolSize - newMaxSize; i > 0 && !_idle.isEmpty(); i--)
+      {
+        // The head of the idle queue is the least recently returned object
+        excess.add(_idle.poll().get());
+      }
+    }
+
+    LOG.debug("{}: adjusted maximum pool size to {} based on {}", new Object[]{ _poolName, newMaxSize, sample });
+    for (T obj : excess)
+    {
+      destroy(obj, false);
+    }
+    for (int i = 0; i < creates; i++)
+    {
+      create();
+    }
+  }
+
   private void timeoutObjects()
   {
     Collection<T> expiredObjects = getExpiredObjects();
@@ -816,6 +952,11 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     {
       future.cancel(false);
     }
+    ScheduledFuture<?> sizingFuture = _sizingFuture;
+    if (sizingFuture != null)
+    {
+      sizingFuture.cancel(false);
+    }
 
     LOG.info("{}: {}", _poolName, "shutdown complete");
 
@@ -902,8 +1043,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       long waitTime = _clock.currentTimeMillis() - _startTime;
       synchronized (_lock)
       {
-        _statsTracker.trackWaitTime(waitTime);
-        _statsTracker.sampleMaxWaitTime(waitTime);
+        trackWaitTime(waitTime);
       }
       _callback.onError(e);
     }
@@ -914,8 +1054,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       long waitTime = _clock.currentTimeMillis() - _startTime;
       synchronized (_lock)
       {
-        _statsTracker.trackWaitTime(waitTime);
-        _statsTracker.sampleMaxWaitTime(waitTime);
+        trackWaitTime(waitTime);
       }
       _callback.onSuccess(result);
     }
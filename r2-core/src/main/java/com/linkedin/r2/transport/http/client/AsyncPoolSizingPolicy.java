@@ -0,0 +1,197 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client;
+
+/**
+ * Decides the effective maximum size of an {@link AsyncPoolImpl} at runtime. The pool periodically
+ * hands the policy a {@link Sample} of what happened since the previous evaluation, and the policy
+ * answers with the maximum size the pool should enforce until the next evaluation.
+ *
+ * The returned value is always clamped by the pool to the range [max(1, minSize), configured maxSize],
+ * so the configured maximum remains a hard ceiling.
+ *
+ * Implementations are invoked from a single scheduler thread and never while the pool lock is held.
+ */
+public interface AsyncPoolSizingPolicy
+{
+  /**
+   * @return the number of milliseconds between two evaluations, or a non-positive value to disable
+   *         adaptive sizing and always enforce the configured maximum size.
+   */
+  long getEvaluationIntervalMillis();
+
+  /**
+   * @param sample the observations collected since the previous evaluation
+   * @return the maximum pool size to enforce until the next evaluation
+   */
+  int getMaxSize(Sample sample);
+
+  /**
+   * Snapshot of the pool state and of the checkout activity observed during one evaluation interval.
+   */
+  final class Sample
+  {
+    private final long _timeMillis;
+    private final int _configuredMaxSize;
+    private final int _currentMaxSize;
+    private final int _minSize;
+    private final int _poolSize;
+    private final int _checkedOut;
+    private final int _idleCount;
+    private final int _waiters;
+    private final int _maxCheckedOut;
+    private final int _checkouts;
+    private final long _totalWaitTime;
+    private final long _maxWaitTime;
+
+    public Sample(long timeMillis,
+        int configuredMaxSize,
+        int currentMaxSize,
+        int minSize,
+        int poolSize,
+        int checkedOut,
+        int idleCount,
+        int waiters,
+        int maxCheckedOut,
+        int checkouts,
+        long totalWaitTime,
+        long maxWaitTime)
+    {
+      _timeMillis = timeMillis;
+      _configuredMaxSize = configuredMaxSize;
+      _currentMaxSize = currentMaxSize;
+      _minSize = minSize;
+      _poolSize = poolSize;
+      _checkedOut = checkedOut;
+      _idleCount = idleCount;
+      _waiters = waiters;
+      _maxCheckedOut = maxCheckedOut;
+      _checkouts = checkouts;
+      _totalWaitTime = totalWaitTime;
+      _maxWaitTime = maxWaitTime;
+    }
+
+    /**
+     * @return the time at which the sample was taken
+     */
+    public long getTimeMillis()
+    {
+      return _timeMillis;
+    }
+
+    /**
+     * @return the maximum size the pool was configured with; the effective maximum never exceeds it
+     */
+    public int getConfiguredMaxSize()
+    {
+      return _configuredMaxSize;
+    }
+
+    /**
+     * @return the effective maximum size enforced during the interval
+     */
+    public int getCurrentMaxSize()
+    {
+      return _currentMaxSize;
+    }
+
+    public int getMinSize()
+    {
+      return _minSize;
+    }
+
+    /**
+     * @return the current pool size, including pending creations and destructions
+     */
+    public int getPoolSize()
+    {
+      return _poolSize;
+    }
+
+    public int getCheckedOut()
+    {
+      return _checkedOut;
+    }
+
+    public int getIdleCount()
+    {
+      return _idleCount;
+    }
+
+    /**
+     * @return the number of waiters queued at the time the sample was taken
+     */
+    public int getWaiters()
+    {
+      return _waiters;
+    }
+
+    /**
+     * @return the maximum number of concurrently checked out objects observed during the interval
+     */
+    public int getMaxCheckedOut()
+    {
+      return _maxCheckedOut;
+    }
+
+    /**
+     * @return the number of completed checkouts (successful or not) during the interval
+     */
+    public int getCheckouts()
+    {
+      return _checkouts;
+    }
+
+    /**
+     * @return the sum of the checkout latencies, in milliseconds, observed during the interval
+     */
+    public long getTotalWaitTime()
+    {
+      return _totalWaitTime;
+    }
+
+    /**
+     * @return the average checkout latency in milliseconds during the interval, or 0 if there was no checkout
+     */
+    public double getAverageWaitTime()
+    {
+      return _checkouts == 0 ? 0 : (double) _totalWaitTime / _checkouts;
+    }
+
+    /**
+     * @return the maximum checkout latency in milliseconds observed during the interval
+     */
+    public long getMaxWaitTime()
+    {
+      return _maxWaitTime;
+    }
+
+    @Override
+    public String toString()
+    {
+      return "currentMaxSize: " + _currentMaxSize +
+          ", configuredMaxSize: " + _configuredMaxSize +
+          ", poolSize: " + _poolSize +
+          ", checkedOut: " + _checkedOut +
+          ", maxCheckedOut: " + _maxCheckedOut +
+          ", waiters: " + _waiters +
+          ", checkouts: " + _checkouts +
+          ", averageWaitTime: " + getAverageWaitTime() +
+          ", maxWaitTime: " + _maxWaitTime;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client;
+
+/**
+ * An {@link AsyncPoolSizingPolicy} that is never evaluated; the pool always enforces its configured maximum size.
+ */
+public class NoopAsyncPoolSizingPolicy implements AsyncPoolSizingPolicy
+{
+  private static final NoopAsyncPoolSizingPolicy INSTANCE = new NoopAsyncPoolSizingPolicy();
+
+  public static NoopAsyncPoolSizingPolicy instance()
+  {
+    return INSTANCE;
+  }
+
+  @Override
+  public long getEvaluationIntervalMillis()
+  {
+    return 0;
+  }
+
+  @Override
+  public int getMaxSize(Sample sample)
+  {
+    return sample.getConfiguredMaxSize();
+  }
+}
@@ -5,7 +5,12 @@ public interface HttpConstants
   public static final String ACCEPT_ENCODING = "Accept-Encoding";
   public static final String CONTENT_ENCODING = "Content-Encoding";
   public static final String CONTENT_LENGTH = "Content-Length";
+  public static final String CONTENT_TYPE = "Content-Type";
   public static final String TRANSFER_ENCODING = "Transfer-Encoding";
+  public static final String CACHE_CONTROL = "Cache-Control";
+  public static final String ETAG = "ETag";
+  public static final String IF_NONE_MATCH = "If-None-Match";
+  public static final String RETRY_AFTER = "Retry-After";
   /**
    * Custom header for the size threshold for encoding(compressing) responses.
    */
@@ -16,6 +21,12 @@ public interface HttpConstants
    */
   public static final String HEADER_NUMBER_OF_RETRY_ATTEMPTS = "X-Number-Of-Retry-Attempts";
 
+  /**
+   * Custom header for the priority of a request, one of the names of
+   * {@link com.linkedin.r2.transport.common.bridge.server.RequestPriority}.
+   */
+  public static final String HEADER_REQUEST_PRIORITY = "X-Request-Priority";
+
   /**
    * HTTP Cookie header name. See RFC 2109.
    */
@@ -27,7 +38,9 @@ public interface HttpConstants
   public static final String RESPONSE_COOKIE_HEADER_NAME = "Set-Cookie";
 
   public static final int OK = 200;
+  public static final int NOT_MODIFIED = 304;
   public static final int NOT_ACCEPTABLE = 406;
   public static final int UNSUPPORTED_MEDIA_TYPE = 415;
   public static final int INTERNAL_SERVER_ERROR = 500;
+  public static final int SERVICE_UNAVAILABLE = 503;
 }
@@ -25,6 +25,7 @@ import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.message.stream.entitystream.BaseConnector;
 import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.message.stream.entitystream.FileRegionEntityStream;
 import com.linkedin.r2.message.stream.entitystream.Observer;
 import com.linkedin.r2.message.timing.FrameworkTimingKeys;
 import com.linkedin.r2.message.timing.TimingContextUtil;
@@ -163,6 +164,12 @@ public class HttpDispatcher
               {
                 connector.cancel();
               }
+              else if (response.getResponse().getEntityStream() instanceof FileRegionEntityStream)
+              {
+                // observing the stream would keep the transport from claiming the file region for direct
+                // transfer, and its content does not depend on the request entity anyway
+                connector.cancel();
+              }
               else
               {
                 Observer observer = new Observer()
@@ -0,0 +1,241 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.util.clock.Clock;
+import com.linkedin.util.clock.SystemClock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.checkerframework.checker.lock.qual.GuardedBy;
+
+
+/**
+ * Limit on the number of requests in flight, adapted to the latency observed by the server.
+ *
+ * The latencies of the completed requests are averaged over windows of {@code windowMs}. The lowest average
+ * of the recent windows is taken as the latency without queueing, and at the end of each window the limit is
+ * multiplied by the gradient between the two, {@code tolerance * noLoadLatency / windowLatency} bounded to
+ * [0.5, 1], before adding the square root of the limit as headroom for growth. The limit thus grows while the
+ * latency stays within {@code tolerance} of the latency without queueing, and shrinks as soon as requests
+ * start queueing. A window with requests dropped because of a timeout multiplies the limit by
+ * {@link #DEFAULT_BACKOFF_RATIO} instead. The lowest average is forgotten every
+ * {@link #DEFAULT_NO_LOAD_LATENCY_RESET_WINDOWS} windows, so that the limit follows a lasting change of the
+ * latency of the server.
+ *
+ * The limit does not grow during windows where fewer than half of the permits were used, since their
+ * latency says nothing about a higher concurrency.
+ */
+public class AdaptiveConcurrencyLimit
+{
+  public static final int DEFAULT_INITIAL_LIMIT = 50;
+  public static final int DEFAULT_MIN_LIMIT = 10;
+  public static final int DEFAULT_MAX_LIMIT = 1000;
+  public static final double DEFAULT_TOLERANCE = 2.0;
+  public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+  public static final double DEFAULT_SMOOTHING = 0.2;
+  public static final long DEFAULT_WINDOW_MS = 100;
+  public static final int DEFAULT_MIN_WINDOW_SAMPLES = 10;
+  public static final int DEFAULT_NO_LOAD_LATENCY_RESET_WINDOWS = 600;
+
+  private static final double MIN_GRADIENT = 0.5;
+
+  private final int _minLimit;
+  private final int _maxLimit;
+  private final double _tolerance;
+  private final long _windowMs;
+  private final Clock _clock;
+
+  private volatile int _limit;
+  private final AtomicInteger _inFlight = new AtomicInteger();
+  private final AtomicLong _rejectedCount = new AtomicLong();
+
+  @GuardedBy("this")
+  private double _estimatedLimit;
+  @GuardedBy("this")
+  private long _windowStartTime;
+  @GuardedBy("this")
+  private int _windowSamples = 0;
+  @GuardedBy("this")
+  private long _windowLatencySum = 0;
+  @GuardedBy("this")
+  private boolean _windowDropped = false;
+  @GuardedBy("this")
+  private int _windowMaxInFlight = 0;
+  @GuardedBy("this")
+  private long _noLoadLatency = 0;
+  @GuardedBy("this")
+  private int _windowsSinceReset = 0;
+
+  public AdaptiveConcurrencyLimit()
+  {
+    this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_TOLERANCE, DEFAULT_WINDOW_MS,
+        SystemClock.instance());
+  }
+
+  /**
+   * @param initialLimit limit until the first window has been sampled
+   * @param minLimit lowest limit, to keep serving requests while the latency is sampled
+   * @param maxLimit highest limit
+   * @param tolerance ratio of the latency without queueing above which the limit shrinks
+   * @param windowMs length of the windows over which the latency is averaged
+   * @param clock clock used to end the windows
+   */
+  public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, long windowMs,
+      Clock clock)
+  {
+    if (minLimit <= 0 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit)
+    {
+      throw new IllegalArgumentException("Invalid limits: initial " + initialLimit + ", min " + minLimit + ", max " + maxLimit);
+    }
+    if (tolerance < 1)
+    {
+      throw new IllegalArgumentException("Invalid tolerance: " + tolerance);
+    }
+    if (windowMs <= 0)
+    {
+      throw new IllegalArgumentException("Invalid window: " + windowMs + "ms");
+    }
+    _minLimit = minLimit;
+    _maxLimit = maxLimit;
+    _tolerance = tolerance;
+    _windowMs = windowMs;
+    _clock = clock;
+    _limit = initialLimit;
+    _estimatedLimit = initialLimit;
+    _windowStartTime = clock.currentTimeMillis();
+  }
+
+  /**
+   * Acquires a permit for a request. A request given a permit must {@link #release(long, boolean)} it once
+   * completed.
+   *
+   * @return true if the request may be served, false if it should be rejected.
+   */
+  public boolean tryAcquire()
+  {
+    while (true)
+    {
+      final int inFlight = _inFlight.get();
+      if (inFlight >= _limit)
+      {
+        _rejectedCount.incrementAndGet();
+        return false;
+      }
+      if (_inFlight.compareAndSet(inFlight, inFlight + 1))
+      {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases the permit of a completed request and samples its latency.
+   *
+   * @param latencyNanos time taken to serve the request
+   * @param dropped whether the request was dropped, for example because it timed out, in which case its
+   *                latency is not sampled and the limit is decreased
+   */
+  public void release(long latencyNanos, boolean dropped)
+  {
+    final int inFlight = _inFlight.getAndDecrement();
+    synchronized (this)
+    {
+      _windowMaxInFlight = Math.max(_windowMaxInFlight, inFlight);
+      if (dropped)
+      {
+        _windowDropped = true;
+      }
+      else
+      {
+        _windowSamples++;
+        _windowLatencySum += latencyNanos;
+      }
+
+      final long now = _clock.currentTimeMillis();
+      if (now - _windowStartTime >= _windowMs && (_windowDropped || _windowSamples >= DEFAULT_MIN_WINDOW_SAMPLES))
+      {
+        updateLimit();
+        _windowStartTime = now;
+        _windowSamples = 0;
+        _windowLatencySum = 0;
+        _windowDropped = false;
+        _windowMaxInFlight = 0;
+      }
+    }
+  }
+
+  @GuardedBy("this")
+  private void updateLimit()
+  {
+    final double newLimit;
+    if (_windowDropped)
+    {
+      newLimit = _estimatedLimit * DEFAULT_BACKOFF_RATIO;
+    }
+    else
+    {
+      final long latency = _windowLatencySum / _windowSamples;
+      if (_noLoadLatency == 0 || latency < _noLoadLatency || ++_windowsSinceReset >= DEFAULT_NO_LOAD_LATENCY_RESET_WINDOWS)
+      {
+        _noLoadLatency = Math.max(latency, 1);
+        _windowsSinceReset = 0;
+      }
+
+      final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, _tolerance * _noLoadLatency / Math.max(latency, 1)));
+      final double grownLimit = _estimatedLimit * gradient + Math.sqrt(_estimatedLimit);
+      newLimit = _windowMaxInFlight < _estimatedLimit / 2 ? Math.min(grownLimit, _estimatedLimit) : grownLimit;
+    }
+
+    _estimatedLimit = Math.max(_minLimit,
+        Math.min(_maxLimit, (1 - DEFAULT_SMOOTHING) * _estimatedLimit + DEFAULT_SMOOTHING * newLimit));
+    _limit = (int) _estimatedLimit;
+  }
+
+  /**
+   * @return the current limit on the number of requests in flight
+   */
+  public int getLimit()
+  {
+    return _limit;
+  }
+
+  public int getInFlight()
+  {
+    return _inFlight.get();
+  }
+
+  public long getRejectedCount()
+  {
+    return _rejectedCount.get();
+  }
+
+  /**
+   * @return the latency taken as the latency without queueing, in nanoseconds, or 0 before the first window
+   */
+  public synchronized long getNoLoadLatencyNanos()
+  {
+    return _noLoadLatency;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "AdaptiveConcurrencyLimit{limit=" + _limit + ", inFlight=" + _inFlight.get() + ", noLoadLatencyMs="
+        + TimeUnit.NANOSECONDS.toMillis(getNoLoadLatencyNanos()) + "}";
+  }
+}
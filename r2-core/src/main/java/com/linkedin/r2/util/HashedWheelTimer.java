@@ -0,0 +1,556 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.util.ArgumentUtil;
+import com.linkedin.util.clock.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A {@link ScheduledExecutorService} that keeps one-shot delayed tasks in a hashed timing wheel instead of the
+ * priority queue of the underlying scheduler.
+ *
+ * Per request timeouts ({@link Timeout}, {@link SingleTimeout}, {@link TimeoutRunnable} and the transport and
+ * pool timeouts built on them) are scheduled for every request and nearly always cancelled. With a
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor} every schedule and cancel is an O(log n) operation
+ * on a queue shared by all the threads; with the wheel both are O(1), lock free for the callers, and cancelled
+ * timeouts are dropped from the wheel by the tick task instead of lingering in the queue until their deadline.
+ *
+ * The price is precision: a timeout is never run before its deadline, but may be run up to one tick duration
+ * after it. The wheel only ticks while it holds timeouts, so an idle instance costs nothing.
+ *
+ * One-shot tasks are run on the tick thread of the underlying scheduler, exactly like the underlying scheduler
+ * would run them, so they should be short. Periodic tasks and {@link #execute(Runnable)} are delegated to the
+ * underlying scheduler as is.
+ *
+ * Shutting down this executor shuts down the underlying scheduler; timeouts still pending in the wheel are
+ * dropped. {@link #stop()} only stops the wheel.
+ */
+public class HashedWheelTimer extends AbstractExecutorService implements ScheduledExecutorService
+{
+  private static final Logger LOG = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+  public static final long DEFAULT_TICK_DURATION_MS = 10;
+  public static final int DEFAULT_WHEEL_SIZE = 512;
+
+  private final ScheduledExecutorService _scheduler;
+  private final long _tickDurationNanos;
+  private final Bucket[] _wheel;
+  private final int _mask;
+  private final LongSupplier _nanoTime;
+  private final long _startTime;
+
+  private final Queue<WheelTimeout<?>> _newTimeouts = new ConcurrentLinkedQueue<>();
+  private final Queue<WheelTimeout<?>> _cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+  private final AtomicLong _pendingCount = new AtomicLong();
+  private final AtomicLong _scheduledCount = new AtomicLong();
+  private final AtomicLong _cancelledCount = new AtomicLong();
+  private final AtomicLong _expiredCount = new AtomicLong();
+
+  private final Object _tickLock = new Object();
+  private volatile boolean _ticking = false;
+  private volatile boolean _shutdown = false;
+  private ScheduledFuture<?> _tickFuture;
+
+  // Only accessed by the tick task, which holds _wheel while running
+  private long _tick = 0;
+  private int _wheelCount = 0;
+
+  /**
+   * Creates a wheel of {@link #DEFAULT_WHEEL_SIZE} buckets ticking every {@link #DEFAULT_TICK_DURATION_MS}
+   * milliseconds.
+   *
+   * @param scheduler the scheduler running the tick task and the tasks that are not one-shot delayed tasks
+   */
+  public HashedWheelTimer(ScheduledExecutorService scheduler)
+  {
+    this(scheduler, DEFAULT_TICK_DURATION_MS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+  }
+
+  /**
+   * @param scheduler the scheduler running the tick task and the tasks that are not one-shot delayed tasks
+   * @param tickDuration the duration between two ticks, which bounds how late a timeout can be run
+   * @param unit the {@link TimeUnit} of the tick duration
+   * @param wheelSize the number of buckets of the wheel, rounded up to a power of two. Timeouts further than
+   *                  wheelSize ticks away are kept in the wheel and skipped once per revolution.
+   */
+  public HashedWheelTimer(ScheduledExecutorService scheduler, long tickDuration, TimeUnit unit, int wheelSize)
+  {
+    this(scheduler, tickDuration, unit, wheelSize, (LongSupplier) System::nanoTime);
+  }
+
+  /**
+   * Creates a wheel reading the time from the given clock, in milliseconds, rather than from the system, which
+   * lets tests run it on a {@link ScheduledExecutorService} controlling the time too.
+   */
+  HashedWheelTimer(ScheduledExecutorService scheduler, long tickDuration, TimeUnit unit, int wheelSize, Clock clock)
+  {
+    this(scheduler, tickDuration, unit, wheelSize,
+        (LongSupplier) () -> TimeUnit.MILLISECONDS.toNanos(clock.currentTimeMillis()));
+  }
+
+  private HashedWheelTimer(ScheduledExecutorService scheduler, long tickDuration, TimeUnit unit, int wheelSize,
+      LongSupplier nanoTime)
+  {
+    ArgumentUtil.ensureNotNull(scheduler, "scheduler");
+    if (tickDuration <= 0)
+    {
+      throw new IllegalArgumentException("tickDuration must be positive: " + tickDuration);
+    }
+    if (wheelSize <= 0 || wheelSize > (1 << 30))
+    {
+      throw new IllegalArgumentException("wheelSize must be between 1 and 2^30: " + wheelSize);
+    }
+
+    _scheduler = scheduler;
+    _tickDurationNanos = unit.toNanos(tickDuration);
+    int size = Integer.highestOneBit(wheelSize);
+    _wheel = new Bucket[size < wheelSize ? size << 1 : size];
+    for (int i = 0; i < _wheel.length; i++)
+    {
+      _wheel[i] = new Bucket();
+    }
+    _mask = _wheel.length - 1;
+    _nanoTime = nanoTime;
+    _startTime = _nanoTime.getAsLong();
+  }
+
+  /**
+   * @return the number of timeouts scheduled on the wheel that have neither been run nor cancelled
+   */
+  public long getPendingCount()
+  {
+    return _pendingCount.get();
+  }
+
+  /**
+   * @return the number of timeouts scheduled on the wheel since its creation
+   */
+  public long getScheduledCount()
+  {
+    return _scheduledCount.get();
+  }
+
+  /**
+   * @return the number of timeouts cancelled before their deadline since the creation of the wheel
+   */
+  public long getCancelledCount()
+  {
+    return _cancelledCount.get();
+  }
+
+  /**
+   * @return the number of timeouts that reached their deadline and were run since the creation of the wheel
+   */
+  public long getExpiredCount()
+  {
+    return _expiredCount.get();
+  }
+
+  public long getTickDurationMs()
+  {
+    return TimeUnit.NANOSECONDS.toMillis(_tickDurationNanos);
+  }
+
+  public int getWheelSize()
+  {
+    return _wheel.length;
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit)
+  {
+    ArgumentUtil.ensureNotNull(command, "command");
+    return addTimeout(new WheelTimeout<Void>(command, null, deadline(delay, unit)));
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit)
+  {
+    ArgumentUtil.ensureNotNull(callable, "callable");
+    return addTimeout(new WheelTimeout<>(callable, deadline(delay, unit)));
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit)
+  {
+    return _scheduler.scheduleAtFixedRate(command, initialDelay, period, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit)
+  {
+    return _scheduler.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+  }
+
+  @Override
+  public void execute(Runnable command)
+  {
+    _scheduler.execute(command);
+  }
+
+  /**
+   * Stops the wheel without shutting the underlying scheduler down, for a scheduler that is owned by someone else.
+   * Timeouts still pending in the wheel are dropped, and new ones are rejected.
+   */
+  public void stop()
+  {
+    stopTicking();
+  }
+
+  @Override
+  public void shutdown()
+  {
+    stopTicking();
+    _scheduler.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow()
+  {
+    stopTicking();
+    return _scheduler.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown()
+  {
+    return _shutdown || _scheduler.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated()
+  {
+    return _shutdown && _scheduler.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+  {
+    return _scheduler.awaitTermination(timeout, unit);
+  }
+
+  private long deadline(long delay, TimeUnit unit)
+  {
+    return _nanoTime.getAsLong() + Math.max(0, unit.toNanos(delay));
+  }
+
+  private <V> WheelTimeout<V> addTimeout(WheelTimeout<V> timeout)
+  {
+    if (_shutdown)
+    {
+      throw new RejectedExecutionException("HashedWheelTimer has been shut down");
+    }
+    _pendingCount.incrementAndGet();
+    _scheduledCount.incrementAndGet();
+    _newTimeouts.add(timeout);
+    // Pairs with the re-check of _newTimeouts in tick() after it cleared _ticking
+    if (!_ticking)
+    {
+      startTicking();
+    }
+    return timeout;
+  }
+
+  private void startTicking()
+  {
+    synchronized (_tickLock)
+    {
+      if (!_ticking && !_shutdown)
+      {
+        _ticking = true;
+        _tickFuture = _scheduler.scheduleAtFixedRate(this::tick, _tickDurationNanos, _tickDurationNanos,
+            TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  private void stopTicking()
+  {
+    synchronized (_tickLock)
+    {
+      _shutdown = true;
+      _ticking = false;
+      if (_tickFuture != null)
+      {
+        _tickFuture.cancel(false);
+        _tickFuture = null;
+      }
+    }
+    // Drop the timeouts that will never be run
+    WheelTimeout<?> timeout;
+    while ((timeout = _newTimeouts.poll()) != null)
+    {
+      timeout.cancel(false);
+    }
+    synchronized (_wheel)
+    {
+      for (Bucket bucket : _wheel)
+      {
+        for (WheelTimeout<?> t = bucket._head; t != null; t = t._next)
+        {
+          t.cancel(false);
+        }
+      }
+    }
+  }
+
+  private void tick()
+  {
+    List<WheelTimeout<?>> expired;
+    synchronized (_wheel)
+    {
+      final long currentTick = (_nanoTime.getAsLong() - _startTime) / _tickDurationNanos;
+
+      removeCancelledTimeouts();
+      if (_wheelCount == 0)
+      {
+        // Nothing in the wheel: skip the buckets elapsed while the wheel was idle
+        _tick = Math.max(_tick, currentTick);
+      }
+      transferNewTimeouts();
+
+      expired = new ArrayList<>();
+      // Also catches up with the ticks missed if the scheduler was late
+      for (; _tick <= currentTick && _wheelCount > 0; _tick++)
+      {
+        _wheel[(int) (_tick & _mask)].expire(expired);
+      }
+      _tick = Math.max(_tick, currentTick + 1);
+
+      if (_wheelCount == 0)
+      {
+        maybeStopTicking();
+      }
+    }
+
+    for (WheelTimeout<?> timeout : expired)
+    {
+      if (timeout.expire())
+      {
+        try
+        {
+          timeout.run();
+        }
+        catch (Throwable e)
+        {
+          LOG.error("Failed to run timeout task", e);
+        }
+      }
+    }
+  }
+
+  private void maybeStopTicking()
+  {
+    synchronized (_tickLock)
+    {
+      _ticking = false;
+      // A timeout added concurrently either sees _ticking false and restarts the tick task, or was added
+      // before _ticking was cleared and is seen here
+      if (!_newTimeouts.isEmpty() || _shutdown)
+      {
+        _ticking = !_shutdown;
+        return;
+      }
+      _tickFuture.cancel(false);
+      _tickFuture = null;
+    }
+  }
+
+  private void removeCancelledTimeouts()
+  {
+    WheelTimeout<?> timeout;
+    while ((timeout = _cancelledTimeouts.poll()) != null)
+    {
+      if (timeout._bucket != null)
+      {
+        timeout._bucket.remove(timeout);
+      }
+    }
+  }
+
+  private void transferNewTimeouts()
+  {
+    WheelTimeout<?> timeout;
+    while ((timeout = _newTimeouts.poll()) != null)
+    {
+      if (timeout.isDone())
+      {
+        continue;
+      }
+      // Rounded up, so that a timeout is never run before its deadline
+      long deadlineTick = (timeout._deadline - _startTime + _tickDurationNanos - 1) / _tickDurationNanos;
+      long tick = Math.max(deadlineTick, _tick);
+      timeout._remainingRounds = (tick - _tick) / _wheel.length;
+      _wheel[(int) (tick & _mask)].add(timeout);
+    }
+  }
+
+  /**
+   * A doubly linked list of timeouts, only accessed by the tick task.
+   */
+  private final class Bucket
+  {
+    private WheelTimeout<?> _head;
+    private WheelTimeout<?> _tail;
+
+    private void add(WheelTimeout<?> timeout)
+    {
+      timeout._bucket = this;
+      if (_tail == null)
+      {
+        _head = timeout;
+        _tail = timeout;
+      }
+      else
+      {
+        _tail._next = timeout;
+        timeout._prev = _tail;
+        _tail = timeout;
+      }
+      _wheelCount++;
+    }
+
+    private void remove(WheelTimeout<?> timeout)
+    {
+      if (timeout._prev != null)
+      {
+        timeout._prev._next = timeout._next;
+      }
+      else
+      {
+        _head = timeout._next;
+      }
+      if (timeout._next != null)
+      {
+        timeout._next._prev = timeout._prev;
+      }
+      else
+      {
+        _tail = timeout._prev;
+      }
+      timeout._prev = null;
+      timeout._next = null;
+      timeout._bucket = null;
+      _wheelCount--;
+    }
+
+    private void expire(List<WheelTimeout<?>> expired)
+    {
+      WheelTimeout<?> timeout = _head;
+      while (timeout != null)
+      {
+        WheelTimeout<?> next = timeout._next;
+        if (timeout._remainingRounds <= 0)
+        {
+          remove(timeout);
+          expired.add(timeout);
+        }
+        else
+        {
+          timeout._remainingRounds--;
+        }
+        timeout = next;
+      }
+    }
+  }
+
+  private final class WheelTimeout<V> extends FutureTask<V> implements ScheduledFuture<V>
+  {
+    private final long _deadline;
+    private final AtomicBoolean _completed = new AtomicBoolean();
+
+    // Only accessed by the tick task
+    private long _remainingRounds;
+    private Bucket _bucket;
+    private WheelTimeout<?> _prev;
+    private WheelTimeout<?> _next;
+
+    private WheelTimeout(Callable<V> callable, long deadline)
+    {
+      super(callable);
+      _deadline = deadline;
+    }
+
+    private WheelTimeout(Runnable runnable, V result, long deadline)
+    {
+      this(Executors.callable(runnable, result), deadline);
+    }
+
+    /**
+     * @return true if the timeout has not been cancelled and should be run
+     */
+    private boolean expire()
+    {
+      if (_completed.compareAndSet(false, true))
+      {
+        _pendingCount.decrementAndGet();
+        _expiredCount.incrementAndGet();
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning)
+    {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      if (cancelled && _completed.compareAndSet(false, true))
+      {
+        _pendingCount.decrementAndGet();
+        _cancelledCount.incrementAndGet();
+        _cancelledTimeouts.add(this);
+      }
+      return cancelled;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit)
+    {
+      return unit.convert(_deadline - _nanoTime.getAsLong(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other)
+    {
+      if (other == this)
+      {
+        return 0;
+      }
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+  }
+}
@@ -0,0 +1,291 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.r2.transport.common.bridge.server.RequestPriority;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.checkerframework.checker.lock.qual.GuardedBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Runs the requests of a server on a fixed pool of threads, serving the queued requests of a higher
+ * {@link RequestPriority} first, and first-in first-out within a priority.
+ *
+ * The number of queued requests is bounded. When the queue is full, the oldest queued request of the lowest
+ * priority is shed to make room for a request of a higher priority, and a request of the lowest queued
+ * priority is shed itself. The oldest request is the one whose client is the most likely to have given up.
+ * A shed request is not run: its shed handler is called instead, to respond with an error.
+ */
+public class PriorityRequestScheduler
+{
+  private static final Logger LOG = LoggerFactory.getLogger(PriorityRequestScheduler.class);
+
+  public static final int DEFAULT_THREAD_POOL_SIZE = 256;
+  public static final int DEFAULT_MAX_QUEUED_REQUESTS = 1024;
+
+  private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+  private final int _maxQueuedRequests;
+  private final List<Thread> _threads = new ArrayList<>();
+  private final AtomicLongArray _shedCounts = new AtomicLongArray(PRIORITIES.length);
+
+  @GuardedBy("this")
+  private final ArrayDeque<Task>[] _queues;
+  @GuardedBy("this")
+  private int _queuedRequests = 0;
+  @GuardedBy("this")
+  private boolean _shutdown = false;
+
+  public PriorityRequestScheduler()
+  {
+    this(DEFAULT_THREAD_POOL_SIZE, DEFAULT_MAX_QUEUED_REQUESTS);
+  }
+
+  public PriorityRequestScheduler(int threadPoolSize, int maxQueuedRequests)
+  {
+    this(threadPoolSize, maxQueuedRequests, new NamedThreadFactory("R2 Priority Scheduler"));
+  }
+
+  /**
+   * @param threadPoolSize number of threads running the requests
+   * @param maxQueuedRequests number of requests which may wait for a thread before requests are shed
+   * @param threadFactory factory of the threads running the requests
+   */
+  @SuppressWarnings("unchecked")
+  public PriorityRequestScheduler(int threadPoolSize, int maxQueuedRequests, ThreadFactory threadFactory)
+  {
+    if (threadPoolSize <= 0)
+    {
+      throw new IllegalArgumentException("Invalid thread pool size: " + threadPoolSize);
+    }
+    if (maxQueuedRequests <= 0)
+    {
+      throw new IllegalArgumentException("Invalid max queued requests: " + maxQueuedRequests);
+    }
+    _maxQueuedRequests = maxQueuedRequests;
+    _queues = new ArrayDeque[PRIORITIES.length];
+    for (int i = 0; i < _queues.length; i++)
+    {
+      _queues[i] = new ArrayDeque<>();
+    }
+    for (int i = 0; i < threadPoolSize; i++)
+    {
+      final Thread thread = threadFactory.newThread(this::runTasks);
+      _threads.add(thread);
+      thread.start();
+    }
+  }
+
+  /**
+   * Queues a request to be run once the requests of a higher priority, and the requests of the same priority
+   * queued before it, have been run.
+   *
+   * @param priority the priority of the request
+   * @param request runs the request
+   * @param onShed called instead of the request if it is shed, on the calling thread or a thread of the
+   *               scheduler
+   */
+  public void execute(RequestPriority priority, Runnable request, Runnable onShed)
+  {
+    final Task task = new Task(priority, request, onShed);
+    final Task shed;
+    synchronized (this)
+    {
+      if (_shutdown)
+      {
+        shed = task;
+      }
+      else if (_queuedRequests < _maxQueuedRequests)
+      {
+        shed = null;
+        enqueue(task);
+      }
+      else
+      {
+        // Shed the oldest request of the lowest priority, unless it is not lower than the new request
+        final Task lowest = pollLowest(priority);
+        if (lowest != null)
+        {
+          shed = lowest;
+          enqueue(task);
+        }
+        else
+        {
+          shed = task;
+        }
+      }
+    }
+    if (shed != null)
+    {
+      shed(shed);
+    }
+  }
+
+  /**
+   * Stops the threads once they have run their current request. The requests still queued are shed.
+   */
+  public void shutdown()
+  {
+    final List<Task> shed = new ArrayList<>();
+    synchronized (this)
+    {
+      _shutdown = true;
+      for (ArrayDeque<Task> queue : _queues)
+      {
+        shed.addAll(queue);
+        queue.clear();
+      }
+      _queuedRequests = 0;
+      notifyAll();
+    }
+    shed.forEach(this::shed);
+  }
+
+  /**
+   * @return the number of requests waiting for a thread
+   */
+  public synchronized int getQueuedCount()
+  {
+    return _queuedRequests;
+  }
+
+  /**
+   * @return the number of requests of a priority waiting for a thread
+   */
+  public synchronized int getQueuedCount(RequestPriority priority)
+  {
+    return _queues[priority.ordinal()].size();
+  }
+
+  /**
+   * @return the number of requests of a priority which have been shed
+   */
+  public long getShedCount(RequestPriority priority)
+  {
+    return _shedCounts.get(priority.ordinal());
+  }
+
+  @GuardedBy("this")
+  private void enqueue(Task task)
+  {
+    _queues[task._priority.ordinal()].addLast(task);
+    _queuedRequests++;
+    notify();
+  }
+
+  /**
+   * @return the oldest queued request of the lowest priority, if it is lower than the given priority
+   */
+  @GuardedBy("this")
+  private Task pollLowest(RequestPriority than)
+  {
+    for (int i = _queues.length - 1; i > than.ordinal(); i--)
+    {
+      final Task task = _queues[i].pollFirst();
+      if (task != null)
+      {
+        _queuedRequests--;
+        return task;
+      }
+    }
+    return null;
+  }
+
+  @GuardedBy("this")
+  private Task pollHighest()
+  {
+    for (ArrayDeque<Task> queue : _queues)
+    {
+      final Task task = queue.pollFirst();
+      if (task != null)
+      {
+        _queuedRequests--;
+        return task;
+      }
+    }
+    return null;
+  }
+
+  private void runTasks()
+  {
+    while (true)
+    {
+      final Task task;
+      synchronized (this)
+      {
+        while (_queuedRequests == 0 && !_shutdown)
+        {
+          try
+          {
+            wait();
+          }
+          catch (InterruptedException e)
+          {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+        if (_shutdown)
+        {
+          return;
+        }
+        task = pollHighest();
+      }
+      try
+      {
+        task._request.run();
+      }
+      catch (Throwable e)
+      {
+        LOG.error("Uncaught exception running a " + task._priority + " request", e);
+      }
+    }
+  }
+
+  private void shed(Task task)
+  {
+    _shedCounts.incrementAndGet(task._priority.ordinal());
+    try
+    {
+      task._onShed.run();
+    }
+    catch (Throwable e)
+    {
+      LOG.error("Uncaught exception shedding a " + task._priority + " request", e);
+    }
+  }
+
+  private static class Task
+  {
+    private final RequestPriority _priority;
+    private final Runnable _request;
+    private final Runnable _onShed;
+
+    Task(RequestPriority priority, Runnable request, Runnable onShed)
+    {
+      _priority = priority;
+      _request = request;
+      _onShed = onShed;
+    }
+  }
+}
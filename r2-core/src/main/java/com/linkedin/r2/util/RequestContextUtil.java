@@ -69,8 +69,7 @@ public class RequestContextUtil
    */
   public static RequestFinalizerManager getServerRequestFinalizerManager(RequestContext requestContext)
   {
-    return getObjectWithKey(R2Constants.SERVER_REQUEST_FINALIZER_MANAGER_REQUEST_CONTEXT_KEY,
-        requestContext, RequestFinalizerManager.class);
+    return requestContext.getLocalAttr(R2Constants.SERVER_REQUEST_FINALIZER_MANAGER_KEY);
   }
 
   /**
@@ -81,7 +80,6 @@ public class RequestContextUtil
    */
   public static RequestFinalizerManager getClientRequestFinalizerManager(RequestContext requestContext)
   {
-    return getObjectWithKey(R2Constants.CLIENT_REQUEST_FINALIZER_MANAGER_REQUEST_CONTEXT_KEY,
-        requestContext, RequestFinalizerManager.class);
+    return requestContext.getLocalAttr(R2Constants.CLIENT_REQUEST_FINALIZER_MANAGER_KEY);
   }
 }
\ No newline at end of file
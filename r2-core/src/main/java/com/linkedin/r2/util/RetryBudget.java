@@ -0,0 +1,260 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.RequestContextKey;
+import com.linkedin.util.clock.Clock;
+import com.linkedin.util.clock.SystemClock;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.lock.qual.GuardedBy;
+
+
+/**
+ * Token bucket bounding the number of retries and backup requests sent to a service, so that a downstream
+ * brownout does not turn into a retry storm. Each successful call deposits {@link #getRetryRatio()} token,
+ * and each retry withdraws a whole token, which is refused when the balance is below one.
+ *
+ * Tokens expire: the balance only accounts for the calls of the last {@code aggregatedIntervalNum} intervals
+ * of {@code updateIntervalMs}, plus a reserve of {@code minRetriesPerSecond} retries per second of that window
+ * so that a client with little traffic can still retry.
+ *
+ * A budget may be shared by {@link com.linkedin.r2.filter.transport.ClientRetryFilter} and the D2 clients
+ * sending retries and backup requests. The first of them to record the outcome of a call marks its
+ * {@link RequestContext} with {@link #RECORDED_KEY}, so that the call is not counted twice.
+ */
+public class RetryBudget
+{
+  public static final double DEFAULT_RETRY_RATIO = 0.1;
+  public static final int DEFAULT_MIN_RETRIES_PER_SECOND = 10;
+  public static final long DEFAULT_UPDATE_INTERVAL_MS = TimeUnit.SECONDS.toMillis(1);
+  public static final int DEFAULT_AGGREGATED_INTERVAL_NUM = 10;
+
+  public static final RequestContextKey<Boolean> RECORDED_KEY =
+      RequestContextKey.of("RETRY_BUDGET_RECORDED", Boolean.class);
+
+  private final double _retryRatio;
+  private final int _minRetriesPerSecond;
+  private final long _updateIntervalMs;
+  private final double _reserve;
+  private final Clock _clock;
+
+  @GuardedBy("this")
+  private final long[] _deposits;
+  @GuardedBy("this")
+  private final long[] _withdrawals;
+  @GuardedBy("this")
+  private int _currentInterval = 0;
+  @GuardedBy("this")
+  private long _lastRollOverTime;
+  @GuardedBy("this")
+  private long _windowDeposits = 0;
+  @GuardedBy("this")
+  private long _windowWithdrawals = 0;
+
+  @GuardedBy("this")
+  private long _depositCount = 0;
+  @GuardedBy("this")
+  private long _withdrawalCount = 0;
+  @GuardedBy("this")
+  private long _rejectedCount = 0;
+
+  public RetryBudget()
+  {
+    this(DEFAULT_RETRY_RATIO, DEFAULT_MIN_RETRIES_PER_SECOND);
+  }
+
+  public RetryBudget(double retryRatio, int minRetriesPerSecond)
+  {
+    this(retryRatio, minRetriesPerSecond, DEFAULT_UPDATE_INTERVAL_MS, DEFAULT_AGGREGATED_INTERVAL_NUM,
+        SystemClock.instance());
+  }
+
+  /**
+   * @param retryRatio number of retries allowed per successful call
+   * @param minRetriesPerSecond number of retries allowed per second regardless of the successful calls
+   * @param updateIntervalMs length of the intervals after which deposits and withdrawals expire
+   * @param aggregatedIntervalNum number of intervals of the sliding window
+   * @param clock clock used to roll the intervals over
+   */
+  public RetryBudget(double retryRatio, int minRetriesPerSecond, long updateIntervalMs, int aggregatedIntervalNum,
+      Clock clock)
+  {
+    if (retryRatio < 0)
+    {
+      throw new IllegalArgumentException("Invalid retry ratio: " + retryRatio);
+    }
+    if (minRetriesPerSecond < 0)
+    {
+      throw new IllegalArgumentException("Invalid min retries per second: " + minRetriesPerSecond);
+    }
+    if (updateIntervalMs <= 0 || aggregatedIntervalNum <= 0)
+    {
+      throw new IllegalArgumentException("Invalid window: " + aggregatedIntervalNum + " intervals of " + updateIntervalMs + "ms");
+    }
+    _retryRatio = retryRatio;
+    _minRetriesPerSecond = minRetriesPerSecond;
+    _updateIntervalMs = updateIntervalMs;
+    _reserve = minRetriesPerSecond * (double) (updateIntervalMs * aggregatedIntervalNum) / TimeUnit.SECONDS.toMillis(1);
+    _clock = clock;
+    _deposits = new long[aggregatedIntervalNum];
+    _withdrawals = new long[aggregatedIntervalNum];
+    _lastRollOverTime = clock.currentTimeMillis();
+  }
+
+  /**
+   * Records a successful call.
+   */
+  public synchronized void deposit()
+  {
+    rollOver();
+    _deposits[_currentInterval]++;
+    _windowDeposits++;
+    _depositCount++;
+  }
+
+  /**
+   * Withdraws a token for a retry or a backup request.
+   *
+   * @return true if the retry is allowed, false if the budget is exhausted.
+   */
+  public synchronized boolean tryWithdraw()
+  {
+    rollOver();
+    if (balance() < 1)
+    {
+      _rejectedCount++;
+      return false;
+    }
+    _withdrawals[_currentInterval]++;
+    _windowWithdrawals++;
+    _withdrawalCount++;
+    return true;
+  }
+
+  /**
+   * Records a successful call, unless its outcome has already been recorded by another user of the budget.
+   */
+  public void recordSuccess(RequestContext requestContext)
+  {
+    if (markRecorded(requestContext))
+    {
+      deposit();
+    }
+  }
+
+  /**
+   * Marks the outcome of a call as recorded.
+   *
+   * @return true if the outcome had not been recorded yet, and should be by the caller.
+   */
+  public static boolean markRecorded(RequestContext requestContext)
+  {
+    if (requestContext.getLocalAttr(RECORDED_KEY) != null)
+    {
+      return false;
+    }
+    requestContext.putLocalAttr(RECORDED_KEY, Boolean.TRUE);
+    return true;
+  }
+
+  /**
+   * Clears the mark of {@link #markRecorded(RequestContext)} before a call is retried with the same context.
+   *
+   * @return true if the outcome of the call had been recorded.
+   */
+  public static boolean clearRecorded(RequestContext requestContext)
+  {
+    return requestContext.removeLocalAttr(RECORDED_KEY) != null;
+  }
+
+  /**
+   * @return the number of tokens currently available.
+   */
+  public synchronized double getBalance()
+  {
+    rollOver();
+    return balance();
+  }
+
+  public double getRetryRatio()
+  {
+    return _retryRatio;
+  }
+
+  public int getMinRetriesPerSecond()
+  {
+    return _minRetriesPerSecond;
+  }
+
+  /**
+   * @return the number of successful calls recorded since the budget was created.
+   */
+  public synchronized long getDepositCount()
+  {
+    return _depositCount;
+  }
+
+  /**
+   * @return the number of retries allowed since the budget was created.
+   */
+  public synchronized long getWithdrawalCount()
+  {
+    return _withdrawalCount;
+  }
+
+  /**
+   * @return the number of retries refused since the budget was created.
+   */
+  public synchronized long getRejectedCount()
+  {
+    return _rejectedCount;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "RetryBudget{retryRatio=" + _retryRatio + ", minRetriesPerSecond=" + _minRetriesPerSecond
+        + ", balance=" + getBalance() + "}";
+  }
+
+  @GuardedBy("this")
+  private double balance()
+  {
+    return _reserve + _retryRatio * _windowDeposits - _windowWithdrawals;
+  }
+
+  @GuardedBy("this")
+  private void rollOver()
+  {
+    long elapsedIntervals = (_clock.currentTimeMillis() - _lastRollOverTime) / _updateIntervalMs;
+    if (elapsedIntervals <= 0)
+    {
+      return;
+    }
+    // Expire the oldest intervals, at most all of them, and reuse them as the current one
+    for (long i = Math.min(elapsedIntervals, _deposits.length); i > 0; i--)
+    {
+      _currentInterval = (_currentInterval + 1) % _deposits.length;
+      _windowDeposits -= _deposits[_currentInterval];
+      _windowWithdrawals -= _withdrawals[_currentInterval];
+      _deposits[_currentInterval] = 0;
+      _withdrawals[_currentInterval] = 0;
+    }
+    _lastRollOverTime += elapsedIntervals * _updateIntervalMs;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.r2.message.RequestContextKey;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+
+/**
+ * Per service {@link RetryBudget}s of a client, created on first use. The same instance is meant to be
+ * given to every component sending retries or backup requests on behalf of the client: the D2 RetryClient and
+ * BackupRequestsClient, and the {@link com.linkedin.r2.filter.transport.ClientRetryFilter} of its transport clients.
+ *
+ * The components below the load balancer only see the uri of the host, so the load balancer puts the name of the
+ * service in the request context with {@link #SERVICE_NAME_KEY}.
+ */
+public class RetryBudgets
+{
+  public static final RequestContextKey<String> SERVICE_NAME_KEY =
+      RequestContextKey.of("RETRY_BUDGET_SERVICE_NAME", String.class);
+
+  private final ConcurrentMap<String, RetryBudget> _budgets = new ConcurrentHashMap<>();
+  private final Function<String, RetryBudget> _budgetFactory;
+  private final List<Listener> _listeners = new CopyOnWriteArrayList<>();
+
+  public RetryBudgets()
+  {
+    this(RetryBudget.DEFAULT_RETRY_RATIO, RetryBudget.DEFAULT_MIN_RETRIES_PER_SECOND);
+  }
+
+  public RetryBudgets(double retryRatio, int minRetriesPerSecond)
+  {
+    this(serviceName -> new RetryBudget(retryRatio, minRetriesPerSecond));
+  }
+
+  public RetryBudgets(Function<String, RetryBudget> budgetFactory)
+  {
+    _budgetFactory = budgetFactory;
+  }
+
+  public RetryBudget getBudget(String serviceName)
+  {
+    RetryBudget budget = _budgets.get(serviceName);
+    if (budget != null)
+    {
+      return budget;
+    }
+
+    budget = _budgetFactory.apply(serviceName);
+    RetryBudget previous = _budgets.putIfAbsent(serviceName, budget);
+    if (previous != null)
+    {
+      return previous;
+    }
+    for (Listener listener : _listeners)
+    {
+      listener.onBudgetCreated(serviceName, budget);
+    }
+    return budget;
+  }
+
+  /**
+   * Adds a listener notified of the budgets created from now on, and right away of the ones already created.
+   */
+  public void addListener(Listener listener)
+  {
+    _listeners.add(listener);
+    for (Map.Entry<String, RetryBudget> entry : _budgets.entrySet())
+    {
+      listener.onBudgetCreated(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * @return a read only view of the budgets created so far, by service name.
+   */
+  public Map<String, RetryBudget> getBudgets()
+  {
+    return Collections.unmodifiableMap(_budgets);
+  }
+
+  public interface Listener
+  {
+    void onBudgetCreated(String serviceName, RetryBudget budget);
+  }
+}
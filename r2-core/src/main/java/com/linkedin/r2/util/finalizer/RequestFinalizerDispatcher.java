@@ -91,7 +91,7 @@ public class RequestFinalizerDispatcher implements TransportDispatcher
     private RequestFinalizerManagerImpl addRequestFinalizerManager(Request request, RequestContext requestContext)
     {
       RequestFinalizerManagerImpl manager = (RequestFinalizerManagerImpl) requestContext.getLocalAttr(
-        R2Constants.SERVER_REQUEST_FINALIZER_MANAGER_REQUEST_CONTEXT_KEY);
+        R2Constants.SERVER_REQUEST_FINALIZER_MANAGER_KEY);
 
       if (manager != null)
       {
@@ -100,7 +100,7 @@ public class RequestFinalizerDispatcher implements TransportDispatcher
       else
       {
         manager = new RequestFinalizerManagerImpl(request, requestContext);
-        requestContext.putLocalAttr(R2Constants.SERVER_REQUEST_FINALIZER_MANAGER_REQUEST_CONTEXT_KEY, manager);
+        requestContext.putLocalAttr(R2Constants.SERVER_REQUEST_FINALIZER_MANAGER_KEY, manager);
         return manager;
       }
     }
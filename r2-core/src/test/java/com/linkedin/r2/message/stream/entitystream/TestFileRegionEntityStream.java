@@ -0,0 +1,173 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message.stream.entitystream;
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.message.stream.entitystream.adapter.EntityStreamAdapters;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class TestFileRegionEntityStream
+{
+  private static final long TIMEOUT = 5000;
+  private static final TimeUnit UNIT = TimeUnit.MILLISECONDS;
+  private static final int SIZE = 200 * 1024 + 17;
+
+  private File _file;
+  private byte[] _content;
+
+  @BeforeMethod
+  public void setUp() throws Exception
+  {
+    _content = new byte[SIZE];
+    for (int i = 0; i < SIZE; i++)
+    {
+      _content[i] = (byte) i;
+    }
+    _file = File.createTempFile("region", ".bin");
+    Files.write(_file.toPath(), _content);
+  }
+
+  @AfterMethod
+  public void tearDown()
+  {
+    _file.delete();
+  }
+
+  @Test
+  public void testReadRegion() throws Exception
+  {
+    FileChannel channel = FileChannel.open(_file.toPath(), StandardOpenOption.READ);
+    EntityStream entityStream = EntityStreams.newFileRegionEntityStream(channel, 10, SIZE - 20);
+
+    FutureCallback<ByteString> callback = new FutureCallback<>();
+    entityStream.setReader(new FullEntityReader(callback));
+
+    Assert.assertEquals(callback.get(TIMEOUT, UNIT).copyBytes(), Arrays.copyOfRange(_content, 10, SIZE - 10));
+    Assert.assertFalse(channel.isOpen());
+  }
+
+  @Test
+  public void testReadPastEndOfFile() throws Exception
+  {
+    FileChannel channel = FileChannel.open(_file.toPath(), StandardOpenOption.READ);
+    EntityStream entityStream = EntityStreams.newFileRegionEntityStream(channel, 0, SIZE + 1);
+
+    FutureCallback<ByteString> callback = new FutureCallback<>();
+    entityStream.setReader(new FullEntityReader(callback));
+
+    try
+    {
+      callback.get(TIMEOUT, UNIT);
+      Assert.fail("Reading past the end of the file should fail");
+    }
+    catch (Exception e)
+    {
+      // expected
+    }
+    Assert.assertFalse(channel.isOpen());
+  }
+
+  @Test
+  public void testClaim() throws Exception
+  {
+    FileChannel channel = FileChannel.open(_file.toPath(), StandardOpenOption.READ);
+    FileRegionEntityStream entityStream =
+        (FileRegionEntityStream) EntityStreams.newFileRegionEntityStream(channel, 0, SIZE);
+
+    Assert.assertTrue(entityStream.claim());
+    Assert.assertFalse(entityStream.claim());
+    Assert.assertSame(entityStream.getChannel(), channel);
+    Assert.assertEquals(entityStream.getPosition(), 0);
+    Assert.assertEquals(entityStream.getCount(), SIZE);
+
+    try
+    {
+      entityStream.setReader(new DrainReader());
+      Assert.fail("A claimed stream should not accept a reader");
+    }
+    catch (IllegalStateException e)
+    {
+      // expected
+    }
+    channel.close();
+  }
+
+  @Test
+  public void testObservedStreamCannotBeClaimed() throws Exception
+  {
+    FileChannel channel = FileChannel.open(_file.toPath(), StandardOpenOption.READ);
+    FileRegionEntityStream entityStream =
+        (FileRegionEntityStream) EntityStreams.newFileRegionEntityStream(channel, 0, SIZE);
+
+    FutureCallback<ByteString> callback = new FutureCallback<>();
+    entityStream.addObserver(new FullEntityObserver(callback));
+    Assert.assertFalse(entityStream.claim());
+
+    entityStream.setReader(new DrainReader());
+    Assert.assertEquals(callback.get(TIMEOUT, UNIT).length(), SIZE);
+  }
+
+  @Test
+  public void testAdaptersPreserveStream() throws Exception
+  {
+    FileChannel channel = FileChannel.open(_file.toPath(), StandardOpenOption.READ);
+    EntityStream entityStream = EntityStreams.newFileRegionEntityStream(channel, 0, SIZE);
+
+    EntityStream roundTrip =
+        EntityStreamAdapters.fromGenericEntityStream(EntityStreamAdapters.toGenericEntityStream(entityStream));
+    Assert.assertSame(roundTrip, entityStream);
+    channel.close();
+  }
+
+  @Test
+  public void testHeapByteBufferWriter() throws Exception
+  {
+    ByteBuffer buffer = ByteBuffer.wrap(_content, 5, SIZE - 5);
+    FutureCallback<ByteString> callback = new FutureCallback<>();
+    EntityStreams.newEntityStream(new ByteBufferWriter(buffer, 1000)).setReader(new FullEntityReader(callback));
+
+    ByteString result = callback.get(TIMEOUT, UNIT);
+    Assert.assertEquals(result.copyBytes(), Arrays.copyOfRange(_content, 5, SIZE));
+    Assert.assertEquals(result.decompose().size(), (SIZE - 5 + 999) / 1000);
+    Assert.assertEquals(buffer.position(), 5);
+  }
+
+  @Test
+  public void testDirectByteBufferWriter() throws Exception
+  {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(SIZE);
+    buffer.put(_content);
+    buffer.flip();
+    FutureCallback<ByteString> callback = new FutureCallback<>();
+    EntityStreams.newEntityStream(new ByteBufferWriter(buffer)).setReader(new FullEntityReader(callback));
+
+    Assert.assertEquals(callback.get(TIMEOUT, UNIT).copyBytes(), _content);
+    Assert.assertEquals(buffer.remaining(), SIZE);
+  }
+}
@@ -0,0 +1,155 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.common.bridge.server;
+
+import com.linkedin.r2.RetriableRequestException;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestException;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.stream.StreamException;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamRequestBuilder;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponse;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import com.linkedin.r2.util.PriorityRequestScheduler;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class TestPriorityTransportDispatcher
+{
+  private static final URI REQUEST_URI = URI.create("/foo");
+  private static final long TIMEOUT_SECONDS = 10;
+
+  private PriorityRequestScheduler _scheduler;
+  private AtomicReference<RequestPriority> _dispatchedPriority;
+  private PriorityTransportDispatcher _dispatcher;
+
+  @BeforeMethod
+  public void setUp()
+  {
+    _scheduler = new PriorityRequestScheduler(1, 1);
+    _dispatchedPriority = new AtomicReference<>();
+    _dispatcher = new PriorityTransportDispatcher(new TransportDispatcher()
+    {
+      @Override
+      public void handleRestRequest(RestRequest req, Map<String, String> wireAttrs,
+          RequestContext requestContext, TransportCallback<RestResponse> callback)
+      {
+        _dispatchedPriority.set(requestContext.getLocalAttr(RequestPriority.CONTEXT_KEY));
+        callback.onResponse(TransportResponseImpl.success(new RestResponseBuilder().build(), new HashMap<>()));
+      }
+
+      @Override
+      public void handleStreamRequest(StreamRequest req, Map<String, String> wireAttrs,
+          RequestContext requestContext, TransportCallback<StreamResponse> callback)
+      {
+        throw new UnsupportedOperationException();
+      }
+    }, _scheduler, 2);
+  }
+
+  @AfterMethod
+  public void tearDown()
+  {
+    _scheduler.shutdown();
+  }
+
+  @Test
+  public void testDispatchesWithPriority() throws Exception
+  {
+    final RestRequest request =
+        new RestRequestBuilder(REQUEST_URI).setHeader(HttpConstants.HEADER_REQUEST_PRIORITY, "batch").build();
+    final RequestContext requestContext = new RequestContext();
+    final CompletableFuture<TransportResponse<RestResponse>> future = new CompletableFuture<>();
+    _dispatcher.handleRestRequest(request, new HashMap<>(), requestContext, future::complete);
+
+    Assert.assertFalse(future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).hasError());
+    Assert.assertEquals(_dispatchedPriority.get(), RequestPriority.BATCH);
+    Assert.assertEquals(requestContext.getLocalAttr(RequestPriority.CONTEXT_KEY), RequestPriority.BATCH);
+  }
+
+  @Test
+  public void testShedRestRequestIsRetriable()
+  {
+    // A scheduler which is shut down sheds every request, on the calling thread
+    _scheduler.shutdown();
+    final AtomicReference<TransportResponse<RestResponse>> response = new AtomicReference<>();
+    _dispatcher.handleRestRequest(new RestRequestBuilder(REQUEST_URI).build(), new HashMap<>(), new RequestContext(),
+        response::set);
+
+    Assert.assertNull(_dispatchedPriority.get());
+    Assert.assertTrue(response.get().hasError());
+    final RestException error = (RestException) response.get().getError();
+    Assert.assertEquals(error.getResponse().getStatus(), HttpConstants.SERVICE_UNAVAILABLE);
+    Assert.assertEquals(error.getResponse().getHeader(HttpConstants.RETRY_AFTER), "2");
+    Assert.assertTrue(error.getCause() instanceof RetriableRequestException);
+  }
+
+  @Test
+  public void testShedStreamRequestIsRetriable()
+  {
+    _scheduler.shutdown();
+    final AtomicReference<TransportResponse<StreamResponse>> response = new AtomicReference<>();
+    final StreamRequest request = new StreamRequestBuilder(REQUEST_URI).build(EntityStreams.emptyStream());
+    _dispatcher.handleStreamRequest(request, new HashMap<>(), new RequestContext(), response::set);
+
+    Assert.assertTrue(response.get().hasError());
+    final StreamException error = (StreamException) response.get().getError();
+    Assert.assertEquals(error.getResponse().getStatus(), HttpConstants.SERVICE_UNAVAILABLE);
+    Assert.assertEquals(error.getResponse().getHeader(HttpConstants.RETRY_AFTER), "2");
+    Assert.assertTrue(error.getCause() instanceof RetriableRequestException);
+  }
+
+  @Test
+  public void testPriorityOf()
+  {
+    Assert.assertEquals(RequestPriority.of(new RestRequestBuilder(REQUEST_URI).build(), new RequestContext()),
+        RequestPriority.NORMAL);
+    Assert.assertEquals(RequestPriority.of(requestWithPriority(" Critical "), new RequestContext()),
+        RequestPriority.CRITICAL);
+    Assert.assertEquals(RequestPriority.of(requestWithPriority("BATCH"), new RequestContext()),
+        RequestPriority.BATCH);
+    Assert.assertEquals(RequestPriority.of(requestWithPriority("urgent"), new RequestContext()),
+        RequestPriority.NORMAL);
+
+    // The request context takes precedence over the header
+    final RequestContext requestContext = new RequestContext();
+    requestContext.putLocalAttr(RequestPriority.CONTEXT_KEY, RequestPriority.CRITICAL);
+    Assert.assertEquals(RequestPriority.of(requestWithPriority("batch"), requestContext), RequestPriority.CRITICAL);
+  }
+
+  private static RestRequest requestWithPriority(String priority)
+  {
+    return new RestRequestBuilder(REQUEST_URI).setHeader(HttpConstants.HEADER_REQUEST_PRIORITY, priority).build();
+  }
+}
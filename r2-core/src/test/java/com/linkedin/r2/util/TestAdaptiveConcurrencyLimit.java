@@ -0,0 +1,130 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.util.clock.SettableClock;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class TestAdaptiveConcurrencyLimit
+{
+  private static final long WINDOW_MS = 100;
+  private static final long LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private SettableClock _clock;
+
+  @BeforeMethod
+  public void setUp()
+  {
+    _clock = new SettableClock();
+  }
+
+  @Test
+  public void testRejectsOverLimit()
+  {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 10, 100, 2.0, WINDOW_MS, _clock);
+    for (int i = 0; i < 10; i++)
+    {
+      Assert.assertTrue(limit.tryAcquire());
+    }
+    Assert.assertFalse(limit.tryAcquire());
+    Assert.assertEquals(limit.getInFlight(), 10);
+    Assert.assertEquals(limit.getRejectedCount(), 1);
+
+    limit.release(LATENCY_NANOS, false);
+    Assert.assertTrue(limit.tryAcquire());
+  }
+
+  @Test
+  public void testGrowsWhileLatencyIsStable()
+  {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 10, 1000, 2.0, WINDOW_MS, _clock);
+    for (int i = 0; i < 20; i++)
+    {
+      runWindow(limit, limit.getLimit(), LATENCY_NANOS);
+    }
+    Assert.assertTrue(limit.getLimit() > 40, "Limit: " + limit.getLimit());
+    Assert.assertEquals(limit.getNoLoadLatencyNanos(), LATENCY_NANOS);
+  }
+
+  @Test
+  public void testShrinksWhenRequestsQueue()
+  {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 1000, 2.0, WINDOW_MS, _clock);
+    runWindow(limit, 100, LATENCY_NANOS);
+    final int initialLimit = limit.getLimit();
+
+    // Latency ten times higher than without queueing, well above the tolerance of twice
+    for (int i = 0; i < 20; i++)
+    {
+      runWindow(limit, limit.getLimit(), LATENCY_NANOS * 10);
+    }
+    Assert.assertTrue(limit.getLimit() < initialLimit / 2, "Limit: " + limit.getLimit());
+
+    // Down to the min limit, no lower
+    for (int i = 0; i < 100; i++)
+    {
+      runWindow(limit, limit.getLimit(), LATENCY_NANOS * 10);
+    }
+    Assert.assertEquals(limit.getLimit(), 10);
+  }
+
+  @Test
+  public void testBacksOffOnDrops()
+  {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 1000, 2.0, WINDOW_MS, _clock);
+    Assert.assertTrue(limit.tryAcquire());
+    _clock.addDuration(WINDOW_MS);
+    limit.release(0, true);
+    Assert.assertTrue(limit.getLimit() < 100, "Limit: " + limit.getLimit());
+    Assert.assertEquals(limit.getNoLoadLatencyNanos(), 0);
+  }
+
+  @Test
+  public void testDoesNotGrowWhenUnderused()
+  {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 10, 1000, 2.0, WINDOW_MS, _clock);
+    for (int i = 0; i < 20; i++)
+    {
+      for (int j = 0; j < 10; j++)
+      {
+        runWindow(limit, 2, LATENCY_NANOS);
+      }
+    }
+    Assert.assertEquals(limit.getLimit(), 50);
+  }
+
+  /**
+   * Sends concurrent requests, ends the window and completes the requests, which samples the window once
+   * {@link AdaptiveConcurrencyLimit#DEFAULT_MIN_WINDOW_SAMPLES} of them have completed.
+   */
+  private void runWindow(AdaptiveConcurrencyLimit limit, int concurrency, long latencyNanos)
+  {
+    for (int i = 0; i < concurrency; i++)
+    {
+      Assert.assertTrue(limit.tryAcquire());
+    }
+    _clock.addDuration(WINDOW_MS);
+    for (int i = 0; i < concurrency; i++)
+    {
+      limit.release(latencyNanos, false);
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.test.util.ClockedExecutor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class TestHashedWheelTimer
+{
+  private static final long TIMEOUT_MS = 5000;
+
+  private ScheduledExecutorService _scheduler;
+  private HashedWheelTimer _timer;
+
+  @BeforeMethod
+  public void setUp()
+  {
+    _scheduler = Executors.newSingleThreadScheduledExecutor();
+    // A small wheel, so that the longer timeouts go around it several times
+    _timer = new HashedWheelTimer(_scheduler, 5, TimeUnit.MILLISECONDS, 8);
+  }
+
+  @AfterMethod
+  public void tearDown()
+  {
+    _timer.shutdownNow();
+  }
+
+  @Test
+  public void testTimeoutsAreNeverRunEarly() throws Exception
+  {
+    int count = 50;
+    CountDownLatch latch = new CountDownLatch(count);
+    AtomicLong earlyCount = new AtomicLong();
+    for (int i = 0; i < count; i++)
+    {
+      long delayMs = i * 3;
+      long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+      _timer.schedule(() -> {
+        if (System.nanoTime() < deadline)
+        {
+          earlyCount.incrementAndGet();
+        }
+        latch.countDown();
+      }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    Assert.assertTrue(latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(earlyCount.get(), 0);
+    Assert.assertEquals(_timer.getScheduledCount(), count);
+    Assert.assertEquals(_timer.getExpiredCount(), count);
+    Assert.assertEquals(_timer.getPendingCount(), 0);
+  }
+
+  @Test
+  public void testCancel()
+  {
+    // Runs the wheel on a controlled clock, so that no timeout can expire before all the cancellations are done
+    ClockedExecutor clockedExecutor = new ClockedExecutor();
+    HashedWheelTimer timer = new HashedWheelTimer(clockedExecutor, 5, TimeUnit.MILLISECONDS, 8, clockedExecutor);
+    List<ScheduledFuture<?>> futures = new ArrayList<>();
+    AtomicLong runCount = new AtomicLong();
+    for (int i = 0; i < 10; i++)
+    {
+      futures.add(timer.schedule(runCount::incrementAndGet, 20, TimeUnit.MILLISECONDS));
+    }
+    Assert.assertEquals(timer.getPendingCount(), 10);
+
+    for (int i = 0; i < 5; i++)
+    {
+      Assert.assertTrue(futures.get(i).cancel(false));
+      Assert.assertFalse(futures.get(i).cancel(false));
+    }
+    Assert.assertEquals(timer.getPendingCount(), 5);
+    Assert.assertEquals(timer.getCancelledCount(), 5);
+
+    clockedExecutor.runFor(19);
+    Assert.assertEquals(runCount.get(), 0);
+
+    // The timeouts are run at most one tick after their deadline
+    clockedExecutor.runFor(6);
+    for (int i = 5; i < 10; i++)
+    {
+      Assert.assertTrue(futures.get(i).isDone());
+      Assert.assertFalse(futures.get(i).isCancelled());
+    }
+    Assert.assertEquals(runCount.get(), 5);
+    Assert.assertEquals(timer.getPendingCount(), 0);
+    Assert.assertEquals(timer.getExpiredCount(), 5);
+  }
+
+  @Test
+  public void testCallable() throws Exception
+  {
+    ScheduledFuture<String> future = _timer.schedule(() -> "done", 10, TimeUnit.MILLISECONDS);
+    Assert.assertTrue(future.getDelay(TimeUnit.MILLISECONDS) <= 10);
+    Assert.assertEquals(future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS), "done");
+  }
+
+  @Test
+  public void testRestartsAfterIdle() throws Exception
+  {
+    _timer.schedule(() -> { }, 1, TimeUnit.MILLISECONDS).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    // Let the wheel go idle, and several revolutions elapse
+    Thread.sleep(100);
+
+    long start = System.nanoTime();
+    _timer.schedule(() -> { }, 30, TimeUnit.MILLISECONDS).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+  }
+
+  @Test
+  public void testWithTimeouts() throws Exception
+  {
+    CountDownLatch latch = new CountDownLatch(1);
+    Timeout<String> timeout = new Timeout<>(_timer, 10, TimeUnit.MILLISECONDS, "item");
+    timeout.addTimeoutTask(latch::countDown);
+    Assert.assertTrue(latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    Assert.assertNull(timeout.getItem());
+
+    SingleTimeout<String> singleTimeout = new SingleTimeout<>(_timer, 1, TimeUnit.MINUTES, "item", item -> { });
+    Assert.assertEquals(singleTimeout.getItem(), "item");
+    Assert.assertEquals(_timer.getPendingCount(), 0);
+    Assert.assertEquals(_timer.getCancelledCount(), 1);
+  }
+
+  @Test
+  public void testShutdown()
+  {
+    AtomicLong runCount = new AtomicLong();
+    ScheduledFuture<?> future = _timer.schedule(runCount::incrementAndGet, 1, TimeUnit.MINUTES);
+
+    _timer.shutdown();
+    Assert.assertTrue(_timer.isShutdown());
+    Assert.assertTrue(_scheduler.isShutdown());
+    Assert.assertTrue(future.isCancelled());
+    Assert.assertEquals(_timer.getPendingCount(), 0);
+
+    try
+    {
+      _timer.schedule(runCount::incrementAndGet, 1, TimeUnit.MILLISECONDS);
+      Assert.fail("Scheduling on a shut down timer should fail");
+    }
+    catch (RejectedExecutionException e)
+    {
+      // expected
+    }
+  }
+
+  @Test
+  public void testStop() throws Exception
+  {
+    AtomicLong runCount = new AtomicLong();
+    ScheduledFuture<?> future = _timer.schedule(runCount::incrementAndGet, 1, TimeUnit.MINUTES);
+
+    _timer.stop();
+    Assert.assertTrue(_timer.isShutdown());
+    Assert.assertTrue(future.isCancelled());
+    Assert.assertEquals(_timer.getPendingCount(), 0);
+
+    // The underlying scheduler is left running
+    Assert.assertFalse(_scheduler.isShutdown());
+    CountDownLatch latch = new CountDownLatch(1);
+    _scheduler.execute(latch::countDown);
+    Assert.assertTrue(latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+  }
+}
@@ -0,0 +1,143 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.r2.transport.common.bridge.server.RequestPriority;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class TestPriorityRequestScheduler
+{
+  private static final long TIMEOUT_SECONDS = 10;
+
+  private PriorityRequestScheduler _scheduler;
+  private CountDownLatch _blocked;
+  private List<String> _run;
+  private List<String> _shed;
+
+  @BeforeMethod
+  public void setUp() throws InterruptedException
+  {
+    _scheduler = new PriorityRequestScheduler(1, 3);
+    _run = new CopyOnWriteArrayList<>();
+    _shed = new CopyOnWriteArrayList<>();
+
+    // Keep the only thread busy, so that the following requests are queued
+    _blocked = new CountDownLatch(1);
+    final CountDownLatch started = new CountDownLatch(1);
+    _scheduler.execute(RequestPriority.NORMAL, () ->
+    {
+      started.countDown();
+      try
+      {
+        _blocked.await();
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+    }, () -> {});
+    Assert.assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+  }
+
+  @AfterMethod
+  public void tearDown()
+  {
+    _blocked.countDown();
+    _scheduler.shutdown();
+  }
+
+  @Test
+  public void testRunsHigherPriorityFirst() throws InterruptedException
+  {
+    final CountDownLatch done = new CountDownLatch(1);
+    _scheduler.execute(RequestPriority.BATCH, () ->
+    {
+      _run.add("batch");
+      done.countDown();
+    }, () -> _shed.add("batch"));
+    execute(RequestPriority.NORMAL, "normal");
+    execute(RequestPriority.CRITICAL, "critical");
+    Assert.assertEquals(_scheduler.getQueuedCount(), 3);
+
+    _blocked.countDown();
+    Assert.assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+    Assert.assertEquals(_run, Arrays.asList("critical", "normal", "batch"));
+    Assert.assertEquals(_shed, Arrays.asList());
+  }
+
+  @Test
+  public void testShedsOldestOfLowestPriority()
+  {
+    execute(RequestPriority.BATCH, "batch1");
+    execute(RequestPriority.BATCH, "batch2");
+    execute(RequestPriority.NORMAL, "normal");
+
+    execute(RequestPriority.CRITICAL, "critical");
+    Assert.assertEquals(_shed, Arrays.asList("batch1"));
+    Assert.assertEquals(_scheduler.getQueuedCount(RequestPriority.BATCH), 1);
+    Assert.assertEquals(_scheduler.getQueuedCount(RequestPriority.CRITICAL), 1);
+
+    execute(RequestPriority.NORMAL, "normal2");
+    Assert.assertEquals(_shed, Arrays.asList("batch1", "batch2"));
+    Assert.assertEquals(_scheduler.getShedCount(RequestPriority.BATCH), 2);
+    Assert.assertEquals(_scheduler.getQueuedCount(), 3);
+  }
+
+  @Test
+  public void testShedsRequestOfLowestQueuedPriority()
+  {
+    execute(RequestPriority.NORMAL, "normal1");
+    execute(RequestPriority.NORMAL, "normal2");
+    execute(RequestPriority.CRITICAL, "critical");
+
+    execute(RequestPriority.NORMAL, "normal3");
+    execute(RequestPriority.BATCH, "batch");
+    Assert.assertEquals(_shed, Arrays.asList("normal3", "batch"));
+    Assert.assertEquals(_scheduler.getShedCount(RequestPriority.NORMAL), 1);
+    Assert.assertEquals(_scheduler.getShedCount(RequestPriority.BATCH), 1);
+    Assert.assertEquals(_scheduler.getQueuedCount(), 3);
+  }
+
+  @Test
+  public void testShutdownShedsQueuedRequests()
+  {
+    execute(RequestPriority.CRITICAL, "critical");
+    execute(RequestPriority.BATCH, "batch");
+    _scheduler.shutdown();
+    Assert.assertEquals(_shed, Arrays.asList("critical", "batch"));
+    Assert.assertEquals(_scheduler.getQueuedCount(), 0);
+
+    execute(RequestPriority.CRITICAL, "late");
+    Assert.assertEquals(_shed, Arrays.asList("critical", "batch", "late"));
+    Assert.assertEquals(_run, Arrays.asList());
+  }
+
+  private void execute(RequestPriority priority, String name)
+  {
+    _scheduler.execute(priority, () -> _run.add(name), () -> _shed.add(name));
+  }
+}
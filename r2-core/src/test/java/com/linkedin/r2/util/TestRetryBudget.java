@@ -0,0 +1,138 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.util.clock.SettableClock;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class TestRetryBudget
+{
+  private static final long UPDATE_INTERVAL_MS = 1000;
+  private static final int AGGREGATED_INTERVAL_NUM = 5;
+
+  private SettableClock _clock;
+
+  @BeforeMethod
+  public void setUp()
+  {
+    _clock = new SettableClock();
+  }
+
+  @Test
+  public void testRetriesBoundedByRatio()
+  {
+    RetryBudget budget = new RetryBudget(0.2, 0, UPDATE_INTERVAL_MS, AGGREGATED_INTERVAL_NUM, _clock);
+    Assert.assertFalse(budget.tryWithdraw());
+
+    for (int i = 0; i < 10; i++)
+    {
+      budget.deposit();
+    }
+    Assert.assertEquals(budget.getBalance(), 2.0, 0.0001);
+    Assert.assertTrue(budget.tryWithdraw());
+    Assert.assertTrue(budget.tryWithdraw());
+    Assert.assertFalse(budget.tryWithdraw());
+
+    Assert.assertEquals(budget.getDepositCount(), 10);
+    Assert.assertEquals(budget.getWithdrawalCount(), 2);
+    Assert.assertEquals(budget.getRejectedCount(), 2);
+  }
+
+  @Test
+  public void testMinRetriesPerSecond()
+  {
+    RetryBudget budget = new RetryBudget(0.2, 2, UPDATE_INTERVAL_MS, AGGREGATED_INTERVAL_NUM, _clock);
+
+    // Two retries per second over a window of five seconds, without any successful call
+    for (int i = 0; i < 10; i++)
+    {
+      Assert.assertTrue(budget.tryWithdraw());
+    }
+    Assert.assertFalse(budget.tryWithdraw());
+  }
+
+  @Test
+  public void testTokensExpire()
+  {
+    RetryBudget budget = new RetryBudget(1.0, 0, UPDATE_INTERVAL_MS, AGGREGATED_INTERVAL_NUM, _clock);
+    budget.deposit();
+    budget.deposit();
+    Assert.assertTrue(budget.tryWithdraw());
+
+    _clock.addDuration(UPDATE_INTERVAL_MS * (AGGREGATED_INTERVAL_NUM - 1));
+    budget.deposit();
+    Assert.assertEquals(budget.getBalance(), 2.0, 0.0001);
+
+    // The first deposits and the withdrawal expire, the last deposit remains
+    _clock.addDuration(UPDATE_INTERVAL_MS);
+    Assert.assertEquals(budget.getBalance(), 1.0, 0.0001);
+
+    _clock.addDuration(UPDATE_INTERVAL_MS * AGGREGATED_INTERVAL_NUM * 10);
+    Assert.assertEquals(budget.getBalance(), 0.0, 0.0001);
+    Assert.assertFalse(budget.tryWithdraw());
+  }
+
+  @Test
+  public void testRecordSuccessOnce()
+  {
+    RetryBudget budget = new RetryBudget(1.0, 0, UPDATE_INTERVAL_MS, AGGREGATED_INTERVAL_NUM, _clock);
+    RequestContext requestContext = new RequestContext();
+
+    budget.recordSuccess(requestContext);
+    budget.recordSuccess(requestContext);
+    Assert.assertEquals(budget.getDepositCount(), 1);
+
+    Assert.assertTrue(RetryBudget.clearRecorded(requestContext));
+    Assert.assertFalse(RetryBudget.clearRecorded(requestContext));
+    budget.recordSuccess(requestContext);
+    Assert.assertEquals(budget.getDepositCount(), 2);
+  }
+
+  @Test
+  public void testRetryBudgets()
+  {
+    RetryBudgets budgets = new RetryBudgets(0.5, 0);
+    RetryBudget budget = budgets.getBudget("foo");
+
+    Assert.assertSame(budgets.getBudget("foo"), budget);
+    Assert.assertNotSame(budgets.getBudget("bar"), budget);
+    Assert.assertEquals(budget.getRetryRatio(), 0.5);
+    Assert.assertEquals(budgets.getBudgets().keySet().size(), 2);
+  }
+
+  @Test
+  public void testRetryBudgetsListener()
+  {
+    RetryBudgets budgets = new RetryBudgets(0.5, 0);
+    RetryBudget foo = budgets.getBudget("foo");
+    Map<String, RetryBudget> created = new HashMap<>();
+    budgets.addListener(created::put);
+    Assert.assertEquals(created, Collections.singletonMap("foo", foo));
+
+    RetryBudget bar = budgets.getBudget("bar");
+    budgets.getBudget("bar");
+    Assert.assertEquals(created.size(), 2);
+    Assert.assertSame(created.get("bar"), bar);
+  }
+}
@@ -0,0 +1,253 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.caprep.db;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.caprep.ReplayDriver;
+import com.linkedin.r2.caprep.db.BinaryMessageSerializer;
+import com.linkedin.r2.caprep.db.MessageSerializer;
+import com.linkedin.r2.caprep.db.SegmentedLogDbSink;
+import com.linkedin.r2.caprep.db.SegmentedLogDbSource;
+import com.linkedin.r2.caprep.db.SegmentedLogDbUtil;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestMethod;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.transport.common.AbstractClient;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class TestSegmentedLogDb
+{
+  private File _dir;
+
+  @BeforeMethod
+  public void setUp() throws IOException
+  {
+    _dir = Files.createTempDirectory("segmented-log").toFile();
+  }
+
+  @AfterMethod
+  public void tearDown()
+  {
+    for (File file : _dir.listFiles())
+    {
+      file.delete();
+    }
+    _dir.delete();
+  }
+
+  @Test
+  public void testBinarySerializer() throws IOException
+  {
+    final MessageSerializer serializer = new BinaryMessageSerializer();
+    final RestRequest req = new RestRequestBuilder(URI.create("http://localhost:1234/foo?bar=baz"))
+        .setMethod(RestMethod.PUT)
+        .setHeader("field-name1", "field-val1")
+        .addCookie("cookie-name1=cookie-value1")
+        .setEntity(new byte[] {0, 1, 2, '\r', '\n'})
+        .build();
+    final RestResponse res = new RestResponseBuilder()
+        .setStatus(404)
+        .setHeader("field-name2", "field-val2")
+        .setEntity(ByteString.copyString("not found", "UTF-8"))
+        .build();
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    serializer.writeRequest(out, req);
+    serializer.writeResponse(out, res);
+
+    final ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    Assert.assertEquals(serializer.readRestRequest(in), req);
+    Assert.assertEquals(serializer.readRestResponse(in), res);
+    Assert.assertEquals(in.available(), 0);
+  }
+
+  @Test
+  public void testReplay() throws IOException
+  {
+    try (SegmentedLogDbSink sink = new SegmentedLogDbSink(_dir))
+    {
+      sink.record(request("/a"), response("a1"));
+      sink.record(request("/b"), response("b"));
+      sink.record(request("/a"), response("a2"));
+    }
+
+    final SegmentedLogDbSource source = new SegmentedLogDbSource(_dir);
+    Assert.assertEquals(source.size(), 3);
+    Assert.assertEquals(entity(source.replay(request("/a"))), "a2");
+    Assert.assertEquals(entity(source.replay(request("/b"))), "b");
+    Assert.assertNull(source.replay(request("/c")));
+
+    // Requests are matched on their canonical form
+    final RestRequest uppercase = new RestRequestBuilder(URI.create("http://localhost:1234/b"))
+        .setHeader("FIELD-NAME", "field-val")
+        .build();
+    Assert.assertEquals(entity(source.replay(uppercase)), "b");
+  }
+
+  @Test
+  public void testSegments() throws IOException
+  {
+    try (SegmentedLogDbSink sink = new SegmentedLogDbSink(_dir, 256))
+    {
+      for (int i = 0; i < 10; i++)
+      {
+        sink.record(request("/" + i), response(Integer.toString(i)));
+      }
+    }
+    // A new segment is started when the sink is reopened
+    try (SegmentedLogDbSink sink = new SegmentedLogDbSink(_dir, 256))
+    {
+      sink.record(request("/10"), response("10"));
+    }
+    Assert.assertTrue(SegmentedLogDbUtil.listSegments(_dir).length > 2);
+
+    final SegmentedLogDbSource source = new SegmentedLogDbSource(_dir);
+    final List<String> entities = new ArrayList<>();
+    long lastTimestamp = 0;
+    for (SegmentedLogDbSource.CapturedExchange exchange : source)
+    {
+      Assert.assertTrue(exchange.getTimestampNanos() >= lastTimestamp);
+      lastTimestamp = exchange.getTimestampNanos();
+      Assert.assertEquals(exchange.getRequest().getURI().getPath(), "/" + entities.size());
+      entities.add(entity(exchange.getResponse()));
+    }
+    Assert.assertEquals(entities.size(), 11);
+    for (int i = 0; i < 11; i++)
+    {
+      Assert.assertEquals(entities.get(i), Integer.toString(i));
+      Assert.assertEquals(entity(source.replay(request("/" + i))), Integer.toString(i));
+    }
+  }
+
+  @Test
+  public void testTruncatedRecord() throws IOException
+  {
+    try (SegmentedLogDbSink sink = new SegmentedLogDbSink(_dir))
+    {
+      sink.record(request("/a"), response("a"));
+      sink.record(request("/b"), response("b"));
+    }
+    final File segment = SegmentedLogDbUtil.listSegments(_dir)[0];
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw"))
+    {
+      file.setLength(file.length() - 1);
+    }
+
+    final SegmentedLogDbSource source = new SegmentedLogDbSource(_dir);
+    Assert.assertEquals(source.size(), 1);
+    Assert.assertEquals(entity(source.replay(request("/a"))), "a");
+    Assert.assertNull(source.replay(request("/b")));
+  }
+
+  @Test
+  public void testReplayDriver() throws Exception
+  {
+    try (SegmentedLogDbSink sink = new SegmentedLogDbSink(_dir))
+    {
+      for (int i = 0; i < 20; i++)
+      {
+        sink.record(request("/" + i), response(Integer.toString(i)));
+      }
+    }
+
+    final List<String> paths = new ArrayList<>();
+    final AbstractClient client = new AbstractClient()
+    {
+      @Override
+      public void restRequest(RestRequest request, RequestContext requestContext, Callback<RestResponse> callback)
+      {
+        synchronized (paths)
+        {
+          paths.add(request.getURI().getPath());
+        }
+        if (paths.size() % 2 == 0)
+        {
+          callback.onSuccess(response("ok"));
+        }
+        else
+        {
+          callback.onError(new IOException());
+        }
+      }
+
+      @Override
+      public void streamRequest(StreamRequest request, RequestContext requestContext, Callback<StreamResponse> callback)
+      {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void shutdown(Callback<None> callback)
+      {
+        callback.onSuccess(None.none());
+      }
+    };
+
+    final ReplayDriver driver = new ReplayDriver(new SegmentedLogDbSource(_dir), client, Double.POSITIVE_INFINITY);
+    final FutureCallback<None> done = new FutureCallback<>();
+    driver.start(done);
+    done.get(10, TimeUnit.SECONDS);
+
+    Assert.assertEquals(driver.getSentCount(), 20);
+    Assert.assertEquals(driver.getSucceededCount(), 10);
+    Assert.assertEquals(driver.getFailedCount(), 10);
+    for (int i = 0; i < 20; i++)
+    {
+      Assert.assertEquals(paths.get(i), "/" + i);
+    }
+  }
+
+  private static RestRequest request(String path)
+  {
+    return new RestRequestBuilder(URI.create("http://localhost:1234" + path))
+        .setHeader("field-name", "field-val")
+        .build();
+  }
+
+  private static RestResponse response(String entity)
+  {
+    return new RestResponseBuilder().setEntity(ByteString.copyString(entity, "UTF-8")).build();
+  }
+
+  private static String entity(RestResponse res)
+  {
+    Assert.assertNotNull(res);
+    return res.getEntity().asString("UTF-8");
+  }
+}
@@ -0,0 +1,178 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.filter;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.NextFilter;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.filter.transport.ClientRequestCoalescingFilter;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestClientRequestCoalescingFilter
+{
+  private static final URI URI = java.net.URI.create("http://localhost/resource/1");
+
+  @Test
+  public void testIdenticalRequestsAreCoalesced()
+  {
+    ClientRequestCoalescingFilter filter = new ClientRequestCoalescingFilter();
+    RecordingNextFilter leader = new RecordingNextFilter();
+    RecordingNextFilter follower = new RecordingNextFilter();
+    RequestContext leaderContext = new RequestContext();
+
+    filter.onRestRequest(newGet().build(), leaderContext, new HashMap<>(), leader);
+    filter.onRestRequest(newGet().build(), new RequestContext(), new HashMap<>(), follower);
+
+    Assert.assertEquals(leader._requests, 1);
+    Assert.assertEquals(follower._requests, 0);
+    Assert.assertEquals(filter.getCoalescedCount(), 1);
+    Assert.assertEquals(filter.getInFlightCount(), 1);
+
+    RestResponse response = new RestResponseBuilder().setEntity(ByteString.copyString("ok", "UTF-8")).build();
+    Map<String, String> wireAttrs = new HashMap<>();
+    wireAttrs.put("attr", "value");
+    filter.onRestResponse(response, leaderContext, wireAttrs, leader);
+
+    Assert.assertEquals(leader._responses, Collections.singletonList(response));
+    Assert.assertEquals(follower._responses, Collections.singletonList(response));
+    Assert.assertEquals(follower._wireAttrs, wireAttrs);
+    Assert.assertNotSame(follower._wireAttrs, wireAttrs);
+    Assert.assertEquals(filter.getInFlightCount(), 0);
+
+    // Once the leader completed, an identical request is sent again
+    RecordingNextFilter next = new RecordingNextFilter();
+    filter.onRestRequest(newGet().build(), new RequestContext(), new HashMap<>(), next);
+    Assert.assertEquals(next._requests, 1);
+  }
+
+  @Test
+  public void testErrorIsPropagatedToWaiters()
+  {
+    ClientRequestCoalescingFilter filter = new ClientRequestCoalescingFilter();
+    RecordingNextFilter leader = new RecordingNextFilter();
+    RecordingNextFilter follower = new RecordingNextFilter();
+    RequestContext leaderContext = new RequestContext();
+
+    filter.onRestRequest(newGet().build(), leaderContext, new HashMap<>(), leader);
+    filter.onRestRequest(newGet().build(), new RequestContext(), new HashMap<>(), follower);
+
+    Exception error = new Exception("failed");
+    filter.onRestError(error, leaderContext, new HashMap<>(), leader);
+
+    Assert.assertEquals(leader._errors, Collections.singletonList(error));
+    Assert.assertEquals(follower._errors, Collections.singletonList(error));
+    Assert.assertEquals(filter.getInFlightCount(), 0);
+  }
+
+  @Test
+  public void testDifferentRequestsAreNotCoalesced()
+  {
+    ClientRequestCoalescingFilter filter = new ClientRequestCoalescingFilter();
+    RecordingNextFilter next = new RecordingNextFilter();
+
+    filter.onRestRequest(newGet().build(), new RequestContext(), new HashMap<>(), next);
+    filter.onRestRequest(newGet().setHeader("Accept", "application/json").build(), new RequestContext(),
+        new HashMap<>(), next);
+    filter.onRestRequest(newGet().setCookies(Collections.singletonList("a=b")).build(), new RequestContext(),
+        new HashMap<>(), next);
+    filter.onRestRequest(new RestRequestBuilder(java.net.URI.create("http://localhost/resource/2")).build(),
+        new RequestContext(), new HashMap<>(), next);
+
+    Assert.assertEquals(next._requests, 4);
+    Assert.assertEquals(filter.getCoalescedCount(), 0);
+  }
+
+  @Test
+  public void testIgnoredHeaders()
+  {
+    ClientRequestCoalescingFilter filter =
+        new ClientRequestCoalescingFilter(Collections.singleton("x-trace-id"));
+    RecordingNextFilter next = new RecordingNextFilter();
+
+    filter.onRestRequest(newGet().setHeader("X-Trace-Id", "1").build(), new RequestContext(), new HashMap<>(), next);
+    filter.onRestRequest(newGet().setHeader("X-Trace-Id", "2").build(), new RequestContext(), new HashMap<>(), next);
+
+    Assert.assertEquals(next._requests, 1);
+    Assert.assertEquals(filter.getCoalescedCount(), 1);
+  }
+
+  @Test
+  public void testNonCoalescableRequests()
+  {
+    ClientRequestCoalescingFilter filter = new ClientRequestCoalescingFilter();
+    RecordingNextFilter next = new RecordingNextFilter();
+
+    for (int i = 0; i < 2; i++)
+    {
+      filter.onRestRequest(newGet().setMethod("POST").build(), new RequestContext(), new HashMap<>(), next);
+      filter.onRestRequest(newGet().setEntity(new byte[]{1}).build(), new RequestContext(), new HashMap<>(), next);
+      RequestContext optOut = new RequestContext();
+      optOut.putLocalAttr(R2Constants.REQUEST_COALESCING_OFF, true);
+      filter.onRestRequest(newGet().build(), optOut, new HashMap<>(), next);
+    }
+
+    Assert.assertEquals(next._requests, 6);
+    Assert.assertEquals(filter.getInFlightCount(), 0);
+    Assert.assertEquals(filter.getCoalescedCount(), 0);
+  }
+
+  private static RestRequestBuilder newGet()
+  {
+    return new RestRequestBuilder(URI).setMethod("GET");
+  }
+
+  private static class RecordingNextFilter implements NextFilter<RestRequest, RestResponse>
+  {
+    private int _requests;
+    private final List<RestResponse> _responses = new ArrayList<>();
+    private final List<Throwable> _errors = new ArrayList<>();
+    private Map<String, String> _wireAttrs;
+
+    @Override
+    public void onRequest(RestRequest req, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      _requests++;
+    }
+
+    @Override
+    public void onResponse(RestResponse res, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      _responses.add(res);
+      _wireAttrs = wireAttrs;
+    }
+
+    @Override
+    public void onError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      _errors.add(ex);
+      _wireAttrs = wireAttrs;
+    }
+  }
+}
@@ -0,0 +1,237 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.filter;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.NextFilter;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.filter.transport.ClientResponseCacheFilter;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestException;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import com.linkedin.util.clock.SettableClock;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestClientResponseCacheFilter
+{
+  private static final URI URI = java.net.URI.create("http://localhost/resource/1");
+
+  @Test
+  public void testFreshResponseIsServedFromCache()
+  {
+    SettableClock clock = new SettableClock();
+    ClientResponseCacheFilter filter = new ClientResponseCacheFilter(1024 * 1024, Collections.emptySet(), clock);
+    RestResponse response = newResponse("max-age=10", null);
+
+    Assert.assertNotNull(send(filter, newGet().build(), response)._request);
+    Assert.assertEquals(filter.getMissCount(), 1);
+
+    clock.addDuration(5000);
+    Exchange exchange = send(filter, newGet().build(), null);
+    Assert.assertNull(exchange._request);
+    Assert.assertSame(exchange._response, response);
+    Assert.assertEquals(filter.getHitCount(), 1);
+
+    // A request asking for no-cache bypasses the cached response
+    Assert.assertNotNull(send(filter, newGet().setHeader(HttpConstants.CACHE_CONTROL, "no-cache").build(), response)._request);
+
+    // Once expired, and without ETag, the request is sent again
+    clock.addDuration(10000);
+    Assert.assertNotNull(send(filter, newGet().build(), response)._request);
+    Assert.assertEquals(filter.getHitCount(), 1);
+  }
+
+  @Test
+  public void testHitReplaysWireAttributes()
+  {
+    ClientResponseCacheFilter filter = new ClientResponseCacheFilter(1024 * 1024);
+    RestResponse response = newResponse("max-age=10", null);
+
+    Exchange exchange = new Exchange();
+    RequestContext requestContext = new RequestContext();
+    filter.onRestRequest(newGet().build(), requestContext, new HashMap<>(), exchange);
+    Map<String, String> wireAttrs = new HashMap<>();
+    wireAttrs.put("X-Wire-Attr", "value");
+    filter.onRestResponse(response, requestContext, wireAttrs, exchange);
+
+    exchange = send(filter, newGet().build(), null);
+    Assert.assertSame(exchange._response, response);
+    Assert.assertEquals(exchange._wireAttrs, wireAttrs);
+
+    // Each hit gets its own copy of the attributes
+    exchange._wireAttrs.clear();
+    Assert.assertEquals(send(filter, newGet().build(), null)._wireAttrs, wireAttrs);
+  }
+
+  @Test
+  public void testRevalidation()
+  {
+    SettableClock clock = new SettableClock();
+    ClientResponseCacheFilter filter = new ClientResponseCacheFilter(1024 * 1024, Collections.emptySet(), clock);
+    RestResponse response = newResponse(null, "\"v1\"");
+
+    send(filter, newGet().build(), response);
+
+    // A 304 reported as an error by the transport is replaced with the cached response
+    RestResponse notModified = new RestResponseBuilder().setStatus(HttpConstants.NOT_MODIFIED).build();
+    Exchange exchange = send(filter, newGet().build(), new RestException(notModified, "Not modified"));
+    Assert.assertEquals(exchange._request.getHeader(HttpConstants.IF_NONE_MATCH), "\"v1\"");
+    Assert.assertSame(exchange._response, response);
+    Assert.assertNull(exchange._error);
+
+    // A 304 delivered as a response is replaced as well
+    exchange = send(filter, newGet().build(), notModified);
+    Assert.assertSame(exchange._response, response);
+    Assert.assertEquals(filter.getRevalidatedCount(), 2);
+
+    // A changed resource replaces the cached response
+    RestResponse changed = newResponse(null, "\"v2\"");
+    exchange = send(filter, newGet().build(), changed);
+    Assert.assertSame(exchange._response, changed);
+    exchange = send(filter, newGet().build(), notModified);
+    Assert.assertEquals(exchange._request.getHeader(HttpConstants.IF_NONE_MATCH), "\"v2\"");
+    Assert.assertSame(exchange._response, changed);
+  }
+
+  @Test
+  public void testNotCached()
+  {
+    ClientResponseCacheFilter filter = new ClientResponseCacheFilter(1024 * 1024);
+
+    send(filter, newGet().build(), newResponse("no-store, max-age=100", "\"v1\""));
+    send(filter, newGet().setHeader("Accept", "a").build(), newResponse(null, null));
+    RequestContext optOut = new RequestContext();
+    optOut.putLocalAttr(R2Constants.RESPONSE_CACHE_OFF, true);
+    send(filter, newGet().setHeader("Accept", "b").build(), optOut, newResponse("max-age=100", null));
+    send(filter, newGet().setMethod("POST").build(), newResponse("max-age=100", null));
+    send(filter, newGet().build(), new RestException(newResponse("max-age=100", null), "error"));
+
+    Assert.assertEquals(filter.getSizeBytes(), 0);
+  }
+
+  @Test
+  public void testEviction()
+  {
+    RestResponse response = newResponse("max-age=100", null);
+    ClientResponseCacheFilter filter = new ClientResponseCacheFilter(2500);
+
+    for (int i = 0; i < 10; i++)
+    {
+      send(filter, newGet(i).build(), response);
+      Assert.assertTrue(filter.getSizeBytes() <= 2500);
+    }
+    Assert.assertTrue(filter.getEvictionCount() > 0);
+
+    // The most recently used response is still cached, the least recently used one is not
+    Assert.assertNull(send(filter, newGet(9).build(), response)._request);
+    Assert.assertNotNull(send(filter, newGet(0).build(), response)._request);
+
+    // A response larger than the cache is never stored
+    filter.clear();
+    send(filter, newGet().build(), new RestResponseBuilder(response).setEntity(new byte[4000]).build());
+    Assert.assertEquals(filter.getSizeBytes(), 0);
+  }
+
+  private static RestRequestBuilder newGet()
+  {
+    return new RestRequestBuilder(URI).setMethod("GET");
+  }
+
+  private static RestRequestBuilder newGet(int id)
+  {
+    return new RestRequestBuilder(java.net.URI.create("http://localhost/resource/" + id)).setMethod("GET");
+  }
+
+  private static RestResponse newResponse(String cacheControl, String eTag)
+  {
+    RestResponseBuilder builder = new RestResponseBuilder().setEntity(ByteString.copy(new byte[1000]));
+    if (cacheControl != null)
+    {
+      builder.setHeader(HttpConstants.CACHE_CONTROL, cacheControl);
+    }
+    if (eTag != null)
+    {
+      builder.setHeader(HttpConstants.ETAG, eTag);
+    }
+    return builder.build();
+  }
+
+  private static Exchange send(ClientResponseCacheFilter filter, RestRequest request, Object result)
+  {
+    return send(filter, request, new RequestContext(), result);
+  }
+
+  /**
+   * Sends the request through the filter and, if it is not answered by the filter, answers it with the given
+   * response or error.
+   */
+  private static Exchange send(ClientResponseCacheFilter filter, RestRequest request, RequestContext requestContext,
+      Object result)
+  {
+    Exchange exchange = new Exchange();
+    filter.onRestRequest(request, requestContext, new HashMap<>(), exchange);
+    if (exchange._request != null)
+    {
+      if (result instanceof Throwable)
+      {
+        filter.onRestError((Throwable) result, requestContext, new HashMap<>(), exchange);
+      }
+      else
+      {
+        filter.onRestResponse((RestResponse) result, requestContext, new HashMap<>(), exchange);
+      }
+    }
+    return exchange;
+  }
+
+  private static class Exchange implements NextFilter<RestRequest, RestResponse>
+  {
+    private RestRequest _request;
+    private RestResponse _response;
+    private Throwable _error;
+    private Map<String, String> _wireAttrs;
+
+    @Override
+    public void onRequest(RestRequest req, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      _request = req;
+    }
+
+    @Override
+    public void onResponse(RestResponse res, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      _response = res;
+      _wireAttrs = wireAttrs;
+    }
+
+    @Override
+    public void onError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      _error = ex;
+    }
+  }
+}
@@ -27,9 +27,18 @@ import com.linkedin.r2.filter.message.rest.RestFilter;
 import com.linkedin.r2.filter.transport.ClientRetryFilter;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.testutils.filter.FilterUtil;
+import com.linkedin.r2.util.RetryBudget;
+import com.linkedin.r2.util.RetryBudgets;
+import com.linkedin.util.clock.SettableClock;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -93,4 +102,86 @@ public class TestClientRetryFilter
     FilterChain filterChain = FilterChains.createRestChain(captureFilter, clientRetryFilter);
     FilterUtil.fireRestError(filterChain, new RetriableRequestException("exception"), new HashMap<>());
   }
+
+  @Test
+  public void testRetryBudget()
+  {
+    RetryBudget retryBudget = new RetryBudget(0.5, 0, 1000, 10, new SettableClock());
+    ClientRetryFilter clientRetryFilter = new ClientRetryFilter(retryBudget);
+    List<Boolean> doNotRetryOverrides = new ArrayList<>();
+    RestFilter captureFilter = new RestFilter()
+    {
+      @Override
+      public void onRestError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs,
+          NextFilter<RestRequest, RestResponse> nextFilter)
+      {
+        Assert.assertTrue(ex instanceof RetriableRequestException);
+        doNotRetryOverrides.add(((RetriableRequestException) ex).getDoNotRetryOverride());
+      }
+    };
+    Map<String, String> wireAttributes = new HashMap<>();
+    wireAttributes.put(R2Constants.RETRY_MESSAGE_ATTRIBUTE_KEY, "this is a retry");
+    FilterChain filterChain = FilterChains.createRestChain(captureFilter, clientRetryFilter);
+
+    // Two successful calls earn a single retry
+    FilterUtil.fireSimpleRestResponse(filterChain);
+    FilterUtil.fireSimpleRestResponse(filterChain);
+    Assert.assertEquals(retryBudget.getDepositCount(), 2);
+
+    FilterUtil.fireRestError(filterChain, new RemoteInvocationException("exception"), wireAttributes);
+    FilterUtil.fireRestError(filterChain, new RemoteInvocationException("exception"), wireAttributes);
+    Assert.assertEquals(doNotRetryOverrides, Arrays.asList(false, true));
+    Assert.assertEquals(retryBudget.getWithdrawalCount(), 1);
+    Assert.assertEquals(retryBudget.getRejectedCount(), 1);
+  }
+
+  @Test
+  public void testPerServiceRetryBudgets()
+  {
+    SettableClock clock = new SettableClock();
+    RetryBudgets retryBudgets = new RetryBudgets(serviceName -> new RetryBudget(0.5, 0, 1000, 10, clock));
+    ClientRetryFilter clientRetryFilter = new ClientRetryFilter(retryBudgets);
+    List<Boolean> doNotRetryOverrides = new ArrayList<>();
+    RestFilter captureFilter = new RestFilter()
+    {
+      @Override
+      public void onRestError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs,
+          NextFilter<RestRequest, RestResponse> nextFilter)
+      {
+        doNotRetryOverrides.add(((RetriableRequestException) ex).getDoNotRetryOverride());
+      }
+    };
+    FilterChain filterChain = FilterChains.createRestChain(captureFilter, clientRetryFilter);
+    RestRequest request = new RestRequestBuilder(URI.create("http://host1:1234/resource")).build();
+
+    // Two successful calls to the service set by the load balancer earn it a single retry
+    for (int i = 0; i < 2; i++)
+    {
+      RequestContext requestContext = new RequestContext();
+      requestContext.putLocalAttr(RetryBudgets.SERVICE_NAME_KEY, "service1");
+      FilterUtil.fireRestRequest(filterChain, request, requestContext, new HashMap<>());
+      FilterUtil.fireRestResponse(filterChain, FilterUtil.simpleRestResponse(), requestContext, new HashMap<>());
+    }
+    Assert.assertEquals(retryBudgets.getBudget("service1").getDepositCount(), 2);
+
+    Map<String, String> wireAttributes = new HashMap<>();
+    wireAttributes.put(R2Constants.RETRY_MESSAGE_ATTRIBUTE_KEY, "this is a retry");
+
+    // Without a service in the context, the budget is the one of the host, which earned no retry
+    RequestContext hostRequestContext = new RequestContext();
+    FilterUtil.fireRestRequest(filterChain, request, hostRequestContext, new HashMap<>());
+    FilterUtil.fireRestError(filterChain, new RemoteInvocationException("exception"), hostRequestContext,
+        wireAttributes);
+
+    RequestContext serviceRequestContext = new RequestContext();
+    serviceRequestContext.putLocalAttr(RetryBudgets.SERVICE_NAME_KEY, "service1");
+    FilterUtil.fireRestRequest(filterChain, request, serviceRequestContext, new HashMap<>());
+    FilterUtil.fireRestError(filterChain, new RemoteInvocationException("exception"), serviceRequestContext,
+        wireAttributes);
+
+    Assert.assertEquals(doNotRetryOverrides, Arrays.asList(true, false));
+    Assert.assertEquals(retryBudgets.getBudget("host1:1234").getRejectedCount(), 1);
+    Assert.assertEquals(retryBudgets.getBudget("service1").getWithdrawalCount(), 1);
+    Assert.assertEquals(retryBudgets.getBudgets().keySet(), new HashSet<>(Arrays.asList("service1", "host1:1234")));
+  }
 }
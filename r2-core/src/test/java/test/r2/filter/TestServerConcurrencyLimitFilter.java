@@ -0,0 +1,118 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.filter;
+
+import com.linkedin.r2.RetriableRequestException;
+import com.linkedin.r2.filter.FilterChain;
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.filter.NextFilter;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.filter.message.rest.RestFilter;
+import com.linkedin.r2.filter.message.stream.StreamFilter;
+import com.linkedin.r2.filter.transport.ServerConcurrencyLimitFilter;
+import com.linkedin.r2.filter.transport.ServerRetryFilter;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestException;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.stream.StreamException;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.testutils.filter.FilterUtil;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import com.linkedin.r2.util.AdaptiveConcurrencyLimit;
+import com.linkedin.util.clock.SettableClock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestServerConcurrencyLimitFilter
+{
+  @Test
+  public void testRejectsOverLimit()
+  {
+    final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 10, 2.0, 100, new SettableClock());
+    final List<Throwable> errors = new ArrayList<>();
+    final List<Map<String, String>> errorWireAttrs = new ArrayList<>();
+    final RestFilter captureFilter = new RestFilter()
+    {
+      @Override
+      public void onRestError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs,
+          NextFilter<RestRequest, RestResponse> nextFilter)
+      {
+        errors.add(ex);
+        errorWireAttrs.add(wireAttrs);
+      }
+    };
+    final FilterChain filterChain = FilterChains.createRestChain(captureFilter, new ServerRetryFilter(),
+        new ServerConcurrencyLimitFilter(limit, 3));
+
+    final RequestContext admitted = new RequestContext();
+    FilterUtil.fireRestRequest(filterChain, FilterUtil.simpleRestRequest(), admitted, new HashMap<>());
+    Assert.assertTrue(errors.isEmpty());
+    Assert.assertEquals(limit.getInFlight(), 1);
+
+    FilterUtil.fireRestRequest(filterChain, FilterUtil.simpleRestRequest(), new RequestContext(), new HashMap<>());
+    Assert.assertEquals(errors.size(), 1);
+    final RestResponse response = ((RestException) errors.get(0)).getResponse();
+    Assert.assertEquals(response.getStatus(), HttpConstants.SERVICE_UNAVAILABLE);
+    Assert.assertEquals(response.getHeader(HttpConstants.RETRY_AFTER), "3");
+    Assert.assertTrue(errors.get(0).getCause() instanceof RetriableRequestException);
+    Assert.assertNotNull(errorWireAttrs.get(0).get(R2Constants.RETRY_MESSAGE_ATTRIBUTE_KEY));
+    // The rejected request did not release the permit of the admitted one
+    Assert.assertEquals(limit.getInFlight(), 1);
+
+    FilterUtil.fireRestResponse(filterChain, FilterUtil.simpleRestResponse(), admitted, new HashMap<>());
+    Assert.assertEquals(limit.getInFlight(), 0);
+    FilterUtil.fireRestRequest(filterChain, FilterUtil.simpleRestRequest(), new RequestContext(), new HashMap<>());
+    Assert.assertEquals(errors.size(), 1);
+    Assert.assertEquals(limit.getInFlight(), 1);
+  }
+
+  @Test
+  public void testStreamRejectsOverLimit()
+  {
+    final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 10, 2.0, 100, new SettableClock());
+    final List<Throwable> errors = new ArrayList<>();
+    final StreamFilter captureFilter = new StreamFilter()
+    {
+      @Override
+      public void onStreamError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs,
+          NextFilter<StreamRequest, StreamResponse> nextFilter)
+      {
+        errors.add(ex);
+      }
+    };
+    final FilterChain filterChain = FilterChains.createStreamChain(captureFilter,
+        new ServerConcurrencyLimitFilter(limit, 1));
+
+    final RequestContext admitted = new RequestContext();
+    FilterUtil.fireStreamRequest(filterChain, FilterUtil.simpleStreamRequest(), admitted, new HashMap<>());
+    FilterUtil.fireStreamRequest(filterChain, FilterUtil.simpleStreamRequest(), new RequestContext(), new HashMap<>());
+    Assert.assertEquals(errors.size(), 1);
+    Assert.assertEquals(((StreamException) errors.get(0)).getResponse().getStatus(), HttpConstants.SERVICE_UNAVAILABLE);
+
+    // Errors release the permit as well
+    FilterUtil.fireStreamError(filterChain, new TimeoutException(), admitted, new HashMap<>());
+    Assert.assertEquals(limit.getInFlight(), 0);
+  }
+}
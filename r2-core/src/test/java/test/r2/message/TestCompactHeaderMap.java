@@ -0,0 +1,193 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.message;
+
+import com.linkedin.r2.message.CompactHeaderMap;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestCompactHeaderMap
+{
+  @Test
+  public void testCaseInsensitiveNames()
+  {
+    CompactHeaderMap headers = new CompactHeaderMap(1);
+    headers.put("Content-Type", "application/json");
+    headers.put("X-Custom", "a");
+    Assert.assertNull(headers.put("x-restli-protocol-version", "2.0.0"));
+
+    Assert.assertEquals(headers.get("content-type"), "application/json");
+    Assert.assertEquals(headers.get("CONTENT-TYPE"), "application/json");
+    Assert.assertEquals(headers.get("x-custom"), "a");
+    Assert.assertEquals(headers.get("X-RestLi-Protocol-Version"), "2.0.0");
+    Assert.assertNull(headers.get("Accept"));
+    Assert.assertNull(headers.get("X-Other"));
+
+    // The name under which the header was first put is kept
+    Assert.assertEquals(headers.put("CONTENT-TYPE", "application/x-pson"), "application/json");
+    Assert.assertEquals(headers.size(), 3);
+    Assert.assertEquals(headers.keySet().iterator().next(), "Content-Type");
+
+    Assert.assertEquals(headers.remove("content-type"), "application/x-pson");
+    Assert.assertNull(headers.get("Content-Type"));
+    Assert.assertEquals(headers.get("X-RestLi-Protocol-Version"), "2.0.0");
+    Assert.assertEquals(headers.size(), 2);
+  }
+
+  @Test
+  public void testEqualToTreeMap()
+  {
+    Map<String, String> treeMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    CompactHeaderMap headers = new CompactHeaderMap();
+    for (String name : Arrays.asList("X-B", "Accept", "x-a", "Content-Length", "Location"))
+    {
+      treeMap.put(name, name + "-value");
+      headers.put(name, name + "-value");
+    }
+
+    Assert.assertEquals(headers, treeMap);
+    Assert.assertEquals(treeMap, headers);
+    Assert.assertEquals(headers.hashCode(), treeMap.hashCode());
+    Assert.assertEquals(CompactHeaderMap.copyOf(treeMap), headers);
+  }
+
+  @Test
+  public void testIteratorRemove()
+  {
+    CompactHeaderMap headers = new CompactHeaderMap();
+    headers.put("Accept", "1");
+    headers.put("X-A", "2");
+    headers.put("Content-Type", "3");
+
+    Iterator<Map.Entry<String, String>> iterator = headers.entrySet().iterator();
+    while (iterator.hasNext())
+    {
+      if (iterator.next().getKey().startsWith("X"))
+      {
+        iterator.remove();
+      }
+    }
+    Assert.assertEquals(headers.size(), 2);
+    Assert.assertEquals(headers.get("content-type"), "3");
+    Assert.assertEquals(headers.get("accept"), "1");
+  }
+
+  @Test
+  public void testManyHeaders()
+  {
+    CompactHeaderMap headers = new CompactHeaderMap();
+    for (int i = 0; i < 300; i++)
+    {
+      headers.put("X-Header-" + i, String.valueOf(i));
+    }
+    headers.put("Content-Type", "type");
+    headers.put("Accept", "accept");
+    Assert.assertEquals(headers.get("content-type"), "type");
+
+    RestRequest request = new RestRequestBuilder(URI.create("/")).setHeaders(headers).build();
+    for (int i = 0; i < 300; i++)
+    {
+      Assert.assertEquals(request.getHeader("x-header-" + i), String.valueOf(i));
+    }
+    Assert.assertEquals(request.getHeader("CONTENT-TYPE"), "type");
+    Assert.assertEquals(request.getHeader("accept"), "accept");
+
+    headers.remove("X-Header-0");
+    Assert.assertEquals(headers.get("content-type"), "type");
+    Assert.assertEquals(headers.get("accept"), "accept");
+  }
+
+  @Test
+  public void testBuilderHandoff()
+  {
+    RestRequestBuilder builder = new RestRequestBuilder(URI.create("/"))
+        .setHeader("X-B", "b")
+        .setHeader("Content-Type", "type")
+        .setHeader("x-a", "a");
+    RestRequest request = builder.build();
+
+    // Headers are iterated in case insensitive order, and are immutable
+    Assert.assertEquals(new ArrayList<>(request.getHeaders().keySet()), Arrays.asList("Content-Type", "x-a", "X-B"));
+    try
+    {
+      request.getHeaders().put("X-C", "c");
+      Assert.fail("Message headers should be immutable");
+    }
+    catch (UnsupportedOperationException e)
+    {
+      // expected
+    }
+
+    // Modifying the builder does not affect the built message, and copying the message does not copy its headers
+    builder.setHeader("X-C", "c").removeHeader("x-a");
+    Assert.assertEquals(request.getHeaders().size(), 3);
+    Assert.assertEquals(builder.getHeaders().size(), 3);
+    Assert.assertNull(builder.getHeader("X-A"));
+
+    RestRequest copy = request.builder().build();
+    Assert.assertSame(copy.getHeaders(), request.getHeaders());
+    Assert.assertEquals(copy, request);
+
+    RestRequest modified = request.builder().addHeaderValue("x-b", "c").build();
+    Assert.assertEquals(modified.getHeader("X-B"), "b,c");
+    Assert.assertEquals(request.getHeader("X-B"), "b");
+
+    List<String> names = new ArrayList<>(request.builder().clearHeaders().setHeader("Z", "z").build().getHeaders().keySet());
+    Assert.assertEquals(names, Arrays.asList("Z"));
+  }
+
+  @Test
+  public void testBuilderHeadersView()
+  {
+    RestRequestBuilder builder = new RestRequestBuilder(URI.create("/")).setHeader("X-B", "b");
+    Map<String, String> headers = builder.getHeaders();
+
+    // The view follows the builder, across the copies made after handing its headers over to a message
+    builder.setHeader("x-a", "a");
+    Assert.assertEquals(headers.get("X-A"), "a");
+    RestRequest request = builder.build();
+    builder.setHeader("X-C", "c").removeHeader("X-B");
+    Assert.assertEquals(new ArrayList<>(headers.keySet()), Arrays.asList("x-a", "X-C"));
+    Assert.assertEquals(headers, builder.getHeaders());
+    Assert.assertEquals(request.getHeaders().size(), 2);
+
+    try
+    {
+      headers.put("X-D", "d");
+      Assert.fail("Builder headers should be unmodifiable");
+    }
+    catch (UnsupportedOperationException e)
+    {
+      // expected
+    }
+
+    // Building a message from the view still shares the headers
+    RestRequest shared = new RestRequestBuilder(URI.create("/")).setHeaders(headers).build();
+    Assert.assertEquals(shared.getHeaders(), headers);
+    Assert.assertSame(builder.build().getHeaders(), builder.build().getHeaders());
+  }
+}
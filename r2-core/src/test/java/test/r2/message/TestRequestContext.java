@@ -0,0 +1,183 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.message;
+
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.RequestContextKey;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestRequestContext
+{
+  private static final RequestContextKey<String> STRING_KEY = RequestContextKey.of("TEST_STRING_KEY", String.class);
+  private static final RequestContextKey<Number> NUMBER_KEY = RequestContextKey.of("TEST_NUMBER_KEY", Number.class);
+
+  @Test
+  public void testTypedAndStringAccessAgree()
+  {
+    RequestContext context = new RequestContext();
+    context.putLocalAttr(STRING_KEY, "value");
+    Assert.assertEquals(context.getLocalAttr(STRING_KEY), "value");
+    Assert.assertEquals(context.getLocalAttr("TEST_STRING_KEY"), "value");
+    Assert.assertEquals(context.getLocalAttrs().get("TEST_STRING_KEY"), "value");
+
+    context.putLocalAttr("TEST_NUMBER_KEY", 10);
+    Assert.assertEquals(context.getLocalAttr(NUMBER_KEY), 10);
+
+    // A value of another type set by name makes the typed key fail
+    context.putLocalAttr("TEST_STRING_KEY", 1);
+    try
+    {
+      context.getLocalAttr(STRING_KEY);
+      Assert.fail("Reading a value of another type should fail");
+    }
+    catch (ClassCastException e)
+    {
+      // expected
+    }
+    Assert.assertEquals(context.getLocalAttr("TEST_STRING_KEY"), 1);
+
+    Assert.assertEquals(context.removeLocalAttr(NUMBER_KEY), 10);
+    Assert.assertNull(context.getLocalAttr("TEST_NUMBER_KEY"));
+    Assert.assertFalse(context.getLocalAttrs().containsKey("TEST_NUMBER_KEY"));
+  }
+
+  @Test
+  public void testNullValues()
+  {
+    RequestContext context = new RequestContext();
+    context.putLocalAttr(STRING_KEY, null);
+    context.putLocalAttr("other", null);
+
+    Assert.assertTrue(context.getLocalAttrs().containsKey("TEST_STRING_KEY"));
+    Assert.assertTrue(context.getLocalAttrs().containsKey("other"));
+    Assert.assertNull(context.getLocalAttr(STRING_KEY));
+    Assert.assertEquals(context.getLocalAttrs().size(), 2);
+  }
+
+  @Test
+  public void testMapView()
+  {
+    RequestContext context = new RequestContext();
+    context.putLocalAttr(STRING_KEY, "value");
+    context.putLocalAttr("other", "otherValue");
+
+    Map<String, Object> expected = new HashMap<>();
+    expected.put("TEST_STRING_KEY", "value");
+    expected.put("other", "otherValue");
+    Assert.assertEquals(context.getLocalAttrs(), expected);
+    Assert.assertEquals(context.getLocalAttrs().hashCode(), expected.hashCode());
+
+    Iterator<Map.Entry<String, Object>> iterator = context.getLocalAttrs().entrySet().iterator();
+    while (iterator.hasNext())
+    {
+      Map.Entry<String, Object> entry = iterator.next();
+      if (entry.getKey().equals("TEST_STRING_KEY"))
+      {
+        entry.setValue("newValue");
+      }
+      else
+      {
+        iterator.remove();
+      }
+    }
+    Assert.assertEquals(context.getLocalAttr(STRING_KEY), "newValue");
+    Assert.assertNull(context.getLocalAttr("other"));
+    Assert.assertEquals(context.getLocalAttrs().size(), 1);
+
+    context.getLocalAttrs().clear();
+    Assert.assertTrue(context.getLocalAttrs().isEmpty());
+  }
+
+  @Test
+  public void testCopy()
+  {
+    RequestContext context = new RequestContext();
+    context.putLocalAttr(STRING_KEY, "value");
+    context.putLocalAttr("other", "otherValue");
+
+    RequestContext copy = new RequestContext(context);
+    Assert.assertEquals(copy, context);
+    Assert.assertEquals(context.clone(), context);
+
+    copy.putLocalAttr(STRING_KEY, "newValue");
+    Assert.assertEquals(context.getLocalAttr(STRING_KEY), "value");
+    Assert.assertNotEquals(copy, context);
+  }
+
+  @Test
+  public void testObjectMethodsWhileModified() throws Exception
+  {
+    RequestContext context = new RequestContext();
+    RequestContext other = new RequestContext();
+    Thread writer = new Thread(() -> {
+      for (int i = 0; i < 10000; i++)
+      {
+        context.putLocalAttr("attr" + (i % 100), i);
+        context.removeLocalAttr("attr" + ((i + 50) % 100));
+      }
+    });
+    writer.start();
+
+    // Would fail with a ConcurrentModificationException if the attributes were iterated without the lock
+    while (writer.isAlive())
+    {
+      context.hashCode();
+      context.toString();
+      context.equals(other);
+      other.equals(context);
+    }
+    writer.join();
+    Assert.assertEquals(new RequestContext(context), context);
+  }
+
+  @Test
+  public void testKeyRegisteredAfterContextCreation()
+  {
+    RequestContext context = new RequestContext();
+    context.putLocalAttr("TEST_LATE_KEY", "value");
+
+    RequestContextKey<String> lateKey = RequestContextKey.of("TEST_LATE_KEY", String.class);
+    Assert.assertEquals(context.getLocalAttr(lateKey), "value");
+    context.putLocalAttr(lateKey, "newValue");
+    Assert.assertEquals(context.getLocalAttr("TEST_LATE_KEY"), "newValue");
+
+    // The attribute moves to its slot in contexts copied after the key registration
+    RequestContext copy = new RequestContext(context);
+    Assert.assertEquals(copy.getLocalAttr(lateKey), "newValue");
+    Assert.assertEquals(copy.getLocalAttrs().size(), 1);
+  }
+
+  @Test
+  public void testKeyRegistration()
+  {
+    Assert.assertSame(RequestContextKey.of("TEST_STRING_KEY", String.class), STRING_KEY);
+    try
+    {
+      RequestContextKey.of("TEST_STRING_KEY", Integer.class);
+      Assert.fail("Registering a key with another type should fail");
+    }
+    catch (IllegalArgumentException e)
+    {
+      // expected
+    }
+  }
+}
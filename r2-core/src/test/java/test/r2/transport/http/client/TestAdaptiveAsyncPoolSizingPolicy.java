@@ -0,0 +1,95 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.transport.http.client;
+
+import com.linkedin.r2.transport.http.client.AdaptiveAsyncPoolSizingPolicy;
+import com.linkedin.r2.transport.http.client.AsyncPoolSizingPolicy;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestAdaptiveAsyncPoolSizingPolicy
+{
+  private static final int CONFIGURED_MAX_SIZE = 100;
+  private static final long TARGET_WAIT_TIME = 10;
+  private static final long COOLDOWN = 5000;
+
+  @Test
+  public void testGrowsWhenSaturatedWithWaiters()
+  {
+    AdaptiveAsyncPoolSizingPolicy policy = newPolicy();
+    Assert.assertEquals(policy.getMaxSize(sample(0, 10, 10, 3, 10, 0)), 20);
+    Assert.assertEquals(policy.getMaxSize(sample(1000, 20, 20, 1, 20, 0)), 40);
+    Assert.assertEquals(policy.getMaxSize(sample(2000, 80, 80, 1, 80, 0)), CONFIGURED_MAX_SIZE);
+    Assert.assertEquals(policy.getMaxSize(sample(3000, 100, 100, 1, 100, 0)), CONFIGURED_MAX_SIZE);
+  }
+
+  @Test
+  public void testGrowsWhenWaitTimeAboveTarget()
+  {
+    AdaptiveAsyncPoolSizingPolicy policy = newPolicy();
+    Assert.assertEquals(policy.getMaxSize(sample(0, 10, 10, 0, 10, TARGET_WAIT_TIME + 1)), 20);
+    Assert.assertEquals(policy.getMaxSize(sample(1000, 20, 20, 0, 20, TARGET_WAIT_TIME)), 20);
+  }
+
+  @Test
+  public void testDoesNotGrowWhenCreationsPending()
+  {
+    AdaptiveAsyncPoolSizingPolicy policy = newPolicy();
+    Assert.assertEquals(policy.getMaxSize(sample(0, 10, 5, 5, 5, 100)), 10);
+  }
+
+  @Test
+  public void testShrinksAfterCooldown()
+  {
+    AdaptiveAsyncPoolSizingPolicy policy = newPolicy();
+    Assert.assertEquals(policy.getMaxSize(sample(0, 10, 10, 1, 10, 0)), 20);
+
+    // Under-utilized, but still within the cool-down following the growth
+    Assert.assertEquals(policy.getMaxSize(sample(COOLDOWN - 1, 20, 20, 0, 2, 0)), 20);
+
+    Assert.assertEquals(policy.getMaxSize(sample(COOLDOWN, 20, 20, 0, 2, 0)), 18);
+    Assert.assertEquals(policy.getMaxSize(sample(COOLDOWN * 2, 18, 18, 0, 2, 0)), 16);
+  }
+
+  @Test
+  public void testNeverShrinksBelowPeakCheckedOut()
+  {
+    AdaptiveAsyncPoolSizingPolicy policy = new AdaptiveAsyncPoolSizingPolicy(1000, TARGET_WAIT_TIME, 2, 50, 0.5, 0);
+    Assert.assertEquals(policy.getMaxSize(sample(0, 80, 80, 0, 30, 0)), 30);
+    Assert.assertEquals(policy.getMaxSize(sample(1000, 30, 30, 0, 20, 0)), 30);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidGrowthFactor()
+  {
+    new AdaptiveAsyncPoolSizingPolicy(1000, TARGET_WAIT_TIME, 1, 2, 0.5, COOLDOWN);
+  }
+
+  private static AdaptiveAsyncPoolSizingPolicy newPolicy()
+  {
+    return new AdaptiveAsyncPoolSizingPolicy(1000, TARGET_WAIT_TIME, 2, 2, 0.5, COOLDOWN);
+  }
+
+  private static AsyncPoolSizingPolicy.Sample sample(long time, int currentMaxSize, int poolSize, int waiters,
+      int maxCheckedOut, long averageWaitTime)
+  {
+    int checkouts = averageWaitTime > 0 ? 10 : 0;
+    return new AsyncPoolSizingPolicy.Sample(time, CONFIGURED_MAX_SIZE, currentMaxSize, 0, poolSize, maxCheckedOut,
+        poolSize - maxCheckedOut, waiters, maxCheckedOut, checkouts, averageWaitTime * checkouts, averageWaitTime);
+  }
+}
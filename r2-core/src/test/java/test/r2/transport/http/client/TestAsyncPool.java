@@ -23,6 +23,7 @@ package test.r2.transport.http.client;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.FutureCallback;
 import com.linkedin.common.stats.LongTracking;
+import com.linkedin.r2.transport.http.client.AdaptiveAsyncPoolSizingPolicy;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
 import com.linkedin.common.util.None;
@@ -864,6 +865,58 @@ public class TestAsyncPool
     Assert.assertEquals(stats.getIdleCount(), 0);
   }
 
+  @Test
+  public void testAdaptiveSizing() throws Exception
+  {
+    ClockedExecutor clockedExecutor = new ClockedExecutor();
+    final AsyncPool<Object> pool = new AsyncPoolImpl<>("object pool",
+        new SynchronousLifecycle(),
+        4,
+        Integer.MAX_VALUE,
+        Integer.MAX_VALUE,
+        clockedExecutor,
+        Integer.MAX_VALUE,
+        AsyncPoolImpl.Strategy.MRU,
+        0,
+        new NoopRateLimiter(),
+        clockedExecutor,
+        new LongTracking(),
+        new AdaptiveAsyncPoolSizingPolicy(1000, 5, 2, 1, 0.5, 0)
+    );
+    pool.start();
+    Assert.assertEquals(pool.getStats().getMaxPoolSize(), 4);
+
+    FutureCallback<Object> cb = new FutureCallback<>();
+    pool.get(cb);
+    pool.put(cb.get());
+
+    // The pool is under-utilized and shrinks by one every interval down to a single object
+    clockedExecutor.runFor(4000);
+    Assert.assertEquals(pool.getStats().getMaxPoolSize(), 1);
+    Assert.assertEquals(pool.getStats().getPoolSize(), 1);
+
+    FutureCallback<Object> first = new FutureCallback<>();
+    FutureCallback<Object> second = new FutureCallback<>();
+    pool.get(first);
+    pool.get(second);
+    Assert.assertTrue(first.isDone());
+    Assert.assertFalse(second.isDone());
+
+    // A waiter is queued on a saturated pool, the pool grows and serves it
+    clockedExecutor.runFor(1000);
+    Assert.assertEquals(pool.getStats().getMaxPoolSize(), 2);
+    Assert.assertNotNull(second.get(1, TimeUnit.SECONDS));
+
+    pool.put(first.get());
+    pool.put(second.get());
+
+    // Once the pool is idle again it shrinks back, destroying the idle objects above the new maximum size
+    clockedExecutor.runFor(5000);
+    Assert.assertEquals(pool.getStats().getMaxPoolSize(), 1);
+    Assert.assertEquals(pool.getStats().getPoolSize(), 1);
+    Assert.assertEquals(pool.getStats().getIdleCount(), 1);
+  }
+
   @DataProvider
   public Object[][] channelStateRandomDataProvider()
   {
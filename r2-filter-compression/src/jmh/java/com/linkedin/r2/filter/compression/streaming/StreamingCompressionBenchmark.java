@@ -0,0 +1,177 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression.streaming;
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.message.stream.entitystream.ReadHandle;
+import com.linkedin.r2.message.stream.entitystream.Reader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares the incremental gzip compressor to the executor based one, on entities streamed in chunks of
+ * {@link R2Constants#DEFAULT_DATA_CHUNK_SIZE} bytes. Run with several threads to see the cost of the
+ * executor threads blocked for the whole duration of each decompressed stream.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Threads(4)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StreamingCompressionBenchmark
+{
+  @State(Scope.Benchmark)
+  public static class CompressionState
+  {
+    @Param({"65536", "4194304"})
+    int _entitySize;
+
+    ExecutorService _executor;
+    StreamingCompressor _executorCompressor;
+    StreamingCompressor _incrementalCompressor;
+    byte[] _uncompressed;
+    byte[] _compressed;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+      _executor = Executors.newCachedThreadPool();
+      _executorCompressor = new GzipCompressor(_executor);
+      _incrementalCompressor = new GzipCompressor();
+
+      Random random = new Random(0);
+      _uncompressed = new byte[_entitySize];
+      for (int i = 0; i < _entitySize; i++)
+      {
+        _uncompressed[i] = (byte) ('a' + random.nextInt(16));
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (GZIPOutputStream gzip = new GZIPOutputStream(out))
+      {
+        gzip.write(_uncompressed);
+      }
+      _compressed = out.toByteArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      _executor.shutdownNow();
+    }
+  }
+
+  @Benchmark
+  public long measureExecutorInflate(CompressionState state) throws Exception
+  {
+    return read(state._executorCompressor.inflate(chunkedStream(state._compressed)));
+  }
+
+  @Benchmark
+  public long measureIncrementalInflate(CompressionState state) throws Exception
+  {
+    return read(state._incrementalCompressor.inflate(chunkedStream(state._compressed)));
+  }
+
+  @Benchmark
+  public long measureStreamingDeflate(CompressionState state) throws Exception
+  {
+    return read(state._executorCompressor.deflate(chunkedStream(state._uncompressed)));
+  }
+
+  @Benchmark
+  public long measureIncrementalDeflate(CompressionState state) throws Exception
+  {
+    return read(state._incrementalCompressor.deflate(chunkedStream(state._uncompressed)));
+  }
+
+  private static EntityStream chunkedStream(byte[] bytes)
+  {
+    Queue<ByteString> chunks = new ArrayDeque<>();
+    for (int offset = 0; offset < bytes.length; offset += R2Constants.DEFAULT_DATA_CHUNK_SIZE)
+    {
+      chunks.add(ByteString.unsafeWrap(bytes, offset, Math.min(R2Constants.DEFAULT_DATA_CHUNK_SIZE, bytes.length - offset)));
+    }
+    return EntityStreams.newEntityStream(new ByteStringsWriter(chunks));
+  }
+
+  /**
+   * Reads a stream to its end, the way a transport writes it to a socket, and returns its length.
+   */
+  private static long read(EntityStream stream) throws Exception
+  {
+    FutureCallback<Long> callback = new FutureCallback<>();
+    stream.setReader(new Reader()
+    {
+      private ReadHandle _rh;
+      private long _length = 0;
+
+      @Override
+      public void onInit(ReadHandle rh)
+      {
+        _rh = rh;
+        _rh.request(1);
+      }
+
+      @Override
+      public void onDataAvailable(ByteString data)
+      {
+        _length += data.length();
+        _rh.request(1);
+      }
+
+      @Override
+      public void onDone()
+      {
+        callback.onSuccess(_length);
+      }
+
+      @Override
+      public void onError(Throwable e)
+      {
+        callback.onError(e);
+      }
+    });
+    return callback.get();
+  }
+}
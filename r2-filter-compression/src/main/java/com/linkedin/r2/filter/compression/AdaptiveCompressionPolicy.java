@@ -0,0 +1,366 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.URI;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.zip.Deflater;
+
+
+/**
+ * Decides whether entities above the compression threshold are worth compressing, from the ratios achieved on
+ * previous entities of the same route, i.e. the same resource and content type.
+ *
+ * Once a route has enough samples, entities of that route are only compressed if the expected ratio (compressed
+ * size divided by original size, averaged with an exponential moving average) is below the configured maximum.
+ * Routes serving already compressed or high entropy payloads, like images or encrypted blobs, are thereby no
+ * longer compressed; one entity out of every {@code resampleInterval} skipped ones is still compressed, so that
+ * a route whose payloads become compressible again is noticed.
+ *
+ * Under CPU pressure, i.e. when the CPU load is above the configured threshold, the maximum ratio is lowered so
+ * that only the routes with the best gains are compressed, and the default compressors are replaced by faster
+ * levels of the same encodings.
+ *
+ * A policy keeps the stats of each route, which are available through {@link #getStats()}. It is thread safe, and
+ * is usually shared by the compression filters of an application.
+ */
+public class AdaptiveCompressionPolicy
+{
+  public static final double DEFAULT_MAX_RATIO = 0.9;
+  public static final double DEFAULT_MAX_RATIO_UNDER_CPU_PRESSURE = 0.6;
+  public static final double DEFAULT_CPU_PRESSURE_THRESHOLD = 0.8;
+  public static final int DEFAULT_MIN_SAMPLES = 16;
+  public static final int DEFAULT_RESAMPLE_INTERVAL = 64;
+  public static final int DEFAULT_MAX_ROUTES = 1024;
+
+  /**
+   * The route the stats of all routes past the maximum number of routes are aggregated under.
+   */
+  public static final String OTHER_ROUTE = "*";
+
+  private static final double EWMA_WEIGHT = 0.1;
+  private static final String ROUTE_SEPARATOR = " ";
+  private static final String D2_SCHEME = "d2";
+
+  private final double _maxRatio;
+  private final double _maxRatioUnderCpuPressure;
+  private final double _cpuPressureThreshold;
+  private final int _minSamples;
+  private final int _resampleInterval;
+  private final int _maxRoutes;
+  private final DoubleSupplier _cpuLoad;
+  private final Map<EncodingType, Compressor> _fastCompressors;
+  private final ConcurrentMap<String, RouteStats> _routes = new ConcurrentHashMap<>();
+
+  /**
+   * Instantiates a policy with the default settings, using the system load average as CPU load.
+   */
+  public AdaptiveCompressionPolicy()
+  {
+    this(DEFAULT_MAX_RATIO, DEFAULT_MAX_RATIO_UNDER_CPU_PRESSURE, DEFAULT_CPU_PRESSURE_THRESHOLD,
+        new SystemCpuLoad());
+  }
+
+  /**
+   * @param maxRatio the maximum expected ratio for entities to be compressed.
+   * @param maxRatioUnderCpuPressure the maximum expected ratio for entities to be compressed under CPU pressure.
+   * @param cpuPressureThreshold the CPU load, between 0 and 1, above which the CPU is considered under pressure.
+   * @param cpuLoad supplies the current CPU load, between 0 and 1. It is called for every compressible entity.
+   */
+  public AdaptiveCompressionPolicy(double maxRatio, double maxRatioUnderCpuPressure, double cpuPressureThreshold,
+      DoubleSupplier cpuLoad)
+  {
+    this(maxRatio, maxRatioUnderCpuPressure, cpuPressureThreshold, cpuLoad, DEFAULT_MIN_SAMPLES,
+        DEFAULT_RESAMPLE_INTERVAL, DEFAULT_MAX_ROUTES);
+  }
+
+  /**
+   * Same as previous constructor, but with the sampling settings.
+   *
+   * @param minSamples the number of entities of a route compressed before any is skipped.
+   * @param resampleInterval one entity of a route is compressed every this many skipped entities.
+   * @param maxRoutes the maximum number of routes tracked separately.
+   */
+  public AdaptiveCompressionPolicy(double maxRatio, double maxRatioUnderCpuPressure, double cpuPressureThreshold,
+      DoubleSupplier cpuLoad, int minSamples, int resampleInterval, int maxRoutes)
+  {
+    if (maxRatio <= 0 || maxRatioUnderCpuPressure <= 0 || minSamples < 1 || resampleInterval < 1 || maxRoutes < 1)
+    {
+      throw new IllegalArgumentException("Invalid adaptive compression settings");
+    }
+    if (cpuLoad == null)
+    {
+      throw new IllegalArgumentException("CPU load supplier cannot be null");
+    }
+    _maxRatio = maxRatio;
+    _maxRatioUnderCpuPressure = maxRatioUnderCpuPressure;
+    _cpuPressureThreshold = cpuPressureThreshold;
+    _cpuLoad = cpuLoad;
+    _minSamples = minSamples;
+    _resampleInterval = resampleInterval;
+    _maxRoutes = maxRoutes;
+
+    Map<EncodingType, Compressor> fastCompressors = new EnumMap<>(EncodingType.class);
+    fastCompressors.put(EncodingType.GZIP, new GzipCompressor(Deflater.BEST_SPEED));
+    fastCompressors.put(EncodingType.DEFLATE, new DeflateCompressor(Deflater.BEST_SPEED));
+    fastCompressors.put(EncodingType.ZSTD, new ZstdCompressor(1));
+    _fastCompressors = Collections.unmodifiableMap(fastCompressors);
+  }
+
+  /**
+   * Builds the route of an entity.
+   *
+   * @param uri the URI of the request, whose resource is the authority of d2 URIs, and the first path segment
+   *            of other URIs.
+   * @param contentType the content type of the entity, or null if unknown.
+   */
+  public static String route(URI uri, String contentType)
+  {
+    String resource;
+    if (D2_SCHEME.equalsIgnoreCase(uri.getScheme()))
+    {
+      resource = uri.getAuthority();
+    }
+    else
+    {
+      String path = uri.getRawPath();
+      if (path == null)
+      {
+        resource = "";
+      }
+      else
+      {
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        resource = path.substring(start, end < 0 ? path.length() : end);
+      }
+    }
+
+    String mediaType = "";
+    if (contentType != null)
+    {
+      int end = contentType.indexOf(';');
+      mediaType = (end < 0 ? contentType : contentType.substring(0, end)).trim().toLowerCase();
+    }
+    return resource + ROUTE_SEPARATOR + mediaType;
+  }
+
+  /**
+   * Determines whether an entity of the given route, whose length is above the compression threshold, should be
+   * compressed. The result of the compression should then be reported with {@link #record(String, int, int, long)}.
+   */
+  public boolean shouldCompress(String route)
+  {
+    double maxRatio = isUnderCpuPressure() ? _maxRatioUnderCpuPressure : _maxRatio;
+    return getRouteStats(route).shouldCompress(maxRatio, _minSamples, _resampleInterval);
+  }
+
+  /**
+   * Returns the compressor to use instead of the given one: under CPU pressure, the default compressor of an
+   * encoding is replaced by a faster level of the same encoding. Other compressors, e.g. compressors with a
+   * dictionary, are always kept.
+   */
+  public Compressor getCompressor(EncodingType encoding, Compressor compressor)
+  {
+    if (compressor == encoding.getCompressor() && isUnderCpuPressure())
+    {
+      return _fastCompressors.getOrDefault(encoding, compressor);
+    }
+    return compressor;
+  }
+
+  /**
+   * Records the result of the compression of an entity.
+   *
+   * @param route the route of the entity.
+   * @param originalLength the length of the entity.
+   * @param compressedLength the length of the compressed entity.
+   * @param compressionNanos the time spent compressing the entity.
+   */
+  public void record(String route, int originalLength, int compressedLength, long compressionNanos)
+  {
+    if (originalLength > 0)
+    {
+      getRouteStats(route).record(originalLength, compressedLength, compressionNanos);
+    }
+  }
+
+  public boolean isUnderCpuPressure()
+  {
+    return _cpuLoad.getAsDouble() > _cpuPressureThreshold;
+  }
+
+  /**
+   * @return an unmodifiable view of the stats of each route.
+   */
+  public Map<String, RouteStats> getStats()
+  {
+    return Collections.unmodifiableMap(_routes);
+  }
+
+  private RouteStats getRouteStats(String route)
+  {
+    RouteStats stats = _routes.get(route);
+    if (stats == null)
+    {
+      // The number of routes can go slightly over the maximum under concurrent updates, which is fine
+      stats = _routes.computeIfAbsent(_routes.size() < _maxRoutes ? route : OTHER_ROUTE, key -> new RouteStats());
+    }
+    return stats;
+  }
+
+  /**
+   * Compression stats of a route.
+   */
+  public static final class RouteStats
+  {
+    private long _compressedCount;
+    private long _skippedCount;
+    private long _originalBytes;
+    private long _compressedBytes;
+    private long _compressionNanos;
+    private double _expectedRatio;
+    private int _skippedSinceSample;
+
+    private RouteStats()
+    {
+    }
+
+    private synchronized boolean shouldCompress(double maxRatio, int minSamples, int resampleInterval)
+    {
+      if (_compressedCount < minSamples || _expectedRatio <= maxRatio)
+      {
+        return true;
+      }
+      if (++_skippedSinceSample >= resampleInterval)
+      {
+        _skippedSinceSample = 0;
+        return true;
+      }
+      _skippedCount++;
+      return false;
+    }
+
+    private synchronized void record(int originalLength, int compressedLength, long compressionNanos)
+    {
+      double ratio = (double) compressedLength / originalLength;
+      _expectedRatio = _compressedCount == 0 ? ratio : _expectedRatio + EWMA_WEIGHT * (ratio - _expectedRatio);
+      _compressedCount++;
+      _originalBytes += originalLength;
+      _compressedBytes += compressedLength;
+      _compressionNanos += compressionNanos;
+    }
+
+    /**
+     * @return the number of entities compressed.
+     */
+    public synchronized long getCompressedCount()
+    {
+      return _compressedCount;
+    }
+
+    /**
+     * @return the number of entities above the compression threshold that were not compressed.
+     */
+    public synchronized long getSkippedCount()
+    {
+      return _skippedCount;
+    }
+
+    /**
+     * @return the total length of the entities compressed.
+     */
+    public synchronized long getOriginalBytes()
+    {
+      return _originalBytes;
+    }
+
+    /**
+     * @return the total length of the entities compressed, after compression.
+     */
+    public synchronized long getCompressedBytes()
+    {
+      return _compressedBytes;
+    }
+
+    /**
+     * @return the total time spent compressing entities, in nanoseconds.
+     */
+    public synchronized long getCompressionNanos()
+    {
+      return _compressionNanos;
+    }
+
+    /**
+     * @return the moving average of the ratios of the recently compressed entities.
+     */
+    public synchronized double getExpectedRatio()
+    {
+      return _expectedRatio;
+    }
+
+    /**
+     * @return the overall ratio of the entities compressed, or 0 if none was.
+     */
+    public synchronized double getRatio()
+    {
+      return _originalBytes == 0 ? 0 : (double) _compressedBytes / _originalBytes;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+      return "RouteStats{compressedCount=" + _compressedCount + ", skippedCount=" + _skippedCount
+          + ", ratio=" + getRatio() + ", expectedRatio=" + _expectedRatio
+          + ", compressionMs=" + TimeUnit.NANOSECONDS.toMillis(_compressionNanos) + "}";
+    }
+  }
+
+  /**
+   * The system load average per processor, capped to 1 and refreshed at most once a second.
+   */
+  private static final class SystemCpuLoad implements DoubleSupplier
+  {
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final OperatingSystemMXBean _osBean = ManagementFactory.getOperatingSystemMXBean();
+    private volatile double _load;
+    private volatile long _nextRefresh = System.nanoTime();
+
+    @Override
+    public double getAsDouble()
+    {
+      long now = System.nanoTime();
+      if (now - _nextRefresh >= 0)
+      {
+        _nextRefresh = now + REFRESH_INTERVAL_NANOS;
+        // The load average is negative on platforms where it is not available
+        double loadAverage = _osBean.getSystemLoadAverage();
+        _load = loadAverage < 0 ? 0 : Math.min(1, loadAverage / _osBean.getAvailableProcessors());
+      }
+      return _load;
+    }
+  }
+}
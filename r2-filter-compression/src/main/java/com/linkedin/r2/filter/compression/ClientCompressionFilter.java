@@ -29,6 +29,7 @@ import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.transport.http.common.HttpConstants;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -50,6 +51,8 @@ public class ClientCompressionFilter implements RestFilter
   private final CompressionConfig _responseCompressionConfig;
   private final String _acceptEncodingHeader;
   private final ClientCompressionHelper _helper;
+  private final Map<EncodingType, Compressor> _compressors;
+  private final AdaptiveCompressionPolicy _adaptiveCompressionPolicy;
 
 
   /**
@@ -67,6 +70,42 @@ public class ClientCompressionFilter implements RestFilter
                                  EncodingType[] acceptedEncodings,
                                  CompressionConfig responseCompressionConfig,
                                  List<String> responseCompressionOperations)
+  {
+    this(requestContentEncoding, requestCompressionConfig, acceptedEncodings, responseCompressionConfig,
+        responseCompressionOperations, Collections.emptyMap());
+  }
+
+  /**
+   * Same as previous constructor, but with compressors replacing the default compressors of some encodings,
+   * e.g. a {@link ZstdCompressor} with a custom level or dictionary.
+   *
+   * @param compressors compressors to use instead of the default {@link EncodingType#getCompressor()}.
+   */
+  public ClientCompressionFilter(EncodingType requestContentEncoding,
+                                 CompressionConfig requestCompressionConfig,
+                                 EncodingType[] acceptedEncodings,
+                                 CompressionConfig responseCompressionConfig,
+                                 List<String> responseCompressionOperations,
+                                 Map<EncodingType, Compressor> compressors)
+  {
+    this(requestContentEncoding, requestCompressionConfig, acceptedEncodings, responseCompressionConfig,
+        responseCompressionOperations, compressors, null);
+  }
+
+  /**
+   * Same as previous constructor, but with a policy deciding which requests above the compression threshold are
+   * worth compressing, from the ratios achieved on previous requests of the same resource and content type.
+   * Requests whose compression is forced on with {@link R2Constants#REQUEST_COMPRESSION_OVERRIDE} are always compressed.
+   *
+   * @param adaptiveCompressionPolicy the policy, or null to compress all requests above the threshold.
+   */
+  public ClientCompressionFilter(EncodingType requestContentEncoding,
+                                 CompressionConfig requestCompressionConfig,
+                                 EncodingType[] acceptedEncodings,
+                                 CompressionConfig responseCompressionConfig,
+                                 List<String> responseCompressionOperations,
+                                 Map<EncodingType, Compressor> compressors,
+                                 AdaptiveCompressionPolicy adaptiveCompressionPolicy)
   {
     if (requestContentEncoding == null)
     {
@@ -101,6 +140,8 @@ public class ClientCompressionFilter implements RestFilter
     _acceptEncodingHeader = buildAcceptEncodingHeader(acceptedEncodings);
     _responseCompressionConfig = responseCompressionConfig;
     _helper = new ClientCompressionHelper(requestCompressionConfig, responseCompressionOperations);
+    _compressors = EncodingType.checkCompressors(compressors);
+    _adaptiveCompressionPolicy = adaptiveCompressionPolicy;
   }
 
   /**
@@ -196,18 +237,11 @@ public class ClientCompressionFilter implements RestFilter
     {
       if (_requestContentEncoding.hasCompressor())
       {
-        if (_helper.shouldCompressRequest(req.getEntity().length(),
-            (CompressionOption) requestContext.getLocalAttr(R2Constants.REQUEST_COMPRESSION_OVERRIDE)
-        ))
+        CompressionOption requestCompressionOverride =
+            (CompressionOption) requestContext.getLocalAttr(R2Constants.REQUEST_COMPRESSION_OVERRIDE);
+        if (_helper.shouldCompressRequest(req.getEntity().length(), requestCompressionOverride))
         {
-          Compressor compressor = _requestContentEncoding.getCompressor();
-          ByteString compressed = compressor.deflate(req.getEntity());
-
-          if (compressed.length() < req.getEntity().length())
-          {
-            req = req.builder().setEntity(compressed).setHeader(HttpConstants.CONTENT_ENCODING,
-                compressor.getContentEncodingName()).build();
-          }
+          req = compress(req, requestCompressionOverride);
         }
       }
 
@@ -228,6 +262,36 @@ public class ClientCompressionFilter implements RestFilter
     nextFilter.onRequest(req, requestContext, wireAttrs);
   }
 
+  private RestRequest compress(RestRequest req, CompressionOption requestCompressionOverride)
+      throws CompressionException
+  {
+    Compressor compressor = _compressors.getOrDefault(_requestContentEncoding, _requestContentEncoding.getCompressor());
+    String route = null;
+    if (_adaptiveCompressionPolicy != null && requestCompressionOverride == null)
+    {
+      route = AdaptiveCompressionPolicy.route(req.getURI(), req.getHeader(HttpConstants.CONTENT_TYPE));
+      if (!_adaptiveCompressionPolicy.shouldCompress(route))
+      {
+        return req;
+      }
+      compressor = _adaptiveCompressionPolicy.getCompressor(_requestContentEncoding, compressor);
+    }
+
+    long start = System.nanoTime();
+    ByteString compressed = compressor.deflate(req.getEntity());
+    if (route != null)
+    {
+      _adaptiveCompressionPolicy.record(route, req.getEntity().length(), compressed.length(), System.nanoTime() - start);
+    }
+
+    if (compressed.length() < req.getEntity().length())
+    {
+      req = req.builder().setEntity(compressed).setHeader(HttpConstants.CONTENT_ENCODING,
+          compressor.getContentEncodingName()).build();
+    }
+    return req;
+  }
+
   /**
    *  Decompresses server response
    */
@@ -260,7 +324,7 @@ public class ClientCompressionFilter implements RestFilter
           {
             throw new CompressionException(CompressionConstants.SERVER_ENCODING_ERROR + compressionHeader);
           }
-          ByteString inflated = encoding.getCompressor().inflate(res.getEntity());
+          ByteString inflated = _compressors.getOrDefault(encoding, encoding.getCompressor()).inflate(res.getEntity());
           Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
           headers.putAll(res.getHeaders());
           headers.remove(HttpConstants.CONTENT_ENCODING);
@@ -19,6 +19,7 @@ package com.linkedin.r2.filter.compression;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.InflaterInputStream;
 
@@ -30,6 +31,21 @@ public class DeflateCompressor extends AbstractCompressor
 {
   private final static String HTTP_NAME = "deflate";
 
+  private final int _level;
+
+  public DeflateCompressor()
+  {
+    this(Deflater.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * @param level the compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+   */
+  public DeflateCompressor(int level)
+  {
+    _level = level;
+  }
+
   @Override
   public String getContentEncodingName()
   {
@@ -45,6 +61,16 @@ public class DeflateCompressor extends AbstractCompressor
   @Override
   protected OutputStream createDeflaterOutputStream(OutputStream decompressedDataStream) throws IOException
   {
-    return new DeflaterOutputStream(decompressedDataStream);
+    if (_level == Deflater.DEFAULT_COMPRESSION)
+    {
+      return new DeflaterOutputStream(decompressedDataStream);
+    }
+    // Setting the level of the stream's own deflater keeps it released when the stream is closed
+    return new DeflaterOutputStream(decompressedDataStream)
+    {
+      {
+        def.setLevel(_level);
+      }
+    };
   }
 }
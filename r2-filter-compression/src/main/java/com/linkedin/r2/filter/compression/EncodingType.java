@@ -18,6 +18,7 @@
 package com.linkedin.r2.filter.compression;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -31,6 +32,7 @@ public enum EncodingType
   BZIP2(new Bzip2Compressor()),
   SNAPPY(new SnappyCompressor()),
   SNAPPY_FRAMED(new SnappyFramedCompressor()),
+  ZSTD(new ZstdCompressor()),
   IDENTITY("identity"),
   ANY("*");
 
@@ -119,4 +121,29 @@ public enum EncodingType
   {
     return getCompressor() != null;
   }
+
+  /**
+   * Validates compressors configured to replace the default compressors of some encodings.
+   *
+   * @return an immutable copy of the given compressors.
+   * @throws IllegalArgumentException if a compressor does not produce the content encoding it is configured for.
+   */
+  static Map<EncodingType, Compressor> checkCompressors(Map<EncodingType, Compressor> compressors)
+  {
+    if (compressors.isEmpty())
+    {
+      return Collections.emptyMap();
+    }
+    Map<EncodingType, Compressor> result = new EnumMap<>(EncodingType.class);
+    for (Map.Entry<EncodingType, Compressor> entry : compressors.entrySet())
+    {
+      if (!entry.getKey().hasCompressor() || entry.getValue() == null
+          || !entry.getKey().getHttpName().equals(entry.getValue().getContentEncodingName()))
+      {
+        throw new IllegalArgumentException(CompressionConstants.UNKNOWN_ENCODING + entry.getKey().getHttpName());
+      }
+      result.put(entry.getKey(), entry.getValue());
+    }
+    return Collections.unmodifiableMap(result);
+  }
 }
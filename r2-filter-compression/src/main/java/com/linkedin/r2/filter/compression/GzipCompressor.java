@@ -19,6 +19,7 @@ package com.linkedin.r2.filter.compression;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -30,6 +31,21 @@ public class GzipCompressor extends AbstractCompressor
 {
   private static final String HTTP_NAME = "gzip";
 
+  private final int _level;
+
+  public GzipCompressor()
+  {
+    this(Deflater.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * @param level the compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+   */
+  public GzipCompressor(int level)
+  {
+    _level = level;
+  }
+
   @Override
   protected InputStream createInflaterInputStream(InputStream compressedDataStream) throws IOException
   {
@@ -39,7 +55,17 @@ public class GzipCompressor extends AbstractCompressor
   @Override
   protected OutputStream createDeflaterOutputStream(OutputStream decompressedDataStream) throws IOException
   {
-    return new GZIPOutputStream(decompressedDataStream);
+    if (_level == Deflater.DEFAULT_COMPRESSION)
+    {
+      return new GZIPOutputStream(decompressedDataStream);
+    }
+    // Setting the level of the stream's own deflater keeps it released when the stream is closed
+    return new GZIPOutputStream(decompressedDataStream)
+    {
+      {
+        def.setLevel(_level);
+      }
+    };
   }
 
   @Override
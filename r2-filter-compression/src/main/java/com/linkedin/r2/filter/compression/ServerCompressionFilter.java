@@ -17,7 +17,9 @@
 package com.linkedin.r2.filter.compression;
 
 import com.linkedin.data.ByteString;
+import java.net.URI;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -50,8 +52,11 @@ public class ServerCompressionFilter implements RestFilter
 
   private final Set<EncodingType> _supportedEncoding;
   private final ServerCompressionHelper _serverCompressionHelper;
+  private final Map<EncodingType, Compressor> _compressors;
+  private final AdaptiveCompressionPolicy _adaptiveCompressionPolicy;
 
   private static final String EMPTY = "";
+  private static final String REQUEST_URI = "SERVER_COMPRESSION_REQUEST_URI";
 
   /**
    * Instantiates an empty compression filter that does no compression.
@@ -81,6 +86,27 @@ public class ServerCompressionFilter implements RestFilter
    * @param supportedEncoding
    */
   public ServerCompressionFilter(EncodingType[] supportedEncoding, CompressionConfig defaultResponseCompressionConfig)
+  {
+    this(supportedEncoding, defaultResponseCompressionConfig, Collections.emptyMap());
+  }
+
+  /** Instantiates a compression filter
+   * that supports the compression methods in the given set in argument, using the given compressors
+   * instead of the default compressors of some encodings, e.g. a {@link ZstdCompressor} with a custom
+   * level or dictionary.
+   */
+  public ServerCompressionFilter(EncodingType[] supportedEncoding, CompressionConfig defaultResponseCompressionConfig,
+      Map<EncodingType, Compressor> compressors)
+  {
+    this(supportedEncoding, defaultResponseCompressionConfig, compressors, null);
+  }
+
+  /** Same as previous constructor, but with a policy deciding which responses above the compression threshold
+   * are worth compressing, from the ratios achieved on previous responses of the same resource and content type.
+   * @param adaptiveCompressionPolicy the policy, or null to compress all responses above the threshold
+   */
+  public ServerCompressionFilter(EncodingType[] supportedEncoding, CompressionConfig defaultResponseCompressionConfig,
+      Map<EncodingType, Compressor> compressors, AdaptiveCompressionPolicy adaptiveCompressionPolicy)
   {
     if (defaultResponseCompressionConfig == null)
     {
@@ -90,6 +116,8 @@ public class ServerCompressionFilter implements RestFilter
     _supportedEncoding.add(EncodingType.IDENTITY);
     _supportedEncoding.add(EncodingType.ANY);
     _serverCompressionHelper = new ServerCompressionHelper(defaultResponseCompressionConfig);
+    _compressors = EncodingType.checkCompressors(compressors);
+    _adaptiveCompressionPolicy = adaptiveCompressionPolicy;
   }
 
   /**
@@ -127,7 +155,7 @@ public class ServerCompressionFilter implements RestFilter
         //Process the correct compression types only
         if (encoding.hasCompressor())
         {
-          ByteString decompressedContent = encoding.getCompressor().inflate(req.getEntity());
+          ByteString decompressedContent = _compressors.getOrDefault(encoding, encoding.getCompressor()).inflate(req.getEntity());
           Map<String, String> headers = new HashMap<>(req.getHeaders());
           headers.remove(HttpConstants.CONTENT_ENCODING);
           headers.put(HttpConstants.CONTENT_LENGTH, Integer.toString(decompressedContent.length()));
@@ -147,6 +175,10 @@ public class ServerCompressionFilter implements RestFilter
       {
         requestContext.putLocalAttr(HttpConstants.HEADER_RESPONSE_COMPRESSION_THRESHOLD,
             _serverCompressionHelper.getResponseCompressionThreshold(req));
+        if (_adaptiveCompressionPolicy != null)
+        {
+          requestContext.putLocalAttr(REQUEST_URI, req.getURI());
+        }
       }
       nextFilter.onRequest(req, requestContext, wireAttrs);
     }
@@ -186,17 +218,7 @@ public class ServerCompressionFilter implements RestFilter
           if (selectedEncoding.hasCompressor() &&
               res.getEntity().length() > (Integer) requestContext.getLocalAttr(HttpConstants.HEADER_RESPONSE_COMPRESSION_THRESHOLD))
           {
-            Compressor compressor = selectedEncoding.getCompressor();
-            ByteString compressed = compressor.deflate(res.getEntity());
-
-            if (compressed.length() < res.getEntity().length())
-            {
-              RestResponseBuilder resCompress = res.builder();
-              resCompress.removeHeader(HttpConstants.CONTENT_LENGTH);
-              resCompress.addHeaderValue(HttpConstants.CONTENT_ENCODING, compressor.getContentEncodingName());
-              resCompress.setEntity(compressed);
-              res = resCompress.build();
-            }
+            res = compress(res, selectedEncoding, requestContext);
           }
         }
         else
@@ -214,6 +236,39 @@ public class ServerCompressionFilter implements RestFilter
     nextFilter.onResponse(res, requestContext, wireAttrs);
   }
 
+  private RestResponse compress(RestResponse res, EncodingType encoding, RequestContext requestContext)
+      throws CompressionException
+  {
+    Compressor compressor = _compressors.getOrDefault(encoding, encoding.getCompressor());
+    String route = null;
+    URI requestUri = (URI) requestContext.getLocalAttr(REQUEST_URI);
+    if (_adaptiveCompressionPolicy != null && requestUri != null)
+    {
+      route = AdaptiveCompressionPolicy.route(requestUri, res.getHeader(HttpConstants.CONTENT_TYPE));
+      if (!_adaptiveCompressionPolicy.shouldCompress(route))
+      {
+        return res;
+      }
+      compressor = _adaptiveCompressionPolicy.getCompressor(encoding, compressor);
+    }
+
+    long start = System.nanoTime();
+    ByteString compressed = compressor.deflate(res.getEntity());
+    if (route != null)
+    {
+      _adaptiveCompressionPolicy.record(route, res.getEntity().length(), compressed.length(), System.nanoTime() - start);
+    }
+
+    if (compressed.length() < res.getEntity().length())
+    {
+      RestResponseBuilder resCompress = res.builder();
+      resCompress.removeHeader(HttpConstants.CONTENT_LENGTH);
+      resCompress.addHeaderValue(HttpConstants.CONTENT_ENCODING, compressor.getContentEncodingName());
+      resCompress.setEntity(compressed);
+      res = resCompress.build();
+    }
+    return res;
+  }
 
   @Override
   public void onRestError(Throwable ex, RequestContext requestContext,
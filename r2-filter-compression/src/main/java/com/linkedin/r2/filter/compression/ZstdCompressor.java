@@ -0,0 +1,89 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.r2.filter.compression;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+
+/**
+ * Wrapper class for zstd compression, with a configurable compression level and an optional dictionary.
+ *
+ * A dictionary trained on representative payloads improves the ratio of small entities. Both sides must then
+ * use the same dictionary, so a compressor with a dictionary should only be configured on clients and servers
+ * that are deployed together with it.
+ */
+public class ZstdCompressor extends AbstractCompressor
+{
+  public static final int DEFAULT_LEVEL = 3;
+
+  private static final String HTTP_NAME = "zstd";
+
+  private final int _level;
+  private final byte[] _dictionary;
+
+  public ZstdCompressor()
+  {
+    this(DEFAULT_LEVEL);
+  }
+
+  public ZstdCompressor(int level)
+  {
+    this(level, null);
+  }
+
+  /**
+   * @param level the compression level, higher levels trade speed for a better ratio
+   * @param dictionary the dictionary used to compress and decompress, or null if none
+   */
+  public ZstdCompressor(int level, byte[] dictionary)
+  {
+    _level = level;
+    _dictionary = dictionary;
+  }
+
+  @Override
+  protected InputStream createInflaterInputStream(InputStream compressedDataStream) throws IOException
+  {
+    ZstdInputStream in = new ZstdInputStream(compressedDataStream);
+    if (_dictionary != null)
+    {
+      in.setDict(_dictionary);
+    }
+    return in;
+  }
+
+  @Override
+  protected OutputStream createDeflaterOutputStream(OutputStream decompressedDataStream) throws IOException
+  {
+    ZstdOutputStream out = new ZstdOutputStream(decompressedDataStream, _level);
+    if (_dictionary != null)
+    {
+      out.setDict(_dictionary);
+    }
+    return out;
+  }
+
+  @Override
+  public String getContentEncodingName()
+  {
+    return HTTP_NAME;
+  }
+}
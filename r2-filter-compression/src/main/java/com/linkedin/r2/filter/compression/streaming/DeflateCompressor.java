@@ -17,10 +17,12 @@
 package com.linkedin.r2.filter.compression.streaming;
 
 import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.InflaterInputStream;
 
@@ -32,6 +34,19 @@ public class DeflateCompressor extends AbstractCompressor
 {
   private final Executor _executor;
 
+  /**
+   * Instantiates a compressor which compresses and decompresses incrementally, on the threads delivering
+   * the data, with fixed size buffers.
+   */
+  public DeflateCompressor()
+  {
+    this(null);
+  }
+
+  /**
+   * Instantiates a compressor which decompresses on the given executor, blocking one of its threads for the
+   * whole duration of each decompressed stream.
+   */
   public DeflateCompressor(Executor executor)
   {
     _executor = executor;
@@ -43,6 +58,26 @@ public class DeflateCompressor extends AbstractCompressor
     return StreamEncodingType.DEFLATE.getHttpName();
   }
 
+  @Override
+  public EntityStream inflate(EntityStream input)
+  {
+    if (_executor == null)
+    {
+      return EntityStreams.newEntityStream(new IncrementalInflater(input, false));
+    }
+    return super.inflate(input);
+  }
+
+  @Override
+  public EntityStream deflate(EntityStream input)
+  {
+    if (_executor == null)
+    {
+      return EntityStreams.newEntityStream(new IncrementalDeflater(input, false, Deflater.DEFAULT_COMPRESSION));
+    }
+    return super.deflate(input);
+  }
+
   @Override
   protected StreamingInflater createInflater(EntityStream underlying)
   {
@@ -0,0 +1,293 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression.streaming;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import com.linkedin.r2.message.stream.entitystream.ReadHandle;
+import com.linkedin.r2.message.stream.entitystream.Reader;
+import com.linkedin.r2.message.stream.entitystream.WriteHandle;
+import com.linkedin.r2.message.stream.entitystream.Writer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Pipes an {@link EntityStream} to a different {@link EntityStream} in which the data is transformed
+ * incrementally, chunk by chunk, on the threads delivering the data and the write possible events.
+ *
+ * Unlike {@link StreamingInflater}, no thread is ever blocked waiting for data: a chunk is only requested
+ * from the underlying stream when the transformation needs more input to produce the output requested
+ * downstream. The input and output go through fixed size buffers, so that at most one chunk of the
+ * underlying stream is held at a time, whatever the size of the entity.
+ *
+ * Events from both streams may arrive concurrently and reentrantly; they are serialized by a drain loop,
+ * in which {@link #process(byte[])} and {@link #release()} are always called.
+ */
+abstract class IncrementalCodec implements Reader, Writer
+{
+  private static final int BUF_SIZE = R2Constants.DEFAULT_DATA_CHUNK_SIZE;
+
+  private final EntityStream _underlying;
+  private final Queue<ByteBuffer> _chunks = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger _wip = new AtomicInteger();
+  private final byte[] _input = new byte[BUF_SIZE];
+  private final byte[] _output = new byte[BUF_SIZE];
+
+  private ReadHandle _rh;
+  private WriteHandle _wh;
+  private volatile boolean _inputDone = false;
+  private volatile Throwable _inputError = null;
+  private volatile boolean _aborted = false;
+  private volatile boolean _requested = false;
+
+  // Only accessed from the drain loop
+  private ByteBuffer _chunk;
+  private int _inputOffset = 0;
+  private int _inputLimit = 0;
+  private boolean _terminated = false;
+
+  IncrementalCodec(EntityStream underlying)
+  {
+    _underlying = underlying;
+  }
+
+  /**
+   * Produces the next bytes of the transformed stream, consuming the input through {@link #fillInput()}.
+   *
+   * @param output the buffer to fill
+   * @return the number of bytes produced, 0 if more input is needed, or -1 if the transformed stream is done.
+   */
+  abstract protected int process(byte[] output) throws IOException;
+
+  /**
+   * Releases the resources of the transformation, once the stream is done, failed or aborted.
+   */
+  abstract protected void release();
+
+  /********* Input *********/
+
+  /**
+   * Makes sure the input buffer has unread bytes.
+   *
+   * @return false if no input is available at the moment.
+   */
+  protected boolean fillInput()
+  {
+    if (_inputOffset < _inputLimit)
+    {
+      return true;
+    }
+    while (_chunk == null || !_chunk.hasRemaining())
+    {
+      _chunk = _chunks.poll();
+      if (_chunk == null)
+      {
+        return false;
+      }
+    }
+    _inputLimit = Math.min(_chunk.remaining(), BUF_SIZE);
+    _inputOffset = 0;
+    _chunk.get(_input, 0, _inputLimit);
+    return true;
+  }
+
+  /**
+   * @return true if all the input has been read, and the underlying stream is done.
+   */
+  protected boolean isInputDone()
+  {
+    // The flag is read first, since all the chunks are queued before it is set
+    return _inputDone && _inputOffset == _inputLimit && (_chunk == null || !_chunk.hasRemaining()) && _chunks.isEmpty();
+  }
+
+  protected byte[] inputBuffer()
+  {
+    return _input;
+  }
+
+  /**
+   * @return the offset of the first unread byte of the input buffer.
+   */
+  protected int inputOffset()
+  {
+    return _inputOffset;
+  }
+
+  /**
+   * @return the number of unread bytes of the input buffer.
+   */
+  protected int inputLength()
+  {
+    return _inputLimit - _inputOffset;
+  }
+
+  /**
+   * Marks all the bytes of the input buffer as read, except for the given number of trailing bytes.
+   */
+  protected void consumeInput(int unread)
+  {
+    _inputOffset = _inputLimit - unread;
+  }
+
+  /**
+   * @return the next input byte, or -1 if no input is available at the moment.
+   */
+  protected int readInputByte()
+  {
+    return fillInput() ? _input[_inputOffset++] & 0xff : -1;
+  }
+
+  /********* Reader Impl *********/
+
+  @Override
+  public void onInit(ReadHandle rh)
+  {
+    _rh = rh;
+  }
+
+  @Override
+  public void onDataAvailable(ByteString data)
+  {
+    for (ByteString part : data.decompose())
+    {
+      _chunks.add(part.asByteBuffer());
+    }
+    _requested = false;
+    drain();
+  }
+
+  @Override
+  public void onDone()
+  {
+    _inputDone = true;
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable e)
+  {
+    _inputError = e;
+    drain();
+  }
+
+  /********* Writer Impl *********/
+
+  @Override
+  public void onInit(WriteHandle wh)
+  {
+    _wh = wh;
+    _underlying.setReader(this);
+  }
+
+  @Override
+  public void onWritePossible()
+  {
+    drain();
+  }
+
+  @Override
+  public void onAbort(Throwable e)
+  {
+    _aborted = true;
+    drain();
+  }
+
+  private void drain()
+  {
+    if (_wip.getAndIncrement() != 0)
+    {
+      // Another thread, or a caller up the stack, is draining and will run again
+      return;
+    }
+    int missed = 1;
+    do
+    {
+      drainOnce();
+      missed = _wip.addAndGet(-missed);
+    }
+    while (missed != 0);
+  }
+
+  private void drainOnce()
+  {
+    if (_terminated)
+    {
+      _chunks.clear();
+      return;
+    }
+    if (_aborted)
+    {
+      terminate(true);
+      return;
+    }
+    if (_inputError != null)
+    {
+      terminate(false);
+      _wh.error(_inputError);
+      return;
+    }
+
+    try
+    {
+      while (_wh.remaining() > 0)
+      {
+        int length = process(_output);
+        if (length > 0)
+        {
+          _wh.write(ByteString.copy(_output, 0, length));
+        }
+        else if (length < 0)
+        {
+          terminate(!_inputDone);
+          _wh.done();
+          return;
+        }
+        else
+        {
+          if (!_requested && !_inputDone)
+          {
+            _requested = true;
+            _rh.request(1);
+          }
+          return;
+        }
+      }
+    }
+    catch (IOException e)
+    {
+      terminate(!_inputDone);
+      _wh.error(e);
+    }
+  }
+
+  private void terminate(boolean cancelInput)
+  {
+    _terminated = true;
+    _chunks.clear();
+    _chunk = null;
+    release();
+    if (cancelInput)
+    {
+      _rh.cancel();
+    }
+  }
+}
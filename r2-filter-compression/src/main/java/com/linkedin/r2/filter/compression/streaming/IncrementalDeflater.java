@@ -0,0 +1,123 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression.streaming;
+
+import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+
+/**
+ * Compresses an {@link EntityStream} to zlib or gzip incrementally, with a {@link Deflater} fed directly with
+ * the chunks of the stream. The output is the same as the one of {@link java.util.zip.DeflaterOutputStream}
+ * and {@link java.util.zip.GZIPOutputStream}, without their byte by byte copies to {@link StreamingDeflater}.
+ */
+class IncrementalDeflater extends IncrementalCodec
+{
+  private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+  private static final int GZIP_TRAILER_LENGTH = 8;
+
+  private final boolean _gzip;
+  private final int _level;
+  private final CRC32 _crc = new CRC32();
+
+  private Deflater _deflater;
+  private boolean _headerWritten;
+  private int _trailerWritten = 0;
+
+  IncrementalDeflater(EntityStream underlying, boolean gzip, int level)
+  {
+    super(underlying);
+    _gzip = gzip;
+    _level = level;
+    _headerWritten = !gzip;
+  }
+
+  @Override
+  protected int process(byte[] output)
+  {
+    if (_deflater == null)
+    {
+      _deflater = new Deflater(_level, _gzip);
+    }
+
+    int length = 0;
+    if (!_headerWritten)
+    {
+      System.arraycopy(GZIP_HEADER, 0, output, 0, GZIP_HEADER.length);
+      length = GZIP_HEADER.length;
+      _headerWritten = true;
+    }
+
+    while (length < output.length && !_deflater.finished())
+    {
+      if (_deflater.needsInput())
+      {
+        if (fillInput())
+        {
+          _deflater.setInput(inputBuffer(), inputOffset(), inputLength());
+          if (_gzip)
+          {
+            _crc.update(inputBuffer(), inputOffset(), inputLength());
+          }
+          consumeInput(0);
+        }
+        else if (isInputDone())
+        {
+          _deflater.finish();
+        }
+        else
+        {
+          return length;
+        }
+      }
+      length += _deflater.deflate(output, length, output.length - length);
+    }
+
+    if (_deflater.finished() && _gzip)
+    {
+      length = writeTrailer(output, length);
+    }
+    if (length == 0 && _deflater.finished())
+    {
+      return -1;
+    }
+    return length;
+  }
+
+  @Override
+  protected void release()
+  {
+    if (_deflater != null)
+    {
+      _deflater.end();
+    }
+  }
+
+  private int writeTrailer(byte[] output, int offset)
+  {
+    long crc = _crc.getValue();
+    long size = _deflater.getBytesRead();
+    while (_trailerWritten < GZIP_TRAILER_LENGTH && offset < output.length)
+    {
+      long value = _trailerWritten < 4 ? crc : size;
+      output[offset++] = (byte) (value >> ((_trailerWritten % 4) * 8));
+      _trailerWritten++;
+    }
+    return offset;
+  }
+}
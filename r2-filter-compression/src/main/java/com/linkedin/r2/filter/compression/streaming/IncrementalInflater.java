@@ -0,0 +1,324 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression.streaming;
+
+import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+
+/**
+ * Decompresses a zlib or gzip {@link EntityStream} incrementally, with an {@link Inflater} fed directly with
+ * the chunks of the stream, and without the thread hop and blocking reads of {@link StreamingInflater}.
+ *
+ * Like {@link java.util.zip.GZIPInputStream}, concatenated gzip members are decompressed as a single stream,
+ * and like {@link java.util.zip.InflaterInputStream}, bytes following a zlib stream are ignored.
+ */
+class IncrementalInflater extends IncrementalCodec
+{
+  private static final int GZIP_MAGIC = 0x8b1f;
+  private static final int GZIP_HEADER_LENGTH = 10;
+  private static final int GZIP_TRAILER_LENGTH = 8;
+  private static final int FHCRC = 2;
+  private static final int FEXTRA = 4;
+  private static final int FNAME = 8;
+  private static final int FCOMMENT = 16;
+
+  private enum State
+  {
+    HEADER,
+    BODY,
+    TRAILER,
+    MEMBER_END,
+    DONE
+  }
+
+  private final boolean _gzip;
+  private final byte[] _fields = new byte[GZIP_HEADER_LENGTH];
+  private final CRC32 _crc = new CRC32();
+
+  private Inflater _inflater;
+  private State _state;
+  // Number of bytes read of the fixed header or trailer fields, or of the optional header field being skipped
+  private int _fieldsRead = 0;
+  private int _flags = -1;
+  private int _extraLength = -1;
+
+  IncrementalInflater(EntityStream underlying, boolean gzip)
+  {
+    super(underlying);
+    _gzip = gzip;
+    _state = gzip ? State.HEADER : State.BODY;
+  }
+
+  @Override
+  protected int process(byte[] output) throws IOException
+  {
+    if (_inflater == null)
+    {
+      _inflater = new Inflater(_gzip);
+    }
+
+    int length = 0;
+    while (length < output.length)
+    {
+      switch (_state)
+      {
+        case HEADER:
+          if (!readHeader())
+          {
+            return length > 0 ? length : needInput();
+          }
+          _state = State.BODY;
+          break;
+        case BODY:
+          if (_inflater.needsInput())
+          {
+            if (!fillInput())
+            {
+              return length > 0 ? length : needInput();
+            }
+            _inflater.setInput(inputBuffer(), inputOffset(), inputLength());
+            consumeInput(0);
+          }
+          int inflated = inflate(output, length);
+          if (_gzip)
+          {
+            _crc.update(output, length, inflated);
+          }
+          length += inflated;
+          if (_inflater.finished())
+          {
+            // The bytes following the compressed data have been handed to the inflater, but not consumed by it
+            consumeInput(_inflater.getRemaining());
+            _state = _gzip ? State.TRAILER : State.DONE;
+          }
+          break;
+        case TRAILER:
+          if (!readTrailer())
+          {
+            return length > 0 ? length : needInput();
+          }
+          _state = State.MEMBER_END;
+          break;
+        case MEMBER_END:
+          if (fillInput())
+          {
+            _inflater.reset();
+            _crc.reset();
+            _flags = -1;
+            _extraLength = -1;
+            _state = State.HEADER;
+          }
+          else if (isInputDone())
+          {
+            _state = State.DONE;
+          }
+          else
+          {
+            return length;
+          }
+          break;
+        default:
+          return length > 0 ? length : -1;
+      }
+    }
+    return length;
+  }
+
+  @Override
+  protected void release()
+  {
+    if (_inflater != null)
+    {
+      _inflater.end();
+    }
+  }
+
+  private int needInput() throws IOException
+  {
+    if (isInputDone())
+    {
+      throw new EOFException("Unexpected end of " + (_gzip ? "GZIP" : "ZLIB") + " input stream");
+    }
+    return 0;
+  }
+
+  private int inflate(byte[] output, int offset) throws IOException
+  {
+    try
+    {
+      int inflated = _inflater.inflate(output, offset, output.length - offset);
+      if (inflated == 0 && _inflater.needsDictionary())
+      {
+        throw new ZipException("Compressed stream requires a preset dictionary");
+      }
+      return inflated;
+    }
+    catch (DataFormatException e)
+    {
+      String message = e.getMessage();
+      throw new ZipException(message != null ? message : "Invalid ZLIB data format");
+    }
+  }
+
+  /**
+   * Reads the gzip header as far as the available input allows.
+   *
+   * @return true if the whole header has been read.
+   */
+  private boolean readHeader() throws IOException
+  {
+    if (_flags < 0)
+    {
+      if (!readFields(GZIP_HEADER_LENGTH))
+      {
+        return false;
+      }
+      if (readUShort(0) != GZIP_MAGIC)
+      {
+        throw new ZipException("Not in GZIP format");
+      }
+      if ((_fields[2] & 0xff) != Deflater.DEFLATED)
+      {
+        throw new ZipException("Unsupported compression method");
+      }
+      _flags = _fields[3] & 0xff;
+    }
+
+    if ((_flags & FEXTRA) != 0)
+    {
+      if (_extraLength < 0)
+      {
+        if (!readFields(2))
+        {
+          return false;
+        }
+        _extraLength = readUShort(0);
+      }
+      if (!skipBytes(_extraLength))
+      {
+        return false;
+      }
+      _flags &= ~FEXTRA;
+    }
+    if ((_flags & FNAME) != 0)
+    {
+      if (!skipZeroTerminated())
+      {
+        return false;
+      }
+      _flags &= ~FNAME;
+    }
+    if ((_flags & FCOMMENT) != 0)
+    {
+      if (!skipZeroTerminated())
+      {
+        return false;
+      }
+      _flags &= ~FCOMMENT;
+    }
+    if ((_flags & FHCRC) != 0)
+    {
+      if (!skipBytes(2))
+      {
+        return false;
+      }
+      _flags &= ~FHCRC;
+    }
+    return true;
+  }
+
+  /**
+   * Reads and checks the gzip trailer as far as the available input allows.
+   *
+   * @return true if the whole trailer has been read.
+   */
+  private boolean readTrailer() throws IOException
+  {
+    if (!readFields(GZIP_TRAILER_LENGTH))
+    {
+      return false;
+    }
+    if (readUInt(0) != _crc.getValue() || readUInt(4) != (_inflater.getBytesWritten() & 0xffffffffL))
+    {
+      throw new ZipException("Corrupt GZIP trailer");
+    }
+    return true;
+  }
+
+  private boolean readFields(int count)
+  {
+    while (_fieldsRead < count)
+    {
+      int b = readInputByte();
+      if (b < 0)
+      {
+        return false;
+      }
+      _fields[_fieldsRead++] = (byte) b;
+    }
+    _fieldsRead = 0;
+    return true;
+  }
+
+  private boolean skipBytes(int count)
+  {
+    while (_fieldsRead < count)
+    {
+      if (!fillInput())
+      {
+        return false;
+      }
+      int skipped = Math.min(count - _fieldsRead, inputLength());
+      consumeInput(inputLength() - skipped);
+      _fieldsRead += skipped;
+    }
+    _fieldsRead = 0;
+    return true;
+  }
+
+  private boolean skipZeroTerminated()
+  {
+    int b;
+    do
+    {
+      b = readInputByte();
+      if (b < 0)
+      {
+        return false;
+      }
+    }
+    while (b != 0);
+    return true;
+  }
+
+  private int readUShort(int offset)
+  {
+    return (_fields[offset] & 0xff) | ((_fields[offset + 1] & 0xff) << 8);
+  }
+
+  private long readUInt(int offset)
+  {
+    return ((long) readUShort(offset + 2) << 16) | readUShort(offset);
+  }
+}
@@ -31,6 +31,7 @@ public enum StreamEncodingType
   DEFLATE("deflate"),
   SNAPPY_FRAMED("x-snappy-framed"),
   BZIP2("bzip2"),
+  ZSTD("zstd"),
   IDENTITY("identity"),
   ANY("*");
 
@@ -58,18 +59,24 @@ public enum StreamEncodingType
     return _httpName;
   }
 
+  /**
+   * Returns the compressor of this encoding. Gzip and deflate compress and decompress incrementally on the
+   * threads delivering the data; the other encodings decompress on the given executor.
+   */
   public StreamingCompressor getCompressor(Executor executor)
   {
     switch (this)
     {
       case GZIP:
-        return new GzipCompressor(executor);
+        return new GzipCompressor();
       case DEFLATE:
-        return new DeflateCompressor(executor);
+        return new DeflateCompressor();
       case BZIP2:
         return new Bzip2Compressor(executor);
       case SNAPPY_FRAMED:
         return new SnappyCompressor(executor);
+      case ZSTD:
+        return new ZstdCompressor(executor);
       case IDENTITY:
         return new NoopCompressor();
       default:
@@ -0,0 +1,97 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.r2.filter.compression.streaming;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+
+
+/**
+ * Streaming zstd compressor, with a configurable compression level and an optional dictionary.
+ *
+ * @see com.linkedin.r2.filter.compression.ZstdCompressor
+ */
+public class ZstdCompressor extends AbstractCompressor
+{
+  private final Executor _executor;
+  private final int _level;
+  private final byte[] _dictionary;
+
+  public ZstdCompressor(Executor executor)
+  {
+    this(executor, com.linkedin.r2.filter.compression.ZstdCompressor.DEFAULT_LEVEL, null);
+  }
+
+  /**
+   * @param executor the executor used to inflate the stream
+   * @param level the compression level, higher levels trade speed for a better ratio
+   * @param dictionary the dictionary used to compress and decompress, or null if none
+   */
+  public ZstdCompressor(Executor executor, int level, byte[] dictionary)
+  {
+    _executor = executor;
+    _level = level;
+    _dictionary = dictionary;
+  }
+
+  @Override
+  public String getContentEncodingName()
+  {
+    return StreamEncodingType.ZSTD.getHttpName();
+  }
+
+  @Override
+  protected StreamingInflater createInflater(EntityStream underlying)
+  {
+    return new StreamingInflater(underlying, _executor)
+    {
+      @Override
+      protected InputStream createInputStream(InputStream in) throws IOException
+      {
+        ZstdInputStream zstd = new ZstdInputStream(in);
+        if (_dictionary != null)
+        {
+          zstd.setDict(_dictionary);
+        }
+        return zstd;
+      }
+    };
+  }
+
+  @Override
+  protected StreamingDeflater createDeflater(EntityStream underlying)
+  {
+    return new StreamingDeflater(underlying)
+    {
+      @Override
+      protected OutputStream createOutputStream(OutputStream out) throws IOException
+      {
+        ZstdOutputStream zstd = new ZstdOutputStream(out, _level);
+        if (_dictionary != null)
+        {
+          zstd.setDict(_dictionary);
+        }
+        return zstd;
+      }
+    };
+  }
+}
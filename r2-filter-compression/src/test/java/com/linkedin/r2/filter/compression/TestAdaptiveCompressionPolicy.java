@@ -0,0 +1,215 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.compression;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.CompressionConfig;
+import com.linkedin.r2.filter.NextFilter;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleSupplier;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestAdaptiveCompressionPolicy
+{
+  private static final int MIN_SAMPLES = 4;
+  private static final int RESAMPLE_INTERVAL = 8;
+
+  @Test
+  public void testRoute()
+  {
+    Assert.assertEquals(AdaptiveCompressionPolicy.route(URI.create("/greetings/1?x=y"), "application/json; charset=UTF-8"),
+        "greetings application/json");
+    Assert.assertEquals(AdaptiveCompressionPolicy.route(URI.create("d2://greetings/1"), null), "greetings ");
+    Assert.assertEquals(AdaptiveCompressionPolicy.route(URI.create("http://host:80/images"), "IMAGE/PNG"),
+        "images image/png");
+  }
+
+  @Test
+  public void testSkipsIncompressibleRoutes()
+  {
+    AdaptiveCompressionPolicy policy = createPolicy(() -> 0.0);
+    String route = "images image/png";
+    for (int i = 0; i < MIN_SAMPLES; i++)
+    {
+      Assert.assertTrue(policy.shouldCompress(route));
+      policy.record(route, 1000, 990, 1000);
+    }
+
+    // One entity is still compressed every RESAMPLE_INTERVAL skipped ones
+    int compressed = 0;
+    for (int i = 0; i < RESAMPLE_INTERVAL * 2; i++)
+    {
+      if (policy.shouldCompress(route))
+      {
+        compressed++;
+      }
+    }
+    Assert.assertEquals(compressed, 2);
+
+    AdaptiveCompressionPolicy.RouteStats stats = policy.getStats().get(route);
+    Assert.assertEquals(stats.getCompressedCount(), MIN_SAMPLES);
+    Assert.assertEquals(stats.getSkippedCount(), RESAMPLE_INTERVAL * 2 - 2);
+    Assert.assertEquals(stats.getOriginalBytes(), MIN_SAMPLES * 1000);
+    Assert.assertEquals(stats.getCompressionNanos(), MIN_SAMPLES * 1000);
+    Assert.assertEquals(stats.getRatio(), 0.99, 0.0001);
+
+    // Once payloads of the route become compressible again, the expected ratio goes back under the maximum
+    for (int i = 0; i < 10; i++)
+    {
+      policy.record(route, 1000, 100, 1000);
+    }
+    Assert.assertTrue(policy.shouldCompress(route));
+  }
+
+  @Test
+  public void testCpuPressure()
+  {
+    AtomicReference<Double> cpuLoad = new AtomicReference<>(0.0);
+    AdaptiveCompressionPolicy policy = createPolicy(cpuLoad::get);
+    String route = "greetings application/json";
+    for (int i = 0; i < MIN_SAMPLES; i++)
+    {
+      policy.record(route, 1000, 800, 1000);
+    }
+    Compressor custom = new ZstdCompressor(10);
+
+    Assert.assertFalse(policy.isUnderCpuPressure());
+    Assert.assertTrue(policy.shouldCompress(route));
+    Assert.assertSame(policy.getCompressor(EncodingType.GZIP, EncodingType.GZIP.getCompressor()),
+        EncodingType.GZIP.getCompressor());
+
+    cpuLoad.set(0.9);
+    Assert.assertTrue(policy.isUnderCpuPressure());
+    Assert.assertFalse(policy.shouldCompress(route));
+    Compressor fast = policy.getCompressor(EncodingType.GZIP, EncodingType.GZIP.getCompressor());
+    Assert.assertNotSame(fast, EncodingType.GZIP.getCompressor());
+    Assert.assertEquals(fast.getContentEncodingName(), EncodingType.GZIP.getHttpName());
+    Assert.assertSame(policy.getCompressor(EncodingType.ZSTD, custom), custom);
+  }
+
+  @Test
+  public void testFastCompressorsRoundTrip() throws CompressionException
+  {
+    AdaptiveCompressionPolicy policy = createPolicy(() -> 1.0);
+    byte[] data = new byte[10000];
+    for (int i = 0; i < data.length; i++)
+    {
+      data[i] = (byte) (i % 10);
+    }
+    for (EncodingType encoding : Arrays.asList(EncodingType.GZIP, EncodingType.DEFLATE))
+    {
+      Compressor fast = policy.getCompressor(encoding, encoding.getCompressor());
+      ByteString compressed = fast.deflate(ByteString.copy(data));
+      Assert.assertTrue(compressed.length() < data.length);
+      Assert.assertEquals(encoding.getCompressor().inflate(compressed).copyBytes(), data);
+    }
+  }
+
+  @Test
+  public void testMaxRoutes()
+  {
+    AdaptiveCompressionPolicy policy = new AdaptiveCompressionPolicy(0.9, 0.6, 0.8, () -> 0.0, MIN_SAMPLES,
+        RESAMPLE_INTERVAL, 2);
+    policy.record("a ", 100, 50, 1);
+    policy.record("b ", 100, 50, 1);
+    policy.record("c ", 100, 50, 1);
+    policy.record("d ", 100, 50, 1);
+    Assert.assertEquals(policy.getStats().keySet().size(), 3);
+    Assert.assertEquals(policy.getStats().get(AdaptiveCompressionPolicy.OTHER_ROUTE).getCompressedCount(), 2);
+  }
+
+  @Test
+  public void testServerFilter()
+  {
+    AdaptiveCompressionPolicy policy = createPolicy(() -> 0.0);
+    ServerCompressionFilter filter = new ServerCompressionFilter(new EncodingType[]{EncodingType.GZIP},
+        new CompressionConfig(0), Collections.emptyMap(), policy);
+    byte[] random = new byte[1000];
+    new Random(1).nextBytes(random);
+
+    int encodedCount = 0;
+    for (int i = 0; i < MIN_SAMPLES + RESAMPLE_INTERVAL; i++)
+    {
+      RestResponse response = filterResponse(filter, random);
+      if (response.getHeader(HttpConstants.CONTENT_ENCODING) != null)
+      {
+        encodedCount++;
+      }
+    }
+    // Random bytes never compress, and are only compressed for the samples
+    Assert.assertEquals(encodedCount, 0);
+    AdaptiveCompressionPolicy.RouteStats stats = policy.getStats().get("images image/png");
+    Assert.assertEquals(stats.getCompressedCount(), MIN_SAMPLES + 1);
+    Assert.assertEquals(stats.getSkippedCount(), RESAMPLE_INTERVAL - 1);
+  }
+
+  private static AdaptiveCompressionPolicy createPolicy(DoubleSupplier cpuLoad)
+  {
+    return new AdaptiveCompressionPolicy(0.9, 0.6, 0.8, cpuLoad, MIN_SAMPLES, RESAMPLE_INTERVAL,
+        AdaptiveCompressionPolicy.DEFAULT_MAX_ROUTES);
+  }
+
+  private static RestResponse filterResponse(ServerCompressionFilter filter, byte[] entity)
+  {
+    AtomicReference<RestResponse> result = new AtomicReference<>();
+    NextFilter<RestRequest, RestResponse> next = new NextFilter<RestRequest, RestResponse>()
+    {
+      @Override
+      public void onRequest(RestRequest restRequest, RequestContext requestContext, Map<String, String> wireAttrs)
+      {
+      }
+
+      @Override
+      public void onResponse(RestResponse restResponse, RequestContext requestContext, Map<String, String> wireAttrs)
+      {
+        result.set(restResponse);
+      }
+
+      @Override
+      public void onError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs)
+      {
+        Assert.fail("Unexpected error", ex);
+      }
+    };
+
+    RequestContext requestContext = new RequestContext();
+    RestRequest request = new RestRequestBuilder(URI.create("/images/1"))
+        .setHeader(HttpConstants.ACCEPT_ENCODING, "gzip")
+        .build();
+    filter.onRestRequest(request, requestContext, new HashMap<>(), next);
+    RestResponse response = new RestResponseBuilder()
+        .setHeader(HttpConstants.CONTENT_TYPE, "image/png")
+        .setEntity(entity)
+        .build();
+    filter.onRestResponse(response, requestContext, new HashMap<>(), next);
+    return result.get();
+  }
+}
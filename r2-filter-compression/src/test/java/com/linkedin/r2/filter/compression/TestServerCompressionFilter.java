@@ -16,6 +16,7 @@
 
 package com.linkedin.r2.filter.compression;
 
+import com.linkedin.r2.filter.CompressionConfig;
 import com.linkedin.r2.filter.NextFilter;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestRequest;
@@ -39,7 +40,7 @@ import java.util.Map;
  */
 public class TestServerCompressionFilter
 {
-  private static final String ACCEPT_COMPRESSIONS = "gzip, deflate, bzip2, snappy, x-snappy-framed";
+  private static final String ACCEPT_COMPRESSIONS = "gzip, deflate, bzip2, snappy, x-snappy-framed, zstd";
 
   class HeaderCaptureFilter implements NextFilter<RestRequest, RestResponse>
   {
@@ -101,7 +102,8 @@ public class TestServerCompressionFilter
         {"gzip;q=1.00,deflate;q=0.80,bzip2;q=0.60,snappy;q=0.40", 1000, null},
         {"snappy", 1000, null},
         {"unknown;q=1.00,bzip2;q=0.70", 1000, null},
-        {"x-snappy-framed", 0, EncodingType.SNAPPY_FRAMED}
+        {"x-snappy-framed", 0, EncodingType.SNAPPY_FRAMED},
+        {"zstd", 0, EncodingType.ZSTD}
     };
   }
 
@@ -124,4 +126,29 @@ public class TestServerCompressionFilter
     serverCompressionFilter.onRestResponse(restResponse, context, Collections.<String, String>emptyMap(),
                                            new HeaderCaptureFilter(HttpConstants.CONTENT_ENCODING, expectedContentEncodingName, compressedLength));
   }
+
+  @Test
+  public void testCompressorOverride() throws CompressionException
+  {
+    byte[] dictionary = new byte[64];
+    Arrays.fill(dictionary, (byte) 'A');
+    Compressor compressor = new ZstdCompressor(19, dictionary);
+    ServerCompressionFilter serverCompressionFilter = new ServerCompressionFilter(new EncodingType[]{EncodingType.ZSTD},
+        new CompressionConfig(0), Collections.singletonMap(EncodingType.ZSTD, compressor));
+    RequestContext context = new RequestContext();
+    context.putLocalAttr(HttpConstants.ACCEPT_ENCODING, "zstd");
+    context.putLocalAttr(HttpConstants.HEADER_RESPONSE_COMPRESSION_THRESHOLD, 0);
+    byte[] entity = new byte[1000];
+    Arrays.fill(entity, (byte) 'A');
+    int compressedLength = compressor.deflate(new ByteArrayInputStream(entity)).length;
+    serverCompressionFilter.onRestResponse(new RestResponseBuilder().setEntity(entity).build(), context,
+        Collections.<String, String>emptyMap(), new HeaderCaptureFilter(HttpConstants.CONTENT_ENCODING, "zstd", compressedLength));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testMismatchedCompressorOverride()
+  {
+    new ServerCompressionFilter(new EncodingType[]{EncodingType.GZIP}, new CompressionConfig(0),
+        Collections.singletonMap(EncodingType.GZIP, new ZstdCompressor()));
+  }
 }
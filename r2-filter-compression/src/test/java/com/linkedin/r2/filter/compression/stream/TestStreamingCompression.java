@@ -21,6 +21,7 @@ import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.FutureCallback;
 import com.linkedin.data.ByteString;
 import com.linkedin.r2.filter.compression.CompressionException;
+import com.linkedin.r2.filter.compression.streaming.ByteStringsWriter;
 import com.linkedin.r2.filter.compression.streaming.Bzip2Compressor;
 import com.linkedin.r2.filter.compression.streaming.DeflateCompressor;
 import com.linkedin.r2.filter.compression.streaming.GzipCompressor;
@@ -33,12 +34,17 @@ import com.linkedin.r2.message.stream.entitystream.ReadHandle;
 import com.linkedin.r2.message.stream.entitystream.Reader;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.EOFException;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.apache.commons.io.IOUtils;
 import org.iq80.snappy.SnappyFramedOutputStream;
@@ -144,6 +150,169 @@ public class TestStreamingCompression
     testCompressThenDecompress(compressor, origin);
   }
 
+  @Test
+  public void testIncrementalGzipCompressor()
+      throws IOException, InterruptedException, CompressionException, ExecutionException
+  {
+    StreamingCompressor compressor = new GzipCompressor();
+    final byte[] origin = new byte[BUF_SIZE];
+    Arrays.fill(origin, (byte) 'b');
+    byte[] compressed = gzip(origin);
+
+    testCompress(compressor, origin, compressed);
+    testDecompress(compressor, origin, compressed);
+    testCompressThenDecompress(compressor, origin);
+  }
+
+  @Test
+  public void testIncrementalDeflateCompressor()
+      throws IOException, InterruptedException, CompressionException, ExecutionException
+  {
+    StreamingCompressor compressor = new DeflateCompressor();
+    final byte[] origin = new byte[BUF_SIZE];
+    Arrays.fill(origin, (byte) 'c');
+    byte[] compressed = zlib(origin);
+
+    testCompress(compressor, origin, compressed);
+    testDecompress(compressor, origin, compressed);
+    testCompressThenDecompress(compressor, origin);
+  }
+
+  @Test
+  public void testIncrementalCompressorsWithSmallChunks()
+      throws IOException, InterruptedException, ExecutionException
+  {
+    byte[] origin = createText(100 * 1024);
+    byte[] gzipped = gzip(origin);
+    byte[] zlibbed = zlib(origin);
+
+    Assert.assertEquals(read(new GzipCompressor().inflate(chunkedStream(gzipped))), origin);
+    Assert.assertEquals(read(new GzipCompressor().deflate(chunkedStream(origin))), gzipped);
+    Assert.assertEquals(read(new DeflateCompressor().inflate(chunkedStream(zlibbed))), origin);
+    Assert.assertEquals(read(new DeflateCompressor().deflate(chunkedStream(origin))), zlibbed);
+  }
+
+  @Test
+  public void testIncrementalGzipConcatenatedMembers()
+      throws IOException, InterruptedException, ExecutionException
+  {
+    byte[] first = createText(10000);
+    byte[] second = createText(20000);
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    compressed.write(gzip(first));
+    compressed.write(gzip(second));
+    ByteArrayOutputStream origin = new ByteArrayOutputStream();
+    origin.write(first);
+    origin.write(second);
+
+    Assert.assertEquals(read(new GzipCompressor().inflate(chunkedStream(compressed.toByteArray()))),
+        origin.toByteArray());
+  }
+
+  @Test
+  public void testIncrementalGzipOptionalHeaderFields()
+      throws IOException, InterruptedException, ExecutionException
+  {
+    byte[] origin = createText(10000);
+    byte[] compressed = gzip(origin);
+
+    // Same member, with FEXTRA and FNAME fields
+    ByteArrayOutputStream withFields = new ByteArrayOutputStream();
+    withFields.write(compressed, 0, 3);
+    withFields.write(4 | 8);
+    withFields.write(compressed, 4, 6);
+    withFields.write(new byte[]{3, 0, 'x', 'y', 'z'});
+    withFields.write(new byte[]{'n', 'a', 'm', 'e', 0});
+    withFields.write(compressed, 10, compressed.length - 10);
+
+    Assert.assertEquals(read(new GzipCompressor().inflate(chunkedStream(withFields.toByteArray()))), origin);
+  }
+
+  @Test
+  public void testIncrementalGzipCorruptInput()
+      throws IOException, InterruptedException
+  {
+    byte[] compressed = gzip(createText(10000));
+    byte[] corrupt = compressed.clone();
+    corrupt[corrupt.length - 5]++;
+    byte[] truncated = Arrays.copyOf(compressed, compressed.length - 4);
+
+    try
+    {
+      read(new GzipCompressor().inflate(chunkedStream(corrupt)));
+      Assert.fail("Decompressing a corrupt stream should fail");
+    }
+    catch (ExecutionException e)
+    {
+      Assert.assertTrue(e.getCause() instanceof ZipException);
+    }
+
+    try
+    {
+      read(new GzipCompressor().inflate(chunkedStream(truncated)));
+      Assert.fail("Decompressing a truncated stream should fail");
+    }
+    catch (ExecutionException e)
+    {
+      Assert.assertTrue(e.getCause() instanceof EOFException);
+    }
+  }
+
+  private static byte[] gzip(byte[] origin) throws IOException
+  {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    GZIPOutputStream gzip = new GZIPOutputStream(out);
+    IOUtils.write(origin, gzip);
+    gzip.close();
+    return out.toByteArray();
+  }
+
+  private static byte[] zlib(byte[] origin) throws IOException
+  {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DeflaterOutputStream zlib = new DeflaterOutputStream(out);
+    IOUtils.write(origin, zlib);
+    zlib.close();
+    return out.toByteArray();
+  }
+
+  /**
+   * Creates compressible bytes, which do not compress to almost nothing like repeated bytes.
+   */
+  private static byte[] createText(int length)
+  {
+    Random random = new Random(length);
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++)
+    {
+      bytes[i] = (byte) ('a' + random.nextInt(8));
+    }
+    return bytes;
+  }
+
+  /**
+   * Creates a stream writing the given bytes in chunks of random sizes, from 1 byte to a few hundred bytes.
+   */
+  private static EntityStream chunkedStream(byte[] bytes)
+  {
+    Random random = new Random(bytes.length);
+    Queue<ByteString> chunks = new ArrayDeque<>();
+    for (int offset = 0; offset < bytes.length; )
+    {
+      int length = Math.min(1 + random.nextInt(300), bytes.length - offset);
+      chunks.add(ByteString.copy(bytes, offset, length));
+      offset += length;
+    }
+    return EntityStreams.newEntityStream(new ByteStringsWriter(chunks));
+  }
+
+  private static byte[] read(EntityStream stream) throws InterruptedException, ExecutionException
+  {
+    FutureCallback<byte[]> callback = new FutureCallback<>();
+    stream.setReader(new ByteReader(callback));
+    return callback.get();
+  }
+
   private void testCompress(StreamingCompressor compressor, byte[] uncompressed, byte[] compressed)
       throws CompressionException, ExecutionException, InterruptedException
   {
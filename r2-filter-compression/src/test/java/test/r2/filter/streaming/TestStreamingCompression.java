@@ -17,6 +17,7 @@
 package test.r2.filter.streaming;
 
 
+import com.github.luben.zstd.ZstdOutputStream;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.FutureCallback;
 import com.linkedin.data.ByteString;
@@ -26,6 +27,7 @@ import com.linkedin.r2.filter.compression.streaming.DeflateCompressor;
 import com.linkedin.r2.filter.compression.streaming.GzipCompressor;
 import com.linkedin.r2.filter.compression.streaming.SnappyCompressor;
 import com.linkedin.r2.filter.compression.streaming.StreamingCompressor;
+import com.linkedin.r2.filter.compression.streaming.ZstdCompressor;
 import com.linkedin.r2.message.stream.entitystream.ByteStringWriter;
 import com.linkedin.r2.message.stream.entitystream.EntityStream;
 import com.linkedin.r2.message.stream.entitystream.EntityStreams;
@@ -144,6 +146,26 @@ public class TestStreamingCompression
     testCompressThenDecompress(compressor, origin);
   }
 
+  @Test
+  public void testZstdCompressor()
+      throws IOException, InterruptedException, CompressionException, ExecutionException
+  {
+    StreamingCompressor compressor = new ZstdCompressor(_executor);
+    final byte[] origin = new byte[BUF_SIZE];
+    Arrays.fill(origin, (byte)'d');
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ZstdOutputStream zstd = new ZstdOutputStream(out);
+    IOUtils.write(origin, zstd);
+    zstd.close();
+    byte[] compressed = out.toByteArray();
+
+    // The frames produced depend on how the input is chunked, so only the round trips are checked
+    testDecompress(compressor, origin, compressed);
+    testCompressThenDecompress(compressor, origin);
+    testCompressThenDecompress(new ZstdCompressor(_executor, 19, "dddd".getBytes()), origin);
+  }
+
   private void testCompress(StreamingCompressor compressor, byte[] uncompressed, byte[] compressed)
       throws CompressionException, ExecutionException, InterruptedException
   {
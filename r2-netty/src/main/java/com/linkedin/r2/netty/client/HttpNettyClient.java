@@ -334,8 +334,7 @@ public class HttpNettyClient implements TransportClient
 
   private static boolean isFullRequest(RequestContext requestContext)
   {
-    Object isFullRequest = requestContext.getLocalAttr(R2Constants.IS_FULL_REQUEST);
-    return isFullRequest != null && (Boolean)isFullRequest;
+    return Boolean.TRUE.equals(requestContext.getLocalAttr(R2Constants.IS_FULL_REQUEST_KEY));
   }
 
   /**
@@ -418,7 +417,7 @@ public class HttpNettyClient implements TransportClient
     }
 
     // Saves protocol version in request context
-    requestContext.putLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION, _protocolVersion);
+    requestContext.putLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION_KEY, _protocolVersion);
 
     final Cancellable pendingGet = pool.get(new ChannelPoolGetCallback(
         pool, requestWithWireAttrHeaders, requestContext, decoratedCallback, timeout, resolvedRequestTimeout, _streamingTimeout));
@@ -597,13 +596,13 @@ public class HttpNettyClient implements TransportClient
   public static long resolveRequestTimeout(RequestContext context, long requestTimeout)
   {
     long resolvedRequestTimeout = requestTimeout;
-    Number requestTimeoutRaw = (Number) context.getLocalAttr(R2Constants.REQUEST_TIMEOUT);
+    Number requestTimeoutRaw = context.getLocalAttr(R2Constants.REQUEST_TIMEOUT_KEY);
     if (requestTimeoutRaw != null)
     {
       resolvedRequestTimeout = requestTimeoutRaw.longValue();
     }
 
-    Double preemptiveTimeoutRate = (Double) context.getLocalAttr(R2Constants.PREEMPTIVE_TIMEOUT_RATE);
+    Double preemptiveTimeoutRate = context.getLocalAttr(R2Constants.PREEMPTIVE_TIMEOUT_RATE_KEY);
     if (preemptiveTimeoutRate != null)
     {
       resolvedRequestTimeout = RequestTimeoutUtil.applyPreemptiveTimeoutRate(resolvedRequestTimeout, preemptiveTimeoutRate);
@@ -17,9 +17,11 @@
 package com.linkedin.r2.netty.client.http;
 
 import com.linkedin.common.stats.NoopLongTracker;
+import com.linkedin.r2.transport.http.client.AdaptiveAsyncPoolSizingPolicy;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
 import com.linkedin.r2.transport.http.client.ExponentialBackOffRateLimiter;
+import com.linkedin.r2.transport.http.client.NoopAsyncPoolSizingPolicy;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
 import com.linkedin.util.clock.SystemClock;
@@ -56,6 +58,7 @@ public class HttpChannelPoolFactory implements ChannelPoolFactory
   private final ScheduledExecutorService _scheduler;
   private final AsyncPoolImpl.Strategy _strategy;
   private int _channelPoolWaiterTimeout;
+  private final boolean _adaptivePoolSizing;
 
   public HttpChannelPoolFactory(
       ScheduledExecutorService scheduler,
@@ -80,6 +83,41 @@ public class HttpChannelPoolFactory implements ChannelPoolFactory
       int sslHandShakeTimeout,
       String udsAddress)
   {
+    this(scheduler, eventLoopGroup, channelGroup, strategy, sslContext, sslParameters, maxPoolSize, minPoolSize,
+        maxPoolWaiterSize, maxInitialLineLength, maxHeaderSize, maxChunkSize, maxConcurrentConnectionInitializations,
+        idleTimeout, maxContentLength, tcpNoDelay, enableSSLSessionResumption, channelPoolWaiterTimeout, connectTimeout,
+        sslHandShakeTimeout, udsAddress, false);
+  }
+
+  /**
+   * @param adaptivePoolSizing if true, each pool adjusts its target size to its load with its own
+   *                           {@link AdaptiveAsyncPoolSizingPolicy}
+   */
+  public HttpChannelPoolFactory(
+      ScheduledExecutorService scheduler,
+      EventLoopGroup eventLoopGroup,
+      ChannelGroup channelGroup,
+      AsyncPoolImpl.Strategy strategy,
+      SSLContext sslContext,
+      SSLParameters sslParameters,
+      int maxPoolSize,
+      int minPoolSize,
+      int maxPoolWaiterSize,
+      int maxInitialLineLength,
+      int maxHeaderSize,
+      int maxChunkSize,
+      int maxConcurrentConnectionInitializations,
+      long idleTimeout,
+      long maxContentLength,
+      boolean tcpNoDelay,
+      boolean enableSSLSessionResumption,
+      int channelPoolWaiterTimeout,
+      int connectTimeout,
+      int sslHandShakeTimeout,
+      String udsAddress,
+      boolean adaptivePoolSizing)
+  {
+    _adaptivePoolSizing = adaptivePoolSizing;
     ChannelInitializer<Channel> initializer = new HttpChannelInitializer(sslContext, sslParameters,
         maxInitialLineLength, maxHeaderSize, maxChunkSize, maxContentLength, enableSSLSessionResumption, sslHandShakeTimeout);
 
@@ -124,7 +162,8 @@ public class HttpChannelPoolFactory implements ChannelPoolFactory
             _scheduler,
             _maxConcurrentConnectionInitializations),
         SystemClock.instance(),
-        NoopLongTracker.instance()
+        NoopLongTracker.instance(),
+        _adaptivePoolSizing ? new AdaptiveAsyncPoolSizingPolicy() : NoopAsyncPoolSizingPolicy.instance()
     );
   }
 }
@@ -56,6 +56,7 @@ import com.linkedin.r2.transport.http.client.stream.http.HttpNettyStreamClient;
 import com.linkedin.r2.transport.http.client.stream.http2.Http2NettyStreamClient;
 import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
 import com.linkedin.r2.util.ConfigValueExtractor;
+import com.linkedin.r2.util.HashedWheelTimer;
 import com.linkedin.r2.util.NamedThreadFactory;
 import com.linkedin.util.clock.SystemClock;
 import io.netty.channel.EventLoopGroup;
@@ -136,6 +137,7 @@ public class HttpClientFactory implements TransportClientFactory
   public static final String HTTP_MAX_CHUNK_SIZE = "http.maxChunkSize";
   public static final String HTTP_MAX_CONCURRENT_CONNECTIONS = "http.maxConcurrentConnections";
   public static final String HTTP_TCP_NO_DELAY = "http.tcpNoDelay";
+  public static final String HTTP_POOL_ADAPTIVE_SIZING = "http.poolAdaptiveSizing";
   public static final String HTTP_PROTOCOL_VERSION = "http.protocolVersion";
   public static final String HTTP_MAX_CLIENT_REQUEST_RETRY_RATIO = "http.maxClientRequestRetryRatio";
 
@@ -169,6 +171,8 @@ public class HttpClientFactory implements TransportClientFactory
   // flag to enable/disable Nagle's algorithm
   public static final boolean DEFAULT_TCP_NO_DELAY = true;
   public static final boolean DEFAULT_SHARE_CONNECTION = false;
+  // flag to let the HTTP/1.1 pools adjust their target size to their load
+  public static final boolean DEFAULT_POOL_ADAPTIVE_SIZING = false;
   public static final int DEFAULT_MAX_CONCURRENT_CONNECTIONS = Integer.MAX_VALUE;
   public static final EncodingType[] DEFAULT_RESPONSE_CONTENT_ENCODINGS
       = {EncodingType.GZIP, EncodingType.SNAPPY, EncodingType.SNAPPY_FRAMED, EncodingType.DEFLATE, EncodingType.BZIP2};
@@ -204,6 +208,8 @@ public class HttpClientFactory implements TransportClientFactory
   private final int _sslHandShakeTimeout;
   private final int _channelPoolWaiterTimeout;
   private final String _udsAddress;
+  /** The wheel created by the builder on top of the scheduler, if any, which is stopped with the factory */
+  private final HashedWheelTimer _hashedWheelTimer;
   /** Request compression config for each http service. */
   private final Map<String, CompressionConfig> _requestCompressionConfigs;
   /** Response compression config for each http service. */
@@ -657,7 +663,7 @@ public class HttpClientFactory implements TransportClientFactory
         shutdownCallbackExecutor, jmxManager, requestCompressionThresholdDefault, requestCompressionConfigs,
         responseCompressionConfigs, compressionExecutor, defaultHttpVersion, shareConnection, eventProviderRegistry,
         enableSSLSessionResumption, usePipelineV2, executorsToShutDown, DEFAULT_CONNECT_TIMEOUT,
-        DEFAULT_SSL_HANDSHAKE_TIMEOUT, DEFAULT_CHANNELPOOL_WAITER_TIMEOUT, udsAddress, null);
+        DEFAULT_SSL_HANDSHAKE_TIMEOUT, DEFAULT_CHANNELPOOL_WAITER_TIMEOUT, udsAddress, null, null);
   }
 
   private HttpClientFactory(FilterChain filters,
@@ -682,7 +688,8 @@ public class HttpClientFactory implements TransportClientFactory
                             int sslHandShakeTimeout,
                             int channelPoolWaiterTimeout,
                             String udsAddress,
-                            DnsMetricsCallback dnsMetricsCallback)
+                            DnsMetricsCallback dnsMetricsCallback,
+                            HashedWheelTimer hashedWheelTimer)
   {
     _filters = filters;
     _eventLoopGroup = eventLoopGroup;
@@ -700,6 +707,11 @@ public class HttpClientFactory implements TransportClientFactory
     _channelPoolWaiterTimeout = channelPoolWaiterTimeout;
     _udsAddress = udsAddress;
     _dnsMetricsCallback = dnsMetricsCallback;
+    _hashedWheelTimer = hashedWheelTimer;
+    if (_hashedWheelTimer != null)
+    {
+      _jmxManager.onHashedWheelTimerCreate(_hashedWheelTimer);
+    }
     if (requestCompressionConfigs == null)
     {
       throw new IllegalArgumentException("requestCompressionConfigs should not be null.");
@@ -743,6 +755,7 @@ public class HttpClientFactory implements TransportClientFactory
     private boolean                    _shutdownExecutor = true;
     private boolean                    _shutdownCallbackExecutor = false;
     private boolean                    _shareConnection = false;
+    private boolean                    _useHashedWheelTimer = false;
     private FilterChain                _filters = FilterChains.empty();
     private boolean                    _useClientCompression = true;
     private boolean                    _usePipelineV2 = false;
@@ -794,6 +807,18 @@ public class HttpClientFactory implements TransportClientFactory
       return this;
     }
 
+    /**
+     * @param useHashedWheelTimer if true, one-shot tasks such as request timeouts are kept in a
+     *                            {@link HashedWheelTimer} on top of the schedule executor, which makes
+     *                            scheduling and cancelling them cheaper at the cost of up to one tick
+     *                            of extra delay
+     */
+    public Builder setUseHashedWheelTimer(boolean useHashedWheelTimer)
+    {
+      _useHashedWheelTimer = useHashedWheelTimer;
+      return this;
+    }
+
     /**
      * @param callbackExecutor an optional executor to invoke user callbacks that otherwise
      *                         will be invoked by scheduler executor.
@@ -974,6 +999,12 @@ public class HttpClientFactory implements TransportClientFactory
         scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("R2 Netty Scheduler"));
         executorsToShutDown.add(scheduledExecutorService);
       }
+      HashedWheelTimer hashedWheelTimer = null;
+      if (_useHashedWheelTimer)
+      {
+        hashedWheelTimer = new HashedWheelTimer(scheduledExecutorService);
+        scheduledExecutorService = hashedWheelTimer;
+      }
 
       ExecutorService callbackExecutorGroup = _callbackExecutorGroup;
       if (callbackExecutorGroup == null)
@@ -1007,7 +1038,7 @@ public class HttpClientFactory implements TransportClientFactory
         _requestCompressionThresholdDefault, _requestCompressionConfigs, _responseCompressionConfigs,
         compressionExecutor, _defaultHttpVersion, _shareConnection, eventProviderRegistry, _enableSSLSessionResumption,
           _usePipelineV2, executorsToShutDown, _connectTimeout, _sslHandShakeTimeout, _channelPoolWaiterTimeout,
-          _udsAddress, _dnsMetricsCallback);
+          _udsAddress, _dnsMetricsCallback, hashedWheelTimer);
     }
 
   }
@@ -1408,6 +1439,7 @@ public class HttpClientFactory implements TransportClientFactory
     Integer maxHeaderSize = chooseNewOverDefault(getIntValue(properties, HTTP_MAX_HEADER_SIZE), DEFAULT_MAX_HEADER_SIZE);
     Integer maxChunkSize = chooseNewOverDefault(getIntValue(properties, HTTP_MAX_CHUNK_SIZE), DEFAULT_MAX_CHUNK_SIZE);
     Boolean tcpNoDelay = chooseNewOverDefault(getBooleanValue(properties, HTTP_TCP_NO_DELAY), DEFAULT_TCP_NO_DELAY);
+    Boolean adaptivePoolSizing = chooseNewOverDefault(getBooleanValue(properties, HTTP_POOL_ADAPTIVE_SIZING), DEFAULT_POOL_ADAPTIVE_SIZING);
     Integer maxConcurrentConnectionInitializations = chooseNewOverDefault(getIntValue(properties, HTTP_MAX_CONCURRENT_CONNECTIONS), DEFAULT_MAX_CONCURRENT_CONNECTIONS);
     AsyncPoolImpl.Strategy strategy = chooseNewOverDefault(getStrategy(properties), DEFAULT_POOL_STRATEGY);
     Integer gracefulShutdownTimeout = chooseNewOverDefault(getIntValue(properties, HTTP_GRACEFUL_SHUTDOWN_TIMEOUT), DEFAULT_GRACEFUL_SHUTDOWN_TIMEOUT);
@@ -1418,7 +1450,8 @@ public class HttpClientFactory implements TransportClientFactory
       .setPoolWaiterSize(poolWaiterSize).setSSLParameters(sslParameters).setStrategy(strategy).setMinPoolSize(poolMinSize)
       .setMaxHeaderSize(maxHeaderSize).setMaxChunkSize(maxChunkSize)
       .setMaxConcurrentConnectionInitializations(maxConcurrentConnectionInitializations)
-      .setTcpNoDelay(tcpNoDelay).setPoolStatsNamePrefix(poolStatsNamePrefix).setUdsAddress(_udsAddress).build();
+      .setTcpNoDelay(tcpNoDelay).setPoolStatsNamePrefix(poolStatsNamePrefix).setUdsAddress(_udsAddress)
+      .setAdaptivePoolSizing(adaptivePoolSizing).build();
   }
 
   TransportClient getRawClient(Map<String, ? extends Object> properties,
@@ -1597,6 +1630,14 @@ public class HttpClientFactory implements TransportClientFactory
           _eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
         }
 
+        if (_hashedWheelTimer != null)
+        {
+          // The wheel keeps ticking on the scheduler while it holds timeouts, which may not be shut down below
+          _jmxManager.onHashedWheelTimerShutdown(_hashedWheelTimer);
+          _hashedWheelTimer.stop();
+          LOG.info("Hashed wheel timer stopped");
+        }
+
         if (_shutdownExecutor)
         {
           // Due to a bug in ScheduledThreadPoolExecutor, shutdownNow() returns cancelled
@@ -111,7 +111,8 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
         channelGroup,
         _channelPoolWaiterTimeout,
         _connectTimeout,
-        _sslHandShakeTimeout),
+        _sslHandShakeTimeout,
+        channelPoolManagerKey.isAdaptivePoolSizing()),
       channelPoolManagerKey.getName(),
       channelGroup,
       _scheduler);
@@ -145,7 +146,8 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
           _channelPoolWaiterTimeout,
           _connectTimeout,
           _sslHandShakeTimeout,
-          channelPoolManagerKey.getUdsAddress());
+          channelPoolManagerKey.getUdsAddress(),
+          channelPoolManagerKey.isAdaptivePoolSizing());
     }
     else
     {
@@ -168,7 +170,8 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
           channelGroup,
           _channelPoolWaiterTimeout,
           _connectTimeout,
-          _sslHandShakeTimeout);
+          _sslHandShakeTimeout,
+          channelPoolManagerKey.isAdaptivePoolSizing());
     }
     return new ChannelPoolManagerImpl(
         channelPoolFactory,
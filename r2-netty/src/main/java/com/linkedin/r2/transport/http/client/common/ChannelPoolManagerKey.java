@@ -46,6 +46,7 @@ public class ChannelPoolManagerKey
   private final boolean _tcpNoDelay;
   private final String _poolStatsNamePrefix;
   private final String _udsAddress;
+  private final boolean _adaptivePoolSizing;
 
   @Deprecated
   public ChannelPoolManagerKey(SSLContext sslContext, SSLParameters sslParameters, int gracefulShutdownTimeout,
@@ -63,6 +64,17 @@ public class ChannelPoolManagerKey
                                long maxResponseSize, int maxPoolSize, int minPoolSize,
                                int maxConcurrentConnectionInitializations, int poolWaiterSize, AsyncPoolImpl.Strategy strategy,
                                boolean tcpNoDelay, String poolStatsNamePrefix, String udsAddress)
+  {
+    this(sslContext, sslParameters, gracefulShutdownTimeout, idleTimeout, sslIdleTimeout, maxHeaderSize, maxChunkSize,
+        maxResponseSize, maxPoolSize, minPoolSize, maxConcurrentConnectionInitializations, poolWaiterSize, strategy,
+        tcpNoDelay, poolStatsNamePrefix, udsAddress, false);
+  }
+
+  public ChannelPoolManagerKey(SSLContext sslContext, SSLParameters sslParameters, int gracefulShutdownTimeout,
+                               long idleTimeout, long sslIdleTimeout, int maxHeaderSize, int maxChunkSize,
+                               long maxResponseSize, int maxPoolSize, int minPoolSize,
+                               int maxConcurrentConnectionInitializations, int poolWaiterSize, AsyncPoolImpl.Strategy strategy,
+                               boolean tcpNoDelay, String poolStatsNamePrefix, String udsAddress, boolean adaptivePoolSizing)
   {
     _sslContext = sslContext;
     _sslParameters = sslParameters;
@@ -80,6 +92,7 @@ public class ChannelPoolManagerKey
     _tcpNoDelay = tcpNoDelay;
     _poolStatsNamePrefix = poolStatsNamePrefix;
     _udsAddress = udsAddress;
+    _adaptivePoolSizing = adaptivePoolSizing;
   }
 
   /**
@@ -119,6 +132,11 @@ public class ChannelPoolManagerKey
     result = 31 * result + (_tcpNoDelay ? 1 : 0);
     result = 31 * result + (isSsl() ? 1 : 0);
     result = 31 * result + (_poolStatsNamePrefix != null ? _poolStatsNamePrefix.hashCode() : 0);
+    // only mixed in when enabled, to keep the names of the existing pools
+    if (_adaptivePoolSizing)
+    {
+      result = 31 * result + 1;
+    }
     return result;
   }
 
@@ -199,6 +217,11 @@ public class ChannelPoolManagerKey
     return _udsAddress;
   }
 
+  public boolean isAdaptivePoolSizing()
+  {
+    return _adaptivePoolSizing;
+  }
+
   @Override
   public boolean equals(Object o)
   {
@@ -219,6 +242,7 @@ public class ChannelPoolManagerKey
     if (_tcpNoDelay != that._tcpNoDelay) return false;
     if (isSsl() != that.isSsl()) return false;
     if (_strategy != that._strategy) return false;
+    if (_adaptivePoolSizing != that._adaptivePoolSizing) return false;
     return _poolStatsNamePrefix != null ? _poolStatsNamePrefix.equals(that._poolStatsNamePrefix) : that._poolStatsNamePrefix == null;
   }
 
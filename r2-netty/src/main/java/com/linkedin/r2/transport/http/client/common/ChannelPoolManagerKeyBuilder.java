@@ -47,6 +47,7 @@ public class ChannelPoolManagerKeyBuilder
   private boolean _tcpNoDelay = HttpClientFactory.DEFAULT_TCP_NO_DELAY;
   private String _poolStatsNamePrefix = HttpClientFactory.DEFAULT_POOL_STATS_NAME_PREFIX;
   private String _udsAddress = null;
+  private boolean _adaptivePoolSizing = HttpClientFactory.DEFAULT_POOL_ADAPTIVE_SIZING;
 
   /**
    * @param sslContext {@link SSLContext}
@@ -205,10 +206,21 @@ public class ChannelPoolManagerKeyBuilder
     return this;
   }
 
+  /**
+   * @param adaptivePoolSizing flag to let each HTTP/1.1 pool adjust its target size to its load with an
+   *                           {@link com.linkedin.r2.transport.http.client.AdaptiveAsyncPoolSizingPolicy},
+   *                           between the min and max pool size
+   */
+  public ChannelPoolManagerKeyBuilder setAdaptivePoolSizing(boolean adaptivePoolSizing)
+  {
+    _adaptivePoolSizing = adaptivePoolSizing;
+    return this;
+  }
+
   public ChannelPoolManagerKey build()
   {
     return new ChannelPoolManagerKey(_sslContext, _sslParameters, _gracefulShutdownTimeout, _idleTimeout, _sslIdleTimeout,
       _maxHeaderSize, _maxChunkSize, _maxResponseSize, _maxPoolSize, _minPoolSize, _maxConcurrentConnectionInitializations,
-      _poolWaiterSize, _strategy, _tcpNoDelay, _poolStatsNamePrefix, _udsAddress);
+      _poolWaiterSize, _strategy, _tcpNoDelay, _poolStatsNamePrefix, _udsAddress, _adaptivePoolSizing);
   }
 }
@@ -19,9 +19,11 @@ package com.linkedin.r2.transport.http.client.rest;
 import com.linkedin.common.stats.NoopLongTracker;
 import com.linkedin.r2.netty.common.SslHandlerUtil;
 import com.linkedin.r2.netty.handler.common.SessionResumptionSslHandler;
+import com.linkedin.r2.transport.http.client.AdaptiveAsyncPoolSizingPolicy;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
 import com.linkedin.r2.transport.http.client.ExponentialBackOffRateLimiter;
+import com.linkedin.r2.transport.http.client.NoopAsyncPoolSizingPolicy;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
 import com.linkedin.util.clock.SystemClock;
@@ -56,6 +58,7 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
   private final ScheduledExecutorService _scheduler;
   private final int _maxConcurrentConnectionInitializations;
   private final int _channelPoolWaiterTimeout;
+  private final boolean _adaptivePoolSizing;
 
   public HttpNettyChannelPoolFactory(int maxPoolSize, long idleTimeout, int maxPoolWaiterSize, AsyncPoolImpl.Strategy strategy,
                                      int minPoolSize, EventLoopGroup eventLoopGroup, SSLContext sslContext, SSLParameters sslParameters, int maxHeaderSize,
@@ -63,6 +66,22 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
                                      boolean enableSSLSessionResumption, ChannelGroup allChannels, int channelPoolWaiterTimeout,
                                      int connectTimeout, int sslHandShakeTimeout)
   {
+    this(maxPoolSize, idleTimeout, maxPoolWaiterSize, strategy, minPoolSize, eventLoopGroup, sslContext, sslParameters,
+        maxHeaderSize, maxChunkSize, maxResponseSize, scheduler, maxConcurrentConnectionInitializations,
+        enableSSLSessionResumption, allChannels, channelPoolWaiterTimeout, connectTimeout, sslHandShakeTimeout, false);
+  }
+
+  /**
+   * @param adaptivePoolSizing if true, each pool adjusts its target size to its load with its own
+   *                           {@link AdaptiveAsyncPoolSizingPolicy}
+   */
+  public HttpNettyChannelPoolFactory(int maxPoolSize, long idleTimeout, int maxPoolWaiterSize, AsyncPoolImpl.Strategy strategy,
+                                     int minPoolSize, EventLoopGroup eventLoopGroup, SSLContext sslContext, SSLParameters sslParameters, int maxHeaderSize,
+                                     int maxChunkSize, int maxResponseSize, ScheduledExecutorService scheduler, int maxConcurrentConnectionInitializations,
+                                     boolean enableSSLSessionResumption, ChannelGroup allChannels, int channelPoolWaiterTimeout,
+                                     int connectTimeout, int sslHandShakeTimeout, boolean adaptivePoolSizing)
+  {
+    _adaptivePoolSizing = adaptivePoolSizing;
 
     _allChannels = allChannels;
     _scheduler = scheduler;
@@ -103,7 +122,8 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
         _scheduler,
         _maxConcurrentConnectionInitializations),
       SystemClock.instance(),
-      NoopLongTracker.instance()
+      NoopLongTracker.instance(),
+      _adaptivePoolSizing ? new AdaptiveAsyncPoolSizingPolicy() : NoopAsyncPoolSizingPolicy.instance()
     );
   }
 
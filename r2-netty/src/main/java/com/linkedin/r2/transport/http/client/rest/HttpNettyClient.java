@@ -114,7 +114,7 @@ public class HttpNettyClient extends AbstractNettyClient<RestRequest, RestRespon
         .overwriteHeaders(WireAttributeHelper.toWireAttributes(wireAttrs))
         .build();
 
-    requestContext.putLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION, HttpProtocolVersion.HTTP_1_1);
+    requestContext.putLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION_KEY, HttpProtocolVersion.HTTP_1_1);
 
     final AsyncPool<Channel> pool;
     try
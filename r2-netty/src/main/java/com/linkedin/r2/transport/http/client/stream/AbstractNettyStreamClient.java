@@ -146,7 +146,6 @@ public abstract class AbstractNettyStreamClient extends AbstractNettyClient<Stre
 
   private static boolean isFullRequest(RequestContext requestContext)
   {
-    Object isFull = requestContext.getLocalAttr(R2Constants.IS_FULL_REQUEST);
-    return isFull != null && (Boolean)isFull;
+    return Boolean.TRUE.equals(requestContext.getLocalAttr(R2Constants.IS_FULL_REQUEST_KEY));
   }
 }
@@ -17,11 +17,13 @@
 package com.linkedin.r2.transport.http.client.stream.http;
 
 import com.linkedin.common.stats.NoopLongTracker;
+import com.linkedin.r2.transport.http.client.AdaptiveAsyncPoolSizingPolicy;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
 import com.linkedin.r2.transport.http.client.ExponentialBackOffRateLimiter;
+import com.linkedin.r2.transport.http.client.NoopAsyncPoolSizingPolicy;
 import com.linkedin.r2.transport.http.client.stream.http2.Http2NettyStreamClient;
 import com.linkedin.util.clock.SystemClock;
 import io.netty.bootstrap.Bootstrap;
@@ -53,6 +55,7 @@ public class HttpNettyStreamChannelPoolFactory implements ChannelPoolFactory
   private final ScheduledExecutorService _scheduler;
   private final int _maxConcurrentConnectionInitializations;
   private final int _channelPoolWaiterTimeout;
+  private final boolean _adaptivePoolSizing;
 
   public HttpNettyStreamChannelPoolFactory(int maxPoolSize,
                                            long idleTimeout,
@@ -74,6 +77,38 @@ public class HttpNettyStreamChannelPoolFactory implements ChannelPoolFactory
                                            int connectTimeout,
                                            int sslHandShakeTimeout)
   {
+    this(maxPoolSize, idleTimeout, maxPoolWaiterSize, strategy, minPoolSize, tcpNoDelay, scheduler,
+        maxConcurrentConnectionInitializations, sslContext, sslParameters, maxHeaderSize, maxChunkSize, maxResponseSize,
+        enableSSLSessionResumption, eventLoopGroup, channelGroup, channelPoolWaiterTimeout, connectTimeout,
+        sslHandShakeTimeout, false);
+  }
+
+  /**
+   * @param adaptivePoolSizing if true, each pool adjusts its target size to its load with its own
+   *                           {@link AdaptiveAsyncPoolSizingPolicy}
+   */
+  public HttpNettyStreamChannelPoolFactory(int maxPoolSize,
+                                           long idleTimeout,
+                                           int maxPoolWaiterSize,
+                                           AsyncPoolImpl.Strategy strategy,
+                                           int minPoolSize,
+                                           boolean tcpNoDelay,
+                                           ScheduledExecutorService scheduler,
+                                           int maxConcurrentConnectionInitializations,
+                                           SSLContext sslContext,
+                                           SSLParameters sslParameters,
+                                           int maxHeaderSize,
+                                           int maxChunkSize,
+                                           long maxResponseSize,
+                                           boolean enableSSLSessionResumption,
+                                           EventLoopGroup eventLoopGroup,
+                                           ChannelGroup channelGroup,
+                                           int channelPoolWaiterTimeout,
+                                           int connectTimeout,
+                                           int sslHandShakeTimeout,
+                                           boolean adaptivePoolSizing)
+  {
+    _adaptivePoolSizing = adaptivePoolSizing;
     ChannelInitializer<NioSocketChannel> initializer =
       new RAPStreamClientPipelineInitializer(sslContext, sslParameters, maxHeaderSize, maxChunkSize, maxResponseSize,
           enableSSLSessionResumption, sslHandShakeTimeout);
@@ -117,7 +152,8 @@ public class HttpNettyStreamChannelPoolFactory implements ChannelPoolFactory
         _scheduler,
         _maxConcurrentConnectionInitializations),
       SystemClock.instance(),
-      NoopLongTracker.instance()
+      NoopLongTracker.instance(),
+      _adaptivePoolSizing ? new AdaptiveAsyncPoolSizingPolicy() : NoopAsyncPoolSizingPolicy.instance()
     );
   }
 }
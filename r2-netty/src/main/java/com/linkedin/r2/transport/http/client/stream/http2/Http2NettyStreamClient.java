@@ -97,7 +97,7 @@ public class Http2NettyStreamClient extends AbstractNettyStreamClient
       return;
     }
 
-    requestContext.putLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION, HttpProtocolVersion.HTTP_2);
+    requestContext.putLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION_KEY, HttpProtocolVersion.HTTP_2);
 
     Callback<Channel> getCallback = new ChannelPoolGetCallback(pool, request, requestContext, callback, requestTimeout);
     final Cancellable pendingGet = pool.get(getCallback);
@@ -22,6 +22,7 @@ package com.linkedin.r2.transport.http.server;
 
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.util.NamedThreadFactory;
+import com.linkedin.r2.util.PriorityRequestScheduler;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
@@ -40,6 +41,8 @@ import javax.net.ssl.SSLParameters;
 
 /* package private */ class HttpNettyServer implements HttpServer
 {
+  static final int DEFAULT_STARTUP_TIMEOUT_MILLIS = 10000;
+
   private final int _port;
   private final int _threadPoolSize;
   private final HttpDispatcher _dispatcher;
@@ -47,6 +50,7 @@ import javax.net.ssl.SSLParameters;
   private final SSLContext _sslContext;
   private final SSLParameters _sslParameters;
   private final int _startupTimeoutMillis;
+  private final PriorityRequestScheduler _scheduler;
 
   private NioEventLoopGroup _bossGroup;
   private NioEventLoopGroup _workerGroup;
@@ -71,11 +75,25 @@ import javax.net.ssl.SSLParameters;
   public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher, boolean restOverStream,
       SSLContext sslContext, SSLParameters sslParameters)
   {
-    this(port, threadPoolSize, dispatcher, restOverStream, sslContext, sslParameters, 10000);
+    this(port, threadPoolSize, dispatcher, restOverStream, sslContext, sslParameters, DEFAULT_STARTUP_TIMEOUT_MILLIS);
   }
 
   public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher, boolean restOverStream,
                          SSLContext sslContext, SSLParameters sslParameters, int startupTimeoutMillis)
+  {
+    this(port, threadPoolSize, dispatcher, restOverStream, sslContext, sslParameters, startupTimeoutMillis, null);
+  }
+
+  /**
+   * @param scheduler if not null, the scheduler on which the dispatcher runs the requests, in which case they
+   *                  are handed over to the dispatcher from the Netty worker threads instead of a pool of
+   *                  threadPoolSize threads serving the requests of each connection in order. The scheduler is
+   *                  shut down with the server.
+   * @see com.linkedin.r2.transport.common.bridge.server.PriorityTransportDispatcher
+   */
+  public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher, boolean restOverStream,
+                         SSLContext sslContext, SSLParameters sslParameters, int startupTimeoutMillis,
+                         PriorityRequestScheduler scheduler)
   {
     _port = port;
     _threadPoolSize = threadPoolSize;
@@ -84,12 +102,14 @@ import javax.net.ssl.SSLParameters;
     _sslContext = sslContext;
     _sslParameters = sslParameters;
     _startupTimeoutMillis = startupTimeoutMillis;
+    _scheduler = scheduler;
   }
 
   @Override
   public void start()
   {
-    _eventExecutors =  new DefaultEventExecutorGroup(_threadPoolSize);
+    // The scheduler has its own threads
+    _eventExecutors = _scheduler == null ? new DefaultEventExecutorGroup(_threadPoolSize) : null;
     _bossGroup = new NioEventLoopGroup(1, new NamedThreadFactory("R2 Nio Boss"));
     _workerGroup = new NioEventLoopGroup(0, new NamedThreadFactory("R2 Nio Worker"));
 
@@ -124,13 +144,21 @@ import javax.net.ssl.SSLParameters;
       // Do nothing
     }
 
-    try
+    if (_eventExecutors != null)
     {
-      _eventExecutors.shutdownGracefully().sync();
+      try
+      {
+        _eventExecutors.shutdownGracefully().sync();
+      }
+      catch(Exception ex)
+      {
+        // Do nothing
+      }
     }
-    catch(Exception ex)
+
+    if (_scheduler != null)
     {
-      // Do nothing
+      _scheduler.shutdown();
     }
   }
 
@@ -139,6 +167,9 @@ import javax.net.ssl.SSLParameters;
   {
     _bossGroup.terminationFuture().await();
     _workerGroup.terminationFuture().await();
-    _eventExecutors.terminationFuture().await();
+    if (_eventExecutors != null)
+    {
+      _eventExecutors.terminationFuture().await();
+    }
   }
 }
@@ -19,7 +19,9 @@ package com.linkedin.r2.transport.http.server;
 import com.linkedin.r2.filter.FilterChain;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.filter.transport.FilterChainDispatcher;
+import com.linkedin.r2.transport.common.bridge.server.PriorityTransportDispatcher;
 import com.linkedin.r2.transport.common.bridge.server.TransportDispatcher;
+import com.linkedin.r2.util.PriorityRequestScheduler;
 import com.linkedin.util.ArgumentUtil;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
@@ -49,6 +51,7 @@ public class HttpNettyServerBuilder
   // The following fields are optional.
   private SSLContext _sslContext = null;
   private SSLParameters _sslParameters = null;
+  private PriorityRequestScheduler _priorityScheduler = null;
 
   public HttpNettyServerBuilder filters(FilterChain filters)
   {
@@ -92,12 +95,31 @@ public class HttpNettyServerBuilder
     return this;
   }
 
+  /**
+   * Runs the requests on a {@link PriorityRequestScheduler} instead of a pool of {@link #threadPoolSize} threads,
+   * so that requests of a higher {@link com.linkedin.r2.transport.common.bridge.server.RequestPriority} are
+   * served first and requests of a lower one are shed first under overload. The filters run on the threads of
+   * the scheduler.
+   */
+  public HttpNettyServerBuilder priorityScheduler(PriorityRequestScheduler priorityScheduler)
+  {
+    _priorityScheduler = priorityScheduler;
+    return this;
+  }
+
   public HttpNettyServer build()
   {
     validateParameters();
     final TransportDispatcher filterDispatcher = new FilterChainDispatcher(_transportDispatcher, _filters);
-    final HttpDispatcher dispatcher = HttpDispatcherFactory.create((filterDispatcher));
-    return new HttpNettyServer(_port, _threadPoolSize, dispatcher, _sslContext, _sslParameters);
+    if (_priorityScheduler == null)
+    {
+      final HttpDispatcher dispatcher = HttpDispatcherFactory.create((filterDispatcher));
+      return new HttpNettyServer(_port, _threadPoolSize, dispatcher, _sslContext, _sslParameters);
+    }
+    final HttpDispatcher dispatcher =
+        HttpDispatcherFactory.create(new PriorityTransportDispatcher(filterDispatcher, _priorityScheduler));
+    return new HttpNettyServer(_port, _threadPoolSize, dispatcher, R2Constants.DEFAULT_REST_OVER_STREAM,
+        _sslContext, _sslParameters, HttpNettyServer.DEFAULT_STARTUP_TIMEOUT_MILLIS, _priorityScheduler);
   }
 
   private void validateParameters()
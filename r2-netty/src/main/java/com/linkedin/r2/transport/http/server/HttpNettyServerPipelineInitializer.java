@@ -64,10 +64,23 @@ public class HttpNettyServerPipelineInitializer extends ChannelInitializer<NioSo
     ch.pipeline().addLast("decoder", new HttpRequestDecoder());
     ch.pipeline().addLast("aggregator", new HttpObjectAggregator(1048576));
     ch.pipeline().addLast("encoder", new HttpResponseEncoder());
+    if (_eventExecutors == null)
+    {
+      // The requests of a connection may be served in any order by the threads of the dispatcher
+      ch.pipeline().addLast("pipelining", new HttpPipeliningHandler());
+    }
     ch.pipeline().addLast("rapi", new RAPServerCodec());
 
     final SimpleChannelInboundHandler<RestRequest> restHandler = _restOverStream ?
         new PipelineStreamHandler(_dispatcher) : new PipelineRestHandler(_dispatcher);
-    ch.pipeline().addLast(_eventExecutors, "handler", restHandler);
+    if (_eventExecutors != null)
+    {
+      ch.pipeline().addLast(_eventExecutors, "handler", restHandler);
+    }
+    else
+    {
+      // The dispatcher hands the requests over to its own threads
+      ch.pipeline().addLast("handler", restHandler);
+    }
   }
 }
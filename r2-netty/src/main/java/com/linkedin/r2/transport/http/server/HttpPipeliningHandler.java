@@ -0,0 +1,94 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+
+/**
+ * Passes the requests pipelined on an HTTP/1.1 connection on one at a time, the next one once the response to
+ * the previous one is written, so that the responses are written in the order of the requests even when they
+ * are served by threads which do not serve each connection in order, as the threads of a
+ * {@link com.linkedin.r2.util.PriorityRequestScheduler}.
+ *
+ * It must be placed between the HTTP codec, which writes the {@link LastHttpContent} ending each response, and
+ * the handlers serving the requests. The channel stops reading while requests are waiting.
+ */
+class HttpPipeliningHandler extends ChannelDuplexHandler
+{
+  private final Queue<Object> _pendingRequests = new ArrayDeque<>();
+  private boolean _inFlight = false;
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception
+  {
+    if (_inFlight)
+    {
+      _pendingRequests.add(msg);
+      ctx.channel().config().setAutoRead(false);
+      return;
+    }
+    _inFlight = true;
+    ctx.fireChannelRead(msg);
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception
+  {
+    ctx.write(msg, promise);
+    if (msg instanceof LastHttpContent)
+    {
+      // Not passed on from within the write, which may be called by the handlers serving the previous request
+      ctx.executor().execute(() -> readNext(ctx));
+    }
+  }
+
+  private void readNext(ChannelHandlerContext ctx)
+  {
+    final Object next = _pendingRequests.poll();
+    if (next == null)
+    {
+      _inFlight = false;
+      ctx.channel().config().setAutoRead(true);
+      return;
+    }
+    ctx.fireChannelRead(next);
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception
+  {
+    Object request;
+    while ((request = _pendingRequests.poll()) != null)
+    {
+      ReferenceCountUtil.release(request);
+    }
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception
+  {
+    handlerRemoved(ctx);
+    ctx.fireChannelInactive();
+  }
+}
@@ -23,14 +23,27 @@ import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.rest.RestResponseBuilder;
 import com.linkedin.r2.message.rest.RestStatus;
 import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import com.linkedin.r2.message.stream.entitystream.FileRegionEntityStream;
 import com.linkedin.r2.transport.common.WireAttributeHelper;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponse;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import com.linkedin.r2.transport.http.common.HttpConstants;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.ssl.SslHandler;
 import java.util.Collections;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +51,14 @@ import org.slf4j.LoggerFactory;
 class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
 {
   private static final Logger LOG = LoggerFactory.getLogger(PipelineStreamHandler.class);
+  private static final ChannelFutureListener FILE_REGION_WRITE_LISTENER = future ->
+  {
+    if (!future.isSuccess() && future.channel().isOpen())
+    {
+      LOG.error("Failed to write file region response on channel: " + future.channel().remoteAddress(), future.cause());
+      future.channel().close();
+    }
+  };
   private final HttpDispatcher _dispatcher;
 
   PipelineStreamHandler(HttpDispatcher dispatcher)
@@ -62,6 +83,50 @@ class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
     ch.writeAndFlush(responseBuilder.build());
   }
 
+  /**
+   * Sends the file region backing the response entity straight from the file to the socket, without
+   * aggregating it into a {@link RestResponse}. This is only possible on plain text channels, since
+   * the content has to be encrypted in user space otherwise.
+   *
+   * @return true if the response has been written; false if it must be aggregated and written as usual.
+   */
+  private boolean writeFileRegion(Channel ch, TransportResponse<StreamResponse> response)
+  {
+    final StreamResponse streamResponse = response.getResponse();
+    final EntityStream entityStream = streamResponse.getEntityStream();
+    if (!(entityStream instanceof FileRegionEntityStream) || ch.pipeline().get(SslHandler.class) != null)
+    {
+      return false;
+    }
+    final FileRegionEntityStream fileRegion = (FileRegionEntityStream) entityStream;
+    if (!fileRegion.claim())
+    {
+      return false;
+    }
+
+    HttpResponse nettyResponse =
+        new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.valueOf(streamResponse.getStatus()));
+    for (Map.Entry<String, String> e : streamResponse.getHeaders().entrySet())
+    {
+      nettyResponse.headers().set(e.getKey(), e.getValue());
+    }
+    for (Map.Entry<String, String> e : WireAttributeHelper.toWireAttributes(response.getWireAttributes()).entrySet())
+    {
+      nettyResponse.headers().set(e.getKey(), e.getValue());
+    }
+    nettyResponse.headers().set(HttpConstants.RESPONSE_COOKIE_HEADER_NAME, streamResponse.getCookies());
+    nettyResponse.headers().set(HttpHeaderNames.CONTENT_LENGTH, fileRegion.getCount());
+
+    // The headers may already be on the wire when a write fails, so the only way to tell the client is to close
+    // the connection. The file region closes its file channel once it has been transferred or released, which
+    // netty also does when the write fails.
+    ch.write(nettyResponse).addListener(FILE_REGION_WRITE_LISTENER);
+    ch.write(new DefaultFileRegion(fileRegion.getChannel(), fileRegion.getPosition(), fileRegion.getCount()))
+        .addListener(FILE_REGION_WRITE_LISTENER);
+    ch.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(FILE_REGION_WRITE_LISTENER);
+    return true;
+  }
+
   @Override
   protected void channelRead0(ChannelHandlerContext ctx, RestRequest request) throws Exception
   {
@@ -82,7 +147,7 @@ class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
           // response and passed it along to here.
           writeError(ch, response, response.getError());
         }
-        else
+        else if (!writeFileRegion(ch, response))
         {
           Messages.toRestResponse(response.getResponse(), new Callback<RestResponse>()
           {
@@ -41,6 +41,7 @@ import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -108,7 +109,7 @@ class RAPServerCodec extends ChannelDuplexHandler
         throws Exception
     {
       final ByteString entity = response.getEntity();
-      ByteBuf content = Unpooled.wrappedBuffer(entity.asByteBuffer());
+      ByteBuf content = wrap(entity);
 
       HttpResponse nettyResponse =
           new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.valueOf(response.getStatus()), content);
@@ -124,4 +125,23 @@ class RAPServerCodec extends ChannelDuplexHandler
       out.add(nettyResponse);
     }
   }
+
+  /**
+   * Wraps the entity without copying it. An entity aggregated from a stream is made of several chunks, which
+   * {@link ByteString#asByteBuffer()} would assemble into a new contiguous array.
+   */
+  private static ByteBuf wrap(ByteString entity)
+  {
+    List<ByteString> chunks = entity.decompose();
+    if (chunks.size() == 1)
+    {
+      return Unpooled.wrappedBuffer(entity.asByteBuffer());
+    }
+    ByteBuffer[] buffers = new ByteBuffer[chunks.size()];
+    for (int i = 0; i < buffers.length; i++)
+    {
+      buffers[i] = chunks.get(i).asByteBuffer();
+    }
+    return Unpooled.wrappedBuffer(buffers);
+  }
 }
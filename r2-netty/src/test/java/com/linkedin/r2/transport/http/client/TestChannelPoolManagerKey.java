@@ -46,6 +46,24 @@ public class TestChannelPoolManagerKey
     Assert.assertEquals(IDLE_TIMEOUT, plainKey.getIdleTimeout());
   }
 
+  /**
+   * checks that adaptive pool sizing gives a distinct key, while the name of the keys without it does not change
+   */
+  @Test
+  public void testAdaptivePoolSizing()
+  {
+    ChannelPoolManagerKey defaultKey = getKeyBuilder().build();
+    ChannelPoolManagerKey fixedKey = getKeyBuilder().setAdaptivePoolSizing(false).build();
+    ChannelPoolManagerKey adaptiveKey = getKeyBuilder().setAdaptivePoolSizing(true).build();
+
+    Assert.assertFalse(defaultKey.isAdaptivePoolSizing());
+    Assert.assertTrue(adaptiveKey.isAdaptivePoolSizing());
+    Assert.assertEquals(fixedKey, defaultKey);
+    Assert.assertEquals(fixedKey.getName(), defaultKey.getName());
+    Assert.assertNotEquals(adaptiveKey, defaultKey);
+    Assert.assertNotEquals(adaptiveKey.getName(), defaultKey.getName());
+  }
+
   private ChannelPoolManagerKeyBuilder getKeyBuilder()
   {
     return new ChannelPoolManagerKeyBuilder().setSslIdleTimeout(SSL_IDLE_TIMEOUT).setIdleTimeout(IDLE_TIMEOUT);
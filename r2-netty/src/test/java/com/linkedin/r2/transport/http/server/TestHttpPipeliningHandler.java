@@ -0,0 +1,107 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcher;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestHttpPipeliningHandler
+{
+  private static final String PATH_HEADER = "X-Path";
+
+  @Test
+  public void testResponsesInRequestOrder()
+  {
+    final List<RestRequest> requests = new ArrayList<>();
+    final List<TransportCallback<RestResponse>> callbacks = new ArrayList<>();
+    final HttpDispatcher dispatcher = new HttpDispatcher(new TransportDispatcher()
+    {
+      @Override
+      public void handleRestRequest(RestRequest req, Map<String, String> wireAttrs, RequestContext requestContext,
+          TransportCallback<RestResponse> callback)
+      {
+        requests.add(req);
+        callbacks.add(callback);
+      }
+
+      @Override
+      public void handleStreamRequest(StreamRequest req, Map<String, String> wireAttrs,
+          RequestContext requestContext, TransportCallback<StreamResponse> callback)
+      {
+        throw new UnsupportedOperationException();
+      }
+    });
+    final EmbeddedChannel ch =
+        new EmbeddedChannel(new HttpPipeliningHandler(), new RAPServerCodec(), new PipelineRestHandler(dispatcher));
+
+    // Two requests pipelined on the connection
+    ch.writeInbound(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/first"));
+    ch.writeInbound(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/second"));
+
+    // The second request waits for the response to the first one, so it can not be answered before it
+    Assert.assertEquals(requests.size(), 1);
+    Assert.assertEquals(requests.get(0).getURI().getPath(), "/first");
+    Assert.assertFalse(ch.config().isAutoRead());
+
+    respond(callbacks.get(0), "/first");
+    ch.runPendingTasks();
+    Assert.assertEquals(requests.size(), 2);
+    Assert.assertEquals(requests.get(1).getURI().getPath(), "/second");
+
+    respond(callbacks.get(1), "/second");
+    ch.runPendingTasks();
+    Assert.assertTrue(ch.config().isAutoRead());
+
+    final FullHttpResponse first = ch.readOutbound();
+    Assert.assertEquals(first.headers().get(PATH_HEADER), "/first");
+    first.release();
+    final FullHttpResponse second = ch.readOutbound();
+    Assert.assertEquals(second.headers().get(PATH_HEADER), "/second");
+    second.release();
+    Assert.assertNull(ch.readOutbound());
+
+    // A request arriving once the previous ones are answered is passed on right away
+    ch.writeInbound(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/third"));
+    Assert.assertEquals(requests.size(), 3);
+    ch.finishAndReleaseAll();
+  }
+
+  private static void respond(TransportCallback<RestResponse> callback, String path)
+  {
+    callback.onResponse(TransportResponseImpl.success(new RestResponseBuilder().setHeader(PATH_HEADER, path).build(),
+        Collections.emptyMap()));
+  }
+}
@@ -0,0 +1,143 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.StreamResponseBuilder;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcher;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.FileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class TestPipelineStreamHandler
+{
+  private static final int SIZE = 1024;
+
+  private File _file;
+  private FileChannel _fileChannel;
+
+  @BeforeMethod
+  public void setUp() throws Exception
+  {
+    _file = File.createTempFile("region", ".bin");
+    Files.write(_file.toPath(), new byte[SIZE]);
+    _fileChannel = FileChannel.open(_file.toPath(), StandardOpenOption.READ);
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception
+  {
+    _fileChannel.close();
+    _file.delete();
+  }
+
+  @Test
+  public void testWriteFileRegion()
+  {
+    EmbeddedChannel ch = new EmbeddedChannel(new PipelineStreamHandler(fileRegionDispatcher()));
+    ch.writeInbound(newRequest());
+
+    HttpResponse response = ch.readOutbound();
+    Assert.assertEquals(response.status().code(), 200);
+    Assert.assertEquals(response.headers().get(HttpHeaderNames.CONTENT_LENGTH), String.valueOf(SIZE));
+    FileRegion region = ch.readOutbound();
+    Assert.assertEquals(region.count(), SIZE);
+    region.release();
+    LastHttpContent last = ch.readOutbound();
+    Assert.assertSame(last, LastHttpContent.EMPTY_LAST_CONTENT);
+    Assert.assertTrue(ch.isOpen());
+  }
+
+  @Test
+  public void testWriteFileRegionFailure()
+  {
+    EmbeddedChannel ch = new EmbeddedChannel(new ChannelOutboundHandlerAdapter()
+    {
+      @Override
+      public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
+      {
+        if (msg instanceof FileRegion)
+        {
+          ReferenceCountUtil.release(msg);
+          promise.setFailure(new IOException("Broken pipe"));
+        }
+        else
+        {
+          ctx.write(msg, promise);
+        }
+      }
+    }, new PipelineStreamHandler(fileRegionDispatcher()));
+    ch.writeInbound(newRequest());
+
+    Assert.assertFalse(ch.isOpen());
+    Assert.assertFalse(_fileChannel.isOpen());
+  }
+
+  private static RestRequest newRequest()
+  {
+    return new RestRequestBuilder(URI.create("/file")).build();
+  }
+
+  private HttpDispatcher fileRegionDispatcher()
+  {
+    return new HttpDispatcher(new TransportDispatcher()
+    {
+      @Override
+      public void handleRestRequest(RestRequest req, Map<String, String> wireAttrs, RequestContext requestContext,
+          TransportCallback<RestResponse> callback)
+      {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void handleStreamRequest(StreamRequest req, Map<String, String> wireAttrs, RequestContext requestContext,
+          TransportCallback<StreamResponse> callback)
+      {
+        StreamResponse response =
+            new StreamResponseBuilder().build(EntityStreams.newFileRegionEntityStream(_fileChannel, 0, SIZE));
+        callback.onResponse(TransportResponseImpl.success(response, Collections.emptyMap()));
+      }
+    });
+  }
+}
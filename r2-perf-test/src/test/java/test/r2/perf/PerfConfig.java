@@ -42,6 +42,10 @@ public class PerfConfig
   private static final String PERF_SERVER_NUM_HEADERS = "perf.server.num_headers";
   private static final String PERF_CLIENT_HEADER_SIZE = "perf.client.header_size";
   private static final String PERF_SERVER_HEADER_SIZE = "perf.server.header_size";
+  private static final String PERF_CLIENT_RATE = "perf.client.rate";
+  private static final String PERF_CLIENT_WARMUP_MS = "perf.client.warmup_ms";
+  private static final String PERF_CLIENT_RESULTS_FILE = "perf.client.results_file";
+  private static final String PERF_CLIENT_LABEL = "perf.client.label";
 
   // Default property values
   private static final String DEFAULT_HOST = "localhost";
@@ -60,6 +64,12 @@ public class PerfConfig
   private static final int DEFAULT_SERVER_NUM_HEADERS = 0;
   private static final int DEFAULT_SERVER_HEADER_SIZE = 0;
 
+  // Requests per second sent by all the client threads together, or 0 to send requests back to back
+  private static final int DEFAULT_CLIENT_RATE = 0;
+  private static final int DEFAULT_CLIENT_WARMUP_MS = 15000;
+  private static final String DEFAULT_CLIENT_RESULTS_FILE = "";
+  private static final String DEFAULT_CLIENT_LABEL = "";
+
   public static int getHttpPort()
   {
     return getInt(PERF_HTTP_PORT);
@@ -105,6 +115,38 @@ public class PerfConfig
     return getInt(PERF_SERVER_HEADER_SIZE);
   }
 
+  /**
+   * @return the constant rate, in requests per second, at which the client sends requests whether or not the
+   *         previous ones have completed, or 0 for each client thread to wait for a response before sending
+   *         the next request.
+   */
+  public static int getClientRate()
+  {
+    return getInt(PERF_CLIENT_RATE);
+  }
+
+  public static int getClientWarmupMs()
+  {
+    return getInt(PERF_CLIENT_WARMUP_MS);
+  }
+
+  /**
+   * @return the file to append the results of the client to, as one JSON object per line, or an empty string
+   *         not to write them.
+   */
+  public static String getClientResultsFile()
+  {
+    return getString(PERF_CLIENT_RESULTS_FILE);
+  }
+
+  /**
+   * @return a name for the run, written with its results to tell apart the configurations being compared.
+   */
+  public static String getClientLabel()
+  {
+    return getString(PERF_CLIENT_LABEL);
+  }
+
   public static URI getRelativeUri()
   {
     return getUri(PERF_RELATIVE_URI);
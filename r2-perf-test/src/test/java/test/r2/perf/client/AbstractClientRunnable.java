@@ -21,27 +21,39 @@ import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.FutureCallback;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import test.r2.perf.Generator;
 
 
 /**
+ * Sends requests until the generator is exhausted. Without an {@link ArrivalSchedule}, the runnable waits for
+ * each response before sending the next request. With one, it sends each request when it is due without
+ * waiting for the previous responses, and waits for all of them before returning.
+ *
  * @author Chris Pettitt
  * @version $Revision$
  */
 /* package private */ abstract class AbstractClientRunnable<REQ, RES> implements Runnable
 {
+  private static final long LATE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
   private final AtomicReference<Stats> _stats;
   private final CountDownLatch _startLatch;
   private final Generator<REQ> _workGen;
+  private final ArrivalSchedule _schedule;
 
   public AbstractClientRunnable(AtomicReference<Stats> stats,
                                 CountDownLatch startLatch,
-                                Generator<REQ> reqGen)
+                                Generator<REQ> reqGen,
+                                ArrivalSchedule schedule)
   {
     _stats = stats;
     _startLatch = startLatch;
     _workGen = reqGen;
+    _schedule = schedule;
   }
 
   @Override
@@ -58,6 +70,12 @@ import test.r2.perf.Generator;
       throw new RuntimeException(e);
     }
 
+    if (_schedule != null)
+    {
+      runOpenLoop();
+      return;
+    }
+
     REQ nextMsg;
     while ((nextMsg = _workGen.nextMessage()) != null)
     {
@@ -84,6 +102,73 @@ import test.r2.perf.Generator;
     }
   }
 
+  private void runOpenLoop()
+  {
+    // Requests in flight, plus one until all the requests have been sent
+    final AtomicInteger pending = new AtomicInteger(1);
+    final CountDownLatch done = new CountDownLatch(1);
+
+    REQ nextMsg;
+    while ((nextMsg = _workGen.nextMessage()) != null)
+    {
+      final long due = _schedule.nextDueNanos();
+      long delay;
+      while ((delay = due - System.nanoTime()) > 0)
+      {
+        LockSupport.parkNanos(delay);
+      }
+
+      // Requests sent during the warmup are recorded in the warmup stats, even if they complete after it
+      final Stats stats = _stats.get();
+      stats.sent();
+      if (-delay > LATE_THRESHOLD_NANOS)
+      {
+        stats.late();
+      }
+
+      pending.incrementAndGet();
+      final long start = System.nanoTime();
+      sendMessage(nextMsg, new Callback<RES>()
+      {
+        @Override
+        public void onError(Throwable e)
+        {
+          stats.error(e instanceof Exception ? (Exception) e : new RuntimeException(e));
+          complete();
+        }
+
+        @Override
+        public void onSuccess(RES result)
+        {
+          final long end = System.nanoTime();
+          stats.success(end - due, end - start);
+          complete();
+        }
+
+        private void complete()
+        {
+          if (pending.decrementAndGet() == 0)
+          {
+            done.countDown();
+          }
+        }
+      });
+    }
+
+    if (pending.decrementAndGet() > 0)
+    {
+      try
+      {
+        done.await();
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
   protected abstract void sendMessage(REQ nextMsg, Callback<RES> callback);
 
 }
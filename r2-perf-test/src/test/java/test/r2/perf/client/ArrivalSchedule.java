@@ -0,0 +1,65 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.perf.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Schedule of an open-loop load: requests are due at a constant rate from the start of the run, whatever the
+ * number of requests in flight, so that a server slowing down builds up a queue instead of slowing down the
+ * client. The client threads share the schedule and each takes the next due time before sending a request.
+ *
+ * Latencies are measured from the time at which a request was due rather than from the time at which it was
+ * sent, so that a client thread falling behind the schedule does not hide the wait of the requests it could
+ * not send on time (coordinated omission).
+ */
+public class ArrivalSchedule
+{
+  private final double _intervalNanos;
+  private final AtomicLong _next = new AtomicLong();
+  private volatile long _startNanos;
+
+  /**
+   * @param rate the number of requests per second.
+   */
+  public ArrivalSchedule(double rate)
+  {
+    if (!(rate > 0))
+    {
+      throw new IllegalArgumentException("Invalid rate: " + rate);
+    }
+    _intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+  }
+
+  /**
+   * Starts the schedule now. Must be called before the client threads take their first due time.
+   */
+  public void start()
+  {
+    _startNanos = System.nanoTime();
+  }
+
+  /**
+   * @return the {@link System#nanoTime()} at which the next request is due.
+   */
+  public long nextDueNanos()
+  {
+    return _startNanos + (long) (_next.getAndIncrement() * _intervalNanos);
+  }
+}
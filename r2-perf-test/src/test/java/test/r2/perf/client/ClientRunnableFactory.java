@@ -26,7 +26,10 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public interface ClientRunnableFactory
 {
-  public Runnable create(AtomicReference<Stats> stats, CountDownLatch startLatch);
+  /**
+   * @param schedule the schedule to send requests at, or null to send them back to back.
+   */
+  public Runnable create(AtomicReference<Stats> stats, CountDownLatch startLatch, ArrivalSchedule schedule);
 
   public void shutdown();
 }
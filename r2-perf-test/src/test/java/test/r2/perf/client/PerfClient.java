@@ -22,38 +22,64 @@ import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import org.HdrHistogram.Histogram;
 
 /**
+ * Runs client threads until the requests are exhausted. The stats are reset once the warmup period is over,
+ * and the results of the measured period are printed at the end of the run.
+ *
  * @author Chris Pettitt
  * @version $Revision$
  */
 public class PerfClient
 {
+  public static final long DEFAULT_WARMUP_MS = 15000;
+
   private final ClientRunnableFactory _runnableFactory;
   private final int _numThreads;
+  private final double _rate;
+  private final long _warmupMs;
+  private final AtomicReference<Stats> _statsRef = new AtomicReference<>();
 
   public PerfClient(ClientRunnableFactory runnableFactory, int numThreads)
+  {
+    this(runnableFactory, numThreads, 0, DEFAULT_WARMUP_MS);
+  }
+
+  /**
+   * @param numThreads the number of client threads. With a rate, they only send the requests, so there
+   *                   need to be enough of them to keep up with the rate while the requests are being written.
+   * @param rate the number of requests per second to send whether or not the previous requests have completed,
+   *             as described in {@link ArrivalSchedule}, or 0 for each thread to wait for a response before
+   *             sending the next request.
+   * @param warmupMs the time after which the stats are reset.
+   */
+  public PerfClient(ClientRunnableFactory runnableFactory, int numThreads, double rate, long warmupMs)
   {
     _runnableFactory = runnableFactory;
     _numThreads = numThreads;
+    _rate = rate;
+    _warmupMs = warmupMs;
   }
 
   public void run() throws Exception
   {
-    final AtomicReference<Stats> statsRef = new AtomicReference<>();
-    statsRef.set(new Stats(System.currentTimeMillis()));
+    _statsRef.set(new Stats(System.currentTimeMillis()));
     final CountDownLatch startLatch = new CountDownLatch(1);
+    final ArrivalSchedule schedule = _rate > 0 ? new ArrivalSchedule(_rate) : null;
     final List<Thread> workers = new ArrayList<>();
     for (int i = 0; i < _numThreads; i++)
     {
-      final Thread t = new Thread(_runnableFactory.create(statsRef,
-                                                         startLatch));
+      final Thread t = new Thread(_runnableFactory.create(_statsRef,
+                                                          startLatch,
+                                                          schedule));
       t.start();
       workers.add(t);
     }
 
-    final PrintResultsTask resultsTask = new PrintResultsTask(statsRef);
+    final PrintResultsTask resultsTask = new PrintResultsTask(_statsRef);
     Thread shutdownTask = new Thread() {
       @Override
       public void run()
@@ -63,6 +89,10 @@ public class PerfClient
     };
 
     Runtime.getRuntime().addShutdownHook(shutdownTask);
+    if (schedule != null)
+    {
+      schedule.start();
+    }
     startLatch.countDown();
 
     Timer statsTimer = new Timer(true);
@@ -71,13 +101,13 @@ public class PerfClient
       @Override
       public void run()
       {
-        printStats(statsRef.get());
+        printStats(_statsRef.get());
       }
     }, 1000, 1000);
 
     try
     {
-      Thread.sleep(15000);
+      Thread.sleep(_warmupMs);
     }
     catch (InterruptedException e)
     {
@@ -85,7 +115,7 @@ public class PerfClient
     }
 
     // Reset the stats after the warmup period
-    statsRef.set(new Stats(System.currentTimeMillis(), true));
+    _statsRef.set(new Stats(System.currentTimeMillis(), true));
 
     for (Thread worker : workers)
     {
@@ -97,6 +127,14 @@ public class PerfClient
     resultsTask.run();
   }
 
+  /**
+   * @return the stats of the measured period, once {@link #run()} has returned.
+   */
+  public Stats getStats()
+  {
+    return _statsRef.get();
+  }
+
   public void shutdown()
   {
     _runnableFactory.shutdown();
@@ -110,23 +148,15 @@ public class PerfClient
     final long sentCount = stats.getSentCount();
     final long successCount = stats.getSuccessCount();
     final long errorCount = stats.getErrorCount();
+    final Histogram latency = stats.getLatencyHistogram();
 
-    System.out.printf("Sent %8d   Processed: %8d   Errors: %8d   Last Error: %s\n",
+    System.out.printf("Sent %8d   Processed: %8d   Errors: %8d   Late: %8d   p50: %8.3f   p99: %8.3f   Last Error: %s\n",
             sentCount,
             successCount,
             errorCount,
+            stats.getLateCount(),
+            latency.getValueAtPercentile(50) / (double) TimeUnit.MILLISECONDS.toNanos(1),
+            latency.getValueAtPercentile(99) / (double) TimeUnit.MILLISECONDS.toNanos(1),
             errorMsg);
-
-    /*
-    final com.linkedin.util.stats.LongStats snapshot = stats.getLatencyStats();
-
-    System.out.printf("  %04d %04d %04d %04d %04d %04d\n",
-                      snapshot.getMinimum(),
-                      snapshot.get50Pct(),
-                      snapshot.get90Pct(),
-                      snapshot.get95Pct(),
-                      snapshot.get99Pct(),
-                      snapshot.getMaximum());
-                      */
   }
 }
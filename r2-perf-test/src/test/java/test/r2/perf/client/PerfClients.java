@@ -28,9 +28,11 @@ import com.linkedin.r2.transport.common.TransportClientFactory;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
 import com.linkedin.r2.transport.common.bridge.client.TransportClientAdapter;
 import com.linkedin.r2.transport.http.client.HttpClientFactory;
+import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
 
 import java.net.URI;
 import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.Executors;
 
 import com.linkedin.r2.util.NamedThreadFactory;
@@ -58,29 +60,58 @@ public class PerfClients
 
   public static PerfClient httpRest(URI uri, int numThreads, int numMsgs, int msgSize, int numHeaders, int headerSize)
   {
-    final TransportClient transportClient = FACTORY.getClient(Collections.<String, String>emptyMap());
-    final Client client = new TransportClientAdapter(transportClient, PerfConfig.clientRestOverStream());
+    return httpRest(uri, HttpProtocolVersion.HTTP_1_1, numThreads, 0, PerfClient.DEFAULT_WARMUP_MS, numMsgs, msgSize,
+        numHeaders, headerSize);
+  }
+
+  /**
+   * @param rate the number of requests per second to send whether or not the previous requests have completed,
+   *             or 0 for each thread to wait for a response before sending the next request.
+   */
+  public static PerfClient httpRest(URI uri, HttpProtocolVersion protocolVersion, int numThreads, double rate,
+      long warmupMs, int numMsgs, int msgSize, int numHeaders, int headerSize)
+  {
+    final TransportClient transportClient = FACTORY.getClient(clientProperties(protocolVersion));
+    // Only the stream client supports HTTP/2, so REST requests are sent over it to compare the protocols
+    final boolean restOverStream = PerfConfig.clientRestOverStream() || protocolVersion == HttpProtocolVersion.HTTP_2;
+    final Client client = new TransportClientAdapter(transportClient, restOverStream);
     final Generator<RestRequest> reqGen = new RestRequestGenerator(uri, numMsgs, msgSize, numHeaders, headerSize);
     final ClientRunnableFactory crf = new RestClientRunnableFactory(client, reqGen);
 
-    return new FactoryClient(crf, numThreads);
+    return new FactoryClient(crf, numThreads, rate, warmupMs);
   }
 
   public static PerfClient httpPureStream(URI uri, int numThreads, int numMsgs, int msgSize, int numHeaders, int headerSize)
   {
-    final TransportClient transportClient = FACTORY.getClient(Collections.<String, String>emptyMap());
+    return httpPureStream(uri, HttpProtocolVersion.HTTP_1_1, numThreads, 0, PerfClient.DEFAULT_WARMUP_MS, numMsgs,
+        msgSize, numHeaders, headerSize);
+  }
+
+  /**
+   * @param rate the number of requests per second to send whether or not the previous requests have completed,
+   *             or 0 for each thread to wait for a response before sending the next request.
+   */
+  public static PerfClient httpPureStream(URI uri, HttpProtocolVersion protocolVersion, int numThreads, double rate,
+      long warmupMs, int numMsgs, int msgSize, int numHeaders, int headerSize)
+  {
+    final TransportClient transportClient = FACTORY.getClient(clientProperties(protocolVersion));
     final Client client = new TransportClientAdapter(transportClient, true);
     final Generator<StreamRequest> reqGen = new StreamRequestGenerator(uri, numMsgs, msgSize, numHeaders, headerSize);
     final ClientRunnableFactory crf = new StreamClientRunnableFactory(client, reqGen);
 
-    return new FactoryClient(crf, numThreads);
+    return new FactoryClient(crf, numThreads, rate, warmupMs);
+  }
+
+  private static Map<String, String> clientProperties(HttpProtocolVersion protocolVersion)
+  {
+    return Collections.singletonMap(HttpClientFactory.HTTP_PROTOCOL_VERSION, protocolVersion.name());
   }
 
   private static class FactoryClient extends PerfClient
   {
-    public FactoryClient(ClientRunnableFactory runnableFactory, int numThreads)
+    public FactoryClient(ClientRunnableFactory runnableFactory, int numThreads, double rate, long warmupMs)
     {
-      super(runnableFactory, numThreads);
+      super(runnableFactory, numThreads, rate, warmupMs);
       synchronized (PerfClients.class)
       {
         NUM_CLIENTS++;
@@ -0,0 +1,83 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.perf.client;
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.JacksonDataCodec;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import org.HdrHistogram.Histogram;
+
+
+/**
+ * Writes the results of runs in a machine-readable form: one JSON object per run, appended as a line to a
+ * file, so that the runs of several transport configurations can be compared side-by-side.
+ */
+public class PerfResults
+{
+  private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9, 99.99};
+
+  /**
+   * @param run the description of the run, such as its label and configuration.
+   * @param stats the stats of the measured period of the run.
+   * @return the description of the run with its results. Latencies are in nanoseconds.
+   */
+  public static DataMap toDataMap(DataMap run, Stats stats)
+  {
+    final DataMap results = new DataMap(run);
+    results.put("elapsedMs", stats.getElapsedTime());
+    results.put("sent", stats.getSentCount());
+    results.put("succeeded", stats.getSuccessCount());
+    results.put("errors", stats.getErrorCount());
+    results.put("late", stats.getLateCount());
+    results.put("throughput", stats.getElapsedTime() > 0 ? stats.getSuccessCount() * 1000.0 / stats.getElapsedTime() : 0.0);
+    results.put("latency", toDataMap(stats.getLatencyHistogram()));
+    results.put("serviceTime", toDataMap(stats.getServiceTimeHistogram()));
+    return results;
+  }
+
+  /**
+   * Appends the results of a run to a file, as a line of JSON.
+   */
+  public static void append(File file, DataMap results) throws IOException
+  {
+    try (Writer writer = new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8))
+    {
+      writer.write(new JacksonDataCodec().mapToString(results));
+      writer.write('\n');
+    }
+  }
+
+  private static DataMap toDataMap(Histogram histogram)
+  {
+    final DataMap map = new DataMap();
+    map.put("count", histogram.getTotalCount());
+    map.put("mean", histogram.getMean());
+    map.put("min", histogram.getMinValue());
+    map.put("max", histogram.getMaxValue());
+    for (double percentile : PERCENTILES)
+    {
+      final String name = percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+      map.put("p" + name, histogram.getValueAtPercentile(percentile));
+    }
+    return map;
+  }
+}
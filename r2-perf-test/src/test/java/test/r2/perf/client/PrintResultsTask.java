@@ -17,16 +17,22 @@
 /* $Id$ */
 package test.r2.perf.client;
 
-import com.linkedin.common.stats.LongStats;
-
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import org.HdrHistogram.Histogram;
 
 /**
+ * Prints the results of a run. Latencies are measured from when each request was due, and service times from
+ * when it was actually sent, as described in {@link ArrivalSchedule}; both are the same without a rate.
+ *
  * @author Chris Pettitt
  * @version $Revision$
  */
 public class PrintResultsTask implements Runnable
 {
+  private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9, 99.99};
+
   private final AtomicReference<Stats> _statsRef;
 
   public PrintResultsTask(AtomicReference<Stats> statsRef)
@@ -37,7 +43,6 @@ public class PrintResultsTask implements Runnable
   public void run()
   {
     final Stats stats = _statsRef.get();
-    LongStats snapshot = stats.getLatencyStats();
     long elapsedTime = stats.getElapsedTime();
     double timePerReq = stats.getSuccessCount() != 0 ? elapsedTime/(double)stats.getSuccessCount() : 0;
     double reqPerSec = timePerReq != 0 ? 1000.0 / timePerReq : 0;
@@ -50,14 +55,21 @@ public class PrintResultsTask implements Runnable
     System.out.println("-------");
     System.out.println("    Total Requests: " + stats.getSentCount());
     System.out.println("    Elapsed: " + elapsedTime);
-    System.out.println("    Mean latency (in millis): " + snapshot.getAverage() / 10E6);
     System.out.println("    Reqs / Sec: " + reqPerSec);
     System.out.println("    Errors: " + stats.getErrorCount());
-    System.out.println("    Min latency: " + snapshot.getMinimum() / 10E6);
-    System.out.println("    50% latency: " + snapshot.get50Pct() / 10E6);
-    System.out.println("    90% latency: " + snapshot.get90Pct() / 10E6);
-    System.out.println("    95% latency: " + snapshot.get95Pct() / 10E6);
-    System.out.println("    99% latency: " + snapshot.get99Pct() / 10E6);
-    System.out.println("    Max latency: " + snapshot.getMaximum() / 10E6);
+    System.out.println("    Sent late: " + stats.getLateCount());
+    printHistogram("latency", stats.getLatencyHistogram());
+    printHistogram("service time", stats.getServiceTimeHistogram());
+  }
+
+  private static void printHistogram(String name, Histogram histogram)
+  {
+    System.out.println("    Mean " + name + " (in millis): " + histogram.getMean() / NANOS_PER_MILLI);
+    System.out.println("    Min " + name + ": " + histogram.getMinValue() / NANOS_PER_MILLI);
+    for (double percentile : PERCENTILES)
+    {
+      System.out.println("    " + percentile + "% " + name + ": " + histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI);
+    }
+    System.out.println("    Max " + name + ": " + histogram.getMaxValue() / NANOS_PER_MILLI);
   }
 }
@@ -38,9 +38,10 @@ import test.r2.perf.Generator;
   public RestClientRunnable(Client client,
                         AtomicReference<Stats> stats,
                         CountDownLatch startLatch,
-                        Generator<RestRequest> reqGen)
+                        Generator<RestRequest> reqGen,
+                        ArrivalSchedule schedule)
   {
-    super(stats, startLatch, reqGen);
+    super(stats, startLatch, reqGen, schedule);
     _client = client;
   }
 
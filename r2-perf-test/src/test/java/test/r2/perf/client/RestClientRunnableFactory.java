@@ -43,9 +43,9 @@ public class RestClientRunnableFactory implements ClientRunnableFactory
   }
 
   @Override
-  public Runnable create(AtomicReference<Stats> stats, CountDownLatch startLatch)
+  public Runnable create(AtomicReference<Stats> stats, CountDownLatch startLatch, ArrivalSchedule schedule)
   {
-    return new RestClientRunnable(_client, stats, startLatch, _reqGen);
+    return new RestClientRunnable(_client, stats, startLatch, _reqGen, schedule);
   }
 
   @Override
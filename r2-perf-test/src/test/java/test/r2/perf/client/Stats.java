@@ -20,15 +20,17 @@
 
 package test.r2.perf.client;
 
-import com.linkedin.common.stats.LongStats;
-
-import com.linkedin.common.stats.LongTracking;
 import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 /**
+ * Latencies are recorded in nanoseconds in HdrHistograms, which keep every percentile accurate to three
+ * significant digits at a constant cost per value.
+ *
  * @author Steven Ihde
  * @version $Revision: $
  */
@@ -42,9 +44,11 @@ public class Stats
   private final AtomicLong _sent = new AtomicLong();
   private final AtomicLong _success = new AtomicLong();
   private final AtomicLong _error = new AtomicLong();
+  private final AtomicLong _late = new AtomicLong();
   private volatile Exception _lastError = null;
 
-  private final LongTracking _latencyTracker = new LongTracking();
+  private final Histogram _latency = new ConcurrentHistogram(3);
+  private final Histogram _serviceTime = new ConcurrentHistogram(3);
 
   public Stats(long startTime)
   {
@@ -61,16 +65,33 @@ public class Stats
   {
     _sent.incrementAndGet();
   }
+
+  /**
+   * Records a request sent more than a millisecond after it was due, because the client could not keep up
+   * with its {@link ArrivalSchedule}.
+   */
+  public void late()
+  {
+    _late.incrementAndGet();
+  }
+
   public void success(long elapsedTime)
+  {
+    success(elapsedTime, elapsedTime);
+  }
+
+  /**
+   * @param latency the time from when the request was due to when its response was received.
+   * @param serviceTime the time from when the request was actually sent to when its response was received.
+   */
+  public void success(long latency, long serviceTime)
   {
     _success.incrementAndGet();
-    synchronized (_latencyTracker)
-    {
-      _latencyTracker.addValue(elapsedTime);
-    }
+    _latency.recordValue(latency);
+    _serviceTime.recordValue(serviceTime);
     if (_logEnabled)
     {
-      LOG.info("Success, {}, NA", elapsedTime);
+      LOG.info("Success, {}, NA", latency);
     }
   }
 
@@ -104,16 +125,30 @@ public class Stats
     return _error.get();
   }
 
+  public long getLateCount()
+  {
+    return _late.get();
+  }
+
   public Exception getLastError()
   {
     return _lastError;
   }
 
-  public LongStats getLatencyStats()
+  /**
+   * @return a copy of the latencies, measured from when each request was due.
+   */
+  public Histogram getLatencyHistogram()
   {
-    synchronized (_latencyTracker)
-    {
-      return _latencyTracker.getStats();
-    }
+    return _latency.copy();
+  }
+
+  /**
+   * @return a copy of the service times, measured from when each request was sent. They are lower than the
+   *         latencies when the client falls behind its {@link ArrivalSchedule}.
+   */
+  public Histogram getServiceTimeHistogram()
+  {
+    return _serviceTime.copy();
   }
 }
@@ -21,9 +21,10 @@ public class StreamClientRunnable extends AbstractClientRunnable<StreamRequest,
   public StreamClientRunnable(Client client,
                               AtomicReference<Stats> stats,
                               CountDownLatch startLatch,
-                              Generator<StreamRequest> reqGen)
+                              Generator<StreamRequest> reqGen,
+                              ArrivalSchedule schedule)
   {
-    super(stats, startLatch, reqGen);
+    super(stats, startLatch, reqGen, schedule);
     _client = client;
   }
 
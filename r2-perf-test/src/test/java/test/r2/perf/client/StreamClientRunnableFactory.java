@@ -25,9 +25,9 @@ public class StreamClientRunnableFactory implements ClientRunnableFactory
   }
 
   @Override
-  public Runnable create(AtomicReference<Stats> stats, CountDownLatch startLatch)
+  public Runnable create(AtomicReference<Stats> stats, CountDownLatch startLatch, ArrivalSchedule schedule)
   {
-    return new StreamClientRunnable(_client, stats, startLatch, _reqGen);
+    return new StreamClientRunnable(_client, stats, startLatch, _reqGen, schedule);
   }
 
   @Override
@@ -0,0 +1,31 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.perf.driver;
+
+import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
+
+
+/**
+ * Runs the same client as {@link RunHttpRestClient} over HTTP/2, to be used with the H2c server.
+ */
+public class RunH2cRestClient
+{
+  public static void main(String[] args) throws Exception
+  {
+    RunHttpRestClient.run(HttpProtocolVersion.HTTP_2);
+  }
+}
@@ -17,10 +17,14 @@
 /* $Id$ */
 package test.r2.perf.driver;
 
+import com.linkedin.data.DataMap;
+import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
 import test.r2.perf.PerfConfig;
 import test.r2.perf.client.PerfClient;
 import test.r2.perf.client.PerfClients;
+import test.r2.perf.client.PerfResults;
 
+import java.io.File;
 import java.net.URI;
 
 /**
@@ -30,6 +34,11 @@ import java.net.URI;
 public class RunHttpRestClient
 {
   public static void main(String[] args) throws Exception
+  {
+    run(HttpProtocolVersion.HTTP_1_1);
+  }
+
+  static void run(HttpProtocolVersion protocolVersion) throws Exception
   {
     final URI uri = PerfConfig.getHttpUri();
     final int numThreads = PerfConfig.getNumClientThreads();
@@ -38,17 +47,36 @@ public class RunHttpRestClient
     final int numHeaders = PerfConfig.getNumHeaders();
     final int headerSize = PerfConfig.getHeaderSize();
     final boolean pureStreaming = PerfConfig.isClientPureStreaming();
+    final int rate = PerfConfig.getClientRate();
+    final int warmupMs = PerfConfig.getClientWarmupMs();
 
     final PerfClient client;
     if (pureStreaming)
     {
-      client = PerfClients.httpPureStream(uri, numThreads, numMsgs, msgSize, numHeaders, headerSize);
+      client = PerfClients.httpPureStream(uri, protocolVersion, numThreads, rate, warmupMs, numMsgs, msgSize,
+          numHeaders, headerSize);
     }
     else
     {
-      client = PerfClients.httpRest(uri, numThreads, numMsgs, msgSize, numHeaders, headerSize);
+      client = PerfClients.httpRest(uri, protocolVersion, numThreads, rate, warmupMs, numMsgs, msgSize,
+          numHeaders, headerSize);
     }
     client.run();
     client.shutdown();
+
+    final String resultsFile = PerfConfig.getClientResultsFile();
+    if (!resultsFile.isEmpty())
+    {
+      final DataMap run = new DataMap();
+      run.put("label", PerfConfig.getClientLabel());
+      run.put("uri", uri.toString());
+      run.put("protocolVersion", protocolVersion.name());
+      run.put("pureStreaming", pureStreaming);
+      run.put("threads", numThreads);
+      run.put("rate", rate);
+      run.put("messages", numMsgs);
+      run.put("messageSize", msgSize);
+      PerfResults.append(new File(resultsFile), PerfResults.toDataMap(run, client.getStats()));
+    }
   }
 }
@@ -0,0 +1,38 @@
+/*
+   Copyright (c) 2023 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.perf.server;
+
+import com.linkedin.r2.transport.common.Server;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcher;
+import com.linkedin.r2.transport.http.server.HttpNettyServerBuilder;
+
+/**
+ * Creates a Netty {@link Server}, to compare with the Jetty servers created by {@link HttpPerfServerFactory}
+ * and {@link H2cPerfServerFactory}.
+ */
+public class NettyPerfServerFactory extends AbstractPerfServerFactory
+{
+  @Override
+  protected Server createServer(int port, TransportDispatcher dispatcher, boolean restOverStream)
+  {
+    return new HttpNettyServerBuilder()
+        .port(port)
+        .transportDispatcher(dispatcher)
+        ._restOverStream(restOverStream)
+        .build();
+  }
+}
@@ -280,7 +280,7 @@ public class RestClient implements Client {
     {
       // Disable latency instrumentation altogether for scatter-gather requests
       // TODO: Remove this once instrumentation is supported for scatter-gather
-      requestContext.putLocalAttr(TimingContextUtil.TIMINGS_DISABLED_KEY_NAME, true);
+      requestContext.putLocalAttr(TimingContextUtil.TIMINGS_DISABLED_KEY, true);
 
       // scatter gather case
       handleScatterGatherRequest(request, requestContext, strategy, callback);
@@ -794,7 +794,7 @@ public class RestClient implements Client {
       TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_RESTLI_SERIALIZATION.key());
 
       String operation = OperationNameGenerator.generate(method, methodName);
-      requestContext.putLocalAttr(R2Constants.OPERATION, operation);
+      requestContext.putLocalAttr(R2Constants.OPERATION_KEY, operation);
       requestContext.putLocalAttr(R2Constants.REQUEST_COMPRESSION_OVERRIDE, requestOptions.getRequestCompressionOverride());
       requestContext.putLocalAttr(R2Constants.RESPONSE_COMPRESSION_OVERRIDE, requestOptions.getResponseCompressionOverride());
 
@@ -853,7 +853,7 @@ public class RestClient implements Client {
       TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_RESTLI_SERIALIZATION.key());
 
       String operation = OperationNameGenerator.generate(method, methodName);
-      requestContext.putLocalAttr(R2Constants.OPERATION, operation);
+      requestContext.putLocalAttr(R2Constants.OPERATION_KEY, operation);
       requestContext.putLocalAttr(R2Constants.REQUEST_COMPRESSION_OVERRIDE, requestOptions.getRequestCompressionOverride());
       requestContext.putLocalAttr(R2Constants.RESPONSE_COMPRESSION_OVERRIDE,
                                   requestOptions.getResponseCompressionOverride());
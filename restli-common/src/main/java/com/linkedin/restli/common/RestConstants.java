@@ -41,6 +41,8 @@ public interface RestConstants
   String HEADER_ACCEPT = "Accept";
   String HEADER_CONTENT_TYPE = "Content-Type";
   String HEADER_CONTENT_DISPOSITION = "Content-Disposition";
+  String HEADER_ETAG = "ETag";
+  String HEADER_IF_NONE_MATCH = "If-None-Match";
   String HEADER_VALUE_APPLICATION_JSON = "application/json";
   String HEADER_VALUE_APPLICATION_LICOR_TEXT = "application/licor";
   String HEADER_VALUE_APPLICATION_LICOR_BINARY = "application/x-licor";
@@ -242,7 +242,7 @@ public class RestLiRouter
 
     if (methodDescriptor != null)
     {
-      context.getRawRequestContext().putLocalAttr(R2Constants.OPERATION,
+      context.getRawRequestContext().putLocalAttr(R2Constants.OPERATION_KEY,
                                                   OperationNameGenerator.generate(methodDescriptor.getMethodType(),
                                                                                   methodDescriptor.getMethodName()));
       return methodDescriptor;
@@ -51,6 +51,10 @@ import com.linkedin.restli.restspec.ResourceEntityType;
 import com.linkedin.restli.server.RestLiServiceException;
 import java.io.IOException;
 import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import javax.activation.MimeTypeParseException;
 import org.slf4j.Logger;
@@ -63,6 +67,8 @@ import org.slf4j.LoggerFactory;
 public class ResponseUtils
 {
   private static final Logger log = LoggerFactory.getLogger(ResponseUtils.class);
+  private static final List<String> ENTITY_HEADERS = Arrays.asList(RestConstants.HEADER_CONTENT_TYPE,
+      RestConstants.HEADER_CONTENT_DISPOSITION, "Content-Encoding", "Content-Language", "Content-Length");
   /**
    * If needed, translate a given canonical key to its alternative format.
    *
@@ -207,6 +213,86 @@ public class ResponseUtils
     return builder.build();
   }
 
+  /**
+   * Adds an ETag computed from the entity to a successful response to a GET request. If the If-None-Match header
+   * of the request matches that ETag, the response is turned into a 304 Not Modified without entity.
+   *
+   * The ETag is weak, since the entity may later be compressed by the transport.
+   */
+  public static RestResponse applyETag(RestResponse response, ServerResourceContext context)
+  {
+    if (response.getStatus() != HttpStatus.S_200_OK.getCode()
+        || response.getEntity().length() == 0
+        || !"GET".equalsIgnoreCase(context.getRequestMethod()))
+    {
+      return response;
+    }
+
+    final String eTag = computeETag(response.getEntity());
+    final RestResponseBuilder builder = response.builder().setHeader(RestConstants.HEADER_ETAG, eTag);
+    if (eTagMatches(context.getRequestHeaders().get(RestConstants.HEADER_IF_NONE_MATCH), eTag))
+    {
+      builder.setStatus(HttpStatus.S_304_NOT_MODIFIED.getCode()).setEntity(ByteString.empty());
+      // A 304 only carries the validators and caching headers, not the metadata of the omitted entity
+      for (String header : ENTITY_HEADERS)
+      {
+        builder.removeHeader(header);
+      }
+    }
+    return builder.build();
+  }
+
+  private static String computeETag(ByteString entity)
+  {
+    final MessageDigest digest;
+    try
+    {
+      digest = MessageDigest.getInstance("MD5");
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+      throw new RestLiInternalException(e);
+    }
+    for (ByteString chunk : entity.decompose())
+    {
+      digest.update(chunk.asByteBuffer());
+    }
+
+    final byte[] hash = digest.digest();
+    final StringBuilder eTag = new StringBuilder(hash.length * 2 + 4).append("W/\"");
+    for (byte b : hash)
+    {
+      eTag.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return eTag.append('"').toString();
+  }
+
+  /**
+   * Weak comparison of the entity tags listed in an If-None-Match header with the given ETag.
+   */
+  static boolean eTagMatches(String ifNoneMatch, String eTag)
+  {
+    if (ifNoneMatch == null)
+    {
+      return false;
+    }
+    final String opaqueTag = stripWeakPrefix(eTag);
+    for (String candidate : ifNoneMatch.split(","))
+    {
+      candidate = candidate.trim();
+      if (candidate.equals("*") || stripWeakPrefix(candidate).equals(opaqueTag))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String stripWeakPrefix(String eTag)
+  {
+    return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+  }
+
   private static RestResponseBuilder encodeResult(String mimeType,
       URI requestUri,
       Map<String, String> requestHeaders,
@@ -106,6 +106,8 @@ public class RestLiConfig
 
   /** configuration for whether to attach stacktrace for {@link com.linkedin.r2.message.rest.RestException} */
   private boolean _writableStackTrace = true;
+  /** configuration for whether to emit ETags for GET responses and answer matching conditional requests with 304 */
+  private boolean _eTagEnabled = false;
   private MethodAdapterProvider _methodAdapterProvider = null;
 
   /**
@@ -580,6 +582,24 @@ public class RestLiConfig
     _writableStackTrace = writableStackTrace;
   }
 
+  /**
+   * Get whether successful GET responses carry an ETag computed from their entity, and GET requests whose
+   * If-None-Match header matches it are answered with 304 Not Modified and no entity.
+   */
+  public boolean isETagEnabled()
+  {
+    return _eTagEnabled;
+  }
+
+  /**
+   * Set whether successful GET responses carry an ETag computed from their entity, and GET requests whose
+   * If-None-Match header matches it are answered with 304 Not Modified and no entity.
+   */
+  public void setETagEnabled(boolean eTagEnabled)
+  {
+    _eTagEnabled = eTagEnabled;
+  }
+
   /**
    * Get/Set for filling default values in restli response
    * check config to see if the data in result should fill in default in fields
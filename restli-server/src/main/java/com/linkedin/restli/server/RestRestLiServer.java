@@ -62,6 +62,7 @@ class RestRestLiServer extends BaseRestLiServer implements RestRequestHandler, R
 
   private final List<NonResourceRequestHandler> _nonResourceRequestHandlers;
   private final boolean _writableStackTrace;
+  private final boolean _eTagEnabled;
 
   /**
    * @deprecated Use the constructor without {@link ErrorResponseBuilder}, because it should be built from the
@@ -110,6 +111,7 @@ class RestRestLiServer extends BaseRestLiServer implements RestRequestHandler, R
     // Add custom request handlers
     config.getCustomRequestHandlers().forEach(_nonResourceRequestHandlers::add);
     _writableStackTrace = config.isWritableStackTrace();
+    _eTagEnabled = config.isETagEnabled();
   }
 
   RestRestLiServer(RestLiConfig config,
@@ -152,6 +154,7 @@ class RestRestLiServer extends BaseRestLiServer implements RestRequestHandler, R
     // Add custom request handlers
     config.getCustomRequestHandlers().forEach(_nonResourceRequestHandlers::add);
     _writableStackTrace = config.isWritableStackTrace();
+    _eTagEnabled = config.isETagEnabled();
   }
 
   List<NonResourceRequestHandler> getNonResourceRequestHandlers()
@@ -260,7 +263,7 @@ class RestRestLiServer extends BaseRestLiServer implements RestRequestHandler, R
       Callback<RestResponse> callback)
   {
     handleResourceRequestWithRestLiResponse(request, routingResult,
-        new RestLiToRestResponseCallbackAdapter(callback, routingResult, _writableStackTrace));
+        new RestLiToRestResponseCallbackAdapter(callback, routingResult, _writableStackTrace, _eTagEnabled));
   }
 
   protected void handleResourceRequestWithRestLiResponse(RestRequest request, RoutingResult routingResult,
@@ -301,13 +304,16 @@ class RestRestLiServer extends BaseRestLiServer implements RestRequestHandler, R
   {
     private final RoutingResult _routingResult;
     private final boolean _writableStackTrace;
+    private final boolean _eTagEnabled;
     private ContentType _respContentType;
 
-    RestLiToRestResponseCallbackAdapter(Callback<RestResponse> callback, RoutingResult routingResult, Boolean writableStackTrace)
+    RestLiToRestResponseCallbackAdapter(Callback<RestResponse> callback, RoutingResult routingResult,
+        Boolean writableStackTrace, boolean eTagEnabled)
     {
       super(callback);
       _routingResult = routingResult;
       _writableStackTrace = writableStackTrace;
+      _eTagEnabled = eTagEnabled;
       String respMimeType = routingResult.getContext().getResponseMimeType();
       try
       {
@@ -328,7 +334,11 @@ class RestRestLiServer extends BaseRestLiServer implements RestRequestHandler, R
       final RequestContext requestContext = _routingResult.getContext().getRawRequestContext();
       TimingContextUtil.beginTiming(requestContext, FrameworkTimingKeys.SERVER_RESPONSE_RESTLI_SERIALIZATION.key());
 
-      final RestResponse restResponse = ResponseUtils.buildResponse(_routingResult, restLiResponse);
+      RestResponse restResponse = ResponseUtils.buildResponse(_routingResult, restLiResponse);
+      if (_eTagEnabled)
+      {
+        restResponse = ResponseUtils.applyETag(restResponse, _routingResult.getContext());
+      }
 
       TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.SERVER_RESPONSE_RESTLI_SERIALIZATION.key());
       return restResponse;
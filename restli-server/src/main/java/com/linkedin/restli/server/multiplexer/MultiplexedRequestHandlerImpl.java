@@ -124,7 +124,7 @@ public class MultiplexedRequestHandlerImpl implements MultiplexedRequestHandler
     }
 
     // Disable server-side latency instrumentation for multiplexed requests
-    requestContext.putLocalAttr(TimingContextUtil.TIMINGS_DISABLED_KEY_NAME, true);
+    requestContext.putLocalAttr(TimingContextUtil.TIMINGS_DISABLED_KEY, true);
 
     IndividualRequestMap individualRequests;
     try
@@ -15,20 +15,28 @@
 */
 package com.linkedin.restli.internal.server.response;
 
+import com.linkedin.data.ByteString;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.schema.SchemaFormatType;
 import com.linkedin.data.schema.generator.AbstractGenerator;
 import com.linkedin.data.schema.resolver.MultiFormatDataSchemaResolver;
 import com.linkedin.data.template.DataTemplateUtil;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
 import com.linkedin.r2.message.stream.StreamException;
 import com.linkedin.restli.common.ContentType;
 import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.common.RestConstants;
+import com.linkedin.restli.internal.server.PathKeysImpl;
+import com.linkedin.restli.internal.server.ResourceContextImpl;
 import com.linkedin.restli.internal.server.util.DataMapUtils;
 import com.linkedin.restli.server.TestRecord;
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.net.URI;
 import java.util.Collections;
 import org.testng.Assert;
 import org.testng.annotations.AfterTest;
@@ -108,6 +116,52 @@ public class TestResponseUtils
         ContentType.PROTOBUF2.getHeaderKey());
   }
 
+  @Test
+  public void testApplyETag() throws Exception
+  {
+    RestResponse response = new RestResponseBuilder()
+        .setStatus(HttpStatus.S_200_OK.getCode())
+        .setEntity(ByteString.copyString("{\"a\":1}", "UTF-8"))
+        .setHeader(RestConstants.HEADER_CONTENT_TYPE, ContentType.JSON.getHeaderKey())
+        .setHeader(RestConstants.HEADER_RESTLI_PROTOCOL_VERSION, "2.0.0")
+        .build();
+
+    RestResponse tagged = ResponseUtils.applyETag(response, newContext("GET", null));
+    String eTag = tagged.getHeader(RestConstants.HEADER_ETAG);
+    Assert.assertNotNull(eTag);
+    Assert.assertTrue(eTag.startsWith("W/\""));
+    Assert.assertEquals(tagged.getStatus(), HttpStatus.S_200_OK.getCode());
+    Assert.assertEquals(tagged.getEntity(), response.getEntity());
+
+    // The ETag only depends on the entity
+    Assert.assertEquals(ResponseUtils.applyETag(response, newContext("GET", null)).getHeader(RestConstants.HEADER_ETAG), eTag);
+
+    RestResponse notModified = ResponseUtils.applyETag(response, newContext("GET", "\"other\", " + eTag));
+    Assert.assertEquals(notModified.getStatus(), HttpStatus.S_304_NOT_MODIFIED.getCode());
+    Assert.assertEquals(notModified.getEntity().length(), 0);
+    Assert.assertEquals(notModified.getHeader(RestConstants.HEADER_ETAG), eTag);
+    Assert.assertNull(notModified.getHeader(RestConstants.HEADER_CONTENT_TYPE));
+    Assert.assertEquals(notModified.getHeader(RestConstants.HEADER_RESTLI_PROTOCOL_VERSION), "2.0.0");
+
+    // Weak comparison ignores the W/ prefix
+    Assert.assertEquals(ResponseUtils.applyETag(response, newContext("GET", eTag.substring(2))).getStatus(),
+        HttpStatus.S_304_NOT_MODIFIED.getCode());
+    Assert.assertEquals(ResponseUtils.applyETag(response, newContext("GET", "\"other\"")).getStatus(),
+        HttpStatus.S_200_OK.getCode());
+
+    Assert.assertSame(ResponseUtils.applyETag(response, newContext("PUT", null)), response);
+  }
+
+  private static ResourceContextImpl newContext(String method, String ifNoneMatch) throws Exception
+  {
+    RestRequestBuilder builder = new RestRequestBuilder(URI.create("/foo/1")).setMethod(method);
+    if (ifNoneMatch != null)
+    {
+      builder.setHeader(RestConstants.HEADER_IF_NONE_MATCH, ifNoneMatch);
+    }
+    return new ResourceContextImpl(new PathKeysImpl(), builder.build(), new RequestContext());
+  }
+
   @AfterTest
   public void afterTest()
   {